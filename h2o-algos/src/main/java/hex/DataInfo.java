@@ -1053,18 +1053,38 @@ public class DataInfo extends Keyed<DataInfo> {
   }
   public Rows rows(Chunk [] chks, boolean sparse) {return new Rows(chks,sparse);}
 
+  /** Chunks whose stored values are exactly the non-zeros (implicit values are 0, not NA) can be extracted in bulk */
+  private static boolean bulkSparse(Chunk c) {
+    return !(c instanceof InteractionWrappedVec.InteractionWrappedChunk) && !c.isSparseNA();
+  }
+
   /**
    * Extract (sparse) rows from given chunks.
    * Note: 0 remains 0 - _normSub of DataInfo isn't used (mean shift during standarization is not reverted) - UNLESS offset is specified (for GLM only)
    * Essentially turns the dataset 90 degrees.
+   *
+   * Plain numeric columns are read with the bulk sparse interface (Chunk.asSparseDoubles), which only visits the stored
+   * (non-zero) values. The number of non-zeros of each row is counted first so that the rows are allocated with their
+   * final size (no growing and copying of the sparse arrays while the rows are filled in).
    * @param chunks - chunk of dataset
    * @return array of sparse rows
    */
   public final Row[] extractSparseRows(Chunk [] chunks) {
     Row[] rows = new Row[chunks[0]._len];
     long startOff = chunks[0].start();
+    // shared buffers for the bulk extraction of the numeric columns
+    final double [] svals = MemoryManager.malloc8d(rows.length);
+    final int [] sids = MemoryManager.malloc4(rows.length);
+    final int [] rowNNZ = MemoryManager.malloc4(rows.length);
+    for (int cid = 0; cid < _nums; ++cid) {
+      Chunk c = chunks[_cats + cid];
+      if (!bulkSparse(c)) continue; // size of the rows will be adjusted on the fly for these
+      int n = c.asSparseDoubles(svals, sids);
+      for (int k = 0; k < n; ++k)
+        if (svals[k] != 0) rowNNZ[sids[k]]++;
+    }
     for (int i = 0; i < rows.length; ++i) {
-      rows[i] = new Row(true, Math.min(_nums, 16), _cats, _responses, i, startOff);  // if sparse, _nums is the correct number of nonzero values! i.e., do not use numNums()
+      rows[i] = new Row(true, rowNNZ[i], _cats, _responses, i, startOff);
       rows[i].rid = chunks[0].start() + i;
       if(_offset)  {
         rows[i].offset = chunks[offsetChunkId()].atd(i);
@@ -1118,6 +1138,22 @@ public class DataInfo extends Keyed<DataInfo> {
           }
         }
         interactionOffset+=nextNumericIdx(cid);
+      } else if (bulkSparse(c)) {
+        int n = c.asSparseDoubles(svals, sids);
+        for (int k = 0; k < n; ++k) {
+          double d = svals[k];
+          if (d == 0) continue;
+          Row row = rows[sids[k]];
+          if (Double.isNaN(d)) {
+            if (_skipMissing) row.predictors_bad = true;
+            d = _numMeans[cid];
+          }
+          if (row.predictors_bad) continue;
+          if (_normMul != null)
+            d *= _normMul[interactionOffset];
+          row.addNum(numStart()+interactionOffset,d);
+        }
+        interactionOffset++;
       } else {
         for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
           if (c.atd(r) == 0) continue;
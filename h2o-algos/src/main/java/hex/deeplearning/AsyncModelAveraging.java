@@ -0,0 +1,359 @@
+package hex.deeplearning;
+
+import water.*;
+import water.util.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous model averaging between nodes that train on replicated data (DeepLearningTask2).
+ *
+ * Instead of reducing the full per-node models at the end of every iteration, each node periodically pushes
+ * its weight and bias updates since the last synchronization to an aggregator (a DKV key homed on the node
+ * driving the training) and pulls back the updates of the other nodes, while its worker threads keep training.
+ * Pushed deltas are compressed by only sending the entries with the largest magnitude (top-k); the rest of
+ * the update stays in the local model (as residual) and is sent with a later synchronization, so no update is lost.
+ * The aggregator keeps a log of the latest pushed deltas, so a pull only fetches the deltas added since the
+ * node's previous one (the full weights only once the node fell behind the log), i.e. the traffic in both
+ * directions scales with the delta fraction rather than with the model size.
+ */
+final class AsyncModelAveraging {
+  /** Minimum number of synchronizations with the aggregator per node and iteration */
+  static final int SYNCS_PER_ITERATION = 10;
+  /** Number of delta entries to look at to estimate the top-k threshold */
+  private static final int THRESHOLD_SAMPLES = 1 << 12;
+
+  /**
+   * Sparse update of the weights and biases (one index and one value array per layer).
+   */
+  static final class Delta extends Iced<Delta> {
+    final int[][] _wIdx;
+    final float[][] _wVal;
+    final int[][] _bIdx;
+    final double[][] _bVal;
+
+    Delta(int[][] wIdx, float[][] wVal, int[][] bIdx, double[][] bVal) {
+      _wIdx = wIdx; _wVal = wVal; _bIdx = bIdx; _bVal = bVal;
+    }
+
+    /** Number of (index, value) entries */
+    long size() {
+      long n = 0;
+      for (int i = 0; i < _wIdx.length; ++i) n += _wIdx[i].length + _bIdx[i].length;
+      return n;
+    }
+
+    /** Number of bytes of the indices and values */
+    long bytes() {
+      long n = 0;
+      for (int i = 0; i < _wIdx.length; ++i) n += 8L * _wIdx[i].length + 12L * _bIdx[i].length;
+      return n;
+    }
+
+    void addTo(float[][] w, double[][] b) {
+      for (int i = 0; i < _wIdx.length; ++i) {
+        for (int k = 0; k < _wIdx[i].length; ++k) w[i][_wIdx[i][k]] += _wVal[i][k];
+        for (int k = 0; k < _bIdx[i].length; ++k) b[i][_bIdx[i][k]] += _bVal[i][k];
+      }
+    }
+  }
+
+  /**
+   * Aggregated weights and biases (one array per layer), stored in the DKV under the aggregator key,
+   * together with the log of the latest deltas added to them.
+   */
+  static final class Weights extends Iced<Weights> {
+    float[][] _w;
+    double[][] _b;
+    long _version;   // number of deltas added so far
+    Delta[] _log;    // latest deltas, the last one being version _version
+    long _logSize;   // number of entries in the log, at most the number of weights and biases
+
+    Weights(DeepLearningModelInfo minfo) {
+      final int layers = minfo.units.length - 1;
+      _w = new float[layers][];
+      _b = new double[layers][];
+      for (int i = 0; i < layers; ++i) {
+        _w[i] = minfo.get_weights(i).raw().clone();
+        _b[i] = minfo.get_biases(i).raw().clone();
+      }
+      _log = new Delta[0];
+    }
+
+    Weights(float[][] w, double[][] b) { this(w, b, 0, new Delta[0], 0); }
+
+    private Weights(float[][] w, double[][] b, long version, Delta[] log, long logSize) {
+      _w = w; _b = b; _version = version; _log = log; _logSize = logSize;
+    }
+
+    /** Number of weights and biases */
+    long size() {
+      long n = 0;
+      for (int i = 0; i < _w.length; ++i) n += _w[i].length + _b[i].length;
+      return n;
+    }
+
+    long bytes() {
+      long n = 0;
+      for (int i = 0; i < _w.length; ++i) n += 4L * _w[i].length + 8L * _b[i].length;
+      return n;
+    }
+
+    /** Overwrite the weights and biases of the given model with the aggregated ones */
+    void copyTo(DeepLearningModelInfo minfo) {
+      for (int i = 0; i < _w.length; ++i) {
+        System.arraycopy(_w[i], 0, minfo.get_weights(i).raw(), 0, _w[i].length);
+        System.arraycopy(_b[i], 0, minfo.get_biases(i).raw(), 0, _b[i].length);
+      }
+    }
+  }
+
+  /**
+   * Adds a (sparse) node-local update, scaled by 1/#nodes, into the aggregated weights and appends it to the log.
+   * Runs on the home node of the aggregator key.
+   */
+  static final class PushDelta extends TAtomic<Weights> {
+    final Delta _delta;
+
+    PushDelta(int[][] wIdx, float[][] wVal, int[][] bIdx, double[][] bVal, double scale) {
+      for (float[] v : wVal) for (int k = 0; k < v.length; ++k) v[k] *= scale;
+      for (double[] v : bVal) for (int k = 0; k < v.length; ++k) v[k] *= scale;
+      _delta = new Delta(wIdx, wVal, bIdx, bVal);
+    }
+
+    // the old value is only a shallow copy of the aggregator: its arrays are the ones stored in the DKV,
+    // so the updated ones are copied first (a retry after a failed CAS starts again from the stored ones)
+    @Override protected Weights atomic(Weights old) {
+      assert old != null : "Aggregator is not initialized.";
+      final float[][] ws = old._w.clone();
+      final double[][] bs = old._b.clone();
+      for (int i = 0; i < ws.length; ++i) {
+        if (_delta._wIdx[i].length > 0) ws[i] = ws[i].clone();
+        if (_delta._bIdx[i].length > 0) bs[i] = bs[i].clone();
+      }
+      _delta.addTo(ws, bs);
+      // append to the log, dropping the oldest deltas beyond the size of the model
+      final long cap = old.size();
+      long logSize = old._logSize + _delta.size();
+      int drop = 0;
+      while (drop < old._log.length && logSize > cap) logSize -= old._log[drop++].size();
+      Delta[] log = Arrays.copyOfRange(old._log, drop, old._log.length + 1);
+      log[log.length - 1] = _delta;
+      return new Weights(ws, bs, old._version + 1, log, logSize);
+    }
+  }
+
+  /**
+   * Fetches the deltas added to the aggregator after a given version, or all the weights if the log does
+   * not reach back that far.  Runs on the home node of the aggregator key.
+   */
+  static final class PullDelta extends DTask<PullDelta> {
+    final Key _key;     // IN
+    final long _since;  // IN
+    long _version;      // OUT
+    Delta[] _deltas;    // OUT, the deltas after _since, or null
+    Weights _full;      // OUT, only if the deltas are no longer available
+
+    PullDelta(Key key, long since) { _key = key; _since = since; }
+
+    @Override public void compute2() {
+      Weights w = DKV.getGet(_key);
+      _version = w._version;
+      final long first = w._version - w._log.length; // version before the oldest logged delta
+      if (_since >= first)
+        _deltas = Arrays.copyOfRange(w._log, (int) (_since - first), w._log.length);
+      else
+        _full = new Weights(w._w, w._b);
+      tryComplete();
+    }
+  }
+
+  /**
+   * Node-local side of the asynchronous averaging: remembers the weights as of the last synchronization,
+   * and pushes/pulls to/from the aggregator once enough samples were processed locally.
+   * Only one worker thread synchronizes at a time, the others keep training (Hogwild!).
+   */
+  static final class Synchronizer {
+    private final Key _key;
+    private final double _scale;
+    private final double _fraction;
+    private final long _interval;
+    private final float[][] _w0; // local weights at the last synchronization (residuals excluded)
+    private final double[][] _b0; // local biases at the last synchronization (residuals excluded)
+    private final float[][] _gw; // aggregated weights as of version _version
+    private final double[][] _gb; // aggregated biases as of version _version
+    private long _version;
+    private final AtomicBoolean _busy = new AtomicBoolean();
+    private volatile long _next;
+    long _bytesSent, _bytesReceived; // traffic to and from the aggregator
+
+    Synchronizer(Key key, DeepLearningModelInfo local, int nodes, double fraction, long interval) {
+      this(key, weights(local), biases(local), nodes, fraction, interval);
+    }
+
+    /** The aggregator must hold the given weights and biases, with no delta added yet */
+    Synchronizer(Key key, float[][] w, double[][] b, int nodes, double fraction, long interval) {
+      _key = key;
+      _scale = 1.0 / nodes;
+      _fraction = fraction;
+      _interval = Math.max(1, interval);
+      _next = _interval;
+      _w0 = new float[w.length][];
+      _b0 = new double[b.length][];
+      _gw = new float[w.length][];
+      _gb = new double[b.length][];
+      for (int i = 0; i < w.length; ++i) {
+        _w0[i] = w[i].clone();
+        _b0[i] = b[i].clone();
+        _gw[i] = w[i].clone();
+        _gb[i] = b[i].clone();
+      }
+    }
+
+    /**
+     * Synchronize with the aggregator if enough samples were processed since the last time,
+     * and no other thread is currently synchronizing.
+     */
+    void maybeSync(DeepLearningModelInfo local) {
+      final long processed = local.get_processed_local();
+      if (processed < _next || !_busy.compareAndSet(false, true)) return;
+      try {
+        sync(weights(local), biases(local), _fraction);
+        _next = processed + _interval;
+      } finally {
+        _busy.set(false);
+      }
+    }
+
+    /** Push the largest entries of the local update, then pull the updates of the other nodes */
+    void sync(float[][] w, double[][] b, double fraction) {
+      push(w, b, fraction);
+      pull(w, b);
+    }
+
+    /**
+     * Push all outstanding updates, uncompressed (at the end of the iteration).
+     */
+    void flush(DeepLearningModelInfo local) {
+      while (!_busy.compareAndSet(false, true)) Thread.yield();
+      try {
+        push(weights(local), biases(local), 1);
+      } finally {
+        _busy.set(false);
+      }
+    }
+
+    /**
+     * Send the largest entries of (local - last synchronized) to the aggregator,
+     * and mark them as synchronized (the rest remains as residual).
+     */
+    void push(float[][] ws, double[][] bs, double fraction) {
+      final int layers = _w0.length;
+      int[][] wIdx = new int[layers][], bIdx = new int[layers][];
+      float[][] wVal = new float[layers][];
+      double[][] bVal = new double[layers][];
+      for (int i = 0; i < layers; ++i) {
+        final float[] w = ws[i], w0 = _w0[i];
+        final double wt = threshold(w, w0, fraction);
+        int[] idx = new int[w.length];
+        float[] val = new float[w.length];
+        int n = 0;
+        for (int j = 0; j < w.length; ++j) {
+          final float d = w[j] - w0[j];
+          if (d != 0 && Math.abs(d) >= wt) {
+            idx[n] = j;
+            val[n++] = d;
+            w0[j] += d;
+          }
+        }
+        wIdx[i] = Arrays.copyOf(idx, n);
+        wVal[i] = Arrays.copyOf(val, n);
+        // biases are few, always send all of them
+        final double[] b = bs[i], b0 = _b0[i];
+        int[] bidx = new int[b.length];
+        double[] bval = new double[b.length];
+        n = 0;
+        for (int j = 0; j < b.length; ++j) {
+          final double d = b[j] - b0[j];
+          if (d != 0) {
+            bidx[n] = j;
+            bval[n++] = d;
+            b0[j] += d;
+          }
+        }
+        bIdx[i] = Arrays.copyOf(bidx, n);
+        bVal[i] = Arrays.copyOf(bval, n);
+      }
+      PushDelta push = new PushDelta(wIdx, wVal, bIdx, bVal, _scale);
+      _bytesSent += push._delta.bytes();
+      push.invoke(_key);
+    }
+
+    /**
+     * Bring the local copy of the aggregated weights up to date, and replace the local weights by them,
+     * keeping the local residuals (not yet pushed updates).
+     */
+    void pull(float[][] ws, double[][] bs) {
+      PullDelta pull = RPC.call(_key.home_node(), new PullDelta(_key, _version)).get();
+      if (pull._full != null) {
+        _bytesReceived += pull._full.bytes();
+        for (int i = 0; i < _gw.length; ++i) {
+          System.arraycopy(pull._full._w[i], 0, _gw[i], 0, _gw[i].length);
+          System.arraycopy(pull._full._b[i], 0, _gb[i], 0, _gb[i].length);
+        }
+      } else {
+        for (Delta d : pull._deltas) {
+          _bytesReceived += d.bytes();
+          d.addTo(_gw, _gb);
+        }
+      }
+      _version = pull._version;
+      for (int i = 0; i < _w0.length; ++i) {
+        final float[] w = ws[i], w0 = _w0[i], g = _gw[i];
+        for (int j = 0; j < w.length; ++j) {
+          w[j] = g[j] + (w[j] - w0[j]);
+          w0[j] = g[j];
+        }
+        final double[] b = bs[i], b0 = _b0[i], gb = _gb[i];
+        for (int j = 0; j < b.length; ++j) {
+          b[j] = gb[j] + (b[j] - b0[j]);
+          b0[j] = gb[j];
+        }
+      }
+    }
+
+    private static float[][] weights(DeepLearningModelInfo minfo) {
+      float[][] w = new float[minfo.units.length - 1][];
+      for (int i = 0; i < w.length; ++i) w[i] = minfo.get_weights(i).raw();
+      return w;
+    }
+
+    private static double[][] biases(DeepLearningModelInfo minfo) {
+      double[][] b = new double[minfo.units.length - 1][];
+      for (int i = 0; i < b.length; ++i) b[i] = minfo.get_biases(i).raw();
+      return b;
+    }
+  }
+
+  /**
+   * Estimate the magnitude of the (1-fraction)-quantile of |w - w0| from a strided sample of the entries.
+   * @return threshold such that approx. fraction of all entries are at least as large
+   */
+  static double threshold(float[] w, float[] w0, double fraction) {
+    if (fraction >= 1 || w.length == 0) return 0;
+    final int stride = Math.max(1, w.length / THRESHOLD_SAMPLES);
+    final double[] sample = new double[(w.length + stride - 1) / stride];
+    for (int j = 0, k = 0; j < w.length; j += stride)
+      sample[k++] = Math.abs(w[j] - w0[j]);
+    Arrays.sort(sample);
+    final int pos = Math.min(sample.length - 1, (int) ((1 - fraction) * sample.length));
+    final double t = sample[pos];
+    // never skip everything: fall back to the largest sampled delta
+    return t > 0 ? t : ArrayUtils.maxValue(sample);
+  }
+
+  static Key aggregatorKey(DeepLearningModelInfo minfo) {
+    return Key.make(minfo._model_id + ".asyncaverage", (byte) 1 /*replica factor*/, (byte) 31 /*hidden user-key*/, true, H2O.SELF);
+  }
+}
@@ -935,8 +935,9 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
   }
 
   void deleteElasticAverageModels() {
-    if (model_info().get_params()._elastic_averaging) {
+    if (model_info().get_params()._elastic_averaging || model_info().get_params()._async_averaging) {
       DKV.remove(model_info().elasticAverageModelInfoKey());
+      // per-node models, also kept with asynchronous averaging
       for (H2ONode node : H2O.CLOUD._memary) {
         DKV.remove(model_info().localModelInfoKey(node));
       }
@@ -1659,6 +1660,13 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
      */
     public boolean _shuffle_training_data = false;
 
+    /**
+     * Train on a private copy of the weights and biases per thread (instead of updating the node-shared weights
+     * from all threads at once, Hogwild!) and merge the updates into the node-shared model after each chunk.
+     * Avoids false sharing of the weights on nodes with many cores.
+     */
+    public boolean _thread_local_weights = false;
+
     public MissingValuesHandling _missing_values_handling = MissingValuesHandling.MeanImputation;
 
     public boolean _sparse = false;
@@ -1685,6 +1693,19 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
     public double _elastic_averaging_moving_rate = 0.9;
     public double _elastic_averaging_regularization = 1e-3;
 
+    /**
+     * Asynchronous model averaging between nodes (only with replicated training data): the nodes push their
+     * (compressed) weight updates to an aggregator and pull the averaged weights while they keep training,
+     * instead of averaging the full models at the end of every iteration.
+     */
+    public boolean _async_averaging = false;
+
+    /**
+     * Fraction of the largest weight updates pushed per synchronization for asynchronous averaging
+     * (the remaining updates are kept locally and pushed later).
+     */
+    public double _async_averaging_delta_fraction = 0.01;
+
     // stochastic gradient descent: mini-batch size = 1
     // batch gradient descent: mini-batch size = # training rows
     public int _mini_batch_size = 1;
@@ -1900,6 +1921,8 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
       }
       if (!_autoencoder && _sparsity_beta != 0)
         dl.error("_sparsity_beta", "Sparsity beta can only be used for autoencoder.");
+      if (_thread_local_weights && _sparsity_beta != 0)
+        dl.error("_thread_local_weights", "Thread-local weights cannot be used with sparsity beta.");
       if (classification && dl.hasOffsetCol())
         dl.error("_offset_column", "Offset is only supported for regression.");
 
@@ -1939,6 +1962,16 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
         if (_elastic_averaging_regularization < 0)
           dl.error("_elastic_averaging_regularization", "Elastic averaging regularization strength must be >= 0.");
       }
+      if (!_async_averaging) {
+        dl.hide("_async_averaging_delta_fraction", "Asynchronous averaging is required for this parameter.");
+      } else {
+        if (!_replicate_training_data)
+          dl.error("_async_averaging", "Asynchronous averaging requires replicate_training_data.");
+        if (_elastic_averaging)
+          dl.error("_async_averaging", "Cannot use asynchronous averaging together with elastic averaging.");
+        if (_async_averaging_delta_fraction <= 0 || _async_averaging_delta_fraction > 1)
+          dl.error("_async_averaging_delta_fraction", "Asynchronous averaging delta fraction must be in (0,1].");
+      }
       if (_autoencoder && _stopping_metric != ScoreKeeper.StoppingMetric.AUTO && _stopping_metric != ScoreKeeper.StoppingMetric.MSE) {
         dl.error("_stopping_metric", "Stopping metric must either be AUTO or MSE for autoencoder.");
       }
@@ -1974,6 +2007,9 @@ public class DeepLearningModel extends Model<DeepLearningModel,DeepLearningModel
               "_force_load_balance",
               "_replicate_training_data",
               "_shuffle_training_data",
+              "_thread_local_weights",
+              "_async_averaging",
+              "_async_averaging_delta_fraction",
               "_single_node_mode",
               "_fast_mode",
               // Allow modification of the regularization parameters after a checkpoint restart
@@ -13,6 +13,7 @@ import water.util.RandomUtils;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class DeepLearningTask extends FrameTask<DeepLearningTask> {
   final private boolean _training;
@@ -20,6 +21,11 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
   private DeepLearningModelInfo _sharedmodel; //input/output
   transient Neurons[] _neurons;
   transient Random _dropout_rng;
+  // thread-local weights mode: pool of replicas of the node-local model (one per concurrently running chunk)
+  transient ConcurrentLinkedQueue<WeightsReplica> _replicas;
+  transient WeightsReplica _replica;
+  // asynchronous averaging mode: node-local link to the aggregator (set by DeepLearningTask2)
+  transient AsyncModelAveraging.Synchronizer _async;
   int _chunk_node_count = 1;
 
   /**
@@ -81,13 +87,20 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
       _sharedmodel = null;
     }
     _localmodel.set_processed_local(0);
+    if (_localmodel.get_params()._thread_local_weights)
+      _replicas = new ConcurrentLinkedQueue<>();
   }
 
   // Create local workspace (neurons) and link them to shared weights
   @Override protected boolean chunkInit(){
     if (_localmodel.get_processed_local() >= _useFraction * _fr.numRows())
       return false;
-    _neurons = makeNeuronsForTraining(_localmodel);
+    if (_replicas != null) {
+      _replica = _replicas.poll();
+      if (_replica == null) _replica = new WeightsReplica(_localmodel);
+      _neurons = makeNeuronsForTraining(_replica._minfo);
+    } else
+      _neurons = makeNeuronsForTraining(_localmodel);
     _dropout_rng = RandomUtils.getRNG(System.currentTimeMillis());
     return true;
   }
@@ -157,7 +170,13 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
    * @param n Number of processed rows
    */
   @Override protected void chunkDone(long n) {
+    if (_replica != null) {
+      _replica.flush(_localmodel);
+      _replicas.add(_replica);
+      _replica = null;
+    }
     if (_training) _localmodel.add_processed_local(n);
+    if (_async != null) _async.maybeSync(_localmodel);
   }
 
   /**
@@ -170,6 +189,7 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
       DKV.put(_localmodel.localModelInfoKey(H2O.SELF), _localmodel, _fs);
     }
     _sharedmodel = null; //avoid serialization overhead
+    _replicas = null;
   }
 
   /**
@@ -234,6 +254,52 @@ public class DeepLearningTask extends FrameTask<DeepLearningTask> {
     _localmodel = null;
   }
 
+  /**
+   * Private copy of the weights and biases (and of the learning rate helpers) for one F/J thread.
+   * Training writes only into the replica, so threads don't fight over the cache lines of the shared weights.
+   * After every chunk, the weight and bias deltas accumulated since the last flush are added to the node-local model,
+   * and the replica picks up the updates of all the other threads.
+   */
+  static final class WeightsReplica {
+    final DeepLearningModelInfo _minfo;
+    private final float[][] _w0; //weights at the last flush
+    private final double[][] _b0; //biases at the last flush
+
+    WeightsReplica(DeepLearningModelInfo shared) {
+      synchronized (shared) {
+        _minfo = IcedUtils.deepCopy(shared);
+      }
+      final int layers = _minfo.units.length - 1;
+      _w0 = new float[layers][];
+      _b0 = new double[layers][];
+      for (int i = 0; i < layers; ++i) {
+        _w0[i] = _minfo.get_weights(i).raw().clone();
+        _b0[i] = _minfo.get_biases(i).raw().clone();
+      }
+    }
+
+    void flush(DeepLearningModelInfo shared) {
+      synchronized (shared) {
+        for (int i = 0; i < _w0.length; ++i) {
+          final float[] w = shared.get_weights(i).raw(), wr = _minfo.get_weights(i).raw(), w0 = _w0[i];
+          for (int j = 0; j < w.length; ++j) {
+            w[j] += wr[j] - w0[j];
+            wr[j] = w0[j] = w[j];
+          }
+          final double[] b = shared.get_biases(i).raw(), br = _minfo.get_biases(i).raw(), b0 = _b0[i];
+          for (int j = 0; j < b.length; ++j) {
+            b[j] += br[j] - b0[j];
+            br[j] = b0[j] = b[j];
+          }
+        }
+        if (_minfo.isUnstable()) shared.setUnstable();
+        // keep the learning rate schedule in sync
+        _minfo.set_processed_global(shared.get_processed_global());
+        _minfo.set_processed_local(shared.get_processed_local());
+      }
+    }
+  }
+
   public static Neurons[] makeNeuronsForTraining(final DeepLearningModelInfo minfo) {
     return makeNeurons(minfo, true);
   }
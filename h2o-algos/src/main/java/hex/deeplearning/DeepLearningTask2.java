@@ -1,12 +1,22 @@
 package hex.deeplearning;
 
+import water.DKV;
+import water.H2O;
 import water.Key;
 import water.MRTask;
 import water.fvec.Frame;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+import java.util.Arrays;
 
 /**
  * DRemoteTask-based Deep Learning.
  * Every node has access to all the training data which leads to optimal CPU utilization and training accuracy IFF the data fits on every node.
+ * With async_averaging, the nodes exchange (compressed) weight updates via an aggregator while they train
+ * (see AsyncModelAveraging), instead of reducing the full models at the end of every iteration.  Every node
+ * then keeps its own model between iterations, so its optimizer state (momenta, ADADELTA accumulators) is
+ * its own; only the weights and biases are replaced by the aggregated ones at the start of an iteration.
  */
 public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
   /**
@@ -23,6 +33,22 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
     _sharedmodel = model_info;
     _sync_fraction = sync_fraction;
     _iteration = iteration;
+    _asyncKey = model_info.get_params()._async_averaging ? AsyncModelAveraging.aggregatorKey(model_info) : null;
+  }
+
+  /**
+   * For asynchronous averaging, the aggregator only lives while the task runs, and is removed even if
+   * the iteration fails or is cancelled
+   */
+  @Override
+  public DeepLearningTask2 doAll(Key... keys) {
+    if (_asyncKey == null) return super.doAll(keys);
+    DKV.put(_asyncKey, new AsyncModelAveraging.Weights(_sharedmodel));
+    try {
+      return super.doAll(keys);
+    } finally {
+      DKV.remove(_asyncKey);
+    }
   }
 
   /**
@@ -37,6 +63,10 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
   final private float _sync_fraction;
   private DeepLearningTask _res;
   private final int _iteration;
+  final private Key _asyncKey; //aggregator of the weights (only for asynchronous averaging)
+  private long _processed; //number of training samples (only for asynchronous averaging)
+  private boolean _unstable; //(only for asynchronous averaging)
+  private long _bytesSent, _bytesReceived; //traffic to and from the aggregator (only for asynchronous averaging)
 
   /**
    * Do the local computation: Perform one DeepLearningTask (with run_local=true) iteration.
@@ -47,11 +77,48 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
   @Override
   public void setupLocal() {
     super.setupLocal();
+    if (_asyncKey != null && !_asyncKey.home()) {
+      // continue with this node's own model from the previous iteration, with the aggregated weights
+      DeepLearningModelInfo local = DKV.getGet(_sharedmodel.localModelInfoKey(H2O.SELF));
+      if (local != null && Arrays.equals(local.units, _sharedmodel.units)) {
+        local.set_params(_sharedmodel.get_params(), _sharedmodel._model_id);
+        local.set_processed_global(_sharedmodel.get_processed_global());
+        new AsyncModelAveraging.Weights(_sharedmodel).copyTo(local);
+        _sharedmodel = local;
+      }
+    }
     _res = new DeepLearningTask(_jobKey, _sharedmodel, _sync_fraction, _iteration, this);
+    if (_asyncKey != null) {
+      final int nodes = _sharedmodel.get_params()._single_node_mode ? 1 : H2O.CLOUD.size();
+      final long interval = (long) (_sync_fraction * _fr.numRows() / AsyncModelAveraging.SYNCS_PER_ITERATION);
+      _res._async = new AsyncModelAveraging.Synchronizer(_asyncKey, _sharedmodel, nodes,
+          _sharedmodel.get_params()._async_averaging_delta_fraction, interval);
+    }
     addToPendingCount(1);
     _res.dfork(null, _fr, true /*run_local*/);
   }
 
+  /**
+   * For asynchronous averaging: push the remaining updates of this node to the aggregator,
+   * and only keep the sample counts (the model doesn't need to be sent around).
+   * Other nodes than the driver store their model for the next iteration.
+   */
+  @Override
+  protected void closeLocal() {
+    if (_asyncKey == null) return;
+    DeepLearningModelInfo local = _res.model_info();
+    _res._async.flush(local);
+    _processed = local.get_processed_local();
+    _unstable = local.isUnstable();
+    _bytesSent = _res._async._bytesSent;
+    _bytesReceived = _res._async._bytesReceived;
+    _res = null;
+    if (!_asyncKey.home()) {
+      DKV.put(local.localModelInfoKey(H2O.SELF), local);
+      _sharedmodel = null; //avoid serialization overhead, only the driver's copy is used
+    }
+  }
+
   /**
    * Reduce between worker nodes, with network traffic (if greater than 1 nodes)
    * After all reduce()'s are done, postGlobal() will be called
@@ -59,6 +126,13 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
    */
   @Override
   public void reduce(DeepLearningTask2 drt) {
+    if (_asyncKey != null) {
+      _processed += drt._processed;
+      _unstable |= drt._unstable;
+      _bytesSent += drt._bytesSent;
+      _bytesReceived += drt._bytesReceived;
+      return;
+    }
     if (_res == null) _res = drt._res;
     else {
       _res._chunk_node_count += drt._res._chunk_node_count;
@@ -74,8 +148,20 @@ public class DeepLearningTask2 extends MRTask<DeepLearningTask2> {
    */
   @Override
   protected void postGlobal() {
-    assert(_res.model_info().get_params()._replicate_training_data);
     super.postGlobal();
+    if (_asyncKey != null) {
+      // the aggregator already holds the average of the node updates
+      AsyncModelAveraging.Weights global = DKV.getGet(_asyncKey);
+      global.copyTo(_sharedmodel);
+      Log.info("Asynchronous averaging: sent " + PrettyPrint.bytes(_bytesSent) + ", received " +
+          PrettyPrint.bytes(_bytesReceived) + " in total over all nodes (the full model is " +
+          PrettyPrint.bytes(global.bytes()) + ").");
+      if (_unstable) _sharedmodel.setUnstable();
+      _sharedmodel.set_processed_local(0l);
+      _sharedmodel.add_processed_global(_processed);
+      return;
+    }
+    assert(_res.model_info().get_params()._replicate_training_data);
     // model averaging (DeepLearningTask only computed the per-node models, each on all the data)
     _res.model_info().div(_res._chunk_node_count);
     _res.model_info().add_processed_global(_res.model_info().get_processed_local()); //switch from local counters to global counters
@@ -624,13 +624,13 @@ public abstract class Neurons {
   public static class Tanh extends Neurons {
     public Tanh(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_a, _w, _previous._a, _b, _dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
-      for (int mb=0;mb<n;++mb)
+      for (int mb=0;mb<n;++mb) {
+        final double[] a = _a[mb].raw();
         for( int row = 0; row < rows; row++ )
-          _a[mb].set(row, 1. - 2. / (1. + Math.exp(2*_a[mb].get(row)))); //evals faster than tanh(x), but is slightly less numerically stable - OK
+          a[row] = 1. - 2. / (1. + Math.exp(2*a[row])); //evals faster than tanh(x), but is slightly less numerically stable - OK
+      }
       compute_sparsity();
     }
     // Computing partial derivative g = dE/dnet = dE/dy * dy/dnet, where dE/dy is the backpropagated error
@@ -693,12 +693,18 @@ public abstract class Neurons {
             // For each neuron in the previous layer, there's k channels
             // Each channel has its own weight and bias values
             // The channel leading to the highest incoming value (W*x + b) is the "winner" and will activate this neuron
+            // all channels in one pass over the (interleaved) weights of this row
+            final float[] w = _w.raw();
+            final double[] x = _previous._a[mb].raw();
+            for( short k = 0; k < _k; k++ ) channel[k] = 0;
+            int off = _k * row * cols;
+            for( int col = 0; col < cols; col++ ) {
+              final double xc = x[col];
+              for( short k = 0; k < _k; k++ )
+                channel[k] += w[off++] * xc;
+            }
             short maxK = 0;
             for( short k = 0; k < _k; k++ ) {
-              channel[k] = 0;
-              for( int col = 0; col < cols; col++ ) {
-                channel[k] += _w.raw()[_k*(row * cols + col) + k] * _previous._a[mb].get(col);
-              }
               channel[k] += _b.raw()[_k*row+k];
               if (channel[k] > channel[maxK]) maxK=k;
             }
@@ -749,13 +755,12 @@ public abstract class Neurons {
   public static class Rectifier extends Neurons {
     public Rectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      // TODO: implement GEMM
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_a, _w, _previous._a, _b, _dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
       for (int mb=0;mb<n;++mb) {
+        final double[] a = _a[mb].raw();
         for( int row = 0; row < rows; row++ ) {
-          _a[mb].set(row, 0.5f* (_a[mb].get(row) + Math.abs(_a[mb].get(row)))); //faster than max(a, 0)
+          a[row] = 0.5f* (a[row] + Math.abs(a[row])); //faster than max(a, 0)
 //        _a.set(row, Math.max(_a.get(row), 0f));
         }
       }
@@ -799,14 +804,13 @@ public abstract class Neurons {
   public static class ExpRectifier extends Neurons {
     public ExpRectifier(int units) { super(units); }
     @Override protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_a, _w, _previous._a, _b, _dropout != null ? _dropout.bits() : null, n);
       final int rows = _a[0].size();
-      for( int row = 0; row < rows; row++ ) {
-        for (int mb=0;mb<n;++mb) {
-          double x = _a[mb].get(row);
-          double val = x >= 0 ? x : Math.exp(x) - 1;
-          _a[mb].set(row, val);
+      for (int mb=0;mb<n;++mb) {
+        final double[] a = _a[mb].raw();
+        for( int row = 0; row < rows; row++ ) {
+          double x = a[row];
+          a[row] = x >= 0 ? x : Math.exp(x) - 1;
         }
       }
       compute_sparsity();
@@ -862,8 +866,7 @@ public abstract class Neurons {
   public static class Softmax extends Output {
     public Softmax(int units) { super(units); }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, null);
+      gemm(_a, _w, _previous._a, _b, null, n);
       for (int mb=0;mb<n;++mb) {
         final double max = ArrayUtils.maxValue(_a[mb].raw());
         double scaling = 0;
@@ -919,8 +922,7 @@ public abstract class Neurons {
       super(1);
     }
     protected void fprop(long seed, boolean training, int n) {
-      for (int mb=0;mb<n;++mb)
-        gemv(_a[mb], _w, _previous._a[mb], _b, _dropout != null ? _dropout.bits() : null);
+      gemm(_a, _w, _previous._a, _b, _dropout != null ? _dropout.bits() : null, n);
     }
 
     /**
@@ -997,6 +999,90 @@ public abstract class Neurons {
     }
   }
 
+  /**
+   * Number of mini-batch samples that share one pass over the weight matrix in gemm
+   */
+  static final int GEMM_MB_TILE = 16;
+
+  /**
+   * Optimized Mat-Mat Plus Add for a mini-batch (with optional row dropout, same for all samples)
+   * Optimization: Each matrix row is read once per tile of GEMM_MB_TILE samples (and stays in cache for the tile),
+   * two samples share every load of a matrix element.
+   * The partial sums of every sample are accumulated in exactly the same order as in gemv_row_optimized,
+   * so the results are identical to calling gemv for every sample.
+   * @param res res[mb] = a*x[mb]+y for mb &lt; n (pre-allocated, will be overwritten)
+   * @param a matrix of size rows x cols
+   * @param x n vectors of length cols
+   * @param y vector of length rows
+   * @param row_bits if not null, check bits of this byte[] to determine whether a row is used or not
+   * @param n actual mini-batch size
+   */
+  static void gemm_row_optimized(final double[][] res, final float[] a, final double[][] x, final double[] y, final byte[] row_bits, final int n) {
+    if (n == 0) return;
+    final int cols = x[0].length;
+    final int rows = y.length;
+    final int extra=cols-cols%8;
+    final int multiple = (cols/8)*8-1;
+    for (int mb0 = 0; mb0 < n; mb0 += GEMM_MB_TILE) {
+      final int mbEnd = Math.min(n, mb0 + GEMM_MB_TILE);
+      int idx = 0;
+      for (int row = 0; row < rows; row++, idx += cols) {
+        if (row_bits != null && (row_bits[row / 8] & (1 << (row % 8))) == 0) {
+          for (int mb = mb0; mb < mbEnd; mb++) res[mb][row] = 0;
+          continue;
+        }
+        int mb = mb0;
+        for (; mb + 1 < mbEnd; mb += 2) {
+          final double[] x0 = x[mb], x1 = x[mb + 1];
+          double p00 = 0, p01 = 0, p02 = 0, p03 = 0, p04 = 0, p05 = 0, p06 = 0, p07 = 0;
+          double p10 = 0, p11 = 0, p12 = 0, p13 = 0, p14 = 0, p15 = 0, p16 = 0, p17 = 0;
+          for (int col = 0; col < multiple; col += 8) {
+            final int off = idx + col;
+            final float a0 = a[off], a1 = a[off + 1], a2 = a[off + 2], a3 = a[off + 3];
+            final float a4 = a[off + 4], a5 = a[off + 5], a6 = a[off + 6], a7 = a[off + 7];
+            p00 += a0 * x0[col    ]; p10 += a0 * x1[col    ];
+            p01 += a1 * x0[col + 1]; p11 += a1 * x1[col + 1];
+            p02 += a2 * x0[col + 2]; p12 += a2 * x1[col + 2];
+            p03 += a3 * x0[col + 3]; p13 += a3 * x1[col + 3];
+            p04 += a4 * x0[col + 4]; p14 += a4 * x1[col + 4];
+            p05 += a5 * x0[col + 5]; p15 += a5 * x1[col + 5];
+            p06 += a6 * x0[col + 6]; p16 += a6 * x1[col + 6];
+            p07 += a7 * x0[col + 7]; p17 += a7 * x1[col + 7];
+          }
+          res[mb    ][row] = finishRow(p00 + p01 + p02 + p03, p04 + p05 + p06 + p07, a, x0, idx, extra, cols, y[row]);
+          res[mb + 1][row] = finishRow(p10 + p11 + p12 + p13, p14 + p15 + p16 + p17, a, x1, idx, extra, cols, y[row]);
+        }
+        if (mb < mbEnd) { // odd sample at the end of the tile
+          final double[] x0 = x[mb];
+          double p00 = 0, p01 = 0, p02 = 0, p03 = 0, p04 = 0, p05 = 0, p06 = 0, p07 = 0;
+          for (int col = 0; col < multiple; col += 8) {
+            final int off = idx + col;
+            p00 += a[off    ] * x0[col    ];
+            p01 += a[off + 1] * x0[col + 1];
+            p02 += a[off + 2] * x0[col + 2];
+            p03 += a[off + 3] * x0[col + 3];
+            p04 += a[off + 4] * x0[col + 4];
+            p05 += a[off + 5] * x0[col + 5];
+            p06 += a[off + 6] * x0[col + 6];
+            p07 += a[off + 7] * x0[col + 7];
+          }
+          res[mb][row] = finishRow(p00 + p01 + p02 + p03, p04 + p05 + p06 + p07, a, x0, idx, extra, cols, y[row]);
+        }
+      }
+    }
+  }
+
+  // same final summation as in gemv_row_optimized
+  private static double finishRow(double psum0123, double psum4567, final float[] a, final double[] x, int idx, int extra, int cols, double y) {
+    double res = 0;
+    res += psum0123;
+    res += psum4567;
+    for (int col = extra; col < cols; col++)
+      res += a[idx + col] * x[col];
+    res += y;
+    return res;
+  }
+
   /**
    * Helper to do a generic gemv: res = a*x + y
    * @param res Dense result
@@ -1009,6 +1095,29 @@ public abstract class Neurons {
     gemv_row_optimized(res.raw(), a.raw(), x.raw(), y.raw(), row_bits);
   }
 
+  /**
+   * Helper to do a mini-batch gemm: res[mb] = a*x[mb] + y for the first n samples of the mini-batch
+   * @param res Dense results
+   * @param a DenseMatrix
+   * @param x DenseVectors
+   * @param y Dense vector to add to result
+   * @param row_bits Bit mask for which rows to use
+   * @param n actual mini-batch size
+   */
+  static void gemm(final Storage.DenseVector[] res, final Storage.DenseRowMatrix a, final Storage.DenseVector[] x, final Storage.DenseVector y, byte[] row_bits, int n) {
+    if (n == 1) {
+      gemv(res[0], a, x[0], y, row_bits);
+      return;
+    }
+    final double[][] r = new double[n][];
+    final double[][] xs = new double[n][];
+    for (int mb = 0; mb < n; ++mb) {
+      r[mb] = res[mb].raw();
+      xs[mb] = x[mb].raw();
+    }
+    gemm_row_optimized(r, a.raw(), xs, y.raw(), row_bits, n);
+  }
+
   static void gemv_naive(final Storage.DenseVector res, final Storage.DenseRowMatrix a, final Storage.DenseVector x, final Storage.DenseVector y, byte[] row_bits) {
     gemv_naive(res.raw(), a.raw(), x.raw(), y.raw(), row_bits);
   }
@@ -126,6 +126,11 @@ public final class ComputationState {
   /**
    * Apply strong rules to filter out expected inactive (with zero coefficient) predictors.
    *
+   * Sequential strong rule: predictor j is kept if its coefficient at the previous lambda is non-zero or if
+   * |gradient_j| > alpha*(2*lambdaNew - lambdaOld). Previously active predictors which went to zero and fail the rule
+   * are dropped as well, so the active set (and the gram built by each iteration) follows the solution path
+   * instead of only growing. Violations are caught by the KKT check at the end of each lambda.
+   *
    * @return indices of expected active predictors.
    */
   protected void applyStrongRules(double lambdaNew, double lambdaOld) {
@@ -144,13 +149,24 @@ public final class ComputationState {
       final double rhs = Math.max(0,_alpha * (2 * lambdaNew - lambdaOld));
       int [] newCols = MemoryManager.malloc4(P);
       int j = 0;
-      int[] oldActiveCols = _activeData._activeCols == null ? new int[]{P} : _activeData.activeCols();
+      int[] activeCols = _activeData._activeCols == null ? new int[]{P} : _activeData.activeCols();
+      double [] beta = _beta == null || _beta.length == P + 1 ? _beta : ArrayUtils.expandAndScatter(_beta, P + 1, activeCols);
+      int [] oldActiveCols = MemoryManager.malloc4(activeCols.length);
+      int kept = 0;
       for (int i = 0; i < P; ++i) {
-        if(j < oldActiveCols.length && oldActiveCols[j] == i)
+        boolean strong = _ginfo._gradient[i] > rhs || -_ginfo._gradient[i] > rhs;
+        if(j < activeCols.length && activeCols[j] == i) {
           j++;
-        else if (_ginfo._gradient[i] > rhs || -_ginfo._gradient[i] > rhs)
+          if(strong || beta == null || beta[i] != 0) oldActiveCols[kept++] = i;
+        } else if (strong)
           newCols[newlySelected++] = i;
       }
+      oldActiveCols[kept++] = P; // intercept
+      if(kept < activeCols.length)
+        Log.info("Strong rules dropped " + (activeCols.length - kept) + " inactive predictors with zero coefficients at lambda = " + lambdaNew);
+      oldActiveCols = Arrays.copyOf(oldActiveCols, kept);
+      _beta = beta;
+      if(_u != null && _u.length != P + 1) _u = ArrayUtils.expandAndScatter(_u, P + 1, activeCols);
       if(_parms._max_active_predictors != -1 && (oldActiveCols.length + newlySelected -1) > _parms._max_active_predictors){
         Integer [] bigInts = ArrayUtils.toIntegers(newCols, 0, newlySelected);
         Arrays.sort(bigInts, new Comparator<Integer>() {
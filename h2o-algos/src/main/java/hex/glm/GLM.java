@@ -396,7 +396,9 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
           _parms._max_iterations = _parms._lambda_search ? _parms._nlambdas * 100 * numclasses : numclasses * Math.max(20, _dinfo.fullN() >> 2);
           if(_parms._alpha[0] > 0)
             _parms._max_iterations *= 10;
-        } else
+        } else if (_parms._solver == Solver.SGD) // max iterations are epochs for SGD
+          _parms._max_iterations = _parms._lambda_search ? 2 * _parms._nlambdas : 10;
+        else
           _parms._max_iterations = _parms._lambda_search ? 10 * _parms._nlambdas : 50;
       }
       if (_valid != null)
@@ -436,6 +438,8 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       BetaConstraint bc = (_parms._beta_constraints != null)?new BetaConstraint(_parms._beta_constraints.get()):new BetaConstraint();
       if((bc.hasBounds() || bc.hasProximalPenalty()) && _parms._compute_p_values)
         error("_compute_p_values","P-values can not be computed for constrained problems");
+      if(bc.hasProximalPenalty() && _parms._solver == Solver.SGD)
+        error("_beta_constraints","beta_given is not supported by SGD solver");
       _state.setBC(bc);
       if(hasOffsetCol() && _parms._intercept) { // fit intercept
         GLMGradientSolver gslvr = new GLMGradientSolver(_job,_parms, _dinfo.filterExpandedColumns(new int[0]), 0, _state.activeBC());
@@ -749,6 +753,25 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
       }
     }
 
+    private void fitSGD() {
+      GLMSGDTask.SGDModel model = new GLMSGDTask.SGDModel(_state.beta());
+      GLMWeightsFun glmw = new GLMWeightsFun(_parms);
+      BetaConstraint bc = _state.activeBC();
+      while (true) {
+        long t1 = System.currentTimeMillis();
+        GLMSGDTask t = new GLMSGDTask(_job._key, _state.activeData(), glmw, model, _parms._mini_batch_size, _parms._learning_rate,
+            _state.l1pen(), _state.l2pen(), bc._betaLB, bc._betaUB).doAll(_state.activeData()._adaptedFrame);
+        long t2 = System.currentTimeMillis();
+        model = t._model;
+        Log.info(LogMsg("SGD epoch computed in " + (t2 - t1) + "ms, " + model.steps() + " steps so far"));
+        // progressive likelihood (each row evaluated before it was used for an update), saves a pass over the data
+        if (!progress(model.beta().clone(), t._likelihood))
+          break;
+      }
+      // exact likelihood and gradient at the final solution, needed for KKT check
+      _state.updateState(model.beta(), _state.gslvr().getGradient(model.beta()));
+    }
+
     private void fitCOD() {
       double [] beta = _state.beta();
       int p = _state.activeData().fullN()+ 1;
@@ -916,6 +939,9 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         case COORDINATE_DESCENT_NAIVE:
           fitCOD();
           break;
+        case SGD:
+          fitSGD();
+          break;
         default:
           throw H2O.unimpl();
       }
@@ -1401,14 +1427,14 @@ public class GLM extends ModelBuilder<GLMModel,GLMParameters,GLMOutput> {
         gram.addDiag(ArrayUtils.mult(rhos, -1));
         gram.addDiag(rhoAdd,!intercept);
         Log.info("Got NonSPD matrix with original rho, re-computing with rho = " + (_rho[0]+rhoAdd));
-        _chol = gram.cholesky(null, true, null);
+        _chol = gram.cholesky(_chol, true, null); // same dimensions, reuse the storage of the failed decomposition
         int cnt = 0;
         double rhoAddSum = rhoAdd;
         while (!_chol.isSPD() && cnt++ < 5) {
           gram.addDiag(rhoAdd,!intercept);
           rhoAddSum += rhoAdd;
           Log.warn("Still NonSPD matrix, re-computing with rho = " + (rhos[0] + rhoAddSum));
-          _chol = gram.cholesky(null, true, null);
+          _chol = gram.cholesky(_chol, true, null);
         }
         if (!_chol.isSPD())
           throw new NonSPDMatrixException();
@@ -191,6 +191,9 @@ public class GLMModel extends Model<GLMModel,GLMModel.GLMParameters,GLMModel.GLM
     public boolean _remove_collinear_columns = false;
     public String[] _interactions=null;
     public boolean _early_stopping = true;
+    // SGD solver only: number of rows per gradient step and the (Adam) step size
+    public int _mini_batch_size = 256;
+    public double _learning_rate = 1e-2;
 
     public Key<Frame> _beta_constraints = null;
     // internal parameter, handle with care. GLM will stop when there is more than this number of active predictors (after strong rule screening)
@@ -202,6 +205,17 @@ public class GLMModel extends Model<GLMModel,GLMModel.GLMParameters,GLMModel.GLM
         glm.error("_alpha","alpha parameter must from (inclusive) [0,1] range");
       if(_compute_p_values && _solver != Solver.AUTO && _solver != Solver.IRLSM)
         glm.error("_compute_p_values","P values can only be computed with IRLSM solver, go solver = " + _solver);
+      if(_solver == Solver.SGD) {
+        if(_family == Family.multinomial)
+          glm.error("_solver","SGD solver is currently not supported for family=multinomial");
+        if(_mini_batch_size < 1)
+          glm.error("_mini_batch_size","Mini-batch size must be positive");
+        if(_learning_rate <= 0)
+          glm.error("_learning_rate","Learning rate must be positive");
+      } else {
+        glm.hide("_mini_batch_size","only applies to SGD solver.");
+        glm.hide("_learning_rate","only applies to SGD solver.");
+      }
       if(_compute_p_values && (_lambda == null || _lambda[0] > 0))
         glm.error("_compute_p_values","P values can only be computed with NO REGULARIZATION (lambda = 0)");
       if(_compute_p_values && _family == Family.multinomial)
@@ -453,7 +467,7 @@ public class GLMModel extends Model<GLMModel,GLMModel.GLMParameters,GLMModel.GLM
     }
     public static enum Link {family_default, identity, logit, log, inverse, tweedie, multinomial}
 
-    public static enum Solver {AUTO, IRLSM, L_BFGS, COORDINATE_DESCENT_NAIVE, COORDINATE_DESCENT}
+    public static enum Solver {AUTO, IRLSM, L_BFGS, COORDINATE_DESCENT_NAIVE, COORDINATE_DESCENT, SGD}
 
     // helper function
     static final double y_log_y(double y, double mu) {
@@ -27,6 +27,7 @@ import java.util.Arrays;
  * GLMGradientTask   - computes gradient at given Beta, used by L-BFGS, for KKT condition check
  * GLMLineSearchTask - computes residual deviance(s) at given beta(s), used by line search (both L-BFGS and IRLSM)
  * GLMIterationTask  - used by IRLSM to compute Gram matrix and response t(X) W X, t(X)Wz
+ * GLMSGDTask        - used by SGD solver, one epoch of mini-batch stochastic gradient descent
  *
  * @author tomasnykodym
  */
@@ -1018,7 +1019,7 @@ public abstract class GLMTask  {
 
     @Override
     public void chunkInit() {
-      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, true);
+      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, true).setBlocked(true);
       _xy = MemoryManager.malloc8d(_dinfo.fullN() + 1);
 
     }
@@ -1039,6 +1040,11 @@ public abstract class GLMTask  {
       _gram.addRow(r, r.weight);
     }
 
+    @Override
+    public void chunkDone() {
+      _gram.flush();
+    }
+
     @Override
     public void reduce(LSTask lst) {
       ArrayUtils.add(_xy, lst._xy);
@@ -1151,7 +1157,7 @@ public abstract class GLMTask  {
 
     @Override public void chunkInit(){
       // initialize
-      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true).setBlocked(true);
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
         _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
@@ -1186,6 +1192,9 @@ public abstract class GLMTask  {
       _gram.addRow(r, w);
     }
 
+    @Override
+    public void chunkDone(){_gram.flush();}
+
     @Override
     public void reduce(GLMIterationTaskMultinomial glmt) {
       ArrayUtils.add(_xy,glmt._xy);
@@ -1285,7 +1294,7 @@ public abstract class GLMTask  {
     @Override
     public void chunkInit() {
       // initialize
-      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true);
+      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats,true).setBlocked(true);
       _xy = MemoryManager.malloc8d(_dinfo.fullN()+1); // + 1 is for intercept
       if(_sparse)
          _sparseOffset = GLM.sparseOffset(_beta,_dinfo);
@@ -1331,7 +1340,10 @@ public abstract class GLMTask  {
     }
 
     @Override
-    public void chunkDone(){adjustForSparseStandardizedZeros();}
+    public void chunkDone(){
+      _gram.flush();
+      adjustForSparseStandardizedZeros();
+    }
 
     @Override
     public void reduce(GLMIterationTask git){
@@ -1377,6 +1389,172 @@ public abstract class GLMTask  {
     }
   }
 
+  /**
+   * One epoch of mini-batch stochastic gradient descent, used by the SGD solver.
+   *
+   * Rows are processed in mini-batches, per-row gradient multipliers are computed the same way as in GLMGenericGradientTask.
+   * Step sizes are controlled per coordinate by Adam, l1 penalty is applied via proximal (soft-thresholding) step
+   * and bounds via projection. Chunks on the same node update one shared node-local model without locking
+   * (the same way DeepLearning trains), node models are averaged (weighted by the number of processed observations) in reduce.
+   */
+  public static class GLMSGDTask extends FrameTask2<GLMSGDTask> {
+    static final double BETA1 = .9;
+    static final double BETA2 = .999;
+    static final double EPS = 1e-8;
+
+    /** Coefficients and Adam moments, shared by all chunks of one node */
+    public static final class SGDModel extends Iced {
+      double [] _beta;
+      double [] _m; // first moment
+      double [] _v; // second moment
+      long _t;      // number of steps done so far
+
+      public SGDModel(double [] beta) {
+        _beta = beta.clone();
+        _m = MemoryManager.malloc8d(beta.length);
+        _v = MemoryManager.malloc8d(beta.length);
+      }
+
+      /** weighted average of two node-local models, a is the weight of the other model */
+      void average(SGDModel other, double a) {
+        for(int i = 0; i < _beta.length; ++i) {
+          _beta[i] += a * (other._beta[i] - _beta[i]);
+          _m[i] += a * (other._m[i] - _m[i]);
+          _v[i] += a * (other._v[i] - _v[i]);
+        }
+        _t = Math.max(_t, other._t);
+      }
+
+      public double [] beta() {return _beta;}
+      public long steps() {return _t;}
+    }
+
+    final GLMWeightsFun _glmf;
+    final int _batchSize;
+    final double _rate;
+    final double _l1pen;
+    final double _l2pen;
+    final double [] _betaLB;
+    final double [] _betaUB;
+    SGDModel _model;
+
+    public double _likelihood; // progressive (evaluated before the update) likelihood
+    public double _wsum;
+    long _nobs;
+
+    // mini-batch state, one per chunk
+    private transient GLMWeights _w;
+    private transient double [] _grad;
+    private transient double _batchW;
+    private transient double _batchG;
+    private transient int _batchN;
+    private transient double _sparseOffset;
+
+    public GLMSGDTask(Key jobKey, DataInfo dinfo, GLMWeightsFun glmf, SGDModel model, int batchSize, double rate, double l1pen, double l2pen, double [] betaLB, double [] betaUB) {
+      super(null,dinfo,jobKey);
+      _glmf = glmf;
+      _model = model;
+      _batchSize = batchSize;
+      _rate = rate;
+      _l1pen = l1pen;
+      _l2pen = l2pen;
+      _betaLB = betaLB;
+      _betaUB = betaUB;
+    }
+
+    @Override public boolean handlesSparseData(){return true;}
+
+    @Override
+    public void setupLocal() {
+      super.setupLocal();
+      _model = IcedUtils.deepCopy(_model); // node-local copy, shared by all the chunks of this node
+    }
+
+    @Override
+    public void chunkInit() {
+      _w = new GLMWeights();
+      _grad = MemoryManager.malloc8d(_model._beta.length);
+      if(_sparse)
+        _sparseOffset = GLM.sparseOffset(_model._beta,_dinfo);
+    }
+
+    @Override
+    protected void processRow(Row r) {
+      double [] beta = _model._beta;
+      double eta = r.innerProduct(beta) + _sparseOffset;
+      double y = r.response(0);
+      _glmf.computeWeights(y, eta, r.offset, r.weight, _w);
+      double var = _glmf.variance(_w.mu);
+      if (var < 1e-6) var = 1e-6;
+      double g = r.weight * (_w.mu - y) / (var * _glmf.linkDeriv(_w.mu));
+      _likelihood += _w.l;
+      _wsum += r.weight;
+      ++_nobs;
+      for(int i = 0; i < r.nBins; ++i)
+        _grad[r.binIds[i]] += g;
+      final int numStart = _dinfo.numStart();
+      for(int i = 0; i < r.nNums; ++i) {
+        int id = r.numIds == null?(i + numStart):r.numIds[i];
+        _grad[id] += g*r.numVals[i];
+      }
+      if(_dinfo._intercept)
+        _grad[_grad.length-1] += g;
+      _batchG += g;
+      _batchW += r.weight;
+      if(++_batchN == _batchSize)
+        step();
+    }
+
+    private void step() {
+      final double [] beta = _model._beta, m = _model._m, v = _model._v;
+      if(_sparse && _dinfo._normSub != null) { // centering of sparse numeric columns is not part of the rows
+        int ns = _dinfo.numStart();
+        for(int i = 0; i < _dinfo._nums; ++i)
+          _grad[ns + i] -= _batchG * _dinfo._normSub[i] * _dinfo._normMul[i];
+      }
+      long t = ++_model._t;
+      double c1 = 1 - Math.pow(BETA1,t);
+      double c2 = 1 - Math.pow(BETA2,t);
+      int icpt = beta.length - 1;
+      for(int i = 0; i < beta.length; ++i) {
+        double g = _grad[i] / _batchW;
+        if(i != icpt) g += _l2pen * beta[i];
+        m[i] = BETA1 * m[i] + (1 - BETA1) * g;
+        v[i] = BETA2 * v[i] + (1 - BETA2) * g * g;
+        double rate = _rate / (Math.sqrt(v[i] / c2) + EPS);
+        double b = beta[i] - rate * m[i] / c1;
+        if(i != icpt && _l1pen > 0) // proximal step for the l1 penalty
+          b = b > 0 ? Math.max(0, b - rate * _l1pen) : Math.min(0, b + rate * _l1pen);
+        if(_betaLB != null && b < _betaLB[i]) b = _betaLB[i];
+        if(_betaUB != null && b > _betaUB[i]) b = _betaUB[i];
+        beta[i] = b;
+      }
+      Arrays.fill(_grad,0);
+      _batchG = _batchW = 0;
+      _batchN = 0;
+      if(_sparse)
+        _sparseOffset = GLM.sparseOffset(beta,_dinfo);
+    }
+
+    @Override
+    public void chunkDone() {
+      if(_batchN > 0) step();
+      _grad = null;
+    }
+
+    @Override
+    public void reduce(GLMSGDTask t) {
+      if(t._model != _model && t._wsum > 0) { // results from another node, average the models
+        if(_wsum == 0) _model = t._model;
+        else _model.average(t._model, t._wsum / (_wsum + t._wsum));
+      }
+      _likelihood += t._likelihood;
+      _wsum += t._wsum;
+      _nobs += t._nobs;
+      super.reduce(t);
+    }
+  }
+
  /* public static class GLMCoordinateDescentTask extends FrameTask2<GLMCoordinateDescentTask> {
     final GLMParameters _params;
     final double [] _betaw;
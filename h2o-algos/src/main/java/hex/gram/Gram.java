@@ -21,6 +21,15 @@ public final class Gram extends Iced<Gram> {
   int _fullN;
   final static int MIN_TSKSZ=10000;
 
+  // Blocked accumulation of the dense numeric block (see setBlocked).
+  // Rows are buffered column-major (x and w*x) and added to the lower triangle by cache-tiled SYRK-style updates.
+  final static int BLOCKED_MIN_DENSE = 64; // narrower dense blocks are faster with plain rank-1 updates
+  final static int BLOCKED_ROWS = 128;     // rows per buffered batch
+  final static int BLOCKED_TILE = 64;      // columns per tile, 2 tiles x batch fit into L2 cache
+  private transient double[] _bx;          // buffered rows, column-major: _bx[col*BLOCKED_ROWS + row]
+  private transient double[] _bwx;         // buffered rows multiplied by their weights
+  private transient int _bn;               // number of buffered rows
+
   public Gram(DataInfo dinfo) {this(dinfo.fullN(), dinfo.largestCat(), dinfo.numNums(), dinfo._cats,true);}
   public Gram(int N, int diag, int dense, int sparse, boolean hasIntercept) {
     _hasIntercept = hasIntercept;
@@ -32,6 +41,69 @@ public final class Gram extends Iced<Gram> {
       _xx[i] = MemoryManager.malloc8d(diag + i + 1);
   }
 
+  /**
+   * Switch on blocked accumulation of the dense numeric block.
+   *
+   * Dense rows are buffered in mini-batches and the num*num part of the gram is updated one batch at a time,
+   * tile by tile, instead of by one rank-1 update per row. This turns the memory bound row updates into
+   * cache-friendly dot products and pays off for wide dense data (no effect for less than BLOCKED_MIN_DENSE
+   * numeric columns). Buffered rows are not part of the gram until flush() is called; the buffer is transient.
+   */
+  public Gram setBlocked(boolean blocked) {
+    if (blocked && _denseN >= BLOCKED_MIN_DENSE) {
+      if (_bx == null) {
+        _bx = MemoryManager.malloc8d(_denseN * BLOCKED_ROWS);
+        _bwx = MemoryManager.malloc8d(_denseN * BLOCKED_ROWS);
+      }
+    } else {
+      flush();
+      _bx = _bwx = null;
+    }
+    return this;
+  }
+
+  public boolean isBlocked() { return _bx != null; }
+
+  /** Adds all buffered rows to the gram, must be called before the gram is used when in blocked mode */
+  public void flush() {
+    final int n = _bn;
+    if (n == 0) return;
+    final int intercept = _hasIntercept?1:0;
+    final int denseRowStart = _fullN - _denseN - _diagN - intercept;
+    final int denseColStart = _fullN - _denseN - intercept;
+    final int N = _denseN;
+    final double[] bx = _bx, bwx = _bwx;
+    for (int i0 = 0; i0 < N; i0 += BLOCKED_TILE) {
+      final int i1 = Math.min(i0 + BLOCKED_TILE, N);
+      for (int j0 = 0; j0 <= i0; j0 += BLOCKED_TILE) {
+        final int j1 = Math.min(j0 + BLOCKED_TILE, N);
+        for (int i = i0; i < i1; ++i) {
+          final double[] mrow = _xx[i + denseRowStart];
+          final int wi = i * BLOCKED_ROWS;
+          final int jmax = Math.min(j1, i + 1);
+          for (int j = j0; j < jmax; ++j) {
+            final int xj = j * BLOCKED_ROWS;
+            double s = 0;
+            for (int r = 0; r < n; ++r)
+              s += bwx[wi + r] * bx[xj + r];
+            mrow[j + denseColStart] += s;
+          }
+        }
+      }
+    }
+    if (_hasIntercept) { // intercept*x[i]
+      final double[] interceptRow = _xx[_denseN + denseRowStart];
+      for (int i = 0; i < N; ++i) {
+        final int wi = i * BLOCKED_ROWS;
+        double s = 0;
+        for (int r = 0; r < n; ++r)
+          s += bwx[wi + r];
+        interceptRow[i + denseColStart] += s;
+      }
+    }
+    _bn = 0;
+  }
+
   public void dropIntercept(){
     if(!_hasIntercept) throw new IllegalArgumentException("Has no intercept");
     double [][] xx = new double[_xx.length-1][];
@@ -43,7 +115,9 @@ public final class Gram extends Iced<Gram> {
   }
 
   public Gram deep_clone(){
+    flush();
     Gram res = clone();
+    res._bx = res._bwx = null;
     if(_xx != null)
       res._xx = ArrayUtils.deepClone(_xx);
     if(_diag != null)
@@ -386,10 +460,102 @@ public final class Gram extends Iced<Gram> {
       }
       return new InPlaceCholesky(xx, isspd);
     }
+
+    /**
+     * Right-looking blocked Cholesky decomposition.
+     *
+     * For each block column of NB columns: factor the (small) diagonal block, solve the panel below it with
+     * rows processed in parallel and apply the rank-NB update to the whole trailing submatrix, split into row
+     * ranges of equal work processed in parallel. Unlike decompose_2, which reads all the previous columns for
+     * each row, every element is touched once per block column with the update of each row being a sequence
+     * of short dot products over the current block.
+     */
+    public static InPlaceCholesky decompose_blocked(final double xx[][], final int NB, int P) {
+      boolean isspd = true;
+      final int N = xx.length;
+      P = Math.max(1, P);
+      for (int k0 = 0; k0 < N; k0 += NB) {
+        final int k1 = Math.min(k0 + NB, N);
+        // diagonal block, updates from the previous block columns are already applied
+        for (int i = k0; i < k1; i++) {
+          double rowi[] = xx[i];
+          for (int k = k0; k < i; k++) {
+            double rowk[] = xx[k];
+            double s = 0.0;
+            for (int jj = k0; jj < k; jj++) s += rowk[jj]*rowi[jj];
+            rowi[k] = (rowi[k] - s) / rowk[k];
+          }
+          double d = rowi[i];
+          for (int jj = k0; jj < i; jj++) d -= rowi[jj]*rowi[jj];
+          isspd = isspd && (d > 0.0);
+          rowi[i] = Math.sqrt(Math.max(0.0, d));
+        }
+        if (k1 == N) break;
+        final int M = N - k1;
+        // panel below the diagonal block, equal work per row
+        int p = (int)Math.min(P, Math.max(1, (long)M*(k1-k0)*(k1-k0)/(2*MIN_TSKSZ)));
+        RecursiveAction[] ras = new RecursiveAction[p];
+        for (int t = 0; t < p; t++)
+          ras[t] = new PanelTask(xx, k1 + (int)((long)M*t/p), k1 + (int)((long)M*(t+1)/p), k0, k1);
+        ForkJoinTask.invokeAll(ras);
+        // trailing submatrix, work of row i is proportional to i - k1 + 1 => split the triangle into equal areas
+        p = (int)Math.min(P, Math.max(1, (long)M*M*(k1-k0)/(2*MIN_TSKSZ)));
+        ras = new RecursiveAction[p];
+        int from = k1;
+        for (int t = 0; t < p; t++) {
+          int to = t == p-1 ? N : k1 + (int)Math.round(M*Math.sqrt((t+1.0)/p));
+          ras[t] = new TrailingUpdateTask(xx, from, to, k0, k1);
+          from = to;
+        }
+        ForkJoinTask.invokeAll(ras);
+      }
+      return new InPlaceCholesky(xx, isspd);
+    }
+    static private class PanelTask extends RecursiveAction {
+      final double[][] _xx;
+      final int _i0, _i1, _k0, _k1;
+      PanelTask(double xx[][], int ifr, int ito, int kfr, int kto) {
+        _xx = xx;
+        _i0 = ifr; _i1 = ito; _k0 = kfr; _k1 = kto;
+      }
+      @Override public void compute() {
+        for (int i=_i0; i < _i1; i++) {
+          double rowi[] = _xx[i];
+          for (int k=_k0; k < _k1; k++) {
+            double rowk[] = _xx[k];
+            double s = 0.0;
+            for (int jj = _k0; jj < k; jj++) s += rowk[jj]*rowi[jj];
+            rowi[k] = (rowi[k] - s) / rowk[k];
+          }
+        }
+      }
+    }
+    static private class TrailingUpdateTask extends RecursiveAction {
+      final double[][] _xx;
+      final int _i0, _i1, _k0, _k1;
+      TrailingUpdateTask(double xx[][], int ifr, int ito, int kfr, int kto) {
+        _xx = xx;
+        _i0 = ifr; _i1 = ito; _k0 = kfr; _k1 = kto;
+      }
+      @Override public void compute() {
+        for (int i=_i0; i < _i1; i++) {
+          double rowi[] = _xx[i];
+          for (int j=_k1; j <= i; j++) {
+            double rowj[] = _xx[j];
+            double s = 0.0;
+            for (int kk = _k0; kk < _k1; kk++) s += rowi[kk]*rowj[kk];
+            rowi[j] -= s;
+          }
+        }
+      }
+    }
     public double[][] getL() { return _xx; }
     public boolean isSPD() { return _isSPD; }
   }
 
+  final static int BLOCKED_CHOL_MIN = 256; // smaller dense blocks are decomposed by decompose_2
+  final static int BLOCKED_CHOL_NB = 64;   // block size of the blocked decomposition
+
   public Cholesky cholesky(Cholesky chol) {
     return cholesky(chol,true,"");
   }
@@ -412,7 +578,6 @@ public final class Gram extends Iced<Gram> {
    * @return the Cholesky decomposition
    */
   public Cholesky cholesky(Cholesky chol, boolean parallelize,String id) {
-    long start = System.currentTimeMillis();
     if( chol == null ) {
       double[][] xx = _xx.clone();
       for( int i = 0; i < xx.length; ++i )
@@ -476,8 +641,10 @@ public final class Gram extends Iced<Gram> {
     double[][] arr = new double[denseN][];
     for( int i = 0; i < arr.length; ++i )
       arr[i] = Arrays.copyOfRange(fchol._xx[i], sparseN, sparseN + denseN);
-    int p = Runtime.getRuntime().availableProcessors();
-    InPlaceCholesky d = InPlaceCholesky.decompose_2(arr, 10, p);
+    int p = parallelize?Runtime.getRuntime().availableProcessors():1;
+    InPlaceCholesky d = denseN >= BLOCKED_CHOL_MIN
+            ?InPlaceCholesky.decompose_blocked(arr, BLOCKED_CHOL_NB, p)
+            :InPlaceCholesky.decompose_2(arr, 10, p);
     fchol.setSPD(d.isSPD());
     arr = d.getL();
     for( int i = 0; i < arr.length; ++i )
@@ -512,6 +679,8 @@ public final class Gram extends Iced<Gram> {
   }
 
   public void add(Gram grm) {
+    flush();
+    grm.flush();
     ArrayUtils.add(_xx,grm._xx);
     ArrayUtils.add(_diag,grm._diag);
   }
@@ -598,18 +767,23 @@ public final class Gram extends Iced<Gram> {
         y[k] /= _diag[k];
       // rest
       final int n = _xx[_xx.length-1].length;
-      // Solve L*Y = B;
-      for( int k = _diag.length; k < n; ++k ) {
-        double d = 0;
-        for( int i = 0; i < k; i++ )
-          d += y[i] * _xx[k - _diag.length][i];
-        y[k] = (y[k]-d)/_xx[k - _diag.length][k];
-      }
-      // Solve L'*X = Y;
-      for( int k = n - 1; k >= _diag.length; --k ) {
-        y[k] /= _xx[k - _diag.length][k];
-        for( int i = 0; i < k; ++i )
-          y[i] -= y[k] * _xx[k - _diag.length][i];
+      if( n - _diag.length >= PAR_SOLVE_MIN ) {
+        parSolveL(y, n);
+        parSolveLt(y, n);
+      } else {
+        // Solve L*Y = B;
+        for( int k = _diag.length; k < n; ++k ) {
+          double d = 0;
+          for( int i = 0; i < k; i++ )
+            d += y[i] * _xx[k - _diag.length][i];
+          y[k] = (y[k]-d)/_xx[k - _diag.length][k];
+        }
+        // Solve L'*X = Y;
+        for( int k = n - 1; k >= _diag.length; --k ) {
+          y[k] /= _xx[k - _diag.length][k];
+          for( int i = 0; i < k; ++i )
+            y[i] -= y[k] * _xx[k - _diag.length][i];
+        }
       }
       // diagonal
       for( int k = _diag.length - 1; k >= 0; --k )
@@ -623,6 +797,88 @@ public final class Gram extends Iced<Gram> {
     }
     public final boolean isSPD() {return _isSPD;}
     public final void setSPD(boolean b) {_isSPD = b;}
+
+    final static int PAR_SOLVE_MIN = 1000;  // smaller dense blocks are solved single-threaded
+    final static int PAR_SOLVE_NB = 256;    // rows per block of the parallel triangular solves
+
+    /** Splits [from, to) into ranges of at least PAR_SOLVE_NB rows and runs the given action on each of them */
+    private static void forRanges(int from, int to, final RangeAction ra) {
+      final int nranges = Math.max(1, Math.min(H2O.NUMCPUS, (to - from) / PAR_SOLVE_NB));
+      if( nranges == 1 ) { ra.apply(from, to); return; }
+      RecursiveAction[] ras = new RecursiveAction[nranges];
+      for( int t = 0; t < nranges; ++t ) {
+        final int rfrom = from + (int)((long)(to - from)*t/nranges);
+        final int rto = from + (int)((long)(to - from)*(t+1)/nranges);
+        ras[t] = new RecursiveAction() {
+          @Override protected void compute() { ra.apply(rfrom, rto); }
+        };
+      }
+      ForkJoinTask.invokeAll(ras);
+    }
+    private interface RangeAction { void apply(int from, int to); }
+
+    /**
+     * Solves L*Y = B by blocks of rows (right-looking): once a block of Y is known, its contribution is
+     * subtracted from all the following rows in parallel.
+     */
+    private void parSolveL(final double[] y, final int n) {
+      final int D = _diag.length;
+      // contribution of the (already solved) diagonal part
+      if( D > 0 ) forRanges(D, n, new RangeAction() {
+        @Override public void apply(int from, int to) {
+          for( int k = from; k < to; ++k ) {
+            double[] row = _xx[k - D];
+            double d = 0;
+            for( int i = 0; i < D; ++i ) d += y[i] * row[i];
+            y[k] -= d;
+          }
+        }
+      });
+      for( int k0 = D; k0 < n; k0 += PAR_SOLVE_NB ) {
+        final int fk0 = k0, k1 = Math.min(k0 + PAR_SOLVE_NB, n);
+        for( int k = k0; k < k1; ++k ) {
+          double[] row = _xx[k - D];
+          double d = 0;
+          for( int i = k0; i < k; ++i ) d += y[i] * row[i];
+          y[k] = (y[k] - d) / row[k];
+        }
+        if( k1 < n ) forRanges(k1, n, new RangeAction() {
+          @Override public void apply(int from, int to) {
+            for( int k = from; k < to; ++k ) {
+              double[] row = _xx[k - D];
+              double d = 0;
+              for( int i = fk0; i < k1; ++i ) d += y[i] * row[i];
+              y[k] -= d;
+            }
+          }
+        });
+      }
+    }
+
+    /**
+     * Solves L'*X = Y by blocks of rows from the bottom: once a block of X is known, its contribution is
+     * subtracted from all the preceding rows in parallel.
+     */
+    private void parSolveLt(final double[] y, final int n) {
+      final int D = _diag.length;
+      for( int k1 = n; k1 > D; k1 -= PAR_SOLVE_NB ) {
+        final int fk1 = k1, k0 = Math.max(D, k1 - PAR_SOLVE_NB);
+        for( int k = k1 - 1; k >= k0; --k ) {
+          double[] row = _xx[k - D];
+          y[k] /= row[k];
+          for( int i = k0; i < k; ++i ) y[i] -= y[k] * row[i];
+        }
+        forRanges(0, k0, new RangeAction() {
+          @Override public void apply(int from, int to) {
+            for( int k = k0; k < fk1; ++k ) {
+              double[] row = _xx[k - D];
+              double yk = y[k];
+              for( int i = from; i < to; ++i ) y[i] -= yk * row[i];
+            }
+          }
+        });
+      }
+    }
   }
 
   public final void addRowSparse(DataInfo.Row r, double w) {
@@ -674,6 +930,21 @@ public final class Gram extends Iced<Gram> {
 
     assert _denseN + denseRowStart == _xx.length-intercept;
     final double [] interceptRow = _hasIntercept?_xx[_denseN + denseRowStart]:null;
+    if(_bx != null) { // blocked - nums * nums and intercept * nums are added when the batch is flushed
+      final int r = _bn;
+      for(int i = 0; i < _denseN; ++i) {
+        final double x = row.numVals[i];
+        _bx[i * BLOCKED_ROWS + r] = x;
+        _bwx[i * BLOCKED_ROWS + r] = w * x;
+        if(x != 0) { // nums * cats
+          final double[] mrow = _xx[i + denseRowStart];
+          final double d = w * x;
+          for (int j = 0; j < row.nBins; ++j)
+            mrow[row.binIds[j]] += d;
+        }
+      }
+      if(++_bn == BLOCKED_ROWS) flush();
+    } else
     // nums
     for(int i = 0; i < _denseN; ++i) if(row.numVals[i] != 0) {
       final double [] mrow = _xx[i+denseRowStart];
@@ -705,6 +976,7 @@ public final class Gram extends Iced<Gram> {
       _diag[row.binIds[0]] += w;
   }
   public void mul(double x){
+    flush();
     if(_diag != null)for(int i = 0; i < _diag.length; ++i)
       _diag[i] *= x;
     for(int i = 0; i < _xx.length; ++i)
@@ -751,7 +1023,7 @@ public final class Gram extends Iced<Gram> {
       _intercept = intercept;
     }
     @Override public void chunkInit(){
-      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, _intercept);
+      _gram = new Gram(_dinfo.fullN(), _dinfo.largestCat(), _dinfo.numNums(), _dinfo._cats, _intercept).setBlocked(true);
     }
     double _prev = 0;
     @Override protected void processRow(DataInfo.Row r) {
@@ -761,6 +1033,7 @@ public final class Gram extends Iced<Gram> {
       _prev += current;
     }
     @Override public void chunkDone(){
+      _gram.flush();
       if(_std) {
         double r = 1.0 / _nobs;
         _gram.mul(r);
@@ -13,7 +13,9 @@ import water.util.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 /**
@@ -27,7 +29,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
   final static private double TOLERANCE = 1e-4;
 
   @Override public ModelCategory[] can_build() { return new ModelCategory[]{ ModelCategory.Clustering }; }
-  public enum Initialization { Random, PlusPlus, Furthest, User }
+  public enum Initialization { Random, PlusPlus, Furthest, User, PlusPlusParallel }
+  // Number of k-means|| sampling rounds, and expected number of candidates sampled per round (times k)
+  final static private int PARALLEL_INIT_ROUNDS = 5;
+  final static private double PARALLEL_INIT_OVERSAMPLING = 2;
   /** Start the KMeans training Job on an F/J thread. */
   @Override protected KMeansDriver trainModelImpl() { return new KMeansDriver();  }
 
@@ -69,6 +74,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       else if( user_points.numRows() != _parms._k)
         error("_user_y", "The number of rows in the user-specified points is not equal to k = " + _parms._k);
     }
+    if (_parms._mini_batch_size < 0)
+      error("_mini_batch_size", "mini_batch_size must be >= 0 (0 to disable mini-batch iterations)");
+    if (_parms._mini_batch_size > 0 && _parms._estimate_k)
+      error("_mini_batch_size", "Cannot use mini-batch iterations if estimate_k is enabled.");
     if (_parms._estimate_k) {
       if (_parms._user_points!=null)
         error("_estimate_k", "Cannot estimate k if user_points are provided.");
@@ -126,6 +135,9 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           centers = new double[k][model._output.nfeatures()];
           for (double[] center : centers)
             randomRow(vecs, rand, center, means, mults, modes);
+        } else if (_parms._init == Initialization.PlusPlusParallel) {
+          centers = parallelPlusPlus(model, vecs, rand, means, mults, modes, k);
+          if (centers == null) return null; // Stopped/cancelled
         } else {
           centers = new double[1][model._output.nfeatures()];
           // Initialize first cluster center to random row
@@ -158,6 +170,53 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       return centers;
     }
 
+    // k-means|| (Bahmani et al. 2012): a few passes that each sample about 2k candidate centers in parallel,
+    // with probability proportional to their square distance to the candidates sampled so far, then a local
+    // weighted k-means++ (plus a few weighted Lloyds iterations) down to k centers.
+    // The square distance of every row to its closest candidate is kept in a side Vec, so that every pass only
+    // needs the distances to the newly sampled candidates.
+    double[][] parallelPlusPlus(KMeansModel model, final Vec[] vecs, Random rand, final double[] means, final double[] mults, final int[] modes, int k) {
+      double[][] candidates = new double[1][model._output.nfeatures()];
+      randomRow(vecs, rand, candidates[0], means, mults, modes);
+      Vec[] vecs2 = Arrays.copyOf(vecs, vecs.length+2);
+      vecs2[vecs2.length-2] = vecs[0].makeCon(Double.MAX_VALUE); // square distance to the closest candidate
+      vecs2[vecs2.length-1] = vecs[0].makeCon(-1); // closest candidate
+      try {
+        double[][] added = candidates;
+        model._output._iterations = 0;
+        MinSqrUpdate sqr;
+        while (true) {
+          sqr = new MinSqrUpdate(added, candidates.length - added.length, candidates.length, means, mults, modes, _isCats, hasWeightCol()).doAll(vecs2);
+          if (model._output._iterations == PARALLEL_INIT_ROUNDS) break;
+          SqrSampler sampler = new SqrSampler(sqr._sqr, PARALLEL_INIT_OVERSAMPLING * k, _parms.getOrMakeRealSeed() + model._output._iterations, means, mults, modes, hasWeightCol()).doAll(vecs2);
+          added = sampler._sampled;
+          model._output._iterations++;
+          if (added.length == 0) break;
+          candidates = ArrayUtils.append(candidates, added);
+
+          if (stop_requested()) return null; // Stopped/cancelled
+          model._output._centers_raw = destandardize(candidates, _isCats, means, mults);
+          model._output._tot_withinss = sqr._sqr / _train.numRows();
+          model.update(_job); // Make early version of model visible, but don't update progress using update(1)
+        }
+        model._output._iterations = 0; // Reset iteration count
+        // with the last update, the rows closest to each candidate are counted as its weight
+        double[] weights = new double[candidates.length];
+        for (int i = 0; i < weights.length; i++) weights[i] = sqr._counts[i];
+        Log.info("KMeans: Reclustering " + candidates.length + " k-means|| candidates down to " + k + " centers.");
+        while (candidates.length < k) { // tiny data: not enough distinct candidates
+          double[] row = new double[model._output.nfeatures()];
+          randomRow(vecs, rand, row, means, mults, modes);
+          candidates = ArrayUtils.append(candidates, new double[][]{row});
+          weights = ArrayUtils.append(weights, new double[]{1});
+        }
+        return weightedRecluster(candidates, weights, rand, k, _isCats);
+      } finally {
+        vecs2[vecs2.length-2].remove();
+        vecs2[vecs2.length-1].remove();
+      }
+    }
+
     // Number of reinitialization attempts for preventing empty clusters
     transient private int _reinit_attempts;
     // Handle the case where some centers go dry.  Rescue only 1 cluster
@@ -275,6 +334,15 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           Log.info("Cutoff for relative improvement in within_cluster_sum_of_squares: " + rel_improvement_cutoff);
         Vec[] vecs2 = Arrays.copyOf(vecs, vecs.length+1);
         vecs2[vecs2.length-1] = vecs2[0].makeCon(-1);
+        // Lloyds passes also keep a lower bound on the distance of every row to its 2nd-closest center
+        Vec[] vecs3 = Arrays.copyOf(vecs2, vecs2.length+1);
+        vecs3[vecs3.length-1] = vecs2[0].makeCon(0);
+        final boolean miniBatch = _parms._mini_batch_size > 0;
+        if (miniBatch) {
+          centers = miniBatchIterations(model, vecs, centers, means, mults, impute_cat, startK);
+          if( centers==null ) return; // Stopped/cancelled during mini-batch iterations
+        }
+        double[][] boundCenters = null; // Centers the row bounds in vecs3 refer to
         for (int k = startK; k <= _parms._k; ++k) {
           Log.info("Running Lloyds iteration for " + k + " centroids.");
           model._output._iterations = 0;  // Loop ends only when iterations > max_iterations with strict inequality
@@ -282,7 +350,9 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           boolean stop = false;
           do { //Lloyds algorithm
             assert(centers.length == k);
-            LloydsIterationTask task = new LloydsIterationTask(centers, means, mults, impute_cat, _isCats, k, hasWeightCol()).doAll(vecs2); //1 PASS OVER THE DATA
+            double[] drift = boundCenters != null && boundCenters.length == k ? drift(boundCenters, centers, _isCats) : null;
+            boundCenters = ArrayUtils.deepClone(centers);
+            LloydsIterationTask task = new LloydsIterationTask(centers, drift, means, mults, impute_cat, _isCats, k, hasWeightCol()).doAll(vecs3); //1 PASS OVER THE DATA
             // Pick the max categorical level for cluster center
             max_cats(task._cMeans, task._cats, _isCats);
 
@@ -302,9 +372,12 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
               _job.update(1); //1 more Lloyds iteration
             }
 
-            stop = (task._reassigned_count < Math.max(1,train().numRows()*TOLERANCE) || model._output._iterations >= _parms._max_iterations);
+            // after the mini-batch iterations, a single full pass assigns all the rows and computes the statistics
+            stop = (miniBatch || task._reassigned_count < Math.max(1,train().numRows()*TOLERANCE) || model._output._iterations >= _parms._max_iterations);
             if (stop) {
-              if (model._output._iterations < _parms._max_iterations)
+              if (miniBatch)
+                Log.info("Lloyds assigned all rows after the mini-batch iterations.");
+              else if (model._output._iterations < _parms._max_iterations)
                 Log.info("Lloyds converged after " + model._output._iterations + " iterations.");
               else
                 Log.info("Lloyds stopped after " + model._output._iterations + " iterations.");
@@ -338,6 +411,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
             centers = splitLargestCluster(centers, lo, hi, means, mults, impute_cat, vecs2, k);
         } //k-finder
         vecs2[vecs2.length-1].remove();
+        vecs3[vecs3.length-1].remove();
 
         Log.info(model._output._model_summary);
         Log.info(model._output._scoring_history);
@@ -391,6 +465,55 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       return newCenters;
     }
 
+    // Mini-batch K-Means (Sculley 2010): every iteration only looks at a random sample of about mini_batch_size
+    // rows, and moves each center towards the mean of its sampled rows with a per-center learning rate of
+    // (#rows sampled for this center in this batch) / (#rows ever sampled for this center).
+    double[][] miniBatchIterations(KMeansModel model, final Vec[] vecs, double[][] centers, final double[] means, final double[] mults, final int[] modes, int k) {
+      final double fraction = Math.min(1, (double)_parms._mini_batch_size / _train.numRows());
+      final long seed = _parms.getOrMakeRealSeed();
+      final long[] counts = new long[k];
+      final long[][][] cats = new long[k][][];
+      Log.info("Running " + _parms._max_iterations + " mini-batch iterations with " + _parms._mini_batch_size + " rows each.");
+      for (int iter = 0; iter < _parms._max_iterations; ++iter) {
+        MiniBatchTask task = new MiniBatchTask(centers, means, mults, modes, _isCats, k, hasWeightCol(), fraction, seed + iter * 0x9E3779B97F4A7C15L).doAll(vecs);
+        double shift = 0;
+        for (int clu = 0; clu < k; clu++) {
+          if (task._size[clu] == 0) continue;
+          counts[clu] += task._size[clu];
+          final double eta = (double) task._size[clu] / counts[clu];
+          final double[] old = centers[clu].clone();
+          for (int col = 0; col < old.length; col++) {
+            if (_isCats[col] != null) continue;
+            centers[clu][col] += eta * (task._cSum[clu][col] / task._size[clu] - centers[clu][col]);
+          }
+          if (cats[clu] == null) cats[clu] = task._cats[clu];
+          else ArrayUtils.add(cats[clu], task._cats[clu]);
+          for (int col = 0; col < old.length; col++)
+            if (_isCats[col] != null)
+              centers[clu][col] = ArrayUtils.maxIndex(cats[clu][col]);
+          shift = Math.max(shift, hex.genmodel.GenModel.KMeans_distance(old, centers[clu], _isCats, null, null));
+        }
+        if (stop_requested()) return null; // Stopped/cancelled
+        model._output._centers_raw = destandardize(centers, _isCats, means, mults);
+        model.update(_job); // Make early version of model visible
+        _job.update(1);
+        if (shift == 0) {
+          Log.info("Mini-batch centers stopped moving after " + (iter+1) + " iterations.");
+          _job.update(_parms._max_iterations - iter - 1);
+          break;
+        }
+      }
+      return centers;
+    }
+
+    // Distance each center moved since the row bounds were computed
+    double[] drift(double[][] oldCenters, double[][] centers, String[][] isCats) {
+      double[] drift = new double[centers.length];
+      for (int clu = 0; clu < centers.length; clu++)
+        drift[clu] = Math.sqrt(hex.genmodel.GenModel.KMeans_distance(oldCenters[clu], centers[clu], isCats, null, null));
+      return drift;
+    }
+
     private TwoDimTable createModelSummaryTable(KMeansModel.KMeansOutput output) {
       List<String> colHeaders = new ArrayList<>();
       List<String> colTypes = new ArrayList<>();
@@ -598,16 +721,138 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
   }
 
+  // -------------------------------------------------------------------------
+  // k-means||: update every row's square distance to (and index of) its
+  // closest candidate with the candidates added since the last pass, and sum
+  // up the square distances and the number of rows closest to each candidate.
+  private static class MinSqrUpdate extends MRTask<MinSqrUpdate> {
+    // IN
+    double[][] _added;            // Candidates added since the last pass
+    final int _offset;            // Index of the first added candidate
+    final int _candidates;        // Total number of candidates
+    double[] _means, _mults;      // Standardization
+    int[] _modes;   // Imputation of missing categoricals
+    final String[][] _isCats;
+    final boolean _hasWeight;
+
+    // OUT
+    double _sqr;
+    long[] _counts;               // Number of rows closest to each candidate
+
+    MinSqrUpdate(double[][] added, int offset, int candidates, double[] means, double[] mults, int[] modes, String[][] isCats, boolean hasWeight) {
+      _added = added;
+      _offset = offset;
+      _candidates = candidates;
+      _means = means;
+      _mults = mults;
+      _modes = modes;
+      _isCats = isCats;
+      _hasWeight = hasWeight;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*min square distance, closest candidate*/;
+      Chunk minSqr = cs[cs.length-2];
+      Chunk closest = cs[cs.length-1];
+      double[] values = new double[N];
+      ClusterDist cd = new ClusterDist();
+      _counts = new long[_candidates];
+      for( int row = 0; row < cs[0]._len; row++ ) {
+        if (_hasWeight && cs[N].atd(row) == 0) continue; //skip holdout rows
+        data(values, cs, row, _means, _mults, _modes);
+        closest(_added, values, _isCats, cd);
+        double sqr = minSqr.atd(row);
+        int idx = (int) closest.at8(row);
+        if (cd._dist < sqr) {
+          sqr = cd._dist;
+          idx = _offset + cd._cluster;
+          minSqr.set(row, sqr);
+          closest.set(row, idx);
+        }
+        _sqr += sqr;
+        _counts[idx]++;
+      }
+      _added = null;
+      _means = _mults = null;
+      _modes = null;
+    }
+
+    @Override public void reduce(MinSqrUpdate other) {
+      _sqr += other._sqr;
+      ArrayUtils.add(_counts, other._counts);
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // k-means||: sample rows with probability oversampling * (square distance
+  // to the closest candidate) / (sum of all square distances).
+  private static class SqrSampler extends MRTask<SqrSampler> {
+    // IN
+    final double _sqr;            // Sum of square distances
+    final double _oversampling;   // Expected number of sampled rows
+    final long _seed;
+    double[] _means, _mults;      // Standardization
+    int[] _modes;   // Imputation of missing categoricals
+    final boolean _hasWeight;
+
+    // OUT
+    double[][] _sampled;   // New candidates
+
+    SqrSampler(double sqr, double oversampling, long seed, double[] means, double[] mults, int[] modes, boolean hasWeight) {
+      _sqr = sqr;
+      _oversampling = oversampling;
+      _seed = seed;
+      _means = means;
+      _mults = mults;
+      _modes = modes;
+      _hasWeight = hasWeight;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*min square distance, closest candidate*/;
+      Chunk minSqr = cs[cs.length-2];
+      ArrayList<double[]> list = new ArrayList<>();
+      Random rand = RandomUtils.getRNG(_seed + cs[0].start());
+      for( int row = 0; row < cs[0]._len; row++ ) {
+        if (_hasWeight && cs[N].atd(row) == 0) continue; //skip holdout rows
+        if( _oversampling * minSqr.atd(row) > rand.nextDouble() * _sqr ) {
+          double[] values = new double[N];
+          data(values, cs, row, _means, _mults, _modes);
+          list.add(values);
+        }
+      }
+      _sampled = list.toArray(new double[list.size()][]);
+      _means = _mults = null;
+      _modes = null;
+    }
+
+    @Override public void reduce(SqrSampler other) {
+      _sampled = ArrayUtils.append(_sampled, other._sampled);
+    }
+  }
+
   // ---------------------------------------
   // A Lloyd's pass:
   //   Find nearest cluster center for every point
   //   Compute new mean/center & variance & rows for each cluster
   //   Compute distance between clusters
   //   Compute total sqr distance
+  //
+  // Rows keep their cluster assignment and a lower bound on the distance to
+  // their 2nd-closest center in two side Vecs (Hamerly's algorithm).  Given
+  // how far every center moved since the last pass (drift), the distance to
+  // the assigned center is enough to prove that a row stays where it is for
+  // most rows, and only the remaining rows are compared to all k centers.
 
   private static class LloydsIterationTask extends MRTask<LloydsIterationTask> {
+    // Safety margin for the bound checks, so that round-off never changes an assignment
+    private static final double BOUND_EPS = 1e-10;
     // IN
     double[][] _centers;
+    double[] _drift;              // Distance each center moved since the bounds were computed (null: no valid bounds)
+    double[] _halfMinSep;         // Half the distance of each center to its closest other center
+    double _maxDrift, _maxDrift2; // Largest and second largest drift
+    int _maxDriftIdx;             // Center with the largest drift
     double[] _means, _mults;      // Standardization
     int[] _modes;   // Imputation of missing categoricals
     final int _k;
@@ -624,7 +869,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     long _worst_row;            // Row with max err
     double _worst_err;          // Max-err-row's max-err
 
-    LloydsIterationTask(double[][] centers, double[] means, double[] mults, int[] modes, String[][] isCats, int k, boolean hasWeight ) {
+    LloydsIterationTask(double[][] centers, double[] drift, double[] means, double[] mults, int[] modes, String[][] isCats, int k, boolean hasWeight ) {
       _centers = centers;
       _means = means;
       _mults = mults;
@@ -632,10 +877,25 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       _isCats = isCats;
       _k = k;
       _hasWeight = hasWeight;
+      if (drift != null) {
+        _drift = drift;
+        _maxDriftIdx = ArrayUtils.maxIndex(drift);
+        _maxDrift = drift[_maxDriftIdx];
+        for (int clu = 0; clu < k; clu++)
+          if (clu != _maxDriftIdx) _maxDrift2 = Math.max(_maxDrift2, drift[clu]);
+        _halfMinSep = new double[k];
+        Arrays.fill(_halfMinSep, Double.MAX_VALUE);
+        for (int i = 0; i < k; i++)
+          for (int j = i + 1; j < k; j++) {
+            double half = 0.5 * Math.sqrt(hex.genmodel.GenModel.KMeans_distance(centers[i], centers[j], isCats, null, null));
+            _halfMinSep[i] = Math.min(_halfMinSep[i], half);
+            _halfMinSep[j] = Math.min(_halfMinSep[j], half);
+          }
+      }
     }
 
     @Override public void map(Chunk[] cs) {
-      int N = cs.length - (_hasWeight ? 1:0) - 1 /*clusterassignment*/;
+      int N = cs.length - (_hasWeight ? 1:0) - 2 /*clusterassignment, lower bound*/;
       assert _centers[0].length==N;
       _lo = new double[_k][N];
       for( int clu=0; clu< _k; clu++ )
@@ -653,7 +913,8 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
           _cats[clu][col] = _isCats[col]==null ? null : new long[cs[col].vec().cardinality()];
       _worst_err = 0;
 
-      Chunk assignment = cs[cs.length-1];
+      Chunk assignment = cs[cs.length-2];
+      Chunk lower = cs[cs.length-1];
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
       ClusterDist cd = new ClusterDist();
@@ -662,21 +923,32 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
         if (weight == 0) continue; //skip holdout rows
         assert(weight == 1); //K-Means only works for weight 1 (or weight 0 for holdout)
         data(values, cs, row, _means, _mults, _modes); // Load row as doubles
-        closest(_centers, values, _isCats, cd); // Find closest cluster center
-        if (cd._cluster != assignment.at8(row)) {
+        int old = (int) assignment.at8(row);
+        boolean bounded = false;
+        if (_drift != null && old >= 0) {
+          // exact distance to the assigned center (needed for the statistics anyway)
+          double sqr = hex.genmodel.GenModel.KMeans_distance(_centers[old], values, _isCats, null, null);
+          double l = lower.atd(row) - (old == _maxDriftIdx ? _maxDrift2 : _maxDrift);
+          if (Math.sqrt(sqr) * (1 + BOUND_EPS) < Math.max(_halfMinSep[old], l)) { // no other center can be closer
+            cd._cluster = old;
+            cd._dist = sqr;
+            lower.set(row, l);
+            bounded = true;
+          }
+        }
+        if (!bounded) {
+          lower.set(row, Math.sqrt(closestTwo(_centers, values, _isCats, cd))); // Find closest cluster center
+        }
+        if (cd._cluster != old) {
           _reassigned_count+=weight;
           assignment.set(row, cd._cluster);
         }
-        for( int clu=0; clu< _k; clu++ ) {
-          for( int col=0; col<N; col++ ) {
-            if (cd._cluster == clu) {
-              _lo[clu][col] = Math.min(values[col], _lo[clu][col]);
-              _hi[clu][col] = Math.max(values[col], _hi[clu][col]);
-            }
-          }
-        }
         int clu = cd._cluster;
         assert clu != -1;       // No broken rows
+        for( int col=0; col<N; col++ ) {
+          _lo[clu][col] = Math.min(values[col], _lo[clu][col]);
+          _hi[clu][col] = Math.max(values[col], _hi[clu][col]);
+        }
         _cSqr[clu] += cd._dist;
 
         // Add values and increment counter for chosen cluster
@@ -693,6 +965,7 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       for( int clu = 0; clu < _k; clu++ )
         if( _size[clu] != 0 ) ArrayUtils.div(_cMeans[clu], _size[clu]);
       _centers = null;
+      _drift = _halfMinSep = null;
       _means = _mults = null;
       _modes = null;
     }
@@ -721,6 +994,80 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
   }
 
+  // ---------------------------------------
+  // A mini-batch pass: assign a random sample of the rows (about the given
+  // fraction) to their closest centers and sum them up per center.
+  private static class MiniBatchTask extends MRTask<MiniBatchTask> {
+    // IN
+    double[][] _centers;
+    double[] _means, _mults;      // Standardization
+    int[] _modes;   // Imputation of missing categoricals
+    final int _k;
+    final String[][] _isCats;
+    final boolean _hasWeight;
+    final double _fraction;
+    final long _seed;
+
+    // OUT
+    double[][] _cSum;           // Sums for each cluster
+    long[/*k*/][/*features*/][/*nfactors*/] _cats; // Histogram of cat levels
+    long[] _size;               // Number of sampled rows in each cluster
+
+    MiniBatchTask(double[][] centers, double[] means, double[] mults, int[] modes, String[][] isCats, int k, boolean hasWeight, double fraction, long seed) {
+      _centers = centers;
+      _means = means;
+      _mults = mults;
+      _modes = modes;
+      _isCats = isCats;
+      _k = k;
+      _hasWeight = hasWeight;
+      _fraction = fraction;
+      _seed = seed;
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int N = cs.length - (_hasWeight ? 1:0);
+      _cSum = new double[_k][N];
+      _size = new long[_k];
+      _cats = new long[_k][N][];
+      for( int clu=0; clu< _k; clu++ )
+        for( int col=0; col<N; col++ )
+          _cats[clu][col] = _isCats[col]==null ? null : new long[cs[col].vec().cardinality()];
+      Random rand = RandomUtils.getRNG(_seed + cs[0].start());
+      double[] values = new double[N];
+      ClusterDist cd = new ClusterDist();
+      // Skip over the rows that are not sampled (geometric gaps between sampled rows)
+      final double logq = _fraction < 1 ? Math.log1p(-_fraction) : 0;
+      for( int row = nextSample(rand, -1, logq); row < cs[0]._len; row = nextSample(rand, row, logq) ) {
+        double weight = _hasWeight ? cs[N].atd(row) : 1;
+        if (weight == 0) continue; //skip holdout rows
+        data(values, cs, row, _means, _mults, _modes);
+        int clu = closest(_centers, values, _isCats, cd)._cluster;
+        for( int col = 0; col < N; col++ )
+          if( _isCats[col] != null )
+            _cats[clu][col][(int)values[col]]++;
+          else
+            _cSum[clu][col] += values[col];
+        _size[clu]++;
+      }
+      _centers = null;
+      _means = _mults = null;
+      _modes = null;
+    }
+
+    private static int nextSample(Random rand, int row, double logq) {
+      if (logq == 0) return row + 1;
+      double gap = Math.floor(Math.log(1 - rand.nextDouble()) / logq);
+      return gap >= Integer.MAX_VALUE - row - 1 ? Integer.MAX_VALUE : row + 1 + (int) gap;
+    }
+
+    @Override public void reduce(MiniBatchTask mr) {
+      ArrayUtils.add(_cSum, mr._cSum);
+      ArrayUtils.add(_cats, mr._cats);
+      ArrayUtils.add(_size, mr._size);
+    }
+  }
+
   // A pair result: nearest cluster center and the square distance
   private static final class ClusterDist { int _cluster; double _dist;  }
 
@@ -752,6 +1099,24 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     return cd;                  // Return for flow-coding
   }
 
+  /** Find the nearest cluster center and its square-distance, and return the square-distance to the 2nd-nearest one. */
+  private static double closestTwo(double[][] centers, double[] point, String[][] isCats, ClusterDist cd) {
+    int min = -1;
+    double minSqr = Double.MAX_VALUE, minSqr2 = Double.MAX_VALUE;
+    for( int cluster = 0; cluster < centers.length; cluster++ ) {
+      double sqr = hex.genmodel.GenModel.KMeans_distance(centers[cluster],point,isCats,null,null);
+      if( sqr < minSqr ) {      // Record nearest cluster
+        min = cluster;
+        minSqr2 = minSqr;
+        minSqr = sqr;
+      } else if( sqr < minSqr2 )
+        minSqr2 = sqr;
+    }
+    cd._cluster = min;          // Record nearest cluster
+    cd._dist = minSqr;          // Record square-distance
+    return minSqr2;
+  }
+
   // KMeans++ re-clustering
   private static double[][] recluster(double[][] points, Random rand, int N, Initialization init, String[][] isCats) {
     double[][] res = new double[N][];
@@ -795,6 +1160,76 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     return res;
   }
 
+  // Weighted k-means++ on the (few) k-means|| candidates, refined by weighted Lloyds iterations
+  private static double[][] weightedRecluster(double[][] points, double[] weights, Random rand, int k, String[][] isCats) {
+    final int n = points.length;
+    double[][] res = new double[k][];
+    double[] minSqr = new double[n];
+    Arrays.fill(minSqr, Double.MAX_VALUE);
+    // first center: proportional to the weights, then proportional to weight * square distance
+    res[0] = points[sample(weights, null, rand)].clone();
+    for (int count = 1; count < k; count++) {
+      for (int i = 0; i < n; i++)
+        minSqr[i] = Math.min(minSqr[i], hex.genmodel.GenModel.KMeans_distance(res[count-1], points[i], isCats, null, null));
+      res[count] = points[sample(weights, minSqr, rand)].clone();
+    }
+    // Lloyds on the candidates
+    ClusterDist cd = new ClusterDist();
+    int[] assignment = new int[n];
+    Arrays.fill(assignment, -1);
+    for (int iter = 0; iter < 10; iter++) {
+      boolean changed = false;
+      for (int i = 0; i < n; i++) {
+        int clu = closest(res, points[i], isCats, cd)._cluster;
+        if (clu != assignment[i]) { assignment[i] = clu; changed = true; }
+      }
+      if (!changed) break;
+      double[] w = new double[k];
+      double[][] sum = new double[k][res[0].length];
+      for (int i = 0; i < n; i++) {
+        w[assignment[i]] += weights[i];
+        for (int col = 0; col < sum[0].length; col++)
+          if (isCats[col] == null) sum[assignment[i]][col] += weights[i] * points[i][col];
+      }
+      for (int col = 0; col < sum[0].length; col++) {
+        if (isCats[col] != null) { // weighted mode
+          List<Map<Double,Double>> levels = new ArrayList<>(k);
+          for (int clu = 0; clu < k; clu++) levels.add(new HashMap<Double,Double>());
+          for (int i = 0; i < n; i++) {
+            Map<Double,Double> lvl = levels.get(assignment[i]);
+            Double lw = lvl.get(points[i][col]);
+            lvl.put(points[i][col], (lw == null ? 0 : lw) + weights[i]);
+          }
+          for (int clu = 0; clu < k; clu++) {
+            if (levels.get(clu).isEmpty()) continue;
+            double best = -1;
+            for (Map.Entry<Double,Double> e : levels.get(clu).entrySet())
+              if (e.getValue() > best) { best = e.getValue(); res[clu][col] = e.getKey(); }
+          }
+        } else {
+          for (int clu = 0; clu < k; clu++)
+            if (w[clu] > 0) res[clu][col] = sum[clu][col] / w[clu]; // keep an empty center where it is
+        }
+      }
+    }
+    return res;
+  }
+
+  // Index sampled with probability proportional to weights[i] * (sqr == null ? 1 : sqr[i])
+  private static int sample(double[] weights, double[] sqr, Random rand) {
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) sum += weights[i] * (sqr == null ? 1 : sqr[i]);
+    double r = rand.nextDouble() * sum;
+    int last = 0;
+    for (int i = 0; i < weights.length; i++) {
+      double p = weights[i] * (sqr == null ? 1 : sqr[i]);
+      if (p <= 0) continue;
+      last = i;
+      if ((r -= p) < 0) return i;
+    }
+    return last; // round-off (or all remaining points coincide with centers)
+  }
+
   private void randomRow(Vec[] vecs, Random rand, double[] center, double[] means, double[] mults, int[] modes) {
     long row = Math.max(0, (long) (rand.nextDouble() * vecs[0].length()) - 1);
     data(center, vecs, row, means, mults, modes);
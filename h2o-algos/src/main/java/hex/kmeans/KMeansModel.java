@@ -27,7 +27,7 @@ public class KMeansModel extends ClusteringModel<KMeansModel,KMeansModel.KMeansP
     public String algoName() { return "KMeans"; }
     public String fullName() { return "K-means"; }
     public String javaName() { return KMeansModel.class.getName(); }
-    @Override public long progressUnits() { return _estimate_k ? _k : _max_iterations; }
+    @Override public long progressUnits() { return _estimate_k ? _k : _max_iterations + (_mini_batch_size > 0 ? 1 : 0); }
     public int _max_iterations = 10;     // Max iterations for Lloyds
     public boolean _standardize = true;    // Standardize columns
     public KMeans.Initialization _init = KMeans.Initialization.Furthest;
@@ -35,6 +35,7 @@ public class KMeansModel extends ClusteringModel<KMeansModel,KMeansModel.KMeansP
     public boolean _pred_indicator = false;   // For internal use only: generate indicator cols during prediction
                                               // Ex: k = 4, cluster = 3 -> [0, 0, 1, 0]
     public boolean _estimate_k = false;       // If enabled, iteratively find up to _k clusters
+    public long _mini_batch_size = 0;         // If > 0, run max_iterations mini-batch iterations on that many sampled rows each, then a single full Lloyds pass
   }
 
   public static class KMeansOutput extends ClusteringModel.ClusteringOutput {
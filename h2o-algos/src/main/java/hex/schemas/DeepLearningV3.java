@@ -85,6 +85,7 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         "replicate_training_data",
         "single_node_mode",
         "shuffle_training_data",
+        "thread_local_weights",
         "missing_values_handling",
         "quiet_mode",
         "autoencoder",
@@ -99,7 +100,9 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         "categorical_encoding",
         "elastic_averaging",
         "elastic_averaging_moving_rate",
-        "elastic_averaging_regularization"
+        "elastic_averaging_regularization",
+        "async_averaging",
+        "async_averaging_delta_fraction"
     };
 
 
@@ -608,6 +611,14 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
             "train_samples_per_iteration is close to #nodes x #rows, of if using balance_classes).")
     public boolean shuffle_training_data;
 
+    /**
+     * Train on a private copy of the weights per thread and merge the updates into the node-shared model after each chunk.
+     */
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
+        help = "Train on thread-local copies of the weights (merged after each chunk) instead of updating shared weights " +
+            "from all threads (Hogwild!), scales better on nodes with many cores.")
+    public boolean thread_local_weights;
+
     @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
         values = {"Skip", "MeanImputation"},
         help = "Handling of missing values. Either Skip or MeanImputation.")
@@ -658,6 +669,15 @@ public class DeepLearningV3 extends ModelBuilderSchema<DeepLearning,DeepLearning
         help = "Elastic averaging regularization strength (only if elastic averaging is enabled).")
     public double elastic_averaging_regularization;
 
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
+        help = "Asynchronous model averaging between compute nodes (requires replicate_training_data): nodes push " +
+            "compressed weight updates and pull averaged weights while they train. #Experimental")
+    public boolean async_averaging;
+
+    @API(level = API.Level.expert, direction = API.Direction.INOUT, gridable = true,
+        help = "Fraction of the largest weight updates pushed per synchronization (only if asynchronous averaging is enabled).")
+    public double async_averaging_delta_fraction;
+
     @API(level = API.Level.expert, direction = API.Direction.INOUT,
         help = "Pretrained autoencoder model to initialize this model with.")
     public KeyV3.ModelKeyV3 pretrained_autoencoder;
@@ -57,6 +57,8 @@ public class GLMV3 extends ModelBuilderSchema<GLM,GLMV3,GLMV3.GLMParametersV3> {
             "beta_constraints",
             "max_active_predictors",
             "interactions",
+            "mini_batch_size",
+            "learning_rate",
             // dead unused args forced here by backwards compatibility, remove in V4
             "balance_classes",
             "class_sampling_factors",
@@ -80,7 +82,7 @@ public class GLMV3 extends ModelBuilderSchema<GLM,GLMV3,GLMV3.GLMParametersV3> {
     @API(help = "Tweedie link power", level = Level.critical, gridable = true)
     public double tweedie_link_power;
 
-    @API(help = "AUTO will set the solver based on given data and the other parameters. IRLSM is fast on on problems with small number of predictors and for lambda-search with L1 penalty, L_BFGS scales better for datasets with many columns. Coordinate descent is experimental (beta).", values = {"AUTO", "IRLSM", "L_BFGS","COORDINATE_DESCENT_NAIVE", "COORDINATE_DESCENT"}, level = Level.critical)
+    @API(help = "AUTO will set the solver based on given data and the other parameters. IRLSM is fast on on problems with small number of predictors and for lambda-search with L1 penalty, L_BFGS scales better for datasets with many columns. Coordinate descent is experimental (beta). SGD (mini-batch stochastic gradient descent) needs only a few passes over the data and is meant for datasets with very many rows.", values = {"AUTO", "IRLSM", "L_BFGS","COORDINATE_DESCENT_NAIVE", "COORDINATE_DESCENT", "SGD"}, level = Level.critical)
     public Solver solver;
 
     @API(help = "distribution of regularization between L1 and L2.", level = Level.critical, gridable = true)
@@ -163,6 +165,12 @@ public class GLMV3 extends ModelBuilderSchema<GLM,GLMV3,GLMV3.GLMParametersV3> {
     @API(help="A list of predictor column indices to interact. All pairwise combinations will be computed for the list.", direction=Direction.INPUT, level=Level.expert)
     public String[] interactions;
 
+    @API(help="Number of rows used to compute one gradient step, ONLY applies to SGD solver.", direction=Direction.INPUT, level=Level.expert)
+    public int mini_batch_size;
+
+    @API(help="Learning rate (step size) of the SGD solver, steps are further adapted per coefficient (Adam).", direction=Direction.INPUT, level=Level.expert)
+    public double learning_rate;
+
     // dead unused args, formely inherited from supervised model schema
     /**
      * For imbalanced data, balance training data class counts via
@@ -29,7 +29,8 @@ public class KMeansV3 extends ClusteringModelBuilderSchema<KMeans,KMeansV3,KMean
         "seed",
         "init",
         "max_runtime_secs",
-        "categorical_encoding"
+        "categorical_encoding",
+        "mini_batch_size"
     };
 
     // Input fields
@@ -45,10 +46,13 @@ public class KMeansV3 extends ClusteringModelBuilderSchema<KMeans,KMeansV3,KMean
     @API(help = "RNG Seed", level = API.Level.secondary /* tested, works: , dependsOn = {"k", "max_iterations"} */, gridable = true)
     public long seed;
 
-    @API(help = "Initialization mode", values = { "Random", "PlusPlus", "Furthest", "User" }, gridable = true) // TODO: pull out of categorical class. . .
+    @API(help = "Initialization mode", values = { "Random", "PlusPlus", "Furthest", "User", "PlusPlusParallel" }, gridable = true) // TODO: pull out of categorical class. . .
     public KMeans.Initialization init;
 
     @API(help = "Whether to estimate the number of clusters (<=k) iteratively and deterministically.", level = API.Level.critical, gridable = true)
     public boolean estimate_k = false;
+
+    @API(help = "Number of rows sampled per mini-batch iteration, followed by a single full Lloyds pass (0 to run full Lloyds iterations only).", level = API.Level.expert, gridable = true)
+    public long mini_batch_size;
   }
 }
@@ -311,6 +311,36 @@ public class DataInfoTest extends TestUtil {
     }
   }
 
+  @Test public void testSparseColumns() {
+    double[] a = new double[2000], b = new double[2000];
+    for (int i = 0; i < a.length; i += 97) a[i] = i;
+    for (int i = 5; i < b.length; i += 151) b[i] = -0.5 * i;
+    b[10] = Double.NaN; // imputed with the mean
+    Frame fr = new Frame(new String[]{"a", "b", "c"}, new Vec[]{dvec(a), dvec(b), dvec(new double[2000])});
+    DataInfo di = null;
+    try {
+      di = new DataInfo(
+              fr.clone(),  // train
+              null,        // valid
+              0,           // num responses
+              true,        // use all factor levels
+              DataInfo.TransformType.NONE,  // predictor transform
+              DataInfo.TransformType.NONE,  // response  transform
+              false,       // skip missing
+              true,        // impute missing
+              false,       // missing bucket
+              false,       // weight
+              false,       // offset
+              false,       // fold
+              null         // interactions
+      );
+      checker(di,false);
+    } finally {
+      fr.delete();
+      if( di!=null ) di.remove();
+    }
+  }
+
 //  @Test public void personalChecker() {
 //    final Frame gold = parse_test_file(Key.make("gold"), "/Users/spencer/Desktop/ffff.csv");
 //    Frame fr = parse_test_file(Key.make("a.hex"), "/Users/spencer/Desktop/iris.csv");
@@ -20,6 +20,7 @@ import water.util.*;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Random;
 
 import static hex.genmodel.utils.DistributionFamily.*;
 import static org.junit.Assert.assertEquals;
@@ -1591,6 +1592,206 @@ public class DeepLearningTest extends TestUtil {
   }
 
 
+  @Test
+  public void testThreadLocalWeights() {
+    Frame tfr = null;
+    DeepLearningModel dl = null;
+
+    try {
+      tfr = parse_test_file("./smalldata/gbm_test/BostonHousing.csv");
+      DeepLearningParameters parms = new DeepLearningParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.lastVecName();
+      parms._hidden = new int[]{20,20};
+      parms._seed = 0xdecaf;
+      parms._epochs = 20;
+      parms._thread_local_weights = true;
+
+      dl = new DeepLearning(parms).trainModel().get();
+
+      // variance of the response is ~84
+      assertTrue("MSE = " + dl._output._training_metrics._MSE, dl._output._training_metrics._MSE < 40);
+
+    } finally {
+      if (tfr != null) tfr.delete();
+      if (dl != null) dl.delete();
+    }
+  }
+
+  @Test
+  public void testAsyncAveraging() {
+    Frame tfr = null;
+    DeepLearningModel dl = null;
+
+    try {
+      tfr = parse_test_file("./smalldata/gbm_test/BostonHousing.csv");
+      DeepLearningParameters parms = new DeepLearningParameters();
+      parms._train = tfr._key;
+      parms._response_column = tfr.lastVecName();
+      parms._hidden = new int[]{20,20};
+      parms._seed = 0xdecaf;
+      parms._epochs = 20;
+      parms._replicate_training_data = true;
+      parms._async_averaging = true;
+      parms._async_averaging_delta_fraction = 0.1;
+
+      dl = new DeepLearning(parms).trainModel().get();
+
+      // variance of the response is ~84
+      assertTrue("MSE = " + dl._output._training_metrics._MSE, dl._output._training_metrics._MSE < 40);
+      // the aggregator only lives while an iteration runs
+      Assert.assertNull(DKV.get(AsyncModelAveraging.aggregatorKey(dl.model_info())));
+
+    } finally {
+      if (tfr != null) tfr.delete();
+      if (dl != null) dl.delete();
+    }
+  }
+
+  @Test
+  public void testAsyncAveragingPullsOtherNodesUpdates() {
+    final Key key = Key.make("testAsyncAveragingPullsOtherNodesUpdates");
+    try {
+      DKV.put(key, new AsyncModelAveraging.Weights(new float[][]{new float[100]}, new double[][]{new double[2]}));
+      // two nodes with their own models, starting from the (zero) aggregated weights
+      float[][] w1 = new float[][]{new float[100]}, w2 = new float[][]{new float[100]};
+      double[][] b1 = new double[][]{new double[2]}, b2 = new double[][]{new double[2]};
+      AsyncModelAveraging.Synchronizer n1 = new AsyncModelAveraging.Synchronizer(key, w1, b1, 2, 1, 1);
+      AsyncModelAveraging.Synchronizer n2 = new AsyncModelAveraging.Synchronizer(key, w2, b2, 2, 1, 1);
+      w1[0][3] = 2;
+      b1[0][0] = 1;
+      n1.sync(w1, b1, 1);
+      w2[0][7] = 4;
+      n2.sync(w2, b2, 1);
+      // node 2 got the update of node 1, and both updates are averaged
+      assertEquals(1, w2[0][3], 0);
+      assertEquals(2, w2[0][7], 0);
+      assertEquals(0.5, b2[0][0], 0);
+      n1.pull(w1, b1);
+      assertEquals(1, w1[0][3], 0);
+      assertEquals(2, w1[0][7], 0);
+      // only the deltas were pulled: 2 weights and 1 bias (4 + 4 resp. 4 + 8 bytes each)
+      assertEquals(2 * 8 + 12, n1._bytesReceived);
+
+      // a dense update pushes the older deltas out of the log: a node that missed them gets the full weights
+      for (int j = 0; j < 100; ++j) w1[0][j] += 1;
+      b1[0][0] += 1;
+      b1[0][1] += 1;
+      n1.push(w1, b1, 1);
+      float[][] w3 = new float[][]{new float[100]};
+      double[][] b3 = new double[][]{new double[2]};
+      AsyncModelAveraging.Synchronizer n3 = new AsyncModelAveraging.Synchronizer(key, w3, b3, 2, 1, 1);
+      n3.pull(w3, b3);
+      assertEquals(100 * 4 + 2 * 8, n3._bytesReceived);
+      AsyncModelAveraging.Weights agg = DKV.getGet(key);
+      Assert.assertArrayEquals(agg._w[0], w3[0], 0);
+      Assert.assertArrayEquals(agg._b[0], b3[0], 0);
+      assertEquals(1.5, w3[0][3], 0);
+      assertEquals(2.5, w3[0][7], 0);
+    } finally {
+      DKV.remove(key);
+    }
+  }
+
+  @Test
+  public void testAsyncAveragingThreshold() {
+    Random rng = new Random(0xDECAF);
+    float[] w = new float[100000];
+    float[] w0 = new float[w.length];
+    for (int i = 0; i < w.length; ++i) {
+      w0[i] = (float) rng.nextGaussian();
+      w[i] = w0[i] + (float) rng.nextGaussian();
+    }
+    double t = AsyncModelAveraging.threshold(w, w0, 0.05);
+    int above = 0;
+    for (int i = 0; i < w.length; ++i)
+      if (Math.abs(w[i] - w0[i]) >= t) above++;
+    assertEquals(0.05, (double) above / w.length, 0.01);
+    assertEquals(0, AsyncModelAveraging.threshold(w, w0, 1), 0);
+    // nothing changed: nothing to send
+    assertEquals(0, AsyncModelAveraging.threshold(w0, w0, 0.05), 0);
+  }
+
+  @Test
+  public void testAsyncAveragingConcurrentPushes() throws InterruptedException {
+    final Key key = Key.make("testAsyncAveragingConcurrentPushes");
+    try {
+      final float[][] w = new float[][]{new float[1000], new float[10]};
+      final double[][] b = new double[][]{new double[10], new double[1]};
+      final AsyncModelAveraging.Weights published = new AsyncModelAveraging.Weights(w, b);
+      DKV.put(key, published);
+      final int threads = 8, pushes = 50;
+      Thread[] ts = new Thread[threads];
+      for (int t = 0; t < threads; ++t) {
+        final int seed = t;
+        ts[t] = new Thread() {
+          @Override public void run() {
+            Random rng = new Random(seed);
+            for (int p = 0; p < pushes; ++p) {
+              // every other push skips the 2nd layer's weights
+              int[][] wIdx = new int[][]{{rng.nextInt(1000), 999}, p % 2 == 0 ? new int[]{3} : new int[0]};
+              float[][] wVal = new float[][]{{0, 1}, p % 2 == 0 ? new float[]{2} : new float[0]};
+              int[][] bIdx = new int[][]{{0}, {0}};
+              double[][] bVal = new double[][]{{1}, {0.5}};
+              new AsyncModelAveraging.PushDelta(wIdx, wVal, bIdx, bVal, 1).invoke(key);
+            }
+          }
+        };
+        ts[t].start();
+      }
+      for (Thread t : ts) t.join();
+      AsyncModelAveraging.Weights agg = DKV.getGet(key);
+      // every delta was added exactly once
+      assertEquals(threads * pushes, agg._w[0][999], 0);
+      assertEquals(threads * pushes, agg._w[1][3], 0);
+      assertEquals(threads * pushes, agg._b[0][0], 0);
+      assertEquals(threads * pushes * 0.5, agg._b[1][0], 0);
+      // the initially published arrays were not modified in place
+      assertEquals(0, published._w[0][999], 0);
+      assertEquals(0, published._w[1][3], 0);
+      assertEquals(0, published._b[0][0], 0);
+    } finally {
+      DKV.remove(key);
+    }
+  }
+
+  // Training speed of the shared (Hogwild!) and the thread-local weights, run with different -nthreads for scaling curves
+  @Ignore
+  @Test
+  public void benchmarkThreadLocalWeights() {
+    Frame tfr = null;
+    try {
+      CreateFrame cf = new CreateFrame();
+      cf.rows = 200000;
+      cf.cols = 200;
+      cf.categorical_fraction = 0;
+      cf.integer_fraction = 0;
+      cf.binary_fraction = 0;
+      cf.missing_fraction = 0;
+      cf.has_response = true;
+      cf.response_factors = 10;
+      cf.seed = 1234;
+      tfr = cf.execImpl().get();
+      for (boolean threadLocal : new boolean[]{false, true, false, true}) {
+        DeepLearningParameters parms = new DeepLearningParameters();
+        parms._train = tfr._key;
+        parms._response_column = "response";
+        parms._hidden = new int[]{512, 512};
+        parms._epochs = 1;
+        parms._score_training_samples = 100;
+        parms._thread_local_weights = threadLocal;
+        long start = System.currentTimeMillis();
+        DeepLearningModel dl = new DeepLearning(parms).trainModel().get();
+        long time = System.currentTimeMillis() - start;
+        Log.info((threadLocal ? "thread-local" : "shared") + " weights, " + H2O.ARGS.nthreads + " threads: "
+            + (int)(1e3 * dl.model_info().get_processed_total() / time) + " samples/sec");
+        dl.delete();
+      }
+    } finally {
+      if (tfr != null) tfr.delete();
+    }
+  }
+
   @Test
   public void testPretrainedAE() {
     Frame tfr = null;
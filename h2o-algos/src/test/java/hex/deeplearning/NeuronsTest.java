@@ -109,4 +109,63 @@ public class NeuronsTest extends water.TestUtil {
     System.out.println("optimized dense row * dense time: " + PrettyPrint.msecs(System.currentTimeMillis()-start, true));
   }
 
+  @Test
+  public void matrixMatrixMatchesMatrixVec() {
+    Random rng = new Random(0xDEADL);
+    for (int cols : new int[]{3, 8, 13, 100}) {
+      int rows = 37;
+      float[] a = new float[rows * cols];
+      for (int i = 0; i < a.length; ++i) a[i] = rng.nextFloat() - 0.5f;
+      double[] y = new double[rows];
+      for (int row = 0; row < rows; ++row) y[row] = rng.nextDouble();
+      byte[] bits = new byte[(rows + 7) / 8];
+      rng.nextBytes(bits);
+      for (int n : new int[]{1, 2, 5, GEMM_MB_TILE + 3}) {
+        double[][] x = new double[n][cols];
+        for (double[] xs : x)
+          for (int col = 0; col < cols; ++col) xs[col] = rng.nextGaussian();
+        for (byte[] rowBits : new byte[][]{null, bits}) {
+          double[][] res = new double[n][rows];
+          gemm_row_optimized(res, a, x, y, rowBits, n);
+          for (int mb = 0; mb < n; ++mb) {
+            double[] expected = new double[rows];
+            gemv_row_optimized(expected, a, x[mb], y, rowBits);
+            Assert.assertArrayEquals(expected, res[mb], 0);
+          }
+        }
+      }
+    }
+  }
+
+  @Ignore
+  @Test
+  public void matrixMatrixTest() {
+    // MNIST-sized first hidden layer
+    int rows = 1024;
+    int cols = 717;
+    int mb = 32;
+    int loops = 20;
+    Random rng = new Random(0x533D);
+    float[] a = new float[rows * cols];
+    for (int i = 0; i < a.length; ++i) a[i] = rng.nextFloat();
+    double[] y = new double[rows];
+    double[][] x = new double[mb][cols];
+    double[][] res = new double[mb][rows];
+    for (double[] xs : x)
+      for (int col = 0; col < cols; ++col) xs[col] = rng.nextFloat();
+
+    for (int warmup = 0; warmup < 2; ++warmup) {
+      long start = System.currentTimeMillis();
+      for (int l = 0; l < loops; ++l)
+        for (int i = 0; i < mb; ++i)
+          gemv_row_optimized(res[i], a, x[i], y, null);
+      long gemvTime = System.currentTimeMillis() - start;
+      start = System.currentTimeMillis();
+      for (int l = 0; l < loops; ++l)
+        gemm_row_optimized(res, a, x, y, null, mb);
+      long gemmTime = System.currentTimeMillis() - start;
+      Log.info("mini-batch of " + mb + ": gemv per row " + PrettyPrint.msecs(gemvTime, true) + ", gemm " + PrettyPrint.msecs(gemmTime, true));
+    }
+  }
+
 }
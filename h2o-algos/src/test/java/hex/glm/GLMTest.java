@@ -1737,6 +1737,35 @@ public class GLMTest  extends TestUtil {
     }
   }
 
+  // SGD should get close to the IRLSM solution in a few passes over the data
+  @Test public void testSGD() {
+    GLMModel irlsm = null, sgd = null;
+    Frame fr = parse_test_file("smalldata/logreg/prostate.csv");
+    try {
+      GLMParameters params = new GLMParameters(Family.binomial);
+      params._response_column = "CAPSULE";
+      params._ignored_columns = new String[]{"ID"};
+      params._train = fr._key;
+      params._alpha = new double[]{.5};
+      params._lambda = new double[]{1e-4};
+      params._solver = Solver.IRLSM;
+      irlsm = new GLM(params).trainModel().get();
+      double resDevIRLSM = ((ModelMetricsBinomialGLM) irlsm._output._training_metrics)._resDev;
+      params._solver = Solver.SGD;
+      params._mini_batch_size = 8;
+      params._learning_rate = .05;
+      params._max_iterations = 20;
+      params._objective_epsilon = 0;
+      sgd = new GLM(params).trainModel().get();
+      double resDevSGD = ((ModelMetricsBinomialGLM) sgd._output._training_metrics)._resDev;
+      assertTrue("SGD deviance " + resDevSGD + " too far from IRLSM deviance " + resDevIRLSM, resDevSGD < 1.02 * resDevIRLSM);
+    } finally {
+      fr.delete();
+      if (irlsm != null) irlsm.delete();
+      if (sgd != null) sgd.delete();
+    }
+  }
+
   @Test public void testAbalone() {
     Scope.enter();
     GLMModel model = null;
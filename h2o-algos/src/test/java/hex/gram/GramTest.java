@@ -0,0 +1,151 @@
+package hex.gram;
+
+import hex.CreateFrame;
+import hex.DataInfo;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import water.TestUtil;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.util.Log;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GramTest extends TestUtil {
+
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static Frame wideFrame(long rows, int cols) {
+    CreateFrame cf = new CreateFrame();
+    cf.rows = rows;
+    cf.cols = cols;
+    cf.categorical_fraction = 0.05;
+    cf.factors = 5;
+    cf.integer_fraction = 0.2;
+    cf.binary_fraction = 0;
+    cf.missing_fraction = 0;
+    cf.seed = 1234;
+    return cf.execImpl().get();
+  }
+
+  private static DataInfo dataInfo(Frame fr) {
+    return new DataInfo(fr, null, 0, true, DataInfo.TransformType.STANDARDIZE, DataInfo.TransformType.NONE,
+            true, false, false, false, false, false);
+  }
+
+  private static Gram newGram(DataInfo dinfo, boolean blocked) {
+    return new Gram(dinfo.fullN(), dinfo.largestCat(), dinfo.numNums(), dinfo._cats, true).setBlocked(blocked);
+  }
+
+  /** Adds all rows of the frame to the grams, single-threaded */
+  private static void addRows(DataInfo dinfo, Gram... grams) {
+    Frame fr = dinfo._adaptedFrame;
+    DataInfo.Row row = dinfo.newDenseRow();
+    for (int cidx = 0; cidx < fr.anyVec().nChunks(); cidx++) {
+      Chunk[] cs = new Chunk[fr.numCols()];
+      for (int i = 0; i < cs.length; i++) cs[i] = fr.vec(i).chunkForChunkIdx(cidx);
+      for (int r = 0; r < cs[0]._len; r++) {
+        dinfo.extractDenseRow(cs, r, row);
+        double w = 1 + (r % 3); // non-trivial weights
+        for (Gram g : grams) g.addRow(row, w);
+      }
+    }
+    for (Gram g : grams) g.flush();
+  }
+
+  @Test public void testBlockedAccumulation() {
+    Frame fr = wideFrame(1000, 100);
+    DataInfo dinfo = null;
+    try {
+      dinfo = dataInfo(fr);
+      Gram expected = newGram(dinfo, false);
+      Gram actual = newGram(dinfo, true);
+      assertFalse(expected.isBlocked());
+      assertTrue(actual.isBlocked());
+      addRows(dinfo, expected, actual);
+      double[][] xxExp = expected.getXX();
+      double[][] xxAct = actual.getXX();
+      for (int i = 0; i < xxExp.length; i++)
+        for (int j = 0; j < xxExp.length; j++)
+          assertEquals(xxExp[i][j], xxAct[i][j], 1e-10 * Math.max(1, Math.abs(xxExp[i][j])));
+    } finally {
+      if (dinfo != null) dinfo.remove();
+      fr.delete();
+    }
+  }
+
+  @Test public void testNarrowGramIsNotBlocked() {
+    Gram g = new Gram(10, 0, 10, 0, true).setBlocked(true);
+    assertFalse(g.isBlocked());
+  }
+
+  /** Random symmetric, diagonally dominant (=> SPD) matrix stored as a lower triangle */
+  private static double[][] spdLower(int N, long seed) {
+    Random rnd = new Random(seed);
+    double[][] xx = new double[N][];
+    for (int i = 0; i < N; i++) {
+      xx[i] = new double[i + 1];
+      for (int j = 0; j < i; j++) xx[i][j] = 2 * rnd.nextDouble() - 1;
+      xx[i][i] = N;
+    }
+    return xx;
+  }
+
+  @Test public void testBlockedCholesky() {
+    final int N = 300;
+    Gram.InPlaceCholesky expected = Gram.InPlaceCholesky.decompose_2(spdLower(N, 42), 10, 4);
+    Gram.InPlaceCholesky actual = Gram.InPlaceCholesky.decompose_blocked(spdLower(N, 42), 64, 4);
+    assertTrue(expected.isSPD());
+    assertTrue(actual.isSPD());
+    for (int i = 0; i < N; i++)
+      for (int j = 0; j <= i; j++)
+        assertEquals(expected.getL()[i][j], actual.getL()[i][j], 1e-10);
+    double[][] nonSpd = spdLower(N, 42);
+    nonSpd[N - 1][N - 1] = -1;
+    assertFalse(Gram.InPlaceCholesky.decompose_blocked(nonSpd, 64, 4).isSPD());
+  }
+
+  @Test public void testParallelCholeskySolve() {
+    final int N = 1200; // above the thresholds of both the blocked decomposition and the parallel solves
+    Gram gram = new Gram(N, 0, N, 0, false);
+    gram._xx = spdLower(N, 7);
+    Gram.Cholesky chol = gram.cholesky(null);
+    assertTrue(chol.isSPD());
+    Random rnd = new Random(13);
+    double[] b = new double[N];
+    for (int i = 0; i < N; i++) b[i] = rnd.nextDouble();
+    double[] x = b.clone();
+    chol.solve(x);
+    double[] ax = gram.mul(x);
+    for (int i = 0; i < N; i++)
+      assertEquals(b[i], ax[i], 1e-8);
+  }
+
+  @Ignore @Test public void benchmarkWideGram() {
+    Frame fr = wideFrame(20000, 1000);
+    DataInfo dinfo = null;
+    try {
+      dinfo = dataInfo(fr);
+      for (int iter = 0; iter < 3; iter++) {
+        Gram rank1 = newGram(dinfo, false);
+        long start = System.currentTimeMillis();
+        addRows(dinfo, rank1);
+        long rank1Time = System.currentTimeMillis() - start;
+        Gram blocked = newGram(dinfo, true);
+        start = System.currentTimeMillis();
+        addRows(dinfo, blocked);
+        long blockedTime = System.currentTimeMillis() - start;
+        Log.info("Gram with p=" + dinfo.fullN() + ": rank-1 updates " + rank1Time + "ms, blocked " + blockedTime + "ms");
+      }
+    } finally {
+      if (dinfo != null) dinfo.remove();
+      fr.delete();
+    }
+  }
+
+}
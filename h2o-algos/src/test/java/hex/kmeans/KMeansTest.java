@@ -91,6 +91,64 @@ public class KMeansTest extends TestUtil {
     }
   }
 
+  @Test public void testIrisMiniBatch() {
+    KMeansModel kmm = null, kmmFull = null;
+    Frame fr = null;
+    try {
+      fr = parse_test_file("smalldata/iris/iris_wheader.csv");
+
+      KMeansModel.KMeansParameters parms = new KMeansModel.KMeansParameters();
+      parms._train = fr._key;
+      parms._k = 3;
+      parms._standardize = true;
+      parms._max_iterations = 20;
+      parms._init = KMeans.Initialization.PlusPlus;
+      kmmFull = doSeed(parms, 1234);
+
+      parms._mini_batch_size = 30;
+      kmm = doSeed(parms, 1234);
+      Assert.assertEquals(fr.numRows(), ArrayUtils.sum(kmm._output._size));
+      Assert.assertTrue("withinss: " + kmm._output._tot_withinss + " vs. " + kmmFull._output._tot_withinss,
+          kmm._output._tot_withinss <= 1.2 * kmmFull._output._tot_withinss);
+    } finally {
+      if( fr  != null ) fr.delete();
+      if( kmm != null ) kmm.delete();
+      if( kmmFull != null ) kmmFull.delete();
+    }
+  }
+
+  @Test public void testIrisPlusPlusParallel() {
+    KMeansModel kmm = null, kmmPP = null;
+    Frame fr = null;
+    try {
+      fr = parse_test_file("smalldata/iris/iris_wheader.csv");
+
+      KMeansModel.KMeansParameters parms = new KMeansModel.KMeansParameters();
+      parms._train = fr._key;
+      parms._k = 3;
+      parms._standardize = true;
+      parms._max_iterations = 10;
+      for (long seed : new long[]{0, 1, 42}) {
+        parms._init = KMeans.Initialization.PlusPlus;
+        kmmPP = doSeed(parms, seed);
+        parms._init = KMeans.Initialization.PlusPlusParallel;
+        kmm = doSeed(parms, seed);
+        Assert.assertEquals(3, kmm._output._centers_raw.length);
+        // k-means|| seeds as well as k-means++
+        Assert.assertTrue("withinss: " + kmm._output._tot_withinss + " vs. " + kmmPP._output._tot_withinss,
+            kmm._output._tot_withinss <= 1.2 * kmmPP._output._tot_withinss);
+        kmm.delete();
+        kmm = null;
+        kmmPP.delete();
+        kmmPP = null;
+      }
+    } finally {
+      if( fr  != null ) fr.delete();
+      if( kmm != null ) kmm.delete();
+      if( kmmPP != null ) kmmPP.delete();
+    }
+  }
+
   @Test public void testIrisAutoK() {
     KMeansModel kmm = null;
     Frame fr = null, fr2= null;
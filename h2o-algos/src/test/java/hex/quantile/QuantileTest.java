@@ -4,9 +4,16 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
+import water.DKV;
+import water.Futures;
 import water.Job;
+import water.Key;
+import water.MRTask;
 import water.TestUtil;
+import water.Value;
+import water.fvec.Chunk;
 import water.fvec.Frame;
+import water.fvec.Vec;
 import water.util.ArrayUtils;
 
 import java.util.Arrays;
@@ -694,4 +701,62 @@ public class QuantileTest extends TestUtil {
       if( fr2  != null ) fr2.remove();
     }
   }
+
+  @Test public void testApproximate() {
+    QuantileModel exact = null, approx = null;
+    Frame fr = null;
+    try {
+      Vec seq = Vec.makeSeq(100000, true); // 1, 2, ... 100000
+      fr = new Frame(Key.<Frame>make("seq"), new String[]{"x"}, new Vec[]{seq});
+      DKV.put(fr);
+      QuantileModel.QuantileParameters parms = new QuantileModel.QuantileParameters();
+      parms._train = fr._key;
+      exact = new Quantile(parms).trainModel().get();
+      parms._approximate = true;
+      approx = new Quantile(parms).trainModel().get();
+      for (int i = 0; i < parms._probs.length; i++) // rank error well below 1%
+        Assert.assertEquals(exact._output._quantiles[0][i], approx._output._quantiles[0][i], 500);
+
+      // sketches are cached with the rollups, and dropped once the Vec changes
+      Assert.assertNotNull(DKV.get(seq.quantileSketchKey()));
+      new MRTask() {
+        @Override public void map(Chunk c) { c.set(0, 0); }
+      }.doAll(seq);
+      Assert.assertNull(DKV.get(seq.quantileSketchKey()));
+    } finally {
+      if( fr     != null ) fr    .remove();
+      if( exact  != null ) exact .delete();
+      if( approx != null ) approx.delete();
+    }
+  }
+
+  @Test public void testSketchNotCachedWhileMutating() {
+    Vec seq = null;
+    try {
+      seq = Vec.makeSeq(1000, true);
+      Key key = seq.quantileSketchKey();
+      // sketches of a Vec being written into are computed, but not cached
+      seq.preWriting();
+      Assert.assertNull(seq.contentVersion());
+      QuantileSketch qs = QuantileSketch.get(new Vec[]{seq})[0];
+      Assert.assertNull(DKV.get(key));
+      // a sketch put while the Vec was mutating is dropped once the write ends
+      DKV.put(key, qs);
+      seq.postWrite(new Futures()).blockForPending();
+      Assert.assertNull(DKV.get(key));
+
+      // a sketch computed before the Vec was modified is not cached after
+      Value version = seq.contentVersion();
+      Assert.assertNotNull(version);
+      new MRTask() {
+        @Override public void map(Chunk c) { c.set(0, -1); }
+      }.doAll(seq);
+      Assert.assertFalse(seq.cacheIfUnchanged(key, qs, version));
+      Assert.assertNull(DKV.get(key));
+      Assert.assertTrue(seq.cacheIfUnchanged(key, qs, seq.contentVersion()));
+      Assert.assertNotNull(DKV.get(key));
+    } finally {
+      if( seq != null ) seq.remove();
+    }
+  }
 }
@@ -7,6 +7,7 @@ import water.fvec.*;
 import water.util.ArrayUtils;
 import water.util.Log;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
@@ -75,6 +76,10 @@ public class Quantile extends ModelBuilder<QuantileModel,QuantileModel.QuantileP
         // ---
         // Run the main Quantile Loop
         Vec vecs[] = train().vecs();
+        if( _parms._approximate ) {
+          approximate(model, vecs);
+          return;
+        }
         for( int n=0; n<_ncols; n++ ) {
           if( stop_requested() ) return; // Stopped/cancelled
           Vec vec = vecs[n];
@@ -112,6 +117,24 @@ public class Quantile extends ModelBuilder<QuantileModel,QuantileModel.QuantileP
         if( model != null ) model.unlock(_job);
       }
     }
+
+    // All columns in a single pass (or none, if all sketches are cached)
+    private void approximate(QuantileModel model, Vec[] vecs) {
+      ArrayList<Vec> numeric = new ArrayList<>();
+      for( int n=0; n<_ncols; n++ )
+        if( !(vecs[n].isBad() || vecs[n].isCategorical() || vecs[n].isString() || vecs[n].isTime() || vecs[n].isUUID()) )
+          numeric.add(vecs[n]);
+      Vec[] nvecs = numeric.toArray(new Vec[numeric.size()]);
+      QuantileSketch[] qss = _weights == null ? QuantileSketch.get(nvecs) : QuantileSketch.get(nvecs, _weights);
+      model._output._iterations = 1;
+      for( int n=0, i=0; n<_ncols; n++ ) {
+        QuantileSketch qs = i < nvecs.length && vecs[n] == nvecs[i] ? qss[i++] : null; // null for non-numeric columns
+        for( int p = 0; p < _parms._probs.length; p++ )
+          model._output._quantiles[n][p] = qs == null ? Double.NaN : qs.quantile(_parms._probs[p]);
+        _job.update(_parms._probs.length);
+      }
+      model.update(_job);
+    }
   }
 
   public static class StratifiedQuantilesTask extends H2O.H2OCountedCompleter<StratifiedQuantilesTask> {
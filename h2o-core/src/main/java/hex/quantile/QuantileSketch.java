@@ -0,0 +1,213 @@
+package hex.quantile;
+
+import water.DKV;
+import water.Iced;
+import water.MRTask;
+import water.Value;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *  Mergeable approximate quantile sketch: a merging t-digest (Dunning &amp; Ertl).
+ *
+ *  Values are summarized by weighted centroids, small ones near the tails and
+ *  larger ones in the middle of the distribution, so extreme quantiles stay
+ *  accurate.  Sketches of chunks merge into sketches of whole columns, so the
+ *  sketches of all columns of a frame are built in one pass over the data.
+ *  Unweighted sketches are cached next to the rollups of their Vec (see
+ *  {@link Vec#quantileSketchKey()}), so repeated quantile queries do not touch
+ *  the data again; they are dropped when the Vec is modified or removed.
+ */
+public class QuantileSketch extends Iced<QuantileSketch> {
+  public static final double COMPRESSION = 200; // ~compression/2 centroids, errors ~1/compression in the middle
+
+  private final double _compression;
+  private double[] _means, _weights; // Centroids, sorted by mean
+  private int _n;                    // Number of centroids
+  private transient double[] _bufMeans, _bufWeights; // Unmerged values, allocated lazily
+  private transient int _nbuf;
+  private double _total;             // Total weight, including unmerged values
+  private double _min = Double.POSITIVE_INFINITY, _max = Double.NEGATIVE_INFINITY;
+
+  public QuantileSketch() { this(COMPRESSION); }
+
+  public QuantileSketch(double compression) {
+    _compression = compression;
+    _means = new double[(int) (2 * compression) + 10];
+    _weights = new double[_means.length];
+  }
+
+  /** Add a value with a weight; NAs and non-positive weights are skipped. */
+  public void add(double d, double w) {
+    if (Double.isNaN(d) || !(w > 0)) return;
+    if (_bufMeans == null) {
+      _bufMeans = new double[(int) (5 * _compression)];
+      _bufWeights = new double[_bufMeans.length];
+    }
+    if (_nbuf == _bufMeans.length) compress();
+    _bufMeans[_nbuf] = d;
+    _bufWeights[_nbuf++] = w;
+    _total += w;
+    if (d < _min) _min = d;
+    if (d > _max) _max = d;
+  }
+
+  /** Merge another sketch into this one; the other sketch is not modified. */
+  public void merge(QuantileSketch qs) {
+    for (int i = 0; i < qs._n; i++) add(qs._means[i], qs._weights[i]);
+    for (int i = 0; i < qs._nbuf; i++) add(qs._bufMeans[i], qs._bufWeights[i]);
+    if (qs._min < _min) _min = qs._min;
+    if (qs._max > _max) _max = qs._max;
+  }
+
+  /** Total weight of the sketched values */
+  public double total() { return _total; }
+
+  /** @return approximate quantile for probability prob, or NaN if no values were added. */
+  public double quantile(double prob) {
+    if (_nbuf > 0) compress();
+    if (_n == 0) return Double.NaN;
+    if (prob <= 0) return _min;
+    if (prob >= 1) return _max;
+    if (_n == 1) return _means[0];
+    double idx = prob * _total;   // Target weight; centroid i sits at the middle of its weight
+    if (idx < _weights[0] / 2)   // Between the minimum and the first centroid
+      return _min + (_means[0] - _min) * idx / (_weights[0] / 2);
+    double left = _weights[0] / 2; // Position of centroid i
+    for (int i = 0; i < _n - 1; i++) {
+      double right = left + (_weights[i] + _weights[i + 1]) / 2;
+      if (idx < right)
+        return _means[i] + (_means[i + 1] - _means[i]) * (idx - left) / (right - left);
+      left = right;
+    }
+    // Between the last centroid and the maximum
+    double rest = _total - left;
+    return rest <= 0 ? _max : _means[_n - 1] + (_max - _means[_n - 1]) * Math.min(1, (idx - left) / rest);
+  }
+
+  // Merge the buffered values into the centroids: one sweep in sorted order,
+  // growing a centroid while it spans at most one unit of the scale function
+  private void compress() {
+    if (_nbuf == 0) return;
+    sort(_bufMeans, _bufWeights, 0, _nbuf - 1);
+    double[] means = new double[_means.length], weights = new double[_weights.length];
+    int n = 0, i = 0, j = 0;
+    double sofar = 0;  // Weight of the emitted centroids
+    while (i < _n || j < _nbuf) {
+      boolean old = j == _nbuf || (i < _n && _means[i] <= _bufMeans[j]);
+      double m = old ? _means[i] : _bufMeans[j];
+      double w = old ? _weights[i++] : _bufWeights[j++];
+      if (n > 0 && scale((sofar + weights[n - 1] + w) / _total) - scale(sofar / _total) <= 1) {
+        weights[n - 1] += w;
+        means[n - 1] += (m - means[n - 1]) * w / weights[n - 1];
+      } else {
+        if (n > 0) sofar += weights[n - 1];
+        if (n == means.length) { // Cannot happen with the k1 scale, but stay safe
+          means = Arrays.copyOf(means, n << 1);
+          weights = Arrays.copyOf(weights, n << 1);
+        }
+        means[n] = m;
+        weights[n++] = w;
+      }
+    }
+    _means = means;
+    _weights = weights;
+    _n = n;
+    _nbuf = 0;
+  }
+
+  // The k1 scale function: centroids are small near q=0 and q=1
+  private double scale(double q) {
+    return _compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, q) - 1);
+  }
+
+  // Sort values (and their weights) by value
+  private static void sort(double[] ds, double[] ws, int lo, int hi) {
+    while (hi - lo > 16) {
+      double pivot = ds[(lo + hi) >>> 1];
+      int i = lo, j = hi;
+      while (i <= j) {
+        while (ds[i] < pivot) i++;
+        while (ds[j] > pivot) j--;
+        if (i <= j) swap(ds, ws, i++, j--);
+      }
+      if (j - lo < hi - i) { sort(ds, ws, lo, j); lo = i; }
+      else { sort(ds, ws, i, hi); hi = j; }
+    }
+    for (int i = lo + 1; i <= hi; i++) // Insertion sort for small ranges
+      for (int j = i; j > lo && ds[j - 1] > ds[j]; j--)
+        swap(ds, ws, j - 1, j);
+  }
+
+  private static void swap(double[] ds, double[] ws, int i, int j) {
+    double d = ds[i]; ds[i] = ds[j]; ds[j] = d;
+    double w = ws[i]; ws[i] = ws[j]; ws[j] = w;
+  }
+
+  /**
+   *  Sketches of all the given Vecs; cached sketches are reused, the missing
+   *  ones are built in a single pass and cached.
+   */
+  public static QuantileSketch[] get(Vec[] vecs) {
+    QuantileSketch[] qss = new QuantileSketch[vecs.length];
+    ArrayList<Vec> missing = new ArrayList<>();
+    for (int i = 0; i < vecs.length; i++)
+      if ((qss[i] = DKV.getGet(vecs[i].quantileSketchKey())) == null)
+        missing.add(vecs[i]);
+    if (missing.isEmpty()) return qss;
+    // Versions are read before the pass, the sketch of a Vec modified meanwhile is not cached
+    Value[] versions = new Value[missing.size()];
+    for (int j = 0; j < versions.length; j++) versions[j] = missing.get(j).contentVersion();
+    QuantileSketch[] built = new SketchTask(missing.size(), false).doAll(new Frame(missing.toArray(new Vec[missing.size()])))._sketches;
+    for (int i = 0, j = 0; i < vecs.length; i++) {
+      if (qss[i] != null) continue;
+      qss[i] = built[j];
+      vecs[i].cacheIfUnchanged(vecs[i].quantileSketchKey(), qss[i], versions[j++]);
+    }
+    return qss;
+  }
+
+  /** Sketches of all the given Vecs weighted by the weights Vec, in a single pass; not cached. */
+  public static QuantileSketch[] get(Vec[] vecs, Vec weights) {
+    Vec[] all = Arrays.copyOf(vecs, vecs.length + 1);
+    all[vecs.length] = weights;
+    return new SketchTask(vecs.length, true).doAll(new Frame(all))._sketches;
+  }
+
+  // Sketch every column (but the weights, if any, in the last column)
+  private static class SketchTask extends MRTask<SketchTask> {
+    final int _ncols;
+    final boolean _weighted;
+    QuantileSketch[] _sketches;
+
+    SketchTask(int ncols, boolean weighted) { _ncols = ncols; _weighted = weighted; }
+
+    @Override public void map(Chunk[] cs) {
+      _sketches = new QuantileSketch[_ncols];
+      for (int col = 0; col < _ncols; col++) {
+        QuantileSketch qs = _sketches[col] = new QuantileSketch();
+        for (int row = 0; row < cs[col]._len; row++)
+          qs.add(cs[col].atd(row), _weighted ? cs[_ncols].atd(row) : 1);
+        qs.compress();
+      }
+    }
+
+    @Override public void reduce(SketchTask t) {
+      for (int col = 0; col < _ncols; col++) {
+        _sketches[col].merge(t._sketches[col]);
+        _sketches[col].compress();
+      }
+    }
+
+    @Override public void postGlobal() {
+      if (_sketches == null) { // No chunks at all
+        _sketches = new QuantileSketch[_ncols];
+        for (int col = 0; col < _ncols; col++) _sketches[col] = new QuantileSketch();
+      }
+    }
+  }
+}
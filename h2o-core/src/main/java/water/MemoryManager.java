@@ -79,6 +79,10 @@ abstract public class MemoryManager {
   }
   static boolean canAlloc() { return CAN_ALLOC; }
 
+  /** True if allocations are currently blocked, or the heap was nearly full
+   *  at the last GC; caches of recomputable data should shrink. */
+  public static boolean isMemoryLow() { return !CAN_ALLOC || MEM_LOW_CRITICAL; }
+
   static void set_goals( String msg, boolean oom){
     set_goals(msg, oom, 0);
   }
@@ -2,6 +2,9 @@ package water.api;
 
 import water.DKV;
 import water.JettyHTTPD;
+import water.fvec.CSVFormatter;
+import water.fvec.Chunk;
+import water.fvec.ColumnarStream;
 import water.fvec.Frame;
 
 import javax.servlet.ServletException;
@@ -10,11 +13,31 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
+ * Streams a Frame as CSV, or in the binary columnar format of {@link
+ * ColumnarStream} with {@code format=binary}.  Chunks are formatted one at a
+ * time while the next few are fetched in the background.  A single
+ * {@code Range: bytes=first-last} request header resumes an interrupted
+ * download: the byte size of every chunk is computed in parallel, and
+ * streaming starts at the chunk holding the first requested byte.  Every
+ * response carries an {@code ETag} derived from the content fingerprints of
+ * the frame's Vecs, and a range is only served while the frame is unchanged:
+ * a request whose {@code If-Range} does not match the current ETag gets the
+ * whole dataset, so a frame modified between two range requests is never
+ * spliced into one file.  The chunk sizes are cached under the ETag, so the
+ * requests resuming one download compute them once.
  */
 public class DatasetServlet extends HttpServlet {
+  // Chunk sizes of the most recently resumed downloads, by ETag
+  private static final int MAX_CACHED_SIZES = 16;
+  private static final Map<String, long[]> SIZES = Collections.synchronizedMap(new LinkedHashMap<String, long[]>(16, 0.75f, true) {
+    @Override protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) { return size() > MAX_CACHED_SIZES; }
+  });
 
   @Override
   protected void doGet(HttpServletRequest request, HttpServletResponse response) {
@@ -23,16 +46,19 @@ public class DatasetServlet extends HttpServlet {
       boolean use_hex = false;
       String f_name = request.getParameter("frame_id");
       String hex_string = request.getParameter("hex_string");
+      String format = request.getParameter("format");
       if (f_name == null) {
         throw new RuntimeException("Cannot find value for parameter \'frame_id\'");
       }
       if (hex_string != null && hex_string.toLowerCase().equals("true")) {
         use_hex = true;
       }
+      if (format != null && !format.equals("csv") && !format.equals("binary")) {
+        throw new RuntimeException("Unknown format '" + format + "', expected 'csv' or 'binary'");
+      }
+      boolean binary = "binary".equals(format);
 
       Frame dataset = DKV.getGet(f_name);
-      // TODO: Find a way to determing the hex_string parameter. It should not always be false
-      InputStream is = dataset.toCSV(true, use_hex);
       response.setContentType("application/octet-stream");
       // Clean up the file name
       int x = f_name.length() - 1;
@@ -41,14 +67,51 @@ public class DatasetServlet extends HttpServlet {
         if (!Character.isLetterOrDigit(f_name.charAt(x)) && f_name.charAt(x) != '_')
           if (f_name.charAt(x) == '.' && !dot) dot = true;
           else break;
-      String suggested_fname = f_name.substring(x + 1).replace(".hex", ".csv");
-      if (!suggested_fname.endsWith(".csv"))
-        suggested_fname = suggested_fname + ".csv";
+      String ext = binary ? ".bin" : ".csv";
+      String suggested_fname = f_name.substring(x + 1).replace(".hex", ext);
+      if (!suggested_fname.endsWith(ext))
+        suggested_fname = suggested_fname + ext;
       f_name = suggested_fname;
       response.addHeader("Content-Disposition", "attachment; filename=" + f_name);
-      JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
-      OutputStream os = response.getOutputStream();
-      water.util.FileUtils.copyStream(is, os, 2048);
+      response.addHeader("Accept-Ranges", "bytes");
+      String etag = etag(dataset, binary, use_hex);
+      if (etag != null) response.setHeader("ETag", etag);
+
+      // Ranges of a frame being modified, or of another version than the one named by If-Range, are not served
+      long[] range = parseRange(request.getHeader("Range"));
+      String ifRange = request.getHeader("If-Range");
+      if (etag == null || (ifRange != null && !ifRange.trim().equals(etag))) range = null;
+      InputStream is;
+      long limit = -1;
+      if (range == null) {
+        is = binary ? dataset.toBinary() : dataset.toCSV(true, use_hex);
+        JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_OK);
+      } else {
+        long[] sizes = SIZES.get(etag);
+        if (sizes == null) SIZES.put(etag, sizes = dataset.streamedChunkSizes(binary, use_hex));
+        long headerLen = binary ? ColumnarStream.header(dataset).length
+                                : new CSVFormatter(use_hex).header(dataset.names()).length();
+        long total = headerLen + (binary ? 4 : 0); // binary streams end with a 0 row count
+        for (long size : sizes) total += size;
+        long first = range[0], last = range[1];
+        if (first < 0) { first = Math.max(0, total + first); last = total - 1; } // suffix range: the last -first bytes
+        if (last < 0 || last >= total) last = total - 1;
+        if (first >= total || first > last) {
+          response.addHeader("Content-Range", "bytes */" + total);
+          JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+          return;
+        }
+        is = streamFrom(dataset, sizes, headerLen, first, binary, use_hex);
+        limit = last - first + 1;
+        response.addHeader("Content-Range", "bytes " + first + "-" + last + "/" + total);
+        response.setHeader("Content-Length", Long.toString(limit));
+        JettyHTTPD.setResponseStatus(response, HttpServletResponse.SC_PARTIAL_CONTENT);
+      }
+      try {
+        water.util.FileUtils.copyStream(is, response.getOutputStream(), 2048, limit);
+      } finally {
+        is.close();
+      }
     } catch (Exception e) {
       JettyHTTPD.sendErrorResponse(response, e, uri);
     } finally {
@@ -56,4 +119,69 @@ public class DatasetServlet extends HttpServlet {
     }
   }
 
+  /** @return a strong ETag of the streamed bytes, from the content
+   *  fingerprints of the frame's Vecs, its names, chunk layout (which the
+   *  cached chunk sizes depend on) and the format; null while a Vec is being
+   *  modified */
+  static String etag(Frame fr, boolean binary, boolean use_hex) {
+    long h = binary ? 1 : use_hex ? 2 : 3;
+    if (fr.anyVec() != null) h = 31 * h + Arrays.hashCode(fr.anyVec().espc());
+    try {
+      for (int i = 0; i < fr.numCols(); i++)
+        h = 31 * (31 * h + fr.name(i).hashCode()) + fr.vec(i).contentFingerprint();
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    return "\"" + Long.toHexString(h) + "\"";
+  }
+
+  /** @return {first, last} of a single byte range, last -1 when open ended and
+   *  first negative for a suffix range; null when absent or not supported */
+  static long[] parseRange(String header) {
+    if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+    String spec = header.substring("bytes=".length()).trim();
+    int dash = spec.indexOf('-');
+    try {
+      if (dash == 0) {
+        long suffix = Long.parseLong(spec.substring(1).trim());
+        return suffix > 0 ? new long[]{-suffix, -1} : null;
+      }
+      if (dash < 0) return null;
+      long first = Long.parseLong(spec.substring(0, dash).trim());
+      String end = spec.substring(dash + 1).trim();
+      long last = end.isEmpty() ? -1 : Long.parseLong(end);
+      return last != -1 && last < first ? null : new long[]{first, last};
+    } catch (NumberFormatException e) {
+      return null; // Malformed ranges are ignored, the whole dataset is sent
+    }
+  }
+
+  // A stream of the dataset positioned at byte offset first, starting at the chunk holding it
+  private static InputStream streamFrom(Frame fr, long[] sizes, long headerLen, long first, boolean binary, boolean use_hex) throws IOException {
+    InputStream is;
+    long skip;
+    if (first < headerLen) {
+      is = binary ? fr.toBinary() : fr.toCSV(true, use_hex);
+      skip = first;
+    } else {
+      int cidx = 0;
+      skip = first - headerLen;
+      while (cidx < sizes.length && skip >= sizes[cidx]) skip -= sizes[cidx++];
+      if (binary) {
+        is = new ColumnarStream(fr, cidx, false, Frame.STREAM_PREFETCH);
+      } else {
+        Chunk[] chks = new Chunk[fr.numCols()];
+        for (int i = 0; i < chks.length; i++) chks[i] = fr.vec(i).chunkForChunkIdx(cidx);
+        is = new Frame.CSVStream(chks, null, sizes.length - cidx, use_hex, Frame.STREAM_PREFETCH);
+      }
+    }
+    byte[] buf = new byte[2048];
+    while (skip > 0) { // Only within the header or the first chunk
+      int n = is.read(buf, 0, (int) Math.min(buf.length, skip));
+      if (n <= 0) throw new IOException("Dataset ended before the requested range");
+      skip -= n;
+    }
+    return is;
+  }
+
 }
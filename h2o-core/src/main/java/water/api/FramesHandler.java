@@ -6,6 +6,7 @@ import water.api.ModelsHandler.Models;
 import water.api.schemas3.*;
 import water.exceptions.*;
 import water.fvec.Frame;
+import water.fvec.FrameSummary;
 import water.fvec.Vec;
 import water.util.Log;
 
@@ -255,7 +256,7 @@ public class FramesHandler<I extends FramesHandler.Frames, S extends SchemaV3<I,
   public FramesV3 export(int version, FramesV3 s) {
     Frame fr = getFromDKV("key", s.frame_id.key());
     Log.info("ExportFiles processing (" + s.path + ")");
-    s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts));
+    s.job = new JobV3(Frame.export(fr, s.path, s.frame_id.key().toString(), s.force, s.num_parts, s.format));
     return s;
   }
 
@@ -265,15 +266,20 @@ public class FramesHandler<I extends FramesHandler.Frames, S extends SchemaV3<I,
     Frame frame = getFromDKV("key", s.frame_id.key()); // safe
 
     if( null != frame) {
-      Futures fs = new Futures();
+      ArrayList<Vec> vecs = new ArrayList<>();
       int i = 0;
       for( Vec v : frame.vecs() ) {
         if (null == DKV.get(v._key))
           Log.warn("For Frame: " + frame._key + ", Vec number: " + i + " (" + frame.name(i)+ ") is missing; not returning it.");
         else
-          v.startRollupStats(fs, Vec.DO_HISTOGRAMS);
+          vecs.add(v);
         i++;
       }
+      // Rollups and distinct counts of all columns in one pass, then the histograms
+      FrameSummary.get(vecs.toArray(new Vec[vecs.size()]));
+      Futures fs = new Futures();
+      for( Vec v : vecs )
+        v.startRollupStats(fs, Vec.DO_HISTOGRAMS);
       fs.blockForPending();
     }
 
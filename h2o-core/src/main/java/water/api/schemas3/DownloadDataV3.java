@@ -13,6 +13,9 @@ public class DownloadDataV3 extends RequestSchemaV3<Iced, DownloadDataV3> {
   @API(help="Emit double values in a machine readable lossless format with Double.toHexString().")
   public boolean hex_string;
 
+  @API(help="Format of the download: csv (default), or binary for the columnar format of water.fvec.ColumnarStream.", values={"csv", "binary"})
+  public String format;
+
   // Output
   @API(help="CSV Stream", direction=API.Direction.OUTPUT)
   public String csv;
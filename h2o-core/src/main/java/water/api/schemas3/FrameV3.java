@@ -10,6 +10,7 @@ import water.fvec.ByteVec;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.Frame.VecSpecifier;
+import water.fvec.FrameSummary;
 import water.fvec.Vec;
 import water.parser.BufferedString;
 import water.util.ChunkSummary;
@@ -139,6 +140,18 @@ public class FrameV3 extends FrameBaseV3<Frame, FrameV3> {
     @API(help="Percentile values, matching the default percentiles", direction=API.Direction.OUTPUT)
     public double[] percentiles;
 
+    @API(help="Estimated number of distinct values; -1 if not computed", direction=API.Direction.OUTPUT)
+    public long distinct_count;
+
+    @API(help="Most frequent values, most frequent first (level indices for enum columns); null if not computed or for string and uuid columns", direction=API.Direction.OUTPUT)
+    public double[] top_values;
+
+    @API(help="Counts of the most frequent values; lower bounds, off by at most top_count_error", direction=API.Direction.OUTPUT)
+    public long[] top_counts;
+
+    @API(help="Maximum undercount of top_counts", direction=API.Direction.OUTPUT)
+    public long top_count_error;
+
     transient Vec _vec;
 
     ColV3(String name, Vec vec, long off, int len) {
@@ -160,6 +173,14 @@ public class FrameV3 extends FrameBaseV3<Frame, FrameV3> {
       histogram_stride= histogram_bins ==null ? 0 : vec.stride();
       percentiles     = histogram_bins ==null ? null : vec.pctiles();
 
+      // Likewise the distinct count and frequent values are only reported when
+      // already computed, e.g. by a frame summary.
+      FrameSummary.Sketches sketches = FrameSummary.getOrNull(vec);
+      distinct_count  = sketches == null ? -1 : sketches.distinctCount();
+      top_values      = sketches == null ? null : sketches.topValues();
+      top_counts      = sketches == null ? null : sketches.topCounts();
+      top_count_error = sketches == null ? 0 : sketches.topCountError();
+
       type = vec.isUUID()? "uuid" :
              vec.isString()? "string" :
              vec.isCategorical()? "enum" :
@@ -41,6 +41,9 @@ public class ParseV3 extends RequestSchemaV3<Iced, ParseV3> {
   @API(help="NA strings for columns")
   public String[][] na_strings;
 
+  @API(help="Indices of columns to skip during parse (columnar formats do not decode them at all)")
+  public int[] skipped_columns;
+
   @API(help="Size of individual parse tasks", direction=API.Direction.INPUT)
   public int chunk_size;
 
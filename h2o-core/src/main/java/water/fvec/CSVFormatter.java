@@ -0,0 +1,144 @@
+package water.fvec;
+
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Formats rows of chunks as CSV lines into a reusable byte buffer.
+ *
+ * Produces the same output as the original row-by-row String based formatting of {@link Frame.CSVStream}
+ * but avoids creating intermediate Strings: integers are written digit by digit, categorical levels
+ * are encoded only once per column and the output buffer is reused (it only grows).
+ * Instances are not thread-safe.
+ */
+public class CSVFormatter {
+  private final boolean _hex_string;
+  private final BufferedString _tmpStr = new BufferedString();
+  private final byte[] _digits = new byte[20];
+  private byte[][][] _domains; // quoted categorical levels, lazily encoded per column
+  private byte[] _buf = new byte[1024];
+  private int _len;
+
+  public CSVFormatter(boolean hex_string) {
+    _hex_string = hex_string;
+  }
+
+  public byte[] buffer() { return _buf; }
+  public int length() { return _len; }
+  public CSVFormatter reset() { _len = 0; return this; }
+
+  public void writeTo(OutputStream os) throws IOException {
+    os.write(_buf, 0, _len);
+  }
+
+  /** Appends the header line, column names are quoted */
+  public CSVFormatter header(String[] names) {
+    for (int i = 0; i < names.length; i++) {
+      if (i > 0) put((byte) ',');
+      put((byte) '"');
+      putASCII(names[i]);
+      put((byte) '"');
+    }
+    put((byte) '\n');
+    return this;
+  }
+
+  /** Appends all rows of the given chunks */
+  public CSVFormatter chunks(Chunk[] cs) {
+    for (int row = 0; row < cs[0]._len; row++)
+      row(cs, row);
+    return this;
+  }
+
+  /** Appends a single row of the given chunks */
+  public CSVFormatter row(Chunk[] cs, int row) {
+    if (_domains == null) _domains = new byte[cs.length][][];
+    for (int i = 0; i < cs.length; i++) {
+      Chunk c = cs[i];
+      Vec v = c._vec;
+      if (i > 0) put((byte) ',');
+      if (c.isNA(row)) continue;
+      if (v.isCategorical()) put(level(i, v, (int) c.at8(row)));
+      else if (v.isUUID()) putASCII(PrettyPrint.UUID(c.at16l(row), c.at16h(row)));
+      else if (v.isInt()) putLong(c.at8(row));
+      else if (v.isString()) {
+        BufferedString bs = c.atStr(_tmpStr, row);
+        put((byte) '"');
+        put(bs.getBuffer(), bs.getOffset(), bs.length());
+        put((byte) '"');
+      } else {
+        // R 3.1 unfortunately changed the behavior of read.csv().
+        // (Really type.convert()).
+        //
+        // Numeric values with too much precision now trigger a type conversion in R 3.1 into a factor.
+        //
+        // See these discussions:
+        //   https://bugs.r-project.org/bugzilla/show_bug.cgi?id=15751
+        //   https://stat.ethz.ch/pipermail/r-devel/2014-April/068778.html
+        //   http://stackoverflow.com/questions/23072988/preserve-old-pre-3-1-0-type-convert-behavior
+        double d = c.atd(row);
+        putASCII(_hex_string ? Double.toHexString(d) : Double.toString(d));
+      }
+    }
+    put((byte) '\n');
+    return this;
+  }
+
+  private byte[] level(int col, Vec v, int level) {
+    if (_domains[col] == null) _domains[col] = new byte[v.domain().length][];
+    byte[] b = _domains[col][level];
+    if (b == null) {
+      String s = '"' + v.domain()[level] + '"';
+      _domains[col][level] = b = s.getBytes();
+    }
+    return b;
+  }
+
+  private void putLong(long l) {
+    if (l == Long.MIN_VALUE) { putASCII(Long.toString(l)); return; }
+    if (l < 0) { put((byte) '-'); l = -l; }
+    int n = _digits.length;
+    do {
+      _digits[--n] = (byte) ('0' + (l % 10));
+      l /= 10;
+    } while (l != 0);
+    put(_digits, n, _digits.length - n);
+  }
+
+  private void putASCII(String s) {
+    int n = s.length();
+    ensure(n);
+    for (int i = 0; i < n; i++) {
+      char c = s.charAt(i);
+      if (c >= 0x80) { // not plain ASCII, fall back to the platform encoding
+        byte[] b = s.substring(i).getBytes();
+        put(b, 0, b.length);
+        return;
+      }
+      _buf[_len++] = (byte) c;
+    }
+  }
+
+  private void put(byte[] b) { put(b, 0, b.length); }
+
+  private void put(byte[] b, int off, int len) {
+    ensure(len);
+    System.arraycopy(b, off, _buf, _len, len);
+    _len += len;
+  }
+
+  private void put(byte b) {
+    ensure(1);
+    _buf[_len++] = b;
+  }
+
+  private void ensure(int n) {
+    if (_len + n > _buf.length)
+      _buf = Arrays.copyOf(_buf, Math.max(_buf.length << 1, _len + n));
+  }
+
+}
@@ -0,0 +1,216 @@
+package water.fvec;
+
+import water.parser.BufferedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streams a Frame in a binary columnar format, one chunk at a time.
+ *
+ * <p>The layout follows Arrow's record batches: every non-empty chunk becomes
+ * a batch holding, per column, a validity bitmap and a flat array of values,
+ * so readers decode whole columns without parsing text and doubles round-trip
+ * exactly.  All numbers are big-endian, as written by {@link DataOutputStream}:
+ * <pre>
+ *   header: "H2OB", int version, int ncols, then per column:
+ *             string name, byte type, int nlevels (-1 unless T_CAT), nlevels strings
+ *   batch:  int nrows (&gt; 0), then per column:
+ *             (nrows+7)/8 bytes validity bitmap, bit (i&amp;7) of byte i/8 set when row i is not missing,
+ *             values of all rows (missing rows included, as 0), by type:
+ *               T_DOUBLE double, T_LONG and T_TIME long, T_CAT int, T_UUID long low, long high,
+ *               T_STR int offsets[nrows+1] followed by the UTF-8 bytes, T_BAD nothing
+ *   end:    int 0
+ * </pre>
+ * Strings in the header are an int length followed by the UTF-8 bytes.
+ *
+ * <p>Like {@link Frame.CSVStream}, the next few chunks are fetched in the
+ * background while the current one is streamed, and cached remote chunks are
+ * dropped once streamed.
+ */
+public class ColumnarStream extends InputStream {
+  public static final int VERSION = 1;
+  public static final byte T_DOUBLE = 0, T_LONG = 1, T_TIME = 2, T_CAT = 3, T_STR = 4, T_UUID = 5, T_BAD = 6;
+
+  private final Vec[] _vecs;
+  private final int _prefetch;
+  private final Buffer _buf = new Buffer();
+  private final DataOutputStream _out = new DataOutputStream(_buf);
+  private int _position;
+  private int _nextChkIdx;  // Next chunk to format
+  private boolean _done;    // End marker written
+  public volatile int _curChkIdx; // used only for progress reporting
+
+  /** Streams the chunks of the given Frame starting at firstChkIdx, optionally
+   *  after the header, while at most prefetch following chunks are fetched */
+  public ColumnarStream(Frame fr, int firstChkIdx, boolean header, int prefetch) {
+    _vecs = fr.vecs();
+    _prefetch = prefetch;
+    _nextChkIdx = _curChkIdx = firstChkIdx;
+    if (header) {
+      byte[] hdr = header(fr);
+      _buf.write(hdr, 0, hdr.length);
+    }
+    Frame.prefetchChunks(_vecs, firstChkIdx, firstChkIdx + _prefetch);
+  }
+
+  /** @return the header describing the columns of the given Frame */
+  public static byte[] header(Frame fr) {
+    Buffer buf = new Buffer();
+    DataOutputStream out = new DataOutputStream(buf);
+    try {
+      out.writeBytes("H2OB");
+      out.writeInt(VERSION);
+      out.writeInt(fr.numCols());
+      for (int i = 0; i < fr.numCols(); i++) {
+        Vec v = fr.vec(i);
+        writeString(out, fr.name(i));
+        out.writeByte(type(v));
+        String[] domain = v.isCategorical() ? v.domain() : null;
+        out.writeInt(domain == null ? -1 : domain.length);
+        if (domain != null)
+          for (String level : domain) writeString(out, level);
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e); // Cannot happen, writing into memory
+    }
+    return buf.toByteArray();
+  }
+
+  /** @return the number of bytes of the batch of the given chunks, 0 for empty chunks */
+  public static long batchSize(Chunk[] cs) {
+    int n = cs[0]._len;
+    if (n == 0) return 0;
+    long size = 4;
+    BufferedString tmpStr = new BufferedString();
+    for (Chunk c : cs) {
+      size += (n + 7) >> 3;
+      switch (type(c._vec)) {
+        case T_DOUBLE: case T_LONG: case T_TIME: size += 8L * n; break;
+        case T_CAT: size += 4L * n; break;
+        case T_UUID: size += 16L * n; break;
+        case T_STR:
+          size += 4L * (n + 1);
+          for (int row = 0; row < n; row++)
+            if (!c.isNA(row)) size += c.atStr(tmpStr, row).length();
+          break;
+        default: break; // T_BAD: validity only
+      }
+    }
+    return size;
+  }
+
+  static byte type(Vec v) {
+    switch (v.get_type()) {
+      case Vec.T_CAT: return T_CAT;
+      case Vec.T_STR: return T_STR;
+      case Vec.T_UUID: return T_UUID;
+      case Vec.T_TIME: return T_TIME;
+      case Vec.T_BAD: return T_BAD;
+      default: return v.isInt() ? T_LONG : T_DOUBLE;
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  // Formats the next non-empty chunks, or the end marker, into the buffer
+  private void nextBatch() throws IOException {
+    _buf.reset();
+    _position = 0;
+    int nchks = _vecs.length == 0 ? 0 : _vecs[0].nChunks();
+    while (_nextChkIdx < nchks) {
+      int cidx = _curChkIdx = _nextChkIdx++;
+      Frame.prefetchChunks(_vecs, cidx + 1, cidx + 1 + _prefetch);
+      Chunk[] cs = new Chunk[_vecs.length];
+      for (int i = 0; i < cs.length; i++) cs[i] = _vecs[i].chunkForChunkIdx(cidx);
+      writeBatch(cs);
+      Frame.flushChunks(_vecs, cidx, cidx + 1);
+      if (_buf.size() > 0) return;
+    }
+    _out.writeInt(0);
+    _done = true;
+  }
+
+  private void writeBatch(Chunk[] cs) throws IOException {
+    int n = cs[0]._len;
+    if (n == 0) return;
+    _out.writeInt(n);
+    BufferedString tmpStr = new BufferedString();
+    byte[] validity = new byte[(n + 7) >> 3];
+    for (Chunk c : cs) {
+      Arrays.fill(validity, (byte) 0);
+      for (int row = 0; row < n; row++)
+        if (!c.isNA(row)) validity[row >> 3] |= 1 << (row & 7);
+      _out.write(validity);
+      switch (type(c._vec)) {
+        case T_DOUBLE:
+          for (int row = 0; row < n; row++) _out.writeDouble(c.isNA(row) ? 0 : c.atd(row));
+          break;
+        case T_LONG: case T_TIME:
+          for (int row = 0; row < n; row++) _out.writeLong(c.isNA(row) ? 0 : c.at8(row));
+          break;
+        case T_CAT:
+          for (int row = 0; row < n; row++) _out.writeInt(c.isNA(row) ? 0 : (int) c.at8(row));
+          break;
+        case T_UUID:
+          for (int row = 0; row < n; row++) {
+            boolean na = c.isNA(row);
+            _out.writeLong(na ? 0 : c.at16l(row));
+            _out.writeLong(na ? 0 : c.at16h(row));
+          }
+          break;
+        case T_STR:
+          int off = 0;
+          _out.writeInt(off);
+          for (int row = 0; row < n; row++) {
+            if (!c.isNA(row)) off += c.atStr(tmpStr, row).length();
+            _out.writeInt(off);
+          }
+          for (int row = 0; row < n; row++) {
+            if (c.isNA(row)) continue;
+            BufferedString bs = c.atStr(tmpStr, row);
+            _out.write(bs.getBuffer(), bs.getOffset(), bs.length());
+          }
+          break;
+        default: break; // T_BAD: validity only
+      }
+    }
+  }
+
+  @Override public int available() throws IOException {
+    if (_position == _buf.size() && !_done) nextBatch();
+    return _buf.size() - _position;
+  }
+
+  @Override public int read() throws IOException {
+    return available() == 0 ? -1 : _buf.buf()[_position++] & 0xFF;
+  }
+
+  @Override public int read(byte[] b, int off, int len) throws IOException {
+    int n = available();
+    if (n == 0) return -1;
+    n = Math.min(n, len);
+    System.arraycopy(_buf.buf(), _position, b, off, n);
+    _position += n;
+    return n;
+  }
+
+  @Override public void close() throws IOException {
+    super.close();
+    // drop the chunks fetched ahead, in case the stream was not read to the end
+    if (!_done) Frame.flushChunks(_vecs, _curChkIdx, _curChkIdx + 1 + _prefetch);
+  }
+
+  // Exposes the backing array, to stream batches without copying them
+  private static class Buffer extends ByteArrayOutputStream {
+    byte[] buf() { return buf; }
+  }
+}
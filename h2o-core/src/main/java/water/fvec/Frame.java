@@ -1401,6 +1401,21 @@ public class Frame extends Lockable<Frame> {
   }
 
   public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts) {
+    return export(fr, path, frameName, overwrite, nParts, null);
+  }
+
+  /**
+   * Exports the frame to a given path.
+   * @param format name of the export format, null or "csv" for CSV, other formats (eg. "parquet") need
+   *               a corresponding {@link ExportFormatProvider} on the classpath
+   */
+  public static Job export(Frame fr, String path, String frameName, boolean overwrite, int nParts, String format) {
+    ExportFormatProvider efp = null;
+    if (format != null && ! "csv".equalsIgnoreCase(format)) {
+      efp = ExportFormatProvider.getByName(format);
+      if (efp == null)
+        throw new H2OIllegalArgumentException("format", "exportFrame", format);
+    }
     boolean forceSingle = nParts == 1;
     // Validate input
     if (forceSingle) {
@@ -1417,7 +1432,7 @@ public class Frame extends Lockable<Frame> {
       }
     }
     Job job =  new Job<>(fr._key, "water.fvec.Frame", "Export dataset");
-    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts);
+    FrameUtils.ExportTaskDriver t = new FrameUtils.ExportTaskDriver(fr, path, frameName, overwrite, job, nParts, efp);
     return job.start(t, fr.anyVec().nChunks());
   }
 
@@ -1428,9 +1443,74 @@ public class Frame extends Lockable<Frame> {
     return new CSVStream(this, headers, hex_string);
   }
 
+  /** Convert this Frame to the binary columnar format of {@link ColumnarStream}.
+   *  @return An InputStream containing this Frame, one batch per chunk */
+  public InputStream toBinary() {
+    return new ColumnarStream(this, 0, true, STREAM_PREFETCH);
+  }
+
+  /** Number of chunks fetched ahead of the one being streamed by {@link #toCSV}
+   *  and {@link #toBinary}, so remote chunks are transferred in parallel */
+  public static final int STREAM_PREFETCH = 4;
+
+  /** Start fetching the chunks [from,to) of the given Vecs, skipping the
+   *  locally homed ones; does not block */
+  static void prefetchChunks(Vec[] vecs, int from, int to) {
+    for (Vec vec : vecs)
+      for (int cidx = from; cidx < Math.min(to, vec.nChunks()); cidx++) {
+        Key key = vec.chunkKey(cidx);
+        if (!key.home()) DKV.prefetch(key);
+      }
+  }
+
+  /** Drop the cached copies of the remote chunks [from,to) of the given Vecs */
+  static void flushChunks(Vec[] vecs, int from, int to) {
+    for (Vec vec : vecs)
+      for (int cidx = from; cidx < Math.min(to, vec.nChunks()); cidx++) {
+        Key key = vec.chunkKey(cidx);
+        if (!key.home()) H2O.raw_remove(key);
+      }
+  }
+
+  /** Number of bytes each chunk contributes to the output of {@link #toCSV}
+   *  or of {@link #toBinary}, computed in parallel where the chunks live.
+   *  Lets a download be resumed at a byte offset without streaming what
+   *  comes before. */
+  public long[] streamedChunkSizes(boolean binary, boolean hex_string) {
+    Vec anyvec = anyVec();
+    if (anyvec == null) return new long[0];
+    return new StreamedSizes(anyvec.nChunks(), binary, hex_string).doAll(this)._sizes;
+  }
+
+  private static class StreamedSizes extends MRTask<StreamedSizes> {
+    final int _nchks;
+    final boolean _binary, _hex_string;
+    long[] _sizes;
+
+    StreamedSizes(int nchks, boolean binary, boolean hex_string) { _nchks = nchks; _binary = binary; _hex_string = hex_string; }
+
+    @Override protected void setupLocal() { _sizes = new long[_nchks]; } // Shared by all maps on this node
+
+    @Override public void map(Chunk[] cs) {
+      if (_binary) { _sizes[cs[0].cidx()] = ColumnarStream.batchSize(cs); return; }
+      CSVFormatter formatter = new CSVFormatter(_hex_string);
+      long size = 0;
+      for (int row = 0; row < cs[0]._len; row++)
+        size += formatter.reset().row(cs, row).length();
+      _sizes[cs[0].cidx()] = size;
+    }
+
+    @Override public void reduce(StreamedSizes t) {
+      if (_sizes == t._sizes) return;
+      for (int i = 0; i < _nchks; i++) _sizes[i] += t._sizes[i];
+    }
+  }
+
   public static class CSVStream extends InputStream {
-    private final boolean _hex_string;
+    private final CSVFormatter _formatter;
+    private final int _prefetch;
     byte[] _line;
+    int _lineLen;
     int _position;
     int _chkRow;
     Chunk[] _curChks;
@@ -1438,7 +1518,7 @@ public class Frame extends Lockable<Frame> {
     public volatile int _curChkIdx; // used only for progress reporting
 
     public CSVStream(Frame fr, boolean headers, boolean hex_string) {
-      this(firstChunks(fr), headers ? fr.names() : null, fr.anyVec().nChunks(), hex_string);
+      this(firstChunks(fr), headers ? fr.names() : null, fr.anyVec().nChunks(), hex_string, STREAM_PREFETCH);
     }
 
     private static Chunk[] firstChunks(Frame fr) {
@@ -1454,62 +1534,50 @@ public class Frame extends Lockable<Frame> {
     }
 
     public CSVStream(Chunk[] chks, String[] names, int nChunks, boolean hex_string) {
+      this(chks, names, nChunks, hex_string, 0);
+    }
+
+    /** Streams nChunks chunks starting at the given ones, while the following
+     *  prefetch chunks (at most) are fetched in the background */
+    public CSVStream(Chunk[] chks, String[] names, int nChunks, boolean hex_string, int prefetch) {
       if (chks == null) nChunks = 0;
       _lastChkIdx = (chks != null) ? chks[0].cidx() + nChunks - 1 : -1;
-      _hex_string = hex_string;
-      StringBuilder sb = new StringBuilder();
-      if (names != null) {
-        sb.append('"').append(names[0]).append('"');
-        for(int i = 1; i < names.length; i++)
-          sb.append(',').append('"').append(names[i]).append('"');
-        sb.append('\n');
-      }
-      _line = sb.toString().getBytes();
+      _prefetch = prefetch;
+      _formatter = new CSVFormatter(hex_string);
+      if (names != null) _formatter.header(names);
+      _line = _formatter.buffer();
+      _lineLen = _formatter.length();
       _chkRow = -1; // first process the header line
       _curChks = chks;
+      if (chks != null) {
+        _curChkIdx = chks[0].cidx();
+        prefetchChunks(vecs(), _curChkIdx + 1, Math.min(_curChkIdx + 1 + _prefetch, _lastChkIdx + 1));
+      }
+    }
+
+    private Vec[] vecs() {
+      Vec[] vecs = new Vec[_curChks.length];
+      for (int i = 0; i < vecs.length; i++) vecs[i] = _curChks[i]._vec;
+      return vecs;
     }
 
     public int getCurrentRowSize() throws IOException {
       int av = available();
       assert av > 0;
-      return _line.length;
+      return _lineLen;
     }
 
-    byte[] getBytesForRow() {
-      StringBuilder sb = new StringBuilder();
-      BufferedString tmpStr = new BufferedString();
-      for (int i = 0; i < _curChks.length; i++ ) {
-        Vec v = _curChks[i]._vec;
-        if(i > 0) sb.append(',');
-        if(!_curChks[i].isNA(_chkRow)) {
-          if( v.isCategorical() ) sb.append('"').append(v.factor(_curChks[i].at8(_chkRow))).append('"');
-          else if( v.isUUID() ) sb.append(PrettyPrint.UUID(_curChks[i].at16l(_chkRow), _curChks[i].at16h(_chkRow)));
-          else if( v.isInt() ) sb.append(_curChks[i].at8(_chkRow));
-          else if (v.isString()) sb.append('"').append(_curChks[i].atStr(tmpStr, _chkRow)).append('"');
-          else {
-            double d = _curChks[i].atd(_chkRow);
-            // R 3.1 unfortunately changed the behavior of read.csv().
-            // (Really type.convert()).
-            //
-            // Numeric values with too much precision now trigger a type conversion in R 3.1 into a factor.
-            //
-            // See these discussions:
-            //   https://bugs.r-project.org/bugzilla/show_bug.cgi?id=15751
-            //   https://stat.ethz.ch/pipermail/r-devel/2014-April/068778.html
-            //   http://stackoverflow.com/questions/23072988/preserve-old-pre-3-1-0-type-convert-behavior
-            String s = _hex_string ? Double.toHexString(d) : Double.toString(d);
-            sb.append(s);
-          }
-        }
-      }
-      sb.append('\n');
-      return sb.toString().getBytes();
+    // Formats the current row into the (reused) buffer of the formatter
+    void formatRow() {
+      _formatter.reset().row(_curChks, _chkRow);
+      _line = _formatter.buffer();
+      _lineLen = _formatter.length();
     }
 
     @Override public int available() throws IOException {
       // Case 1:  There is more data left to read from the current line.
-      if (_position != _line.length) {
-        return _line.length - _position;
+      if (_position != _lineLen) {
+        return _lineLen - _position;
       }
 
       // Case 2:  There are no chunks to work with (eg. the whole Frame was empty).
@@ -1544,18 +1612,22 @@ public class Frame extends Lockable<Frame> {
         }
         _curChks = newChks;
         _chkRow = 0;
+        // keep the window of chunks being fetched ahead full; already fetched ones are just looked up
+        prefetchChunks(vecs(), _curChkIdx + 1, Math.min(_curChkIdx + 1 + _prefetch, _lastChkIdx + 1));
       }
 
       // Case 5:  Return data for the current row.
-      _line = getBytesForRow();
+      formatRow();
       _position = 0;
 
-      return _line.length;
+      return _lineLen;
     }
 
     @Override public void close() throws IOException {
       super.close();
       _line = null;
+      if (_curChks != null && _prefetch > 0) // drop the chunks fetched ahead, in case the stream was not read to the end
+        flushChunks(vecs(), _curChkIdx, Math.min(_curChkIdx + 1 + _prefetch, _lastChkIdx + 1));
     }
 
     @Override public int read() throws IOException {
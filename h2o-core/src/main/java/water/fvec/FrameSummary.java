@@ -0,0 +1,164 @@
+package water.fvec;
+
+import water.DKV;
+import water.Futures;
+import water.Iced;
+import water.MRTask;
+import water.Value;
+import water.parser.BufferedString;
+import water.util.HeavyHitters;
+import water.util.HyperLogLog;
+
+import java.util.ArrayList;
+
+/** Extended rollups of many Vecs, computed in a single fused pass.
+ *
+ *  <p>Plain rollups are computed one MRTask per Vec; summarizing a wide frame
+ *  this way launches a task per column.  Here the rollups of all the columns
+ *  missing them are computed by one MRTask, from the same per-chunk code as
+ *  {@link RollupStats}, and installed as the Vecs' rollups.  The same pass
+ *  also builds {@link Sketches}: a HyperLogLog estimate of the number of
+ *  distinct values, and the most frequent values of numeric, time and
+ *  categorical columns.  Sketches are cached next to the rollups (see {@link
+ *  Vec#summarySketchKey()}) and dropped when the Vec is modified or removed.
+ *
+ *  <p>Histograms and percentiles still need the rollups first, so they are
+ *  computed by a 2nd pass as before.
+ */
+public class FrameSummary {
+  /** Number of most frequent values reported */
+  public static final int TOP_K = 10;
+
+  /** Distinct-count and heavy-hitter sketches of a single Vec. */
+  public static class Sketches extends Iced<Sketches> {
+    private HyperLogLog _distinct = new HyperLogLog();
+    private HeavyHitters _frequent; // Keys are double bits; null for string and UUID columns
+
+    public Sketches() { }
+
+    /** @return estimated number of distinct non-missing values */
+    public long distinctCount() { return _distinct.estimate(); }
+
+    /** @return up to {@link #TOP_K} most frequent values (level indices for
+     *  categoricals), most frequent first; null for string and UUID columns */
+    public double[] topValues() {
+      if( _frequent == null ) return null;
+      long[] keys = _frequent.topKeys(TOP_K);
+      double[] ds = new double[keys.length];
+      for( int i = 0; i < keys.length; i++ ) ds[i] = Double.longBitsToDouble(keys[i]);
+      return ds;
+    }
+
+    /** @return lower bounds of the counts of {@link #topValues()}; each is
+     *  off by at most {@link #topCountError()} */
+    public long[] topCounts() { return _frequent == null ? null : _frequent.topCounts(TOP_K); }
+
+    /** @return maximum undercount of {@link #topCounts()} */
+    public long topCountError() { return _frequent == null ? 0 : _frequent.error(); }
+
+    private void add(Chunk c) {
+      if( c._vec.isUUID() ) {
+        for( int i = c.nextNZ(-1); i < c._len; i = c.nextNZ(i) )
+          if( !c.isNA(i) ) _distinct.add(HyperLogLog.hash(c.at16l(i) ^ HyperLogLog.hash(c.at16h(i))));
+      } else if( c._vec.isString() ) {
+        BufferedString tmpStr = new BufferedString();
+        for( int i = c.nextNZ(-1); i < c._len; i = c.nextNZ(i) )
+          if( !c.isNA(i) ) _distinct.add(hash(c.atStr(tmpStr, i)));
+      } else {
+        _frequent = new HeavyHitters();
+        for( int i = c.nextNZ(-1); i < c._len; i = c.nextNZ(i) ) {
+          double d = c.atd(i);
+          if( Double.isNaN(d) ) continue;
+          long bits = Double.doubleToRawLongBits(d == 0 ? 0.0 : d); // -0.0 is 0
+          _distinct.add(HyperLogLog.hash(bits));
+          _frequent.add(bits);
+        }
+        if( c.isSparseZero() && c.sparseLenZero() < c._len ) { // Sparse: the zeros were skipped
+          _distinct.add(HyperLogLog.hash(Double.doubleToRawLongBits(0.0)));
+          _frequent.add(Double.doubleToRawLongBits(0.0), c._len - c.sparseLenZero());
+        }
+      }
+    }
+
+    private void merge(Sketches sk) {
+      _distinct.merge(sk._distinct);
+      if( _frequent == null ) _frequent = sk._frequent;
+      else if( sk._frequent != null ) _frequent.merge(sk._frequent);
+    }
+
+    // 64-bit FNV-1a of the string bytes
+    private static long hash(BufferedString str) {
+      byte[] buf = str.getBuffer();
+      long h = 0xcbf29ce484222325L;
+      for( int i = str.getOffset(); i < str.getOffset() + str.length(); i++ )
+        h = (h ^ (buf[i] & 0xFF)) * 0x100000001b3L;
+      return HyperLogLog.hash(h);
+    }
+  }
+
+  /** Sketches of the given Vec if already computed, or null */
+  public static Sketches getOrNull(Vec vec) { return DKV.getGet(vec.summarySketchKey()); }
+
+  /**
+   *  Rollups and sketches of all the given Vecs, which must be compatible.
+   *  Vecs missing either are summarized in a single pass: their rollups are
+   *  installed (unless computed meanwhile) and their sketches cached.
+   */
+  public static Sketches[] get(Vec[] vecs) {
+    Sketches[] sks = new Sketches[vecs.length];
+    ArrayList<Vec> missing = new ArrayList<>();
+    for( int i = 0; i < vecs.length; i++ )
+      if( (sks[i] = getOrNull(vecs[i])) == null || RollupStats.getOrNull(vecs[i], vecs[i].rollupStatsKey()) == null )
+        missing.add(vecs[i]);
+    if( missing.isEmpty() ) return sks;
+    // Rollups read before the pass: missing ones are installed from the pass,
+    // and sketches are only cached while the rollups they match are current
+    Value[] before = new Value[missing.size()];
+    for( int j = 0; j < before.length; j++ ) before[j] = DKV.get(missing.get(j).rollupStatsKey());
+    SummaryTask t = new SummaryTask(missing.size()).doAll(new Frame(missing.toArray(new Vec[missing.size()])));
+    Futures fs = new Futures();
+    for( int i = 0, j = 0; i < vecs.length; i++ ) {
+      if( j == missing.size() || vecs[i] != missing.get(j) ) continue;
+      Value version = before[j];
+      if( version == null )
+        version = RollupStats.install(vecs[i], RollupStats.finish(t._rs == null ? null : t._rs[j], vecs[i]), fs);
+      else if( version.<RollupStats>get().isMutating() )
+        version = null;         // Being modified, nothing is cached
+      if( sks[i] == null ) {
+        sks[i] = t._sks == null ? new Sketches() : t._sks[j];
+        vecs[i].cacheIfUnchanged(vecs[i].summarySketchKey(), sks[i], version);
+      }
+      j++;
+    }
+    fs.blockForPending();
+    return sks;
+  }
+
+  // Rollups and sketches of every column
+  private static class SummaryTask extends MRTask<SummaryTask> {
+    final int _ncols;
+    RollupStats[] _rs;
+    Sketches[] _sks;
+
+    SummaryTask(int ncols) { _ncols = ncols; }
+
+    @Override public void map(Chunk[] cs) {
+      _rs = new RollupStats[_ncols];
+      _sks = new Sketches[_ncols];
+      for( int col = 0; col < _ncols; col++ ) {
+        _rs[col] = RollupStats.ofChunk(cs[col]);
+        (_sks[col] = new Sketches()).add(cs[col]);
+      }
+    }
+
+    @Override public void reduce(SummaryTask t) {
+      for( int col = 0; col < _ncols; col++ ) {
+        _rs[col].reduce(t._rs[col]);
+        _sks[col].merge(t._sks[col]);
+      }
+    }
+
+    // Just toooo common to report always, like the rollups
+    @Override public boolean logVerbose() { return false; }
+  }
+}
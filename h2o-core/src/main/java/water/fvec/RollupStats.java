@@ -217,7 +217,7 @@ final class RollupStats extends Iced {
     return this;
   }
 
-  private void reduce( RollupStats rs ) {
+  void reduce( RollupStats rs ) {
     for( double d : rs._mins ) if (!Double.isNaN(d)) min(d);
     for( double d : rs._maxs ) if (!Double.isNaN(d)) max(d);
     _naCnt += rs._naCnt;
@@ -251,39 +251,57 @@ final class RollupStats extends Iced {
     return _maxs[_maxs.length-1];
   }
 
+  // Final rollups of a Vec from the merged rollups of its chunks (null if it has no chunks)
+  static RollupStats finish(RollupStats rs, Vec vec) {
+    if( rs == null )
+      rs = new RollupStats(0);
+    else {
+      rs._sigma = Math.sqrt(rs._sigma/(rs._rows-1));
+      if (rs._rows == 1) rs._sigma = 0;
+      if (rs._rows < 5) for (int i=0; i<5-rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
+        rs._maxs[4-i] = Double.NaN;
+        rs._mins[4-i] = Double.NaN;
+      }
+    }
+    // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
+    String[] ss = vec.domain();
+    if( vec.isCategorical() && ss.length > 2 )
+      rs._mean = rs._sigma = Double.NaN;
+    if( ss != null ) {
+      long dsz = (2/*hdr*/+1/*len*/+ss.length)*8;  // Size of base domain array
+      for( String s : vec.domain() )
+        if( s != null )
+          dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
+      rs._size += dsz;             // Account for domain size in Vec size
+      // Account for Chunk key size
+      int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vec._key._kb.length;
+      rs._size += vec.nChunks()*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
+    }
+    return rs;
+  }
+
+  // Rollups of a single chunk; merged with reduce.  Lets other tasks (see
+  // FrameSummary) compute the rollups of many Vecs in one pass.
+  static RollupStats ofChunk( Chunk c ) { return new RollupStats(0).map(c); }
+
+  // Install rollups computed by another task, unless the Vec has rollups
+  // already, or they are being computed, or the Vec is being modified.
+  // Returns the installed Value, or null if not installed.
+  static Value install(Vec vec, RollupStats rs, Futures fs) {
+    if( vec instanceof InteractionWrappedVec ) return null;
+    rs._checksum ^= vec.length();
+    Key rskey = vec.rollupStatsKey();
+    Value val = new Value(rskey, rs);
+    return DKV.DputIfMatch(rskey, val, null, fs) == null ? val : null;
+  }
+
   private static class Roll extends MRTask<Roll> {
     final Key _rskey;
     RollupStats _rs;
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
-    @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
+    @Override public void map( Chunk c ) { _rs = ofChunk(c); }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
-    @Override public void postGlobal() {
-      if( _rs == null )
-        _rs = new RollupStats(0);
-      else {
-        _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1));
-        if (_rs._rows == 1) _rs._sigma = 0;
-        if (_rs._rows < 5) for (int i=0; i<5-_rs._rows; i++) {  // Fix PUBDEV-150 for files under 5 rows
-          _rs._maxs[4-i] = Double.NaN;
-          _rs._mins[4-i] = Double.NaN;
-        }
-      }
-      // mean & sigma not allowed on more than 2 classes; for 2 classes the assumption is that it's true/false
-      Vec vec = _fr.anyVec();
-      String[] ss = vec.domain();
-      if( vec.isCategorical() && ss.length > 2 )
-        _rs._mean = _rs._sigma = Double.NaN;
-      if( ss != null ) {
-        long dsz = (2/*hdr*/+1/*len*/+ss.length)*8;  // Size of base domain array
-        for( String s : vec.domain() )
-          if( s != null )
-            dsz += 2*s.length() + (2/*hdr*/+1/*value*/+1/*hash*/+2/*hdr*/+1/*len*/)*8;
-        _rs._size += dsz;             // Account for domain size in Vec size
-        // Account for Chunk key size
-        int keysize = (2/*hdr*/+1/*kb*/+1/*hash*/+2/*hdr*/+1/*len*/)*8+ vec._key._kb.length;
-        _rs._size += vec.nChunks()*(keysize*4/*key+value ptr in DKV, plus 50% fill rate*/);
-      }
-    }
+    @Override public void postGlobal() { _rs = finish(_rs, _fr.anyVec()); }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
 
@@ -739,6 +739,58 @@ public class Vec extends Keyed<Vec> {
    *  @return Checksum of the Vec's content  */
   @Override protected long checksum_impl() { return rollupStats()._checksum;}
 
+  /** Fingerprint of the current content, type and domain of this Vec.  Unlike
+   *  {@link #checksum()} it is not cached in the Vec, so it changes once the
+   *  Vec is written into in place, or its domain is replaced.  Computes the
+   *  rollups if missing; only categorical Vecs fetch their published copy.
+   *  @throws IllegalArgumentException while the Vec is being modified
+   *  @return Fingerprint of the Vec's current content */
+  public long contentFingerprint() {
+    RollupStats rs = rollupStats();
+    long h = rs._checksum;
+    h = 31*h + rs._naCnt;       // The checksum skips zeros, NA to 0 is caught here
+    h = 31*h + rs._nzCnt;
+    h = 31*h + Double.doubleToRawLongBits(rs._mean);
+    h = 31*h + Double.doubleToRawLongBits(rs._sigma);
+    h = 31*h + _type;
+    if( !isCategorical() ) return h;
+    Vec published = DKV.getGet(_key); // The domain may have been replaced in another copy of this Vec
+    return 31*h + Arrays.hashCode(published == null ? _domain : published._domain);
+  }
+
+  /** Version of the current content of this Vec, to be read before computing
+   *  a value cached under one of its derived keys (e.g. {@link
+   *  #quantileSketchKey()}) and passed to {@link #cacheIfUnchanged}.  Computes
+   *  the rollups if missing.
+   *  @return The current rollups Value, or null while the Vec is being modified */
+  public Value contentVersion() {
+    try {
+      rollupStats();
+    } catch( IllegalArgumentException e ) {
+      return null;              // Mutating, nothing can be cached
+    }
+    Value val = DKV.get(rollupStatsKey());
+    return val == null || val.<RollupStats>get().isMutating() ? null : val;
+  }
+
+  /** Cache a value computed from this Vec under one of its derived keys,
+   *  unless the Vec has been modified since {@link #contentVersion()} was
+   *  read.  The value is put first and the rollups checked after, so a writer
+   *  racing with the put either sees it and drops it (see {@link #postWrite}),
+   *  or has already replaced the rollups and the put is undone here.
+   *  @return true if the value was cached */
+  public boolean cacheIfUnchanged( Key key, Iced ice, Value version ) {
+    if( version == null ) return false;
+    Value val = new Value(key,ice);
+    DKV.put(key,val);
+    if( DKV.get(rollupStatsKey()) == version ) return true;
+    // Modified meanwhile: drop the stale value, unless replaced already
+    Futures fs = new Futures();
+    DKV.DputIfMatch(key,null,val,fs);
+    fs.blockForPending();
+    return false;
+  }
+
 
   private static class SetMutating extends TAtomic<RollupStats> {
     @Override protected RollupStats atomic(RollupStats rs) {
@@ -768,6 +820,9 @@ public class Vec extends Keyed<Vec> {
     }
     // Set rollups to "vector isMutating" atomically.
     new SetMutating().invoke(rskey);
+    // Cached quantile and summary sketches are stale as well
+    DKV.remove(chunkKey(getVecKey(rskey),-3));
+    DKV.remove(chunkKey(getVecKey(rskey),-4));
   }
 
   /** Stop writing into this Vec.  Rollup stats will again (lazily) be
@@ -779,8 +834,12 @@ public class Vec extends Keyed<Vec> {
       Value val = DKV.get(rollupStatsKey());
       if (val != null) {
         RollupStats rs = val.get(RollupStats.class);
-        if (rs.isMutating())  // Vector was mutating, is now allowed for rollups
+        if (rs.isMutating()) { // Vector was mutating, is now allowed for rollups
           DKV.remove(rskey, fs);// Removing will cause them to be rebuilt, on demand
+          // Sketches cached while the Vec was being modified are stale as well
+          DKV.remove(quantileSketchKey(), fs);
+          DKV.remove(summarySketchKey(), fs);
+        }
       }
     }
     return fs;                  // Flow-coding
@@ -835,6 +894,16 @@ public class Vec extends Keyed<Vec> {
     return _rollupStatsKey;
   }
 
+  /** Key of the quantile sketch cached next to the rollups (see
+   *  {@code hex.quantile.QuantileSketch}); dropped when the Vec is modified or
+   *  removed. */
+  public Key quantileSketchKey() { return chunkKey(-3); }
+
+  /** Key of the distinct-count and frequent-value sketches cached next to the
+   *  rollups (see {@link FrameSummary}); dropped when the Vec is modified or
+   *  removed. */
+  public Key summarySketchKey() { return chunkKey(-4); }
+
   /** Get a Chunk's Value by index.  Basically the index-to-key map, plus the
    *  {@code DKV.get()}.  Warning: this pulls the data locally; using this call
    *  on every Chunk index on the same node will probably trigger an OOM!  */
@@ -1160,10 +1229,10 @@ public class Vec extends Keyed<Vec> {
         for( Key k : keys ) if( k != null ) Vec.bulk_remove_vec(k, ncs);
       }
     }.doAllNodes();
-    // Remove RollupStats
+    // Remove RollupStats and sketches
     new MRTask() {
       @Override public void setupLocal() {
-        for( Key k : keys ) if( k != null ) H2O.raw_remove(chunkKey(k,-2));
+        for( Key k : keys ) if( k != null ) { H2O.raw_remove(chunkKey(k,-2)); H2O.raw_remove(chunkKey(k,-3)); H2O.raw_remove(chunkKey(k,-4)); }
       }
     }.doAllNodes();
   }
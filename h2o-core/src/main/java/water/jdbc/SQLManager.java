@@ -7,6 +7,7 @@ import water.parser.ParseDataset;
 import water.util.Log;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.*;
 import java.util.concurrent.ArrayBlockingQueue;
 
@@ -17,7 +18,9 @@ public class SQLManager {
   final static String TEMP_TABLE_NAME = "table_for_h2o_import";
   //upper bound on number of connections to database
   final static int MAX_CONNECTIONS = 100;
-  
+  //upper bound on number of rows the driver is asked to buffer per round-trip
+  final static int MAX_FETCH_SIZE = 10000;
+
   /**
    * @param connection_url (Input) 
    * @param table (Input)
@@ -30,6 +33,24 @@ public class SQLManager {
   public static Job<Frame> importSqlTable(final String connection_url, String table, final String select_query,
                                           final String username, final String password, final String columns,
                                           boolean optimize) {
+    return importSqlTable(connection_url, table, select_query, username, password, columns, optimize, null);
+  }
+
+  /**
+   * @param connection_url (Input) 
+   * @param table (Input)
+   * @param select_query (Input)
+   * @param username (Input)
+   * @param password (Input)
+   * @param columns (Input)
+   * @param optimize (Input)
+   * @param partition_column (Input) numeric or date/time column used to split the table into key ranges, 
+   *                         each range is read by a single query; if null (or empty) the table is read
+   *                         using LIMIT/OFFSET pagination
+   */
+  public static Job<Frame> importSqlTable(final String connection_url, String table, final String select_query,
+                                          final String username, final String password, final String columns,
+                                          boolean optimize, String partition_column) {
     
     
     Connection conn = null;
@@ -51,6 +72,9 @@ public class SQLManager {
     long numRow = 0;
     final String[] columnNames;
     final byte[] columnH2OTypes;
+    final String partitionColumn = partition_column == null || partition_column.trim().isEmpty() ? 
+            null : partition_column.trim();
+    PartitionKey key = null;
     try {
       conn = DriverManager.getConnection(connection_url, username, password);
       stmt = conn.createStatement();
@@ -130,6 +154,15 @@ public class SQLManager {
             columnH2OTypes[i] = Vec.T_BAD;
         }
       }
+      //get range of the partition key
+      if (partitionColumn != null) {
+        rs.close();
+        rs = stmt.executeQuery("SELECT MIN(" + partitionColumn + "), MAX(" + partitionColumn + ") FROM " + table);
+        rs.next();
+        key = PartitionKey.make(partitionColumn, rs.getObject(1), rs.getObject(2));
+        if (key == null)
+          Log.warn("Partition column " + partitionColumn + " has no values, falling back to LIMIT/OFFSET import");
+      }
 
     } catch (SQLException ex) {
       throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to connect and read from SQL database with connection_url: " + connection_url);
@@ -173,6 +206,17 @@ public class SQLManager {
       _v = makeCon(0, numRow, (int) Math.ceil(Math.log1p(rows_per_chunk)), false);
     }
     Log.info("Number of chunks: " + _v.nChunks());
+    final Vec _t; // template of the import task - either one chunk per page (LIMIT/OFFSET) or one per key range
+    final PartitionKey partitionKey = key;
+    if (partitionKey != null) {
+      int totalConnections = Math.min(H2O.getCloudSize() * H2O.NUMCPUS, SQLManager.MAX_CONNECTIONS);
+      int nPartitions = (int) Math.max(1, Math.min(numRow, Math.max(_v.nChunks(), totalConnections)));
+      nPartitions = partitionKey.limitPartitions(nPartitions);
+      _v.remove();
+      _t = makeCon(0, nPartitions, 0, false);
+      Log.info("Partitioning by " + partitionKey + " into " + nPartitions + " ranges");
+    } else
+      _t = _v;
     //create frame
     final Key destination_key = Key.make(table + "_sql_to_hex");
     final Job<Frame> j = new Job(destination_key, Frame.class.getName(), "Import SQL Table");
@@ -182,31 +226,127 @@ public class SQLManager {
       @Override
       public void compute2() {
         Frame fr = new SqlTableToH2OFrame(connection_url, finalTable, needFetchClause, username, password, columns, 
-                numCol, _v.nChunks(), j).doAll(columnH2OTypes, _v)
+                numCol, _t.nChunks(), partitionKey, j).doAll(columnH2OTypes, _t)
                 .outputFrame(destination_key, columnNames, null);
         DKV.put(fr);
-        _v.remove();
+        _t.remove();
         ParseDataset.logParseResults(fr);
         if (finalTable.equals(SQLManager.TEMP_TABLE_NAME)) 
           dropTempTable(connection_url, username, password);
         tryComplete();
       }
     };
-    j.start(work, _v.nChunks());
+    j.start(work, _t.nChunks());
     
     return j;
   }
 
+  /**
+   * Numeric or date/time column splitting the table into equally wide key ranges, 
+   * range i covers values [bound(i), bound(i + 1)), the last range is closed and includes NULL keys.
+   */
+  static class PartitionKey extends Iced<PartitionKey> {
+    final String _column;
+    final boolean _isTime, _isInt;
+    final long _lmin, _lmax;  // Integer and date/time keys, kept exact
+    final double _min, _max;  // Floating point keys
+    int _nPartitions;
+
+    private PartitionKey(String column, boolean isTime, long min, long max) {
+      _column = column;
+      _isTime = isTime;
+      _isInt = true;
+      _lmin = min;
+      _lmax = max;
+      _min = min;
+      _max = max;
+    }
+
+    private PartitionKey(String column, double min, double max) {
+      _column = column;
+      _isTime = false;
+      _isInt = false;
+      _lmin = (long) min;
+      _lmax = (long) max;
+      _min = min;
+      _max = max;
+    }
+
+    static PartitionKey make(String column, Object min, Object max) {
+      if (min == null || max == null) return null;
+      if (min instanceof java.util.Date) 
+        return new PartitionKey(column, true, ((java.util.Date) min).getTime(), ((java.util.Date) max).getTime());
+      if (!(min instanceof Number))
+        throw new IllegalArgumentException("Partition column must be numeric or date/time, " + column + " is " + 
+                min.getClass().getSimpleName());
+      boolean isInt = !(min instanceof Double || min instanceof Float || min instanceof BigDecimal) && 
+              fitsLong((Number) min) && fitsLong((Number) max);
+      return isInt ? 
+              new PartitionKey(column, false, ((Number) min).longValue(), ((Number) max).longValue()) : 
+              new PartitionKey(column, ((Number) min).doubleValue(), ((Number) max).doubleValue());
+    }
+
+    // Unsigned BIGINT columns come back as BigInteger and may not fit into a long
+    private static boolean fitsLong(Number n) {
+      return !(n instanceof BigInteger) || ((BigInteger) n).bitLength() < 64;
+    }
+
+    /** Integer keys cannot be split into more ranges than there are distinct values */
+    int limitPartitions(int nPartitions) {
+      if (_isInt) {
+        long span = _lmax - _lmin; // Overflows to negative only for spans beyond Long.MAX_VALUE
+        if (span >= 0 && span < nPartitions) nPartitions = (int) span + 1;
+        nPartitions = Math.max(1, nPartitions);
+      }
+      return _nPartitions = nPartitions;
+    }
+
+    /** Bound of an integer or date/time key, exact even beyond 2^53 */
+    long longBound(int i) {
+      if (i == 0) return _lmin;
+      if (i == _nPartitions) return _lmax;
+      BigInteger span = BigInteger.valueOf(_lmax).subtract(BigInteger.valueOf(_lmin));
+      return BigInteger.valueOf(_lmin).add(span.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(_nPartitions)))
+              .longValue();
+    }
+
+    /** Bound of a floating point key */
+    double bound(int i) {
+      if (i == 0) return _min;
+      if (i == _nPartitions) return _max;
+      return _min + (_max - _min) * i / _nPartitions;
+    }
+
+    String where(int i) {
+      return i == _nPartitions - 1 ? 
+              " WHERE (" + _column + " >= ? AND " + _column + " <= ?) OR " + _column + " IS NULL" :
+              " WHERE " + _column + " >= ? AND " + _column + " < ?";
+    }
+
+    void setBounds(PreparedStatement stmt, int i) throws SQLException {
+      for (int b = 0; b < 2; b++) {
+        if (_isTime) stmt.setTimestamp(b + 1, new Timestamp(longBound(i + b)));
+        else if (_isInt) stmt.setLong(b + 1, longBound(i + b));
+        else stmt.setDouble(b + 1, bound(i + b));
+      }
+    }
+
+    @Override public String toString() {
+      return _isInt ? _column + " [" + _lmin + ", " + _lmax + "]" : _column + " [" + _min + ", " + _max + "]";
+    }
+  }
+
   private static class SqlTableToH2OFrame extends MRTask<SqlTableToH2OFrame> {
     final String _url, _table, _user, _password, _columns;
     final int _numCol, _nChunks;
     final boolean _needFetchClause;
+    final PartitionKey _partitionKey;
     final Job _job;
 
     transient ArrayBlockingQueue<Connection> sqlConn;
 
     public SqlTableToH2OFrame(String url, String table, boolean needFetchClause, String user, String password, 
-                              String columns, int numCol, int nChunks, Job job) {
+                              String columns, int numCol, int nChunks, PartitionKey partitionKey, Job job) {
       _url = url;
       _table = table;
       _needFetchClause = needFetchClause;
@@ -215,6 +355,7 @@ public class SQLManager {
       _columns = columns;
       _numCol = numCol;
       _nChunks = nChunks;
+      _partitionKey = partitionKey;
       _job = job;
 
     }
@@ -238,70 +379,33 @@ public class SQLManager {
     @Override
     public void map(Chunk[] cs, NewChunk[] ncs) {
       if (isCancelled() || _job != null && _job.stop_requested()) return;
-      //fetch data from sql table with limit and offset
+      //fetch data from sql table either by key range or with limit and offset
       Connection conn = null;
       Statement stmt = null;
       ResultSet rs = null;
       Chunk c0 = cs[0];
       String sqlText = "SELECT " + _columns + " FROM " + _table;
-      if (_needFetchClause)
+      if (_partitionKey != null)
+        sqlText += _partitionKey.where(c0.cidx());
+      else if (_needFetchClause)
         sqlText += " OFFSET " + c0.start() + " ROWS FETCH NEXT " + c0._len + " ROWS ONLY";
       else
         sqlText += " LIMIT " + c0._len + " OFFSET " + c0.start();
       try {
         conn = sqlConn.take();
-        stmt = conn.createStatement();
-        //set fetch size for best performance
-        stmt.setFetchSize(c0._len);
-        rs = stmt.executeQuery(sqlText);
-        while (rs.next()) {
-          for (int i = 0; i < _numCol; i++) {
-            Object res = rs.getObject(i + 1);
-            if (res == null) ncs[i].addNA();
-            else {
-              switch (res.getClass().getSimpleName()) {
-                case "Double":
-                  ncs[i].addNum((double) res);
-                  break;
-                case "Integer":
-                  ncs[i].addNum((long) (int) res, 0);
-                  break;
-                case "Long":
-                  ncs[i].addNum((long) res, 0);
-                  break;
-                case "Float":
-                  ncs[i].addNum((double) (float) res);
-                  break;
-                case "Short":
-                  ncs[i].addNum((long) (short) res, 0);
-                  break;
-                case "Byte":
-                  ncs[i].addNum((long) (byte) res, 0);
-                  break;
-                case "BigDecimal":
-                  ncs[i].addNum(((BigDecimal) res).doubleValue());
-                  break;
-                case "Boolean":
-                  ncs[i].addNum(((boolean) res ? 1 : 0), 0);
-                  break;
-                case "String":
-                  ncs[i].addStr(new BufferedString((String) res));
-                  break;
-                case "Date":
-                  ncs[i].addNum(((Date) res).getTime(), 0);
-                  break;
-                case "Time":
-                  ncs[i].addNum(((Time) res).getTime(), 0);
-                  break;
-                case "Timestamp":
-                  ncs[i].addNum(((Timestamp) res).getTime(), 0);
-                  break;
-                default:
-                  ncs[i].addNA();
-              }
-            }
-          }
+        if (_partitionKey != null) {
+          PreparedStatement pstmt = conn.prepareStatement(sqlText);
+          stmt = pstmt;
+          _partitionKey.setBounds(pstmt, c0.cidx());
+          pstmt.setFetchSize(MAX_FETCH_SIZE);
+          rs = pstmt.executeQuery();
+        } else {
+          stmt = conn.createStatement();
+          //set fetch size for best performance
+          stmt.setFetchSize(Math.min(c0._len, MAX_FETCH_SIZE));
+          rs = stmt.executeQuery(sqlText);
         }
+        readRows(rs, ncs);
       } catch (SQLException ex) {
         throw new RuntimeException("SQLException: " + ex.getMessage() + "\nFailed to read SQL data");
       } catch (InterruptedException e) {
@@ -334,6 +438,58 @@ public class SQLManager {
       if (_job != null) _job.update(1);
     }
 
+    /** Streams all rows of the result set into the new chunks */
+    private void readRows(ResultSet rs, NewChunk[] ncs) throws SQLException {
+      while (rs.next()) {
+        for (int i = 0; i < _numCol; i++) {
+          Object res = rs.getObject(i + 1);
+          if (res == null) ncs[i].addNA();
+          else {
+            switch (res.getClass().getSimpleName()) {
+              case "Double":
+                ncs[i].addNum((double) res);
+                break;
+              case "Integer":
+                ncs[i].addNum((long) (int) res, 0);
+                break;
+              case "Long":
+                ncs[i].addNum((long) res, 0);
+                break;
+              case "Float":
+                ncs[i].addNum((double) (float) res);
+                break;
+              case "Short":
+                ncs[i].addNum((long) (short) res, 0);
+                break;
+              case "Byte":
+                ncs[i].addNum((long) (byte) res, 0);
+                break;
+              case "BigDecimal":
+                ncs[i].addNum(((BigDecimal) res).doubleValue());
+                break;
+              case "Boolean":
+                ncs[i].addNum(((boolean) res ? 1 : 0), 0);
+                break;
+              case "String":
+                ncs[i].addStr(new BufferedString((String) res));
+                break;
+              case "Date":
+                ncs[i].addNum(((Date) res).getTime(), 0);
+                break;
+              case "Time":
+                ncs[i].addNum(((Time) res).getTime(), 0);
+                break;
+              case "Timestamp":
+                ncs[i].addNum(((Timestamp) res).getTime(), 0);
+                break;
+              default:
+                ncs[i].addNA();
+            }
+          }
+        }
+      }
+    }
+
     @Override
     protected void closeLocal() {
       try {
@@ -0,0 +1,55 @@
+package water.parser;
+
+import water.Iced;
+
+/**
+ * A simple row predicate of the form {@code column op value} carried by {@link ParseSetup}.
+ *
+ * Columnar parsers (Parquet, ORC) push the predicate down to the min/max statistics stored
+ * with each row group/stripe and skip the groups whose value range cannot satisfy it.
+ * The predicate is a pruning hint only: rows of the groups that are read are not filtered
+ * individually and parsers without storage-level statistics ignore it completely.
+ */
+public class ColumnPredicate extends Iced<ColumnPredicate> {
+
+  public enum Op { LT, LE, GT, GE, EQ }
+
+  final int _column;    // Index of the column (in the parsed, not projected, column order)
+  final Op _op;
+  final double _value;
+
+  public ColumnPredicate(int column, Op op, double value) {
+    if (column < 0) throw new IllegalArgumentException("Column index must be non-negative, got " + column);
+    if (op == null) throw new IllegalArgumentException("Predicate operator is required");
+    _column = column;
+    _op = op;
+    _value = value;
+  }
+
+  public int getColumn() { return _column; }
+  public Op getOp() { return _op; }
+  public double getValue() { return _value; }
+
+  /**
+   * Decides whether any value from the closed interval [min, max] can satisfy the predicate.
+   * @param min minimum (non-NA) value of a row group
+   * @param max maximum (non-NA) value of a row group
+   * @return false if the whole row group can be safely skipped
+   */
+  public boolean mayMatch(double min, double max) {
+    if (Double.isNaN(min) || Double.isNaN(max)) return true; // no usable statistics
+    switch (_op) {
+      case LT: return min <  _value;
+      case LE: return min <= _value;
+      case GT: return max >  _value;
+      case GE: return max >= _value;
+      case EQ: return min <= _value && _value <= max;
+      default: throw new IllegalStateException("Unknown operator " + _op);
+    }
+  }
+
+  @Override public String toString() {
+    return "C" + (_column + 1) + " " + _op + " " + _value;
+  }
+
+}
@@ -41,6 +41,62 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     _chunkSize = chunkSize;
   }
 
+  // Writer of a group of columns of the same chunk, see columnGroup()
+  FVecParseWriter(FVecParseWriter w, boolean[] cols) {
+    _ctypes = w._ctypes;        // Columns of different groups are disjoint
+    _vecs = w._vecs;
+    _nvs = new NewChunk[w._nvs.length];
+    for(int i = 0; i < _nvs.length; ++i)
+      if( i < cols.length && cols[i] ) _nvs[i] = w._nvs[i];
+    _categoricals = w._categoricals;
+    _nCols = w._nCols;
+    _cidx = w._cidx;
+    _vg = w._vg;
+    _chunkSize = w._chunkSize;
+    _nLines = w._nLines;
+  }
+
+  /**
+   * Writer of a group of columns of this chunk, for columnar parsers decoding disjoint column groups of a chunk
+   * in parallel.  The group writer appends to this writer's NewChunks of the group's columns, values of other
+   * columns are dropped; its line count, current column and errors are its own, so each group can be written by
+   * a different thread.  Merge it back with {@link #mergeColumnGroup} once all the groups are done.
+   */
+  public FVecParseWriter columnGroup(boolean[] cols) { return new ColumnGroupWriter(this, cols); }
+
+  /** Merges the line count and the errors of a finished column group writer into this writer. */
+  public void mergeColumnGroup(FVecParseWriter group) {
+    assert group._vecs == _vecs && group._cidx == _cidx;
+    _nLines = Math.max(_nLines, group._nLines); // Every group sees all the lines
+    _errCnt += group._errCnt;
+    if(_errs.length < 20 && group._errs.length > 0) {
+      _errs = ArrayUtils.append(_errs, group._errs);
+      if(_errs.length > 20)
+        _errs = Arrays.copyOf(_errs,20);
+    }
+  }
+
+  private static class ColumnGroupWriter extends FVecParseWriter {
+    ColumnGroupWriter(FVecParseWriter w, boolean[] cols) { super(w, cols); }
+
+    private boolean owns(int colIdx) { return colIdx < _nvs.length && _nvs[colIdx] != null; }
+
+    @Override public void newLine() {
+      if(_col >= 0){
+        ++_nLines;
+        for(int i = _col+1; i < _nCols; ++i)
+          if( owns(i) ) addInvalidCol(i);
+      }
+      _col = -1;
+    }
+    @Override public void addNumCol(int colIdx, long number, int exp) { if( owns(colIdx) ) super.addNumCol(colIdx, number, exp); }
+    @Override public void addInvalidCol(int colIdx) { if( owns(colIdx) ) super.addInvalidCol(colIdx); }
+    @Override public void addStrCol(int colIdx, BufferedString str) { if( owns(colIdx) ) super.addStrCol(colIdx, str); }
+    @Override public void setIsAllASCII(int colIdx, boolean b) { if( owns(colIdx) ) super.setIsAllASCII(colIdx, b); }
+    @Override public FVecParseWriter nextChunk() { throw new UnsupportedOperationException("Column groups are single chunk writers"); }
+    @Override public FVecParseWriter close(Futures fs) { return this; } // The NewChunks are closed by the chunk writer
+  }
+
   @Override public FVecParseWriter reduce(StreamParseWriter sdout){
     FVecParseWriter dout = (FVecParseWriter)sdout;
     _nCols = Math.max(_nCols,dout._nCols); // SVMLight: max of columns
@@ -93,7 +149,7 @@ public class FVecParseWriter extends Iced implements StreamParseWriter {
     }
   }
 
-  @Override public final void addInvalidCol(int colIdx) {
+  @Override public void addInvalidCol(int colIdx) {
     if(colIdx < _nCols) _nvs[_col = colIdx].addNA();
   }
   @Override public boolean isString(int colIdx) { return (colIdx < _nCols) && (_ctypes[colIdx] == Vec.T_CAT || _ctypes[colIdx] == Vec.T_STR);}
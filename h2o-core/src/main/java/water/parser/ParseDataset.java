@@ -123,6 +123,8 @@ public final class ParseDataset {
     for( String x : conflictingNames )
     if ( x != null && !x.equals(""))
       throw new IllegalArgumentException("Found duplicate column name "+x);
+    if( setup._skipped_columns != null && setup._skipped_columns.length > 0 )
+      setup._skipped_columns = checkSkippedColumns(setup._skipped_columns, setup._number_columns);
     // Some quick sanity checks: no overwriting your input key, and a resource check.
     long totalParseSize=0;
     for( int i=0; i<keys.length; i++ ) {
@@ -178,6 +180,21 @@ public final class ParseDataset {
   }
 
   // -------------------------------
+  // Sorted, duplicate-free copy of the skipped column indices; at least one column has to stay
+  private static int[] checkSkippedColumns(int[] skipped, int ncols) {
+    int[] cols = skipped.clone();
+    Arrays.sort(cols);
+    int n = 0;
+    for( int c : cols ) {
+      if( c < 0 || c >= ncols )
+        throw new IllegalArgumentException("Skipped column index "+c+" is out of range, the data has "+ncols+" columns");
+      if( n == 0 || cols[n-1] != c ) cols[n++] = c;
+    }
+    if( n == ncols )
+      throw new IllegalArgumentException("Cannot skip all "+ncols+" columns");
+    return Arrays.copyOf(cols, n);
+  }
+
   // Simple internal class doing background parsing, with trackable Job status
   public static class ParserFJTask extends water.H2O.H2OCountedCompleter {
     final ParseDataset _pds;
@@ -327,6 +344,13 @@ public final class ParseDataset {
     // Check for job cancellation
     if ( job.stop_requested() ) return pds;
 
+    // Drop the skipped columns; columnar parsers did not decode them and left them all-NA
+    if( setup._skipped_columns != null && setup._skipped_columns.length > 0 ) {
+      Futures fs = new Futures();
+      for( Vec v : fr.remove(setup._skipped_columns.clone()) ) v.remove(fs);
+      fs.blockForPending();
+    }
+
     ParseWriter.ParseErr [] errs = ArrayUtils.append(setup._errs,mfpt._errors);
     if(errs.length > 0) {
       String[] warns = new String[errs.length];
@@ -1060,11 +1084,9 @@ public final class ParseDataset {
   public static void logParseResults(Frame fr) {
     long numRows = fr.anyVec().length();
     Log.info("Parse result for " + fr._key + " (" + Long.toString(numRows) + " rows):");
-    // get all rollups started in parallell, otherwise this takes ages!
-    Futures fs = new Futures();
+    // get all rollups (and distinct counts) in a single pass, otherwise this takes ages!
     Vec[] vecArr = fr.vecs();
-    for(Vec v:vecArr)  v.startRollupStats(fs);
-    fs.blockForPending();
+    FrameSummary.Sketches[] sketches = FrameSummary.get(vecArr);
 
     int namelen = 0;
     for (String s : fr.names()) namelen = Math.max(namelen, s.length());
@@ -1101,7 +1123,8 @@ public final class ParseDataset {
       long numNAs = v.naCnt();
       String naStr = (numNAs > 0) ? String.format("%d", numNAs) : "";
       String isConstantStr = isConstant ? "constant" : "";
-      String numLevelsStr = isCategorical ? String.format("%d", v.domain().length) : "";
+      String numLevelsStr = isCategorical ? String.format("%d", v.domain().length)
+          : v.isBad() ? "" : String.format("~%d", sketches[i].distinctCount()); // estimated
 
       boolean launchedWithHadoopJar = H2O.ARGS.launchedWithHadoopJar();
       boolean printLogSeparatorToStdout = false;
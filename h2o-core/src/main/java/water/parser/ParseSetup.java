@@ -41,6 +41,8 @@ public class ParseSetup extends Iced {
   String[][] _domains;        // Domains for each column (null if numeric)
   String[][] _na_strings;       // Strings for NA in a given column
   String[][] _data;           // First few rows of parsed/tokenized data
+  int[] _skipped_columns;     // Columns to drop from the result (projection is pushed down to columnar parsers)
+  ColumnPredicate[] _predicates; // Row group/stripe pruning hints for columnar parsers
 
   String [] _fileNames = new String[]{"unknown"};
 
@@ -55,6 +57,8 @@ public class ParseSetup extends Iced {
          ps._separator, ps._single_quotes, ps._check_header, ps._number_columns,
          ps._column_names, ps._column_types, ps._domains, ps._na_strings, ps._data,
          new ParseWriter.ParseErr[0], ps._chunk_size);
+    _skipped_columns = ps._skipped_columns;
+    _predicates = ps._predicates;
   }
 
 
@@ -146,6 +150,21 @@ public class ParseSetup extends Iced {
     return types;
   }
   public byte[] getColumnTypes() { return _column_types; }
+  public int[] getSkippedColumns() { return _skipped_columns; }
+  public ColumnPredicate[] getPredicates() { return _predicates; }
+
+  /**
+   * Builds a mask of columns that need to be materialized by a parser.
+   * @return mask of requested columns, null if all columns are requested
+   */
+  public boolean[] projectionMask() {
+    if (_skipped_columns == null || _skipped_columns.length == 0 || _number_columns <= 0) return null;
+    boolean[] mask = new boolean[_number_columns];
+    Arrays.fill(mask, true);
+    for (int c : _skipped_columns)
+      if (c >= 0 && c < mask.length) mask[c] = false;
+    return mask;
+  }
 
   public static byte[] strToColumnTypes(String[] strs) {
     if (strs == null) return null;
@@ -713,4 +732,14 @@ public class ParseSetup extends Iced {
     return this;
   }
 
+  public ParseSetup setSkippedColumns(int[] skipped_columns) {
+    this._skipped_columns = skipped_columns;
+    return this;
+  }
+
+  public ParseSetup setPredicates(ColumnPredicate[] predicates) {
+    this._predicates = predicates;
+    return this;
+  }
+
 } // ParseSetup state class
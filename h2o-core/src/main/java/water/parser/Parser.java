@@ -72,6 +72,33 @@ public abstract class Parser extends Iced {
   // Parse this one Chunk (in parallel with other Chunks)
   protected abstract ParseWriter parseChunk(int cidx, final ParseReader din, final ParseWriter dout);
 
+  /**
+   * Splits the columns of a single chunk into groups that can be decoded independently
+   * by columnar parsers (ORC stripes, Parquet row groups). Files with fewer chunks than
+   * there are F/J threads would otherwise parse on only a few cores.
+   *
+   * @param cols mask of the columns to be decoded
+   * @param nchunks total number of chunks of the parsed file
+   * @return column groups as masks over all columns, a single group means no intra-chunk parallelism
+   */
+  protected static boolean[][] columnGroups(boolean[] cols, int nchunks) {
+    int ncols = 0;
+    for (boolean c : cols) if (c) ncols++;
+    int localChunks = Math.max(1, nchunks / H2O.CLOUD.size());
+    int ngroups = Math.max(1, Math.min(ncols, H2O.ARGS.nthreads / localChunks));
+    boolean[][] groups = new boolean[ngroups][cols.length];
+    // contiguous ranges of columns, sizes differ by at most one
+    int g = 0, inGroup = 0;
+    for (int i = 0; i < cols.length; i++) {
+      if (!cols[i]) continue;
+      int groupSize = ncols / ngroups + (g < ncols % ngroups ? 1 : 0);
+      if (inGroup == groupSize) { g++; inGroup = 0; }
+      groups[g][i] = true;
+      inGroup++;
+    }
+    return groups;
+  }
+
   ParseWriter streamParse( final InputStream is, final ParseWriter dout) throws IOException {
     if (!_setup._parse_type.isParallelParseSupported) throw H2O.unimpl();
     StreamData din = new StreamData(is);
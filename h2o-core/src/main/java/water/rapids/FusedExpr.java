@@ -0,0 +1,287 @@
+package water.rapids;
+
+import water.Iced;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstId;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.ast.prims.operators.AstEq;
+import water.rapids.ast.prims.operators.AstLAnd;
+import water.rapids.ast.prims.operators.AstLOr;
+import water.rapids.ast.prims.operators.AstNe;
+import water.rapids.vals.ValFrame;
+import water.rapids.vals.ValNum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Fused evaluation of element-wise expressions (see {@link Session#fusedEvaluation()}).
+ *
+ * Nested applications of math (AstUniOp) and binary operators (AstBinOp) are not executed one by one, each making
+ * a full pass over the data and materializing a temporary Frame. Instead the whole element-wise sub-expression is
+ * collected into a small expression tree and evaluated in a single MRTask pass, e.g. {@code (log (+ (* x 2) y))}
+ * reads x and y once and only writes the final result.
+ *
+ * Only plain numeric columns of compatible Frames are fused. Anything else (categoricals, strings, times, rows,
+ * single-row broadcasting, mismatched shapes) falls back to the regular evaluation of the primitive, so results
+ * (including column names and error messages) are the same as without fusion.
+ */
+public final class FusedExpr {
+
+  private FusedExpr() {}
+
+  /** Can the application of this primitive be fused with its arguments? */
+  public static boolean isFusable(AstPrimitive prim) {
+    // short-circuit logicals evaluate their arguments lazily
+    return (prim instanceof AstUniOp || prim instanceof AstBinOp) && !(prim instanceof AstLAnd || prim instanceof AstLOr);
+  }
+
+  /**
+   * Execute the application {@code (prim asts[1] ...)} of a fusable primitive.
+   * @return result of the expression; Frames are tracked by the caller the same way as for {@link AstPrimitive#apply}
+   */
+  public static Val exec(AstPrimitive prim, AstRoot[] asts, Env env, Env.StackHelp stk) {
+    return materialize(compile(prim, asts, env, stk), env, stk, false);
+  }
+
+  // Build the (lazy) expression tree of an application, evaluating non-fusable arguments eagerly
+  private static Node compile(AstPrimitive prim, AstRoot[] asts, Env env, Env.StackHelp stk) {
+    if (prim instanceof AstUniOp) {
+      AstUniOp uni = (AstUniOp) prim;
+      Node x = arg(asts[1], env, stk);
+      if (x instanceof Const) return new Const(uni.op(((Const) x)._d)); // constant folding
+      if (x instanceof Opaque) return fallback(uni.prim_apply(materialize(x, env, stk, true)), env, stk);
+      return new Uni(uni, x, x._ncols, null /*AstUniOp uses default names*/, x._anyVec);
+    }
+    AstBinOp bin = (AstBinOp) prim;
+    Node l = arg(asts[1], env, stk);
+    Node r = arg(asts[2], env, stk);
+    if (l instanceof Const && r instanceof Const) return new Const(bin.op(((Const) l)._d, ((Const) r)._d));
+    if (l instanceof Const && !(r instanceof Opaque)) return new Bin(bin, l, r, r._ncols, r._names, r._anyVec);
+    if (r instanceof Const && !(l instanceof Opaque))
+      return new Bin(bin, l, r, l._ncols, frameOpScalarNames(bin, l._names), l._anyVec);
+    if (!(l instanceof Opaque || r instanceof Opaque) && new Frame(l._anyVec).isCompatible(new Frame(r._anyVec))) {
+      // same widening rules as for frame-frame binary operators: a single column is applied to every column
+      if (l._ncols == r._ncols || r._ncols == 1) return new Bin(bin, l, r, l._ncols, l._names, l._anyVec);
+      if (l._ncols == 1) return new Bin(bin, l, r, r._ncols, r._names, r._anyVec);
+    }
+    Val lv = materialize(l, env, stk, true);
+    Val rv = materialize(r, env, stk, true);
+    return fallback(bin.prim_apply(lv, rv), env, stk);
+  }
+
+  // Column names of (op frame scalar), the same as AstBinOp.frame_op_scalar gives
+  private static String[] frameOpScalarNames(AstBinOp bin, String[] names) {
+    // == and != override frame_op_scalar and use default names (C1, C2, ...)
+    return bin instanceof AstEq || bin instanceof AstNe ? null : names;
+  }
+
+  // Compile an argument: nested fusable applications stay lazy, everything else is executed right away
+  private static Node arg(AstRoot ast, Env env, Env.StackHelp stk) {
+    if (ast instanceof AstExec) {
+      AstExec exec = (AstExec) ast;
+      // only look through plain function references, the function expression must not be executed twice
+      if (exec._asts[0] instanceof AstId || exec._asts[0] instanceof AstPrimitive) {
+        Val fun = exec._asts[0].exec(env);
+        if (fun.isFun() && isFusable(fun.getFun()) && fun.getFun().nargs() == exec._asts.length)
+          return compile(fun.getFun(), exec._asts, env, stk);
+      }
+    }
+    return leaf(stk.track(ast.exec(env)));
+  }
+
+  // Result of a non-fused evaluation, tracked the same way as a nested AstExec result
+  private static Node fallback(Val val, Env env, Env.StackHelp stk) {
+    return leaf(stk.track(env.returning(val)));
+  }
+
+  private static Node leaf(Val val) {
+    if (val.isNum()) return new Const(val.getNum());
+    if (val.isFrame()) {
+      Frame fr = val.getFrame();
+      boolean numeric = fr.numCols() > 0;
+      for (Vec v : fr.vecs())
+        numeric &= v.get_type() == Vec.T_NUM;
+      if (numeric) return new Col(val, fr.vecs(), fr._names);
+    }
+    return new Opaque(val);
+  }
+
+  // Evaluate a (sub-)expression; intermediate results are tracked on the stack
+  private static Val materialize(Node node, Env env, Env.StackHelp stk, boolean intermediate) {
+    if (node instanceof Const) return new ValNum(((Const) node)._d);
+    if (node instanceof Leaf) return ((Leaf) node)._val;
+    // collect the distinct input vecs, and number the column leaves accordingly
+    IdentityHashMap<Vec, Integer> index = new IdentityHashMap<>();
+    ArrayList<Vec> inputs = new ArrayList<>();
+    node.bind(index, inputs);
+    Frame res = new FusedTask(node).doAll(node._ncols, Vec.T_NUM, new Frame(inputs.toArray(new Vec[inputs.size()])))
+        .outputFrame(node._names, null);
+    ValFrame val = new ValFrame(res);
+    return intermediate ? stk.track(env.returning(val)) : val;
+  }
+
+  private static class FusedTask extends MRTask<FusedTask> {
+    private final Node _root;
+
+    FusedTask(Node root) { _root = root; }
+
+    @Override
+    public void map(Chunk[] cs, NewChunk[] ncs) {
+      final int len = cs[0]._len;
+      for (int c = 0; c < ncs.length; c++) {
+        double[] res = _root.eval(cs, c, len);
+        NewChunk nc = ncs[c];
+        for (int i = 0; i < len; i++)
+          nc.addNum(res[i]);
+      }
+    }
+  }
+
+  /**
+   * Node of an element-wise expression, evaluated one output column of a chunk at a time.
+   * Results are freshly allocated buffers the parent is free to overwrite.
+   */
+  private static abstract class Node extends Iced<Node> {
+    final int _ncols;                // number of output columns (1 is broadcast to all columns of the result)
+    final transient String[] _names; // names of the result columns, null for default names
+    final transient Vec _anyVec;     // layout of the result
+
+    Node(int ncols, String[] names, Vec anyVec) {
+      _ncols = ncols;
+      _names = names;
+      _anyVec = anyVec;
+    }
+
+    abstract double[] eval(Chunk[] cs, int col, int len);
+
+    void bind(IdentityHashMap<Vec, Integer> index, ArrayList<Vec> inputs) {}
+  }
+
+  private static class Const extends Node {
+    final double _d;
+
+    Const(double d) {
+      super(1, null, null);
+      _d = d;
+    }
+
+    @Override
+    double[] eval(Chunk[] cs, int col, int len) {
+      double[] res = new double[len];
+      Arrays.fill(res, _d);
+      return res;
+    }
+  }
+
+  /** Already evaluated argument */
+  private static abstract class Leaf extends Node {
+    final transient Val _val;
+
+    Leaf(Val val, int ncols, String[] names, Vec anyVec) {
+      super(ncols, names, anyVec);
+      _val = val;
+    }
+  }
+
+  /** Argument which can not be fused (e.g. categorical columns, or a row); forces the regular evaluation */
+  private static class Opaque extends Leaf {
+    Opaque(Val val) {
+      super(val, 0, null, null);
+    }
+
+    @Override
+    double[] eval(Chunk[] cs, int col, int len) {
+      throw new IllegalStateException("Opaque values are never evaluated in a fused pass.");
+    }
+  }
+
+  /** Numeric columns of a Frame */
+  private static class Col extends Leaf {
+    final transient Vec[] _vecs;
+    int[] _idx; // index of the columns in the input Frame of the fused pass
+
+    Col(Val val, Vec[] vecs, String[] names) {
+      super(val, vecs.length, names, vecs[0]);
+      _vecs = vecs;
+    }
+
+    @Override
+    void bind(IdentityHashMap<Vec, Integer> index, ArrayList<Vec> inputs) {
+      _idx = new int[_vecs.length];
+      for (int i = 0; i < _vecs.length; i++) {
+        Integer idx = index.get(_vecs[i]);
+        if (idx == null) {
+          index.put(_vecs[i], idx = inputs.size());
+          inputs.add(_vecs[i]);
+        }
+        _idx[i] = idx;
+      }
+    }
+
+    @Override
+    double[] eval(Chunk[] cs, int col, int len) {
+      return cs[_idx[col]].getDoubles(new double[len], 0, len);
+    }
+  }
+
+  private static class Uni extends Node {
+    final AstUniOp _op;
+    final Node _x;
+
+    Uni(AstUniOp op, Node x, int ncols, String[] names, Vec anyVec) {
+      super(ncols, names, anyVec);
+      _op = op;
+      _x = x;
+    }
+
+    @Override
+    void bind(IdentityHashMap<Vec, Integer> index, ArrayList<Vec> inputs) {
+      _x.bind(index, inputs);
+    }
+
+    @Override
+    double[] eval(Chunk[] cs, int col, int len) {
+      double[] x = _x.eval(cs, _x._ncols == 1 ? 0 : col, len);
+      for (int i = 0; i < len; i++)
+        x[i] = _op.op(x[i]);
+      return x;
+    }
+  }
+
+  private static class Bin extends Node {
+    final AstBinOp _op;
+    final Node _l, _r;
+
+    Bin(AstBinOp op, Node l, Node r, int ncols, String[] names, Vec anyVec) {
+      super(ncols, names, anyVec);
+      _op = op;
+      _l = l;
+      _r = r;
+    }
+
+    @Override
+    void bind(IdentityHashMap<Vec, Integer> index, ArrayList<Vec> inputs) {
+      _l.bind(index, inputs);
+      _r.bind(index, inputs);
+    }
+
+    @Override
+    double[] eval(Chunk[] cs, int col, int len) {
+      double[] l = _l.eval(cs, _l._ncols == 1 ? 0 : col, len);
+      double[] r = _r.eval(cs, _r._ncols == 1 ? 0 : col, len);
+      for (int i = 0; i < len; i++)
+        l[i] = _op.op(l[i], r[i]);
+      return l;
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package water.rapids;
+
+import water.DKV;
+import water.Futures;
+import water.Iced;
+import water.Key;
+import water.MRTask;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+
+/**
+ * Distributed prefix scan down the rows of a Frame.
+ *
+ * A scan is defined by an associative operator over states (e.g. the running sums of every column, or the last few
+ * rows of the Frame). It runs in two levels: every non-empty chunk is summarized into a state in a read-only pass,
+ * the chunk summaries are combined into exclusive prefixes on the caller, and a single output pass then computes each
+ * chunk from its carry-in, i.e. the state of all the preceding rows, put on the node of the chunk. Cumulative reducers,
+ * lags and differences, and rolling windows are scans with different states; the output is written once, no second
+ * fix-up pass is needed.
+ */
+public abstract class PrefixScan extends Iced<PrefixScan> {
+
+  /** State of an empty prefix */
+  protected abstract double[] identity();
+
+  /** State of a prefix followed by more rows; may update and return acc, must not modify next */
+  protected abstract double[] combine(double[] acc, double[] next);
+
+  /** State of the rows of a non-empty chunk */
+  protected abstract double[] summarize(Chunk cs[]);
+
+  /** Output of a chunk given the state of all the preceding rows (carry must not be modified) */
+  protected abstract void apply(Chunk cs[], double[] carry, NewChunk ncs[]);
+
+  /**
+   * Scan a Frame.
+   * @param types types of the output columns
+   * @param names names of the output columns, or null for default names
+   * @return new Frame (not in DKV) with the output columns
+   */
+  public Frame doAll(Frame fr, byte[] types, String[] names) {
+    final Vec vec = fr.anyVec();
+    final int nchks = vec.nChunks();
+    double[][] sums = new Summaries(this, nchks).doAll(fr)._sums;
+    // Exclusive scan of the chunk summaries; empty chunks have no summary and pass the carry on.  Each carry is put
+    // on the node of its chunk, so the output pass ships every node only the carries of its own chunks.
+    String prefix = Key.make().toString();
+    Futures fs = new Futures();
+    double[] acc = identity();
+    for (int chk = 0; chk < nchks; chk++) {
+      DKV.put(carryKey(prefix, vec, chk), new Carry(acc.clone()), fs);
+      if (sums[chk] != null) acc = combine(acc, sums[chk]);
+    }
+    fs.blockForPending();
+    try {
+      return new ScanTask(this, prefix).doAll(types, fr).outputFrame(names, null);
+    } finally {
+      for (int chk = 0; chk < nchks; chk++)
+        DKV.remove(carryKey(prefix, vec, chk), fs);
+      fs.blockForPending();
+    }
+  }
+
+  // Key of the carry of chunk chk, homed with the chunk
+  private static Key carryKey(String prefix, Vec vec, int chk) {
+    return Key.make(prefix + "_carry" + chk, (byte) 1, Key.HIDDEN_USER_KEY, false, vec.chunkKey(chk).home_node());
+  }
+
+  private static class Carry extends Iced<Carry> {
+    final double[] _state;
+
+    Carry(double[] state) {
+      _state = state;
+    }
+  }
+
+  private static class Summaries extends MRTask<Summaries> {
+    final PrefixScan _scan; // IN
+    final int _nchks;       // IN
+    double[][] _sums;       // OUT, state of each chunk; null for empty chunks
+
+    Summaries(PrefixScan scan, int nchks) {
+      _scan = scan;
+      _nchks = nchks;
+    }
+
+    @Override
+    public void setupLocal() {
+      _sums = new double[_nchks][];
+    }
+
+    @Override
+    public void map(Chunk cs[]) {
+      if (cs[0]._len > 0) _sums[cs[0].cidx()] = _scan.summarize(cs);
+    }
+
+    @Override
+    public void reduce(Summaries t) {
+      if (_sums == t._sums) return;
+      for (int chk = 0; chk < _nchks; chk++)
+        if (_sums[chk] == null) _sums[chk] = t._sums[chk];
+    }
+  }
+
+  private static class ScanTask extends MRTask<ScanTask> {
+    final PrefixScan _scan; // IN
+    final String _prefix;   // IN, keys of the states of the rows preceding each chunk
+
+    ScanTask(PrefixScan scan, String prefix) {
+      _scan = scan;
+      _prefix = prefix;
+    }
+
+    @Override
+    public void map(Chunk cs[], NewChunk ncs[]) {
+      Carry carry = DKV.getGet(carryKey(_prefix, cs[0].vec(), cs[0].cidx()));
+      _scan.apply(cs, carry._state, ncs);
+    }
+  }
+}
@@ -0,0 +1,284 @@
+package water.rapids;
+
+import water.Futures;
+import water.MemoryManager;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.rapids.ast.AstExec;
+import water.rapids.ast.AstParameter;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.*;
+import water.rapids.ast.prims.math.AstUniOp;
+import water.rapids.ast.prims.mungers.*;
+import water.rapids.ast.prims.operators.AstBinOp;
+import water.rapids.ast.prims.operators.AstIfElse;
+import water.rapids.vals.ValFrame;
+import water.util.SB;
+
+import java.util.*;
+
+/**
+ * Per-Session cache of the results of common sub-expressions (see {@link Session#resultCache()}).
+ *
+ * Python and R clients re-send the same sub-expressions (column slices, filters, scaling, type conversions...) many
+ * times per session. Applications of side-effect free primitives are keyed by their canonical form, with every frame
+ * reference replaced by the keys and content fingerprints of the frame's Vecs (see {@link Vec#contentFingerprint()}),
+ * only of the selected ones when the frame is sliced by a constant column list, and a repeated application returns the cached Frame instead of recomputing it. Since a Vec written into in place
+ * (e.g. by h2o.impute, or Java code outside of the session) gets a new fingerprint, results computed from its old
+ * content are not found anymore; the fingerprints of cached results are checked as well before they are returned.
+ *
+ * Cached Frames hold a session ref-count on their Vecs, so they are neither deleted nor updated in place by the session
+ * (see {@link Session#copyOnWrite}) while cached.
+ * The least recently used entries are evicted once the cache grows above its budget, and the whole cache is dropped
+ * when the node runs low on memory (see {@link MemoryManager#isMemoryLow()}).
+ */
+public class ResultCache {
+  // Caching budget: fraction of the heap, and maximum number of cached results
+  private static final long MAX_BYTES = MemoryManager.MEM_MAX >> 3;
+  private static final int MAX_ENTRIES = 256;
+
+  private static class Entry {
+    final Frame _fr;    // defensive copy of the result, ref-counted by the session
+    final Vec[] _inputs; // Vecs of the frames referenced by the expression
+    final long[] _fingerprints; // of the result's Vecs, when it was cached
+    final long _bytes;  // approximate memory held by the result
+
+    Entry(Frame fr, Vec[] inputs, long[] fingerprints, long bytes) {
+      _fr = fr;
+      _inputs = inputs;
+      _fingerprints = fingerprints;
+      _bytes = bytes;
+    }
+  }
+
+  private final Session _ses;
+  // Access-ordered, i.e. iteration starts with the least recently used entry
+  private final LinkedHashMap<String, Entry> _entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long _bytes;
+  private long _hits, _misses;
+
+  ResultCache(Session ses) {
+    _ses = ses;
+  }
+
+  /**
+   * Canonical key of a function application, or null if the application cannot be cached
+   * (side effects, randomness, user-defined functions, non-frame references...).
+   * @param inputs collects the Vecs of all referenced frames
+   */
+  public String key(AstExec exec, Env env, List<Vec> inputs) {
+    SB sb = new SB();
+    try {
+      return canonical(exec, env, sb, inputs) ? sb.toString() : null;
+    } catch (IllegalArgumentException e) {
+      return null; // A referenced Vec is being modified, it has no fingerprint
+    }
+  }
+
+  private static boolean canonical(AstRoot ast, Env env, SB sb, List<Vec> inputs) {
+    if (ast instanceof AstExec) {
+      AstRoot[] asts = ((AstExec) ast)._asts;
+      AstRoot fun = asts[0];
+      // plain lookup, AstId.exec would ref-count frames
+      Val f = fun instanceof AstId ? env.lookup(fun.str()) : fun instanceof AstPrimitive ? fun.exec(env) : null;
+      if (f == null || !f.isFun() || !isPure(f.getFun())) return false;
+      sb.p('(').p(f.getFun().str());
+      // a column slice of a frame reads only the selected columns
+      int[] cols = null;
+      Frame src = null;
+      if (asts.length == 3 && asts[1] instanceof AstId && asts[2] instanceof AstParameter) {
+        Val val = env.lookup(asts[1].str());
+        if (val.isFrame()) {
+          src = val.getFrame();
+          cols = sliced(f.getFun(), src, (AstParameter) asts[2]);
+        }
+      }
+      for (int i = 1; i < asts.length; i++) {
+        sb.p(' ');
+        if (i == 1 && cols != null) frame(src, cols, sb, inputs);
+        else if (!canonical(asts[i], env, sb, inputs)) return false;
+      }
+      sb.p(')');
+      return true;
+    }
+    if (ast instanceof AstId) {
+      Val val = env.lookup(ast.str());
+      if (val.isNum()) {
+        sb.p(val.getNum());
+        return true;
+      }
+      if (!val.isFrame()) return false;
+      frame(val.getFrame(), null, sb, inputs);
+      return true;
+    }
+    if (ast instanceof AstStr) {
+      sb.p('"').p(ast.str()).p('"');
+      return true;
+    }
+    if (ast instanceof AstNum || ast instanceof AstNumList || ast instanceof AstStrList || ast instanceof AstConst) {
+      sb.p(ast.str());
+      return true;
+    }
+    return false; // functions, inline frames, ...
+  }
+
+  // Frames are identified by their content (i.e. their Vecs), and column names; cols are the columns read, null for all
+  private static void frame(Frame fr, int[] cols, SB sb, List<Vec> inputs) {
+    sb.p('{');
+    for (int j = 0; j < (cols == null ? fr.numCols() : cols.length); j++) {
+      int i = cols == null ? j : cols[j];
+      Vec vec = fr.vec(i);
+      sb.p(fr._names[i]).p('=').p(vec._key.toString()).p('@').p(vec.contentFingerprint()).p(';');
+      inputs.add(vec);
+    }
+    sb.p('}');
+  }
+
+  // Columns of the frame selected by a column slice primitive, or null if not a slice (or an invalid one)
+  private static int[] sliced(AstPrimitive prim, Frame fr, AstParameter sel) {
+    try {
+      if (prim instanceof AstColSlice) {
+        int[] cols = AstColSlice.col_select(fr.names(), sel);
+        for (int col : cols)
+          if (col < 0 || col >= fr.numCols()) return null;
+        return cols;
+      }
+      if (prim instanceof AstColPySlice) { // Negative columns count from the end, out-of-range ones are ignored
+        ArrayList<Integer> cols = new ArrayList<>();
+        for (int col : sel.columns(fr.names())) {
+          if (col < 0) col += fr.numCols();
+          if (col >= 0 && col < fr.numCols()) cols.add(col);
+        }
+        int[] res = new int[cols.size()];
+        for (int i = 0; i < res.length; i++) res[i] = cols.get(i);
+        return res;
+      }
+    } catch (IllegalArgumentException e) {
+      // Unknown column; fingerprint the whole frame, the slice itself reports the error
+    }
+    return null;
+  }
+
+  // Primitives whose result only depends on their arguments, and which do not modify them
+  private static boolean isPure(AstPrimitive prim) {
+    return prim instanceof AstUniOp || prim instanceof AstBinOp || prim instanceof AstIfElse ||
+        prim instanceof AstColSlice || prim instanceof AstColPySlice || prim instanceof AstRowSlice ||
+        prim instanceof AstScale || prim instanceof AstAsFactor || prim instanceof AstAsNumeric ||
+        prim instanceof AstAsCharacter || prim instanceof AstIsNa || prim instanceof AstCut || prim instanceof AstCBind;
+  }
+
+  /**
+   * @return a new Frame sharing the Vecs of the cached result (not ref-counted yet), or null
+   */
+  public synchronized Val get(String key) {
+    if (MemoryManager.isMemoryLow()) clear();
+    Entry e = _entries.get(key);
+    if (e == null) {
+      _misses++;
+      return null;
+    }
+    if (!unchanged(e)) { // The cached result was modified in place
+      Futures fs = release(e, null);
+      _entries.remove(key);
+      if (fs != null) fs.blockForPending();
+      _misses++;
+      return null;
+    }
+    _hits++;
+    return new ValFrame(new Frame(e._fr._names.clone(), e._fr.vecs().clone()));
+  }
+
+  /**
+   * Cache the result of an application (only Frames are cached).
+   */
+  public synchronized void put(String key, List<Vec> inputs, Val val) {
+    if (!val.isFrame() || _entries.containsKey(key) || MemoryManager.isMemoryLow()) return;
+    Frame res = val.getFrame();
+    Frame fr = new Frame(res._names.clone(), res.vecs().clone());
+    long bytes = 0;
+    for (Vec vec : fr.vecs())
+      if (!_ses.isGlobal(vec)) bytes += vec.length() << 3; // Vecs of global frames are alive anyway
+    if (bytes > MAX_BYTES) return;
+    long[] fingerprints = new long[fr.numCols()];
+    try {
+      for (int i = 0; i < fingerprints.length; i++)
+        fingerprints[i] = fr.vec(i).contentFingerprint();
+    } catch (IllegalArgumentException e) {
+      return; // Still being written into
+    }
+    _ses.addRefCnt(fr, 1);
+    _entries.put(key, new Entry(fr, inputs.toArray(new Vec[inputs.size()]), fingerprints, bytes));
+    _bytes += bytes;
+    // Evict least recently used results
+    Futures fs = null;
+    Iterator<Entry> it = _entries.values().iterator();
+    while ((_bytes > MAX_BYTES || _entries.size() > MAX_ENTRIES) && it.hasNext()) {
+      fs = release(it.next(), fs);
+      it.remove();
+    }
+    if (fs != null) fs.blockForPending();
+  }
+
+  /**
+   * Drop all cached results which depend on, or contain, any of the given Vecs
+   * (e.g. before a Vec is updated in place, or when a frame is removed).
+   */
+  synchronized void invalidate(Vec[] vecs) {
+    if (_entries.isEmpty()) return;
+    Set<Vec> dead = new HashSet<>(Arrays.asList(vecs));
+    Futures fs = null;
+    for (Iterator<Entry> it = _entries.values().iterator(); it.hasNext(); ) {
+      Entry e = it.next();
+      if (containsAny(e._inputs, dead) || containsAny(e._fr.vecs(), dead)) {
+        fs = release(e, fs);
+        it.remove();
+      }
+    }
+    if (fs != null) fs.blockForPending();
+  }
+
+  /**
+   * Drop all cached results, deleting Vecs that are not referenced anymore.
+   */
+  synchronized void clear() {
+    Futures fs = null;
+    for (Entry e : _entries.values())
+      fs = release(e, fs);
+    _entries.clear();
+    if (fs != null) fs.blockForPending();
+  }
+
+  /** Cached result frames (for ref-count sanity checks) */
+  synchronized Collection<Frame> frames() {
+    ArrayList<Frame> frames = new ArrayList<>(_entries.size());
+    for (Entry e : _entries.values())
+      frames.add(e._fr);
+    return frames;
+  }
+
+  public synchronized long hits() { return _hits; }
+
+  public synchronized long misses() { return _misses; }
+
+  private Futures release(Entry e, Futures fs) {
+    _bytes -= e._bytes;
+    return _ses.downRefCnt(e._fr, fs);
+  }
+
+  private static boolean unchanged(Entry e) {
+    try {
+      for (int i = 0; i < e._fingerprints.length; i++)
+        if (e._fr.vec(i).contentFingerprint() != e._fingerprints[i]) return false;
+      return true;
+    } catch (IllegalArgumentException ex) {
+      return false; // Being written into
+    }
+  }
+
+  private static boolean containsAny(Vec[] vecs, Set<Vec> set) {
+    for (Vec vec : vecs)
+      if (set.contains(vec)) return true;
+    return false;
+  }
+}
@@ -0,0 +1,390 @@
+package water.rapids;
+
+import water.*;
+import water.fvec.*;
+import water.parser.BufferedString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Distributed sample sort of a Frame.
+ *
+ * The radix sort in {@link Merge#sort} splits rows into 256 buckets by the most significant bits of the first key, so
+ * when keys are clustered in a narrow range or heavily duplicated almost all rows land in one bucket, on one node.
+ * Here the bucket boundaries (splitters) are picked from a sample of the keys instead, so every bucket gets about
+ * the same number of rows whatever the key distribution.  Ties are broken by the source row number, which makes the
+ * sort stable and lets even a single repeated key value be spread over many buckets.
+ *
+ * Keys may be numeric (including doubles), time, categorical (by level index) or string columns, each ascending or
+ * descending; NAs sort before all values in ascending and after them in descending order.  The sort runs in three
+ * passes: a sample of the keys is collected and the splitters are chosen on the caller; every chunk then splits its
+ * rows by bucket and pushes them to the node of the output chunk holding that bucket; finally every output chunk
+ * sorts its bucket locally.  One bucket makes one output chunk.  The number of buckets is capped by the cores of the
+ * cloud ({@link #BUCKETS_PER_CORE} per core) rather than following the input chunks, and every node collects the rows
+ * of a bucket from all its chunks into a few large parts, so the pushed parts grow with buckets times nodes and only
+ * per-bucket totals and per-node part counts travel back through the driver.
+ */
+public class SampleSort {
+  // Number of sampled rows per bucket; bucket sizes vary by about 1/sqrt(OVERSAMPLE)
+  static final int OVERSAMPLE = 64;
+  // Number of buckets (output chunks) per core of the cloud, at most one per input chunk
+  static final int BUCKETS_PER_CORE = 4;
+  // Rows a node buffers over all buckets before pushing them; every bucket pushes at least MIN_PART_ROWS at once
+  static final int BUFFER_ROWS = 1 << 20;
+  static final int MIN_PART_ROWS = 1 << 10;
+
+  /**
+   * Sort a Frame.
+   * @param cols the key columns, most significant first
+   * @param ascending the direction of every key column, or null for all ascending
+   * @return new sorted Frame (not in DKV)
+   */
+  public static Frame sort(Frame fr, int[] cols, boolean[] ascending) {
+    if( cols.length == 0 ) return fr; // Empty key list
+    if( ascending == null ) { ascending = new boolean[cols.length]; Arrays.fill(ascending, true); }
+    if( ascending.length != cols.length )
+      throw new IllegalArgumentException("Expected " + cols.length + " sort directions, but found " + ascending.length);
+    for( int col : cols ) {
+      if( col < 0 || col >= fr.numCols() )
+        throw new IllegalArgumentException("Column " + col + " is out of range of " + fr.numCols());
+      if( fr.vec(col).isUUID() )
+        throw new IllegalArgumentException("Cannot sort by UUID column " + fr.name(col));
+    }
+    final int nchks = fr.anyVec().nChunks();
+    final long nrows = fr.numRows();
+    Vec[] keyVecs = new Vec[cols.length];
+    for( int i = 0; i < cols.length; i++ ) keyVecs[i] = fr.vec(cols[i]);
+    Order keyOrder = new Order(identity(cols.length), ascending);
+    final int nwant = (int)Math.max(1, Math.min(nchks, (long)H2O.CLOUD.size() * H2O.ARGS.nthreads * BUCKETS_PER_CORE));
+
+    // 1. Sample the keys, and pick the splitters at even ranks of the sorted sample
+    Rows sample = new Sample(types(keyVecs), (double)OVERSAMPLE * nwant / Math.max(nrows, 1)).doAll(keyVecs)._sample;
+    Integer[] sorted = sample.order(keyOrder);
+    int nsplits = 0;
+    int[] splits = new int[nwant - 1];
+    for( int b = 1; b < nwant; b++ ) {
+      int idx = (int)((long)b * sample._n / nwant);
+      if( idx >= sample._n ) break;
+      if( nsplits == 0 || splits[nsplits - 1] != sorted[idx] ) splits[nsplits++] = sorted[idx]; // Skip repeats for tiny samples
+    }
+    Rows splitters = sample.select(Arrays.copyOf(splits, nsplits));
+    final int nbuckets = nsplits + 1;
+
+    // 2. Split the rows of every chunk by bucket, and push them in parts to the home of the bucket's output chunk
+    Key<Vec> outKey = Vec.newKey();
+    String prefix = Key.make().toString();
+    byte[] types = types(fr.vecs());
+    Partition part = new Partition(prefix, outKey, types, cols, keyOrder, splitters, nbuckets).doAll(fr);
+    long[] sizes = part._sizes;
+
+    // 3. Lay out one output chunk per non-empty bucket (only the last one can be empty), and sort every bucket locally
+    int nout = sizes[nbuckets - 1] == 0 ? nbuckets - 1 : nbuckets;
+    long[] espc = new long[Math.max(nout, 1) + 1];
+    for( int b = 0; b < nout; b++ ) espc[b + 1] = espc[b] + sizes[b];
+    Vec con = new Vec(outKey, Vec.ESPC.rowLayout(outKey, espc)).makeCon(0);
+    try {
+      Order order = new Order(cols, ascending); // Key columns of the full rows
+      return new Gather(prefix, outKey, types, order, part._nparts).doAll(types, con).outputFrame(fr.names(), fr.domains());
+    } finally {
+      con.remove();
+    }
+  }
+
+  private static byte[] types(Vec[] vecs) {
+    byte[] types = new byte[vecs.length];
+    for( int i = 0; i < vecs.length; i++ ) types[i] = vecs[i].get_type();
+    return types;
+  }
+
+  private static int[] identity(int n) {
+    int[] res = new int[n];
+    for( int i = 0; i < n; i++ ) res[i] = i;
+    return res;
+  }
+
+  // Key of part p of the rows of bucket b pushed by node n, homed where output chunk b lives
+  private static Key bucketKey(String prefix, Key<Vec> outKey, int b, int n, int p) {
+    return Key.make(prefix + "_sort_b" + b + "_n" + n + "_p" + p, (byte)1, Key.HIDDEN_USER_KEY, false, Vec.chunkKey(outKey, b).home_node());
+  }
+
+  // Key columns and their directions
+  static final class Order extends Iced<Order> {
+    final int[] _cols;
+    final boolean[] _asc;
+    Order(int[] cols, boolean[] asc) { _cols = cols; _asc = asc; }
+  }
+
+  // A set of rows, stored by column; the source row numbers break ties
+  static final class Rows extends Iced<Rows> {
+    final byte[] _types;
+    double[][] _nums;          // Numeric, time and categorical columns; NaN for NA
+    String[][] _strs;          // String columns; null for NA
+    long[][] _los, _his;       // UUID columns
+    long[] _rowIds;
+    int _n;
+
+    Rows(byte[] types, int cap) {
+      _types = types;
+      _nums = new double[types.length][];
+      _strs = new String[types.length][];
+      _los = new long[types.length][];
+      _his = new long[types.length][];
+      for( int c = 0; c < types.length; c++ ) {
+        if( types[c] == Vec.T_STR ) _strs[c] = new String[cap];
+        else if( types[c] == Vec.T_UUID ) { _los[c] = new long[cap]; _his[c] = new long[cap]; }
+        else _nums[c] = new double[cap];
+      }
+      _rowIds = new long[cap];
+    }
+
+    // Append row r of the chunks
+    void add(Chunk[] cs, int r, BufferedString tmpStr) {
+      for( int c = 0; c < _types.length; c++ ) {
+        if( _strs[c] != null ) _strs[c][_n] = cs[c].isNA(r) ? null : cs[c].atStr(tmpStr, r).toString();
+        else if( _los[c] != null ) {
+          boolean na = cs[c].isNA(r);
+          _los[c][_n] = na ? Long.MIN_VALUE : cs[c].at16l(r);
+          _his[c][_n] = na ? 0 : cs[c].at16h(r);
+        } else _nums[c][_n] = cs[c].atd(r);
+      }
+      _rowIds[_n++] = cs[0].start() + r;
+    }
+
+    // Rows of all the given parts, of the given types
+    static Rows concat(byte[] types, Iterable<Rows> parts, int n) {
+      Rows res = new Rows(types, n);
+      for( Rows part : parts )
+        for( int i = 0; i < part._n; i++ ) res.add(part, i);
+      return res;
+    }
+
+    // Append row i of other rows of the same types
+    void add(Rows rows, int i) {
+      for( int c = 0; c < _types.length; c++ ) {
+        if( _strs[c] != null ) _strs[c][_n] = rows._strs[c][i];
+        else if( _los[c] != null ) { _los[c][_n] = rows._los[c][i]; _his[c][_n] = rows._his[c][i]; }
+        else _nums[c][_n] = rows._nums[c][i];
+      }
+      _rowIds[_n++] = rows._rowIds[i];
+    }
+
+    Rows select(int[] idx) {
+      Rows res = new Rows(_types, idx.length);
+      for( int i : idx ) res.add(this, i);
+      return res;
+    }
+
+    // Compare row i to row j of other rows; ties are broken by the source row
+    int compare(int i, Rows rows, int j, Order order) {
+      for( int k = 0; k < order._cols.length; k++ ) {
+        int c = order._cols[k], x;
+        if( _strs[c] != null ) {
+          String s = _strs[c][i], t = rows._strs[c][j];
+          x = s == null ? (t == null ? 0 : -1) : t == null ? 1 : s.compareTo(t);
+        } else {
+          double d = _nums[c][i], e = rows._nums[c][j];
+          x = Double.isNaN(d) ? (Double.isNaN(e) ? 0 : -1) : Double.isNaN(e) ? 1 : d < e ? -1 : d > e ? 1 : 0;
+        }
+        if( x != 0 ) return order._asc[k] ? x : -x;
+      }
+      return Long.compare(_rowIds[i], rows._rowIds[j]);
+    }
+
+    // Index of the rows in sorted order
+    Integer[] order(final Order order) {
+      Integer[] idx = new Integer[_n];
+      for( int i = 0; i < _n; i++ ) idx[i] = i;
+      Arrays.sort(idx, new Comparator<Integer>() {
+        @Override public int compare(Integer i, Integer j) { return Rows.this.compare(i, Rows.this, j, order); }
+      });
+      return idx;
+    }
+
+    // Write row i to the new chunks
+    void write(int i, NewChunk[] ncs) {
+      for( int c = 0; c < _types.length; c++ ) {
+        if( _strs[c] != null ) {
+          if( _strs[c][i] == null ) ncs[c].addNA();
+          else ncs[c].addStr(_strs[c][i]);
+        } else if( _los[c] != null ) {
+          if( C16Chunk.isNA(_los[c][i], _his[c][i]) ) ncs[c].addNA();
+          else ncs[c].addUUID(_los[c][i], _his[c][i]);
+        } else ncs[c].addNum(_nums[c][i]);
+      }
+    }
+  }
+
+  // Evenly spaced rows of every chunk, about rate * rows of the chunk
+  private static class Sample extends MRTask<Sample> {
+    final byte[] _types;
+    final double _rate;
+    Rows _sample;
+
+    Sample(byte[] types, double rate) { _types = types; _rate = rate; }
+
+    @Override public void map(Chunk[] cs) {
+      int len = cs[0]._len;
+      int n = (int)Math.min(len, Math.ceil(len * _rate));
+      _sample = new Rows(_types, n);
+      BufferedString tmpStr = new BufferedString();
+      for( int i = 0; i < n; i++ )
+        _sample.add(cs, (int)((i + 0.5) * len / n), tmpStr);
+    }
+
+    @Override public void reduce(Sample s) {
+      Rows rows = new Rows(_types, _sample._n + s._sample._n);
+      for( int i = 0; i < _sample._n; i++ ) rows.add(_sample, i);
+      for( int i = 0; i < s._sample._n; i++ ) rows.add(s._sample, i);
+      _sample = rows;
+    }
+
+    @Override public void postGlobal() {
+      if( _sample == null ) _sample = new Rows(_types, 0);
+    }
+  }
+
+  // Rows of one bucket collected by one node and not pushed yet
+  private static final class Buffer {
+    final ArrayList<Rows> _parts = new ArrayList<>();
+    int _n;          // Buffered rows
+    long _total;     // All the rows of the bucket seen by the node
+    int _pushed;     // Parts pushed so far
+  }
+
+  private static class Partition extends MRTask<Partition> {
+    final String _prefix;
+    final Key<Vec> _outKey;
+    final byte[] _types;
+    final int[] _keyCols;
+    final Order _keyOrder; // Order of the key columns alone, as sampled
+    final Rows _splitters; // Broadcast to every node with the task
+    final int _nbuckets;
+    long[] _sizes;         // OUT, rows of every bucket; shared by the node
+    int[][] _nparts;       // OUT, parts of every bucket pushed by every node; shared by the node
+    private transient Buffer[] _bufs;  // Rows of every bucket this node has not pushed yet
+    private transient Futures _fs;
+
+    Partition(String prefix, Key<Vec> outKey, byte[] types, int[] keyCols, Order keyOrder, Rows splitters, int nbuckets) {
+      _prefix = prefix;
+      _outKey = outKey;
+      _types = types;
+      _keyCols = keyCols;
+      _keyOrder = keyOrder;
+      _splitters = splitters;
+      _nbuckets = nbuckets;
+    }
+
+    @Override public void setupLocal() {
+      _bufs = new Buffer[_nbuckets];
+      for( int b = 0; b < _nbuckets; b++ ) _bufs[b] = new Buffer();
+      _fs = new Futures();
+      _sizes = new long[_nbuckets];
+      _nparts = new int[H2O.CLOUD.size()][];
+    }
+
+    @Override public void map(Chunk[] cs) {
+      int len = cs[0]._len;
+      Chunk[] kcs = new Chunk[_keyCols.length];
+      for( int k = 0; k < kcs.length; k++ ) kcs[k] = cs[_keyCols[k]];
+      Rows keys = new Rows(_splitters._types, len), rows = new Rows(_types, len);
+      BufferedString tmpStr = new BufferedString();
+      for( int r = 0; r < len; r++ ) {
+        keys.add(kcs, r, tmpStr);
+        rows.add(cs, r, tmpStr);
+      }
+      // Bucket of every row: the number of splitters it sorts after
+      int[] bucket = new int[len];
+      int[] cnts = new int[_nbuckets];
+      for( int r = 0; r < len; r++ ) {
+        int lo = 0, hi = _splitters._n;
+        while( lo < hi ) {
+          int mid = (lo + hi) >>> 1;
+          if( keys.compare(r, _splitters, mid, _keyOrder) > 0 ) lo = mid + 1;
+          else hi = mid;
+        }
+        cnts[bucket[r] = lo]++;
+      }
+      Rows[] parts = new Rows[_nbuckets];
+      for( int b = 0; b < _nbuckets; b++ )
+        if( cnts[b] > 0 ) parts[b] = new Rows(_types, cnts[b]);
+      for( int r = 0; r < len; r++ ) parts[bucket[r]].add(rows, r);
+      // Buffer the parts by bucket, and push a bucket once it holds its share of the node's buffer
+      int flushRows = Math.max(MIN_PART_ROWS, BUFFER_ROWS / _nbuckets);
+      for( int b = 0; b < _nbuckets; b++ ) {
+        if( parts[b] == null ) continue;
+        Buffer buf = _bufs[b];
+        synchronized( buf ) {
+          buf._parts.add(parts[b]);
+          buf._n += parts[b]._n;
+          buf._total += parts[b]._n;
+          if( buf._n >= flushRows ) push(b, buf);
+        }
+      }
+    }
+
+    // Push the buffered rows of bucket b as its next part; called with the buffer locked
+    private void push(int b, Buffer buf) {
+      Rows rows = Rows.concat(_types, buf._parts, buf._n);
+      DKV.put(bucketKey(_prefix, _outKey, b, H2O.SELF.index(), buf._pushed++), rows, _fs, /*don't cache*/true);
+      buf._parts.clear();
+      buf._n = 0;
+    }
+
+    @Override public void closeLocal() {
+      int[] nparts = new int[_nbuckets];
+      for( int b = 0; b < _nbuckets; b++ ) {
+        Buffer buf = _bufs[b];
+        synchronized( buf ) {
+          if( buf._n > 0 ) push(b, buf);
+          _sizes[b] = buf._total;
+          nparts[b] = buf._pushed;
+        }
+      }
+      _fs.blockForPending();
+      _nparts[H2O.SELF.index()] = nparts;
+      _bufs = null;
+    }
+
+    @Override public void reduce(Partition p) {
+      if( _sizes == p._sizes ) return;
+      for( int b = 0; b < _nbuckets; b++ ) _sizes[b] += p._sizes[b];
+      for( int n = 0; n < _nparts.length; n++ )
+        if( _nparts[n] == null ) _nparts[n] = p._nparts[n];
+    }
+  }
+
+  // Sort the rows of one bucket into one output chunk
+  private static class Gather extends MRTask<Gather> {
+    final String _prefix;
+    final Key<Vec> _outKey;
+    final byte[] _types;
+    final Order _order;
+    final int[][] _nparts; // Parts of every bucket pushed by every node
+
+    Gather(String prefix, Key<Vec> outKey, byte[] types, Order order, int[][] nparts) {
+      _prefix = prefix;
+      _outKey = outKey;
+      _types = types;
+      _order = order;
+      _nparts = nparts;
+    }
+
+    @Override public void map(Chunk[] cs, NewChunk[] ncs) {
+      int b = cs[0].cidx();
+      Rows rows = new Rows(_types, cs[0]._len);
+      for( int n = 0; n < _nparts.length; n++ ) {
+        if( _nparts[n] == null ) continue; // Node had no chunks
+        for( int p = 0; p < _nparts[n][b]; p++ ) {
+          Key k = bucketKey(_prefix, _outKey, b, n, p);
+          Rows part = DKV.getGet(k);
+          for( int i = 0; i < part._n; i++ ) rows.add(part, i);
+          DKV.remove(k);
+        }
+      }
+      assert rows._n == cs[0]._len;
+      for( int i : rows.order(_order) ) rows.write(i, ncs);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package water.rapids;
 
 import water.DKV;
 import water.Futures;
+import water.H2O;
 import water.Key;
 import water.MRTask;
 import water.fvec.Frame;
@@ -52,6 +53,15 @@ public class Session {
   // set.
   private NonBlockingHashSet<Vec> GLOBALS = new NonBlockingHashSet<>();
 
+  // Fused evaluation: nested element-wise primitives (math and binary operators)
+  // are evaluated together in a single pass over the data, instead of each
+  // materializing a temporary Frame.  See FusedExpr.
+  private boolean _fusedEvaluation = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.fused");
+
+  // Results of common sub-expressions, reused by later Rapids calls in this
+  // session; null if disabled.  Cached Frames hold a ref-cnt on their Vecs.
+  private ResultCache _resultCache = Boolean.getBoolean(H2O.OptArgs.SYSTEM_PROP_PREFIX + "rapids.cache") ? new ResultCache(this) : null;
+
 
   /**
    * Constructor
@@ -60,6 +70,39 @@ public class Session {
     cluster_init();
   }
 
+  /**
+   * @return true if nested element-wise expressions are fused into a single pass
+   */
+  public boolean fusedEvaluation() {
+    return _fusedEvaluation;
+  }
+
+  /**
+   * Enable/disable fused evaluation of element-wise expressions for this Session
+   * (default is given by the system property sys.ai.h2o.rapids.fused)
+   */
+  public Session setFusedEvaluation(boolean fused) {
+    _fusedEvaluation = fused;
+    return this;
+  }
+
+  /**
+   * @return cache of sub-expression results, or null if result caching is disabled for this Session
+   */
+  public ResultCache resultCache() {
+    return _resultCache;
+  }
+
+  /**
+   * Enable/disable caching of sub-expression results for this Session
+   * (default is given by the system property sys.ai.h2o.rapids.cache)
+   */
+  public Session setResultCaching(boolean enabled) {
+    if (!enabled && _resultCache != null) _resultCache.clear();
+    _resultCache = enabled ? (_resultCache == null ? new ResultCache(this) : _resultCache) : null;
+    return this;
+  }
+
   /**
    * Execute an AstRoot in the current Session with much assertion-checking
    * @param ast Rapids expression to execute
@@ -84,6 +127,8 @@ public class Session {
    */
   public Val end(Val returning) {
     sanity_check_refs(returning);
+    // Drop cached results first, their Vecs may be shared with temp frames
+    if (_resultCache != null) _resultCache.clear();
     // Remove all temp frames
     Futures fs = new Futures();
     for (Frame fr : FRAMES.values()) {
@@ -114,6 +159,7 @@ public class Session {
    */
   public RuntimeException endQuietly(Throwable ex) {
     try {
+      if (_resultCache != null) _resultCache.clear(); // While globals are still known
       GLOBALS.clear();
       Futures fs = new Futures();
       for (Frame fr : FRAMES.values()) {
@@ -184,6 +230,13 @@ public class Session {
     return fr;                  // Flow coding
   }
 
+  /**
+   * Vec of a global (user visible) Frame
+   */
+  boolean isGlobal(Vec vec) {
+    return GLOBALS.contains(vec);
+  }
+
   /**
    * Found in the DKV, if not a tracked TEMP make it a global
    */
@@ -212,6 +265,7 @@ public class Session {
    */
   public void remove(Frame fr) {
     if (fr == null) return;
+    if (_resultCache != null) _resultCache.invalidate(fr.vecs()); // Stop keeping removed Vecs alive
     Futures fs = new Futures();
     if (!FRAMES.containsKey(fr._key)) { // In globals and not temps?
       for (Vec vec : fr.vecs()) {
@@ -252,6 +306,7 @@ public class Session {
     // may be deleted.
     Frame fr = DKV.getGet(id);
     if (fr != null) {          // Prior frame exists
+      if (_resultCache != null) _resultCache.invalidate(fr.vecs());
       for (Vec vec : fr.vecs()) {
         if (GLOBALS.remove(vec) && _getRefCnt(vec) == 0)
           vec.remove(fs);       // Remove unused global vec
@@ -286,6 +341,8 @@ public class Session {
       assert refcnt > 0;
       if (refcnt > 1)          // If refcnt is 1, we allow the update to take in-place
         fr.replace(col, (did_copy = vec.makeCopy()));
+      else if (_resultCache != null) // Results computed from the old content are stale
+        _resultCache.invalidate(new Vec[]{vec});
     }
     if (did_copy != null && fr._key != null) DKV.put(fr); // Then update frame in the DKV
     return vecs;
@@ -309,6 +366,13 @@ public class Session {
         Integer count = refcnts.get(vec);
         refcnts.put(vec, count == null ? 1 : count + 1);
       }
+    // Cached results hold their own refcnts
+    if (_resultCache != null)
+      for (Frame fr : _resultCache.frames())
+        for (Vec vec : fr.vecs()) {
+          Integer count = refcnts.get(vec);
+          refcnts.put(vec, count == null ? 1 : count + 1);
+        }
     // Now account for the returning frame (if it is a Frame). Note that it is entirely possible that this frame is
     // already in the FRAMES list, however we need to account for it anyways -- this is how Env works...
     if (returning != null && returning.isFrame())
@@ -1,11 +1,13 @@
 package water.rapids.ast;
 
+import water.fvec.Vec;
 import water.rapids.*;
 import water.rapids.ast.params.AstId;
 import water.rapids.vals.ValFun;
 import water.util.SB;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Apply A Function.  Basic function execution.
@@ -59,8 +61,20 @@ public class AstExec extends AstRoot {
     if (nargs != -1 && nargs != _asts.length)
       throw new IllegalArgumentException(
           "Incorrect number of arguments; '" + ast + "' expects " + (nargs - 1) + " but was passed " + (_asts.length - 1));
+    Session ses = env._ses;
+    // Repeated side-effect free applications can reuse the result of an earlier call
+    ResultCache cache = ses == null ? null : ses.resultCache();
+    List<Vec> inputs = new ArrayList<>();
+    String key = cache == null ? null : cache.key(this, env, inputs);
+    Val cached = key == null ? null : cache.get(key);
+    if (cached != null)
+      return env.returning(cached);
     try (Env.StackHelp stk = env.stk()) {
-      return env.returning(ast.apply(env, stk, _asts));
+      Val res = ses != null && ses.fusedEvaluation() && FusedExpr.isFusable(ast)
+          ? FusedExpr.exec(ast, _asts, env, stk)
+          : ast.apply(env, stk, _asts);
+      if (key != null) cache.put(key, inputs, res);
+      return env.returning(res);
     }
   }
 
@@ -16,6 +16,8 @@ import water.rapids.ast.params.AstNumList;
 /**
  * Quantiles:
  * (quantile %frame [numnber_list_probs] "string_interpolation_type")
+ * The interpolation type "approximate" computes approximate quantiles of all
+ * columns from single-pass sketches, which are cached per column.
  */
 public class AstQtile extends AstPrimitive {
   @Override
@@ -46,7 +48,8 @@ public class AstQtile extends AstPrimitive {
       if (d < 0 || d > 1) throw new IllegalArgumentException("Probability must be between 0 and 1: " + d);
 
     String inter = asts[3].exec(env).getStr();
-    parms._combine_method = QuantileModel.CombineMethod.valueOf(inter.toUpperCase());
+    if (inter.equalsIgnoreCase("approximate")) parms._approximate = true; // single-pass sketches, cached per column
+    else parms._combine_method = QuantileModel.CombineMethod.valueOf(inter.toUpperCase());
     parms._weights_column = asts[4].str().equals("_") ? null : asts[4].str();
 
     // Compute Quantiles
@@ -26,6 +26,10 @@ public abstract class AstUniOp extends AstPrimitive {
   @Override
   public Val apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Val val = stk.track(asts[1].exec(env));
+    return prim_apply(val);
+  }
+
+  public Val prim_apply(Val val) {
     switch (val.type()) {
       case Val.NUM:
         return new ValNum(op(val.getNum()));
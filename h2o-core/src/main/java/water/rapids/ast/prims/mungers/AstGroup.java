@@ -15,7 +15,6 @@ import water.rapids.vals.ValFun;
 import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.params.AstNum;
 import water.rapids.ast.params.AstNumList;
-import water.util.ArrayUtils;
 import water.util.IcedHashMap;
 import water.util.Log;
 
@@ -36,87 +35,89 @@ import java.util.Arrays;
 public class AstGroup extends AstPrimitive {
   public enum NAHandling {ALL, RM, IGNORE}
 
-  // Functions handled by GroupBy
+  // Functions handled by GroupBy.  The reduction state of a group is a slice
+  // [off,off+len) of a double array, len being the length of initVal().
   public enum FCN {
     nrow() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0]++;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off]++;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     mean() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off] / n;
       }
     },
     sum() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     sumSquares() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        d0s[0] += d1s[0];
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
     },
     var() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
+        d0s[off0 + 1] += d1s[off1 + 1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return numerator / (n - 1);
       }
@@ -128,19 +129,20 @@ public class AstGroup extends AstPrimitive {
     },
     sdev() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] += d1 * d1;
-        d0s[1] += d1;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] += d1 * d1;
+        d0s[off + 1] += d1;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        d0s[off0] += d1s[off1];
+        d0s[off0 + 1] += d1s[off1 + 1];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        double numerator = ds[0] - ds[1] * ds[1] / n;
+      public double postPass(double ds[], int off, int len, long n) {
+        double numerator = ds[off] - ds[off + 1] * ds[off + 1] / n;
         if (Math.abs(numerator) < 1e-5) numerator = 0;
         return Math.sqrt(numerator / (n - 1));
       }
@@ -152,18 +154,18 @@ public class AstGroup extends AstPrimitive {
     },
     min() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.min(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.min(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -173,18 +175,18 @@ public class AstGroup extends AstPrimitive {
     },
     max() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[0] = Math.max(d0s[0], d1);
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off] = Math.max(d0s[off], d1);
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        op(d0s, d1s[0]);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        op(d0s, off0, d1s[off1]);
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ds[0];
+      public double postPass(double ds[], int off, int len, long n) {
+        return ds[off];
       }
 
       @Override
@@ -194,18 +196,22 @@ public class AstGroup extends AstPrimitive {
     },
     mode() {
       @Override
-      public void op(double[] d0s, double d1) {
-        d0s[(int) d1]++;
+      public void op(double[] d0s, int off, double d1) {
+        d0s[off + (int) d1]++;
       }
 
       @Override
-      public void atomic_op(double[] d0s, double[] d1s) {
-        ArrayUtils.add(d0s, d1s);
+      public void atomic_op(double[] d0s, int off0, double[] d1s, int off1, int len) {
+        for (int i = 0; i < len; i++)
+          d0s[off0 + i] += d1s[off1 + i];
       }
 
       @Override
-      public double postPass(double ds[], long n) {
-        return ArrayUtils.maxIndex(ds);
+      public double postPass(double ds[], int off, int len, long n) {
+        int best = 0; // same as ArrayUtils.maxIndex: first maximum
+        for (int i = 1; i < len; i++)
+          if (ds[off + i] > ds[off + best]) best = i;
+        return best;
       }
 
       @Override
@@ -214,11 +220,23 @@ public class AstGroup extends AstPrimitive {
       }
     },;
 
-    public abstract void op(double[] d0, double d1);
+    public abstract void op(double[] d0, int off, double d1);
 
-    public abstract void atomic_op(double[] d0, double[] d1);
+    public abstract void atomic_op(double[] d0, int off0, double[] d1, int off1, int len);
 
-    public abstract double postPass(double ds[], long n);
+    public abstract double postPass(double ds[], int off, int len, long n);
+
+    public void op(double[] d0, double d1) {
+      op(d0, 0, d1);
+    }
+
+    public void atomic_op(double[] d0, double[] d1) {
+      atomic_op(d0, 0, d1, 0, d0.length);
+    }
+
+    public double postPass(double ds[], long n) {
+      return postPass(ds, 0, ds.length, n);
+    }
 
     public double[] initVal(int maxx) {
       return new double[]{0};
@@ -265,6 +283,31 @@ public class AstGroup extends AstPrimitive {
       aggs[(idx - 3) / 3] = new AGG(fcn, agg_col, na, (int) fr.vec(agg_col).max() + 1);
     }
 
+    String[] fcnames = new String[aggs.length];
+    for (int i = 0; i < aggs.length; i++)
+      fcnames[i] = aggs[i]._fcn.toString() + "_" + fr.name(aggs[i]._col);
+
+    // Numeric and categorical keys: primitive hash aggregation
+    if (HashGroupBy.isSupported(fr, gbCols)) {
+      final HashGroupBy.Table t = HashGroupBy.doGroups(fr, gbCols, aggs);
+      final int[] order = t.sortedOrder(); // ORDER by the group-by columns
+      MRTask mrfill = new MRTask() {
+        @Override
+        public void map(Chunk[] c, NewChunk[] ncs) {
+          int start = (int) c[0].start();
+          for (int i = 0; i < c[0]._len; ++i) {
+            int g = order[i + start];  // One Group per row
+            int j;
+            for (j = 0; j < gbCols.length; j++) // The Group Key, as a row
+              ncs[j].addNum(t.key(g, j));
+            for (int a = 0; a < aggs.length; a++)
+              ncs[j++].addNum(t.result(g, a));
+          }
+        }
+      };
+      return new ValFrame(buildOutput(gbCols, naggs, fr, fcnames, t.size(), mrfill));
+    }
+
     // do the group by work now
     IcedHashMap<G, String> gss = doGroups(fr, gbCols, aggs);
     final G[] grps = gss.keySet().toArray(new G[gss.size()]);
@@ -293,10 +336,6 @@ public class AstGroup extends AstPrimitive {
       });
 
     // Build the output!
-    String[] fcnames = new String[aggs.length];
-    for (int i = 0; i < aggs.length; i++)
-      fcnames[i] = aggs[i]._fcn.toString() + "_" + fr.name(aggs[i]._col);
-
     MRTask mrfill = new MRTask() {
       @Override
       public void map(Chunk[] c, NewChunk[] ncs) {
@@ -393,6 +432,13 @@ public class AstGroup extends AstPrimitive {
       if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) n0s[i]++;
     }
 
+    // Same as op() above, for a reduction state stored at d0s[off] and its
+    // element count at n0s[i].
+    public void op(double[] d0s, int off, long[] n0s, int i, double d1) {
+      if (!Double.isNaN(d1) || _na == NAHandling.ALL) _fcn.op(d0s, off, d1);
+      if (!Double.isNaN(d1) || _na == NAHandling.IGNORE) n0s[i]++;
+    }
+
     // Atomically update the array pair {dss[i],ns[i]} with the pair {d1,n1}.
     // Same as op() above, but called racily and updates atomically.
     public void atomic_op(double[][] d0ss, long[] n0s, int i, double[] d1s, long n1) {
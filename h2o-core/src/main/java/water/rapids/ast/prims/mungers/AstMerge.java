@@ -58,6 +58,11 @@ public class AstMerge extends AstPrimitive {
   // merge-join.
   static final int MAX_HASH_SIZE = 120000000;
 
+  // Size cutoff for a broadcast hash join: hashed frames up to this many rows
+  // get a compact primitive index of their key columns, which is replicated
+  // to every node once and probed in a single pass over the walked frame.
+  static final int MAX_BROADCAST_SIZE = 1 << 22;
+
   @Override
   public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
     Frame l = stk.track(asts[1].exec(env)).getFrame();
@@ -164,6 +169,15 @@ public class AstMerge extends AstPrimitive {
         id_maps[i] = CategoricalWrappedVec.computeMap(hashed.vecs()[i].domain(), lv.domain());
     }
 
+    // Small hashed frame: broadcast a primitive index of its keys, no Row
+    // objects and no separate pass to copy the walked frame.
+    if (hashed.numRows() <= MAX_BROADCAST_SIZE) {
+      BroadcastIndex index = new BroadcastKeys(ncols, id_maps)
+          .doAll(new Frame(Arrays.copyOf(hashed.vecs(), ncols))).index(allRite);
+      if ((allLeft && !(allRite && index._dup)) || !allRite)
+        return broadcastJoin(walked, hashed, index, ncols, allLeft);
+    }
+
     // Build the hashed version of the hashed frame.  Hash and equality are
     // based on the known-integer key columns.  Duplicates are either ignored
     // (!allRite) or accumulated, and can force replication of the walked set.
@@ -240,6 +254,185 @@ public class AstMerge extends AstPrimitive {
     return new ValFrame(Merge.merge(left, right, cols, cols, allLeft, id_maps));
   }
 
+  /**
+   * Broadcast hash join: probe the replicated primitive index of the hashed
+   * frame in a single pass over the walked frame, producing the walked
+   * columns followed by the non-key columns of the hashed frame.  Unmatched
+   * walked rows are padded with NAs if allLeft, dropped otherwise.
+   */
+  private ValFrame broadcastJoin(Frame walked, Frame hashed, BroadcastIndex index, int ncols, boolean allLeft) {
+    int nwalked = walked.numCols(), npayload = hashed.numCols() - ncols;
+    String[] names = Arrays.copyOf(walked.names(), nwalked + npayload);
+    System.arraycopy(hashed.names(), ncols, names, nwalked, npayload);
+    String[][] domains = Arrays.copyOf(walked.domains(), nwalked + npayload);
+    System.arraycopy(hashed.domains(), ncols, domains, nwalked, npayload);
+    byte[] types = Arrays.copyOf(walked.types(), nwalked + npayload);
+    System.arraycopy(hashed.types(), ncols, types, nwalked, npayload);
+    Frame payload = new Frame(Arrays.copyOfRange(hashed.names(), ncols, hashed.numCols()),
+                              Arrays.copyOfRange(hashed.vecs(), ncols, hashed.numCols()));
+    return new ValFrame(new BroadcastJoin(ncols, index, payload, allLeft).doAll(types, walked).outputFrame(names, domains));
+  }
+
+  // Collect the (categorical-mapped) key columns and absolute row numbers of
+  // the hashed frame, in row order.
+  private static class BroadcastKeys extends MRTask<BroadcastKeys> {
+    final int _ncols;       // Number of leading columns for the Hash Key
+    final int[][] _id_maps; // Rapid mapping between matching enums
+    long[] _keys;           // Keys, _ncols per row
+    long[] _rows;           // Absolute row numbers
+    int _n;                 // Number of rows collected
+
+    BroadcastKeys(int ncols, int[][] id_maps) {
+      _ncols = ncols;
+      _id_maps = id_maps;
+    }
+
+    @Override
+    public void map(Chunk chks[]) {
+      final int len = chks[0]._len;
+      _keys = new long[len * _ncols];
+      _rows = new long[len];
+      _n = len;
+      Row row = new Row(_ncols);
+      for (int i = 0; i < len; i++) {
+        row.fill(chks, _id_maps, i);
+        System.arraycopy(row._keys, 0, _keys, i * _ncols, _ncols);
+        _rows[i] = row._row;
+      }
+    }
+
+    @Override
+    public void reduce(BroadcastKeys bk) {
+      if (bk._n == 0) return;
+      if (_n == 0) {
+        _keys = bk._keys;
+        _rows = bk._rows;
+        _n = bk._n;
+        return;
+      }
+      _keys = Arrays.copyOf(_keys, (_n + bk._n) * _ncols);
+      System.arraycopy(bk._keys, 0, _keys, _n * _ncols, bk._n * _ncols);
+      _rows = Arrays.copyOf(_rows, _n + bk._n);
+      System.arraycopy(bk._rows, 0, _rows, _n, bk._n);
+      _n += bk._n;
+    }
+
+    BroadcastIndex index(boolean allRite) {
+      return new BroadcastIndex(_ncols, _n == 0 ? new long[0] : _keys, _n == 0 ? new long[0] : _rows, _n, allRite);
+    }
+  }
+
+  // Primitive hash index of the key columns of the hashed frame.  Distinct
+  // keys are entries of an open-addressing table; the hashed rows of entry e
+  // are _rows[_start[e].._start[e+1]), in row order.  Only the first row of
+  // each key is kept, unless all dups are collected (allRite).
+  private static class BroadcastIndex extends Iced<BroadcastIndex> {
+    final int _ncols;     // Number of key columns
+    final long[] _keys;   // Distinct keys, _ncols per entry
+    final int[] _slots;   // Open addressing: entry+1, or 0 for an empty slot
+    final int[] _start;   // Start of the rows of each entry in _rows
+    final long[] _rows;   // Absolute rows of the hashed frame
+    final boolean _dup;   // Dups are present at all
+
+    BroadcastIndex(int ncols, long[] keys, long[] rows, int n, boolean allRite) {
+      _ncols = ncols;
+      _slots = new int[Integer.highestOneBit(Math.max(n, 4)) << 2];
+      int[] entries = new int[n]; // Entry of each row
+      int[] first = new int[n];   // First row of each entry
+      int nent = 0;
+      for (int r = 0; r < n; r++) {
+        int slot = slot(keys, r * ncols), e;
+        while ((e = _slots[slot] - 1) != -1 && !equals(keys, first[e] * ncols, keys, r * ncols))
+          slot = (slot + 1) & (_slots.length - 1);
+        if (e == -1) {
+          first[e = nent++] = r;
+          _slots[slot] = e + 1;
+        }
+        entries[r] = e;
+      }
+      _dup = nent < n;
+      _keys = new long[nent * ncols];
+      for (int e = 0; e < nent; e++)
+        System.arraycopy(keys, first[e] * ncols, _keys, e * ncols, ncols);
+      _start = new int[nent + 1];
+      for (int r = 0; r < n; r++)
+        if (allRite || first[entries[r]] == r) _start[entries[r] + 1]++;
+      for (int e = 0; e < nent; e++)
+        _start[e + 1] += _start[e];
+      _rows = new long[_start[nent]];
+      int[] fill = Arrays.copyOf(_start, nent);
+      for (int r = 0; r < n; r++)
+        if (allRite || first[entries[r]] == r) _rows[fill[entries[r]]++] = rows[r];
+    }
+
+    // Entry of the probe row's key, or -1 if the key is absent
+    int find(Row row) {
+      int slot = slot(row._hash), e;
+      while ((e = _slots[slot] - 1) != -1 && !equals(_keys, e * _ncols, row._keys, 0))
+        slot = (slot + 1) & (_slots.length - 1);
+      return e;
+    }
+
+    // Same hash as Row.fill (NA keys are zero), spread over the table
+    private int slot(long[] keys, int off) {
+      long hash = 0;
+      for (int i = 0; i < _ncols; i++) hash += keys[off + i];
+      return slot((int) (hash ^ (hash >> 32)));
+    }
+
+    private int slot(int hash) {
+      hash *= 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & (_slots.length - 1);
+    }
+
+    private boolean equals(long[] k0, int off0, long[] k1, int off1) {
+      for (int i = 0; i < _ncols; i++)
+        if (k0[off0 + i] != k1[off1 + i]) return false;
+      return true;
+    }
+  }
+
+  // Probe the replicated index for every row of the walked dataset, adding
+  // the walked columns and the payload of all matching hashed rows.
+  private static class BroadcastJoin extends MRTask<BroadcastJoin> {
+    final int _ncols;             // Number of merge columns
+    final BroadcastIndex _index;  // Shipped once per node, shared by all local maps
+    final Frame _payload;         // Non-key columns of the hashed frame
+    final boolean _allLeft;
+
+    BroadcastJoin(int ncols, BroadcastIndex index, Frame payload, boolean allLeft) {
+      _ncols = ncols;
+      _index = index;
+      _payload = payload;
+      _allLeft = allLeft;
+    }
+
+    @Override
+    public void map(Chunk[] chks, NewChunk[] nchks) {
+      final BroadcastIndex index = _index;
+      Vec[] vecs = _payload.vecs();
+      Row row = new Row(_ncols);  // Recycled Row object on the walked dataset
+      BufferedString bStr = new BufferedString(); // Recycled BufferedString
+      int len = chks[0]._len;
+      for (int i = 0; i < len; i++) {
+        int e = index.find(row.fill(chks, null, i));
+        if (e == -1) {
+          if (_allLeft) {          // pad NAs to the right...
+            int c = 0;
+            for (; c < chks.length; ++c) JoinTask.addElem(nchks[c], chks[c], i);
+            for (; c < nchks.length; ++c) nchks[c].addNA();
+          } // else no match and no _allLeft... skip (row is dropped)
+          continue;
+        }
+        for (int j = index._start[e]; j < index._start[e + 1]; j++) {
+          int c = 0;
+          for (; c < chks.length; ++c) JoinTask.addElem(nchks[c], chks[c], i);
+          for (; c < nchks.length; ++c) JoinTask.addElem(nchks[c], vecs[c - chks.length], index._rows[j], bStr);
+        }
+      }
+    }
+  }
+
   // One Row object per row of the hashed dataset, so kept as small as
   // possible.
   private static class Row extends Iced {
@@ -70,7 +70,10 @@ public class AstScale extends AstPrimitive {
       }
     }
 
-    // Update in-place.
+    // Update in-place; shared columns (e.g. of a user frame, or a cached result) are copied first
+    int[] cols = new int[ncols];
+    for (int i = 0; i < ncols; i++) cols[i] = i;
+    env._ses.copyOnWrite(fr, cols);
     final double[] fmeans = means; // Make final copy for closure
     final double[] fmults = mults; // Make final copy for closure
     new MRTask() {
@@ -3,23 +3,87 @@ package water.rapids.ast.prims.mungers;
 import water.fvec.*;
 import water.rapids.Env;
 import water.rapids.Merge;
+import water.rapids.SampleSort;
 import water.rapids.Val;
 import water.rapids.ast.AstParameter;
 import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.AstRoot;
+import water.rapids.ast.params.AstNumList;
 import water.rapids.vals.ValFrame;
 
+import java.util.Arrays;
 
-/** Sort the whole frame by the given columns
+/** Sort the whole frame by the given columns, optionally with a direction
+ *  per column (1 for ascending, -1 for descending; an empty list is all
+ *  ascending) and a method: "radix", "sample" or "auto" (the default).
+ *  <p/>
+ *  The radix sort only sorts ascending on integer, time and categorical keys,
+ *  and buckets rows by the leading bits of the first key, so a first key with
+ *  many duplicates or clustered in a narrow range piles up in a few buckets on
+ *  a few nodes.  The sample sort handles any direction and double or string
+ *  keys, and picks its buckets from a sample of the keys so they stay
+ *  balanced.  "auto" uses the sample sort when the radix sort cannot sort the
+ *  keys, or when the rollup histogram of the first key puts more than
+ *  1/{@link #SKEWED_BIN} of the rows in one bin; otherwise the radix sort.
+ *  Passing the directions alone never changes the method.
+ *  Sample AstRoot: (sort ary [cols] [dirs] method)
  */
 public class AstSort extends AstPrimitive {
-  @Override public String[] args() { return new String[]{"ary","cols"}; }
+  // A first key with a histogram bin holding more than 1/SKEWED_BIN of the rows is too skewed for the radix sort
+  static final int SKEWED_BIN = 16;
+
+  @Override public String[] args() { return new String[]{"ary","cols","dirs","method"}; }
   @Override public String str(){ return "sort";}
-  @Override public int nargs() { return 1+2; } // (sort ary [cols])
+  @Override public int nargs() { return -1; } // (sort ary [cols]), (sort ary [cols] [dirs]) or (sort ary [cols] [dirs] method)
 
   @Override public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    if( asts.length < 3 || asts.length > 5 )
+      throw new IllegalArgumentException("sort expects a frame, the sort columns and optionally their directions and the sort method");
     Frame fr = stk.track(asts[1].exec(env)).getFrame();
     int[] cols = ((AstParameter)asts[2]).columns(fr.names());
+    boolean[] ascending = new boolean[cols.length];
+    Arrays.fill(ascending, true);
+    if( asts.length >= 4 ) {
+      double[] dirs = ((AstNumList)asts[3]).expand();
+      if( dirs.length != 0 && dirs.length != cols.length )
+        throw new IllegalArgumentException("Expected a direction for each of the " + cols.length + " sort columns, but found " + dirs.length);
+      for( int i=0; i<dirs.length; i++ ) {
+        if( dirs[i] != 1 && dirs[i] != -1 )
+          throw new IllegalArgumentException("Sort direction must be 1 (ascending) or -1 (descending), but found " + dirs[i]);
+        ascending[i] = dirs[i] == 1;
+      }
+    }
+    String method = asts.length == 5 ? asts[4].exec(env).getStr() : "auto";
+    String radixFails = radixFails(fr, cols, ascending);
+    if( method.equals("radix") ) {
+      if( radixFails != null ) throw new IllegalArgumentException("Cannot use the radix sort: " + radixFails);
+      return new ValFrame(Merge.sort(fr,cols));
+    }
+    if( !method.equals("sample") && !method.equals("auto") )
+      throw new IllegalArgumentException("Sort method must be one of auto, radix or sample, but found " + method);
+    if( method.equals("sample") || radixFails != null || skewed(fr, cols) )
+      return new ValFrame(SampleSort.sort(fr,cols,ascending));
     return new ValFrame(Merge.sort(fr,cols));
   }
+
+  // Why the radix sort cannot sort by the keys, or null if it can
+  private static String radixFails(Frame fr, int[] cols, boolean[] ascending) {
+    for( int i=0; i<cols.length; i++ ) {
+      if( !ascending[i] ) return "it only sorts ascending";
+      Vec vec = cols[i] >= 0 && cols[i] < fr.numCols() ? fr.vec(cols[i]) : null;
+      if( vec != null && (vec.isString() || (vec.isNumeric() && !vec.isInt())) )
+        return "it only sorts integer, time and categorical columns, not " + fr.name(cols[i]);
+    }
+    return null;
+  }
+
+  // Whether one bin of the first key's rollup histogram holds more than 1/SKEWED_BIN of the rows
+  private static boolean skewed(Frame fr, int[] cols) {
+    if( cols.length == 0 || fr.numRows() == 0 ) return false;
+    long[] bins = fr.vec(cols[0]).bins();
+    if( bins == null ) return false;
+    long max = 0;
+    for( long b : bins ) max = Math.max(max, b);
+    return max * SKEWED_BIN > fr.numRows();
+  }
 }
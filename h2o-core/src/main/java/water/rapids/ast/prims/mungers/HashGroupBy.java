@@ -0,0 +1,371 @@
+package water.rapids.ast.prims.mungers;
+
+import water.*;
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.Vec;
+import water.util.Log;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hash aggregation for {@link AstGroup}, used when all group-by columns are numeric, time or categorical.
+ * <p/>
+ * Group keys and aggregate states live in flat primitive arrays indexed by an open-addressing hash table, so there
+ * are no per-group (let alone per-row) objects.  Every worker thread aggregates the chunks it maps into its own
+ * table.  At the end of the local pass the per-thread tables are merged, and the groups are shuffled by the hash of
+ * their key to the node owning that hash, which merges the partial aggregates from all nodes.  The merged (disjoint)
+ * partitions are finally gathered on the calling node.
+ */
+public final class HashGroupBy {
+  private HashGroupBy() {}
+
+  /**
+   * @return true if all group-by columns can be hashed as plain doubles
+   */
+  public static boolean isSupported(Frame fr, int[] gbCols) {
+    for (int col : gbCols) {
+      Vec vec = fr.vec(col);
+      if (!(vec.isNumeric() || vec.isTime() || vec.isCategorical())) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Find the groups of frame 'fr' by the 'gbCols' columns, and compute the aggregates 'aggs' of every group.
+   */
+  public static Table doGroups(Frame fr, int[] gbCols, AstGroup.AGG[] aggs) {
+    long start = System.currentTimeMillis();
+    final String prefix = "__group_by__" + Key.rand();
+    new LocalGroups(prefix, gbCols, aggs).doAll(fr);
+    new MergeGroups(prefix, gbCols.length, aggs, H2O.SELF).doAllNodes();
+    Table res = new Table(gbCols.length, aggs);
+    for (H2ONode node : H2O.CLOUD.members()) {
+      Key key = mergedKey(prefix, node.index(), H2O.SELF);
+      Table t = DKV.getGet(key);
+      if (t != null) {
+        res.append(t);
+        DKV.remove(key);
+      }
+    }
+    Log.info("Group By Task done in " + (System.currentTimeMillis() - start) / 1000. + " (s), " + res.size() + " groups");
+    return res;
+  }
+
+  // Partial groups sent from node 'from' to node 'to', homed on the receiver
+  private static Key partKey(String prefix, int from, int to) {
+    return Key.make(prefix + "_part_" + from + "_" + to, (byte) 1, Key.HIDDEN_USER_KEY, true, H2O.CLOUD.members()[to]);
+  }
+
+  // Merged partition of node 'node', homed on the calling node
+  private static Key mergedKey(String prefix, int node, H2ONode caller) {
+    return Key.make(prefix + "_merged_" + node, (byte) 1, Key.HIDDEN_USER_KEY, true, caller);
+  }
+
+  /**
+   * Open-addressing hash table of groups.  Group g has the key _keys[g*nkeys .. (g+1)*nkeys), the aggregate states
+   * _acc[g*width ..] (aggregate a starts at offset _offs[a]), and the element counts _cnts[g*naggs ..].
+   * Groups are stored densely in insertion order; the hash index is rebuilt lazily after deserialization.
+   */
+  public static final class Table extends Iced<Table> {
+    private final int _nkeys;
+    private final AstGroup.AGG[] _aggs;
+    private final int[] _offs;     // offset of every aggregate state in a group's state; _offs[naggs] is the width
+    private final double[] _init;  // initial state of a new group
+    private int _n;                // number of groups
+    private double[] _keys;
+    private double[] _acc;
+    private long[] _cnts;
+    private int[] _hashes;
+    private transient int[] _index; // slot -> group + 1; 0 is an empty slot
+
+    Table(int nkeys, AstGroup.AGG[] aggs) {
+      _nkeys = nkeys;
+      _aggs = aggs;
+      _offs = new int[aggs.length + 1];
+      double[][] inits = new double[aggs.length][];
+      for (int a = 0; a < aggs.length; a++) {
+        inits[a] = aggs[a].initVal();
+        _offs[a + 1] = _offs[a] + inits[a].length;
+      }
+      _init = new double[_offs[aggs.length]];
+      for (int a = 0; a < aggs.length; a++)
+        System.arraycopy(inits[a], 0, _init, _offs[a], inits[a].length);
+      allocate(16);
+    }
+
+    /** Number of groups */
+    public int size() { return _n; }
+
+    /** Group-by column c of group g */
+    public double key(int g, int c) { return _keys[g * _nkeys + c]; }
+
+    /** Final value of aggregate a of group g */
+    public double result(int g, int a) {
+      return _aggs[a]._fcn.postPass(_acc, g * _offs[_aggs.length] + _offs[a], _offs[a + 1] - _offs[a], _cnts[g * _aggs.length + a]);
+    }
+
+    private void allocate(int cap) {
+      _keys = new double[cap * _nkeys];
+      _acc = new double[cap * _init.length];
+      _cnts = new long[cap * _aggs.length];
+      _hashes = new int[cap];
+      _index = null;
+    }
+
+    static int hash(double[] keys, int off, int nkeys) {
+      long h = 0;
+      for (int i = 0; i < nkeys; i++) h += Double.doubleToLongBits(keys[off + i]);
+      // Doubles are lousy hashes; mix up the bits some
+      h ^= (h >>> 20) ^ (h >>> 12);
+      h ^= (h >>> 7) ^ (h >>> 4);
+      return (int) ((h ^ (h >> 32)) & 0x7FFFFFFF);
+    }
+
+    private boolean sameKey(int g, double[] keys, int off) {
+      final int base = g * _nkeys;
+      for (int i = 0; i < _nkeys; i++)
+        if (Double.doubleToLongBits(_keys[base + i]) != Double.doubleToLongBits(keys[off + i])) return false;
+      return true;
+    }
+
+    /**
+     * @return the group of the key keys[off .. off+nkeys), added as a new group if absent
+     */
+    int group(double[] keys, int off, int hash) {
+      if (_index == null) rebuildIndex();
+      final int mask = _index.length - 1;
+      int slot = hash & mask;
+      for (int g; (g = _index[slot]) != 0; slot = (slot + 1) & mask)
+        if (_hashes[g - 1] == hash && sameKey(g - 1, keys, off)) return g - 1;
+      // New group
+      if (_n == _hashes.length) {
+        grow();
+        return group(keys, off, hash);
+      }
+      final int g = _n++;
+      System.arraycopy(keys, off, _keys, g * _nkeys, _nkeys);
+      System.arraycopy(_init, 0, _acc, g * _init.length, _init.length);
+      _hashes[g] = hash;
+      _index[slot] = g + 1;
+      return g;
+    }
+
+    private void grow() {
+      final int cap = Math.max(16, _hashes.length << 1);
+      _keys = Arrays.copyOf(_keys, cap * _nkeys);
+      _acc = Arrays.copyOf(_acc, cap * _init.length);
+      _cnts = Arrays.copyOf(_cnts, cap * _aggs.length);
+      _hashes = Arrays.copyOf(_hashes, cap);
+      rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+      _index = new int[Integer.highestOneBit(Math.max(_hashes.length, 8)) << 2]; // load factor <= 1/2
+      final int mask = _index.length - 1;
+      for (int g = 0; g < _n; g++) {
+        int slot = _hashes[g] & mask;
+        while (_index[slot] != 0) slot = (slot + 1) & mask;
+        _index[slot] = g + 1;
+      }
+    }
+
+    /** Aggregate the rows of a chunk set, one column at a time */
+    void add(Chunk[] cs, int[] gbCols) {
+      final int len = cs[0]._len;
+      final int[] gids = new int[len];
+      final double[] keys = new double[len * _nkeys];
+      for (int c = 0; c < _nkeys; c++) {
+        final Chunk chk = cs[gbCols[c]];
+        for (int row = 0; row < len; row++)
+          keys[row * _nkeys + c] = chk.atd(row);
+      }
+      for (int row = 0; row < len; row++)
+        gids[row] = group(keys, row * _nkeys, hash(keys, row * _nkeys, _nkeys));
+      final int width = _init.length, naggs = _aggs.length;
+      for (int a = 0; a < naggs; a++) {
+        final AstGroup.AGG agg = _aggs[a];
+        final Chunk chk = cs[agg._col];
+        final int off = _offs[a];
+        for (int row = 0; row < len; row++) {
+          final int g = gids[row];
+          agg.op(_acc, g * width + off, _cnts, g * naggs + a, chk.atd(row));
+        }
+      }
+    }
+
+    /** Merge the partial aggregates of another table into this one */
+    void merge(Table t) {
+      final int width = _init.length, naggs = _aggs.length;
+      for (int tg = 0; tg < t._n; tg++) {
+        final int g = group(t._keys, tg * _nkeys, t._hashes[tg]);
+        for (int a = 0; a < naggs; a++) {
+          _aggs[a]._fcn.atomic_op(_acc, g * width + _offs[a], t._acc, tg * width + _offs[a], _offs[a + 1] - _offs[a]);
+          _cnts[g * naggs + a] += t._cnts[tg * naggs + a];
+        }
+      }
+    }
+
+    /** Append the groups of a table holding disjoint keys */
+    void append(Table t) {
+      while (_hashes.length < _n + t._n) grow();
+      System.arraycopy(t._keys, 0, _keys, _n * _nkeys, t._n * _nkeys);
+      System.arraycopy(t._acc, 0, _acc, _n * _init.length, t._n * _init.length);
+      System.arraycopy(t._cnts, 0, _cnts, _n * _aggs.length, t._n * _aggs.length);
+      System.arraycopy(t._hashes, 0, _hashes, _n, t._n);
+      _n += t._n;
+      _index = null;
+    }
+
+    /** Split the groups by the hash of their key into nparts tables */
+    Table[] split(int nparts) {
+      Table[] parts = new Table[nparts];
+      for (int p = 0; p < nparts; p++) parts[p] = new Table(_nkeys, _aggs);
+      final int width = _init.length, naggs = _aggs.length;
+      for (int g = 0; g < _n; g++) {
+        Table t = parts[_hashes[g] % nparts];
+        if (t._n == t._hashes.length) t.grow();
+        final int tg = t._n++;
+        System.arraycopy(_keys, g * _nkeys, t._keys, tg * _nkeys, _nkeys);
+        System.arraycopy(_acc, g * width, t._acc, tg * width, width);
+        System.arraycopy(_cnts, g * naggs, t._cnts, tg * naggs, naggs);
+        t._hashes[tg] = _hashes[g];
+      }
+      for (Table t : parts) t.trim();
+      return parts;
+    }
+
+    /** Drop unused capacity before the table is sent over the wire */
+    void trim() {
+      _keys = Arrays.copyOf(_keys, _n * _nkeys);
+      _acc = Arrays.copyOf(_acc, _n * _init.length);
+      _cnts = Arrays.copyOf(_cnts, _n * _aggs.length);
+      _hashes = Arrays.copyOf(_hashes, _n);
+      _index = null;
+    }
+
+    /**
+     * @return group ids ordered by their keys, column by column; NaN is treated as least
+     */
+    public int[] sortedOrder() {
+      int[] order = new int[_n];
+      for (int g = 0; g < _n; g++) order[g] = g;
+      if (_nkeys > 0 && _n > 1) mergeSort(order, new int[_n], 0, _n);
+      return order;
+    }
+
+    private int compare(int g1, int g2) {
+      for (int c = 0; c < _nkeys; c++) {
+        double d1 = key(g1, c), d2 = key(g2, c);
+        if (Double.isNaN(d1) && !Double.isNaN(d2)) return -1;
+        if (!Double.isNaN(d1) && Double.isNaN(d2)) return 1;
+        if (d1 != d2) return d1 < d2 ? -1 : 1;
+      }
+      return 0;
+    }
+
+    private void mergeSort(int[] a, int[] tmp, int lo, int hi) {
+      if (hi - lo < 16) { // insertion sort for short runs
+        for (int i = lo + 1; i < hi; i++)
+          for (int j = i; j > lo && compare(a[j - 1], a[j]) > 0; j--) {
+            int t = a[j]; a[j] = a[j - 1]; a[j - 1] = t;
+          }
+        return;
+      }
+      final int mid = (lo + hi) >>> 1;
+      mergeSort(a, tmp, lo, mid);
+      mergeSort(a, tmp, mid, hi);
+      if (compare(a[mid - 1], a[mid]) <= 0) return;
+      System.arraycopy(a, lo, tmp, lo, hi - lo);
+      for (int i = lo, l = lo, r = mid; i < hi; i++)
+        a[i] = r >= hi || (l < mid && compare(tmp[l], tmp[r]) <= 0) ? tmp[l++] : tmp[r++];
+    }
+  }
+
+  // Per-thread aggregation of the local chunks; the node-local groups are
+  // then shuffled by hash to their owner nodes.
+  private static class LocalGroups extends MRTask<LocalGroups> {
+    private final String _prefix;
+    private final int[] _gbCols;
+    private final AstGroup.AGG[] _aggs;
+    // Node-local, shared by all local copies of this task
+    private transient ThreadLocal<Table> _perThread;
+    private transient ConcurrentLinkedQueue<Table> _tables;
+
+    LocalGroups(String prefix, int[] gbCols, AstGroup.AGG[] aggs) {
+      _prefix = prefix;
+      _gbCols = gbCols;
+      _aggs = aggs;
+    }
+
+    @Override
+    protected void setupLocal() {
+      _perThread = new ThreadLocal<>();
+      _tables = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public void map(Chunk[] cs) {
+      Table t = _perThread.get();
+      if (t == null) {
+        _perThread.set(t = new Table(_gbCols.length, _aggs));
+        _tables.add(t);
+      }
+      t.add(cs, _gbCols);
+    }
+
+    @Override
+    protected void closeLocal() {
+      Table local = null;
+      for (Table t : _tables) {
+        if (local == null) local = t;
+        else if (t.size() > local.size()) { t.merge(local); local = t; }
+        else local.merge(t);
+      }
+      _tables = null;
+      _perThread = null;
+      if (local == null) return; // No rows on this node
+      final int self = H2O.SELF.index();
+      Table[] parts = local.split(H2O.CLOUD.size());
+      for (int p = 0; p < parts.length; p++)
+        if (parts[p].size() > 0)
+          DKV.put(partKey(_prefix, self, p), parts[p], _fs, true);
+    }
+  }
+
+  // Every node merges the partial groups shuffled to it, and sends the
+  // result to the calling node.
+  private static class MergeGroups extends MRTask<MergeGroups> {
+    private final String _prefix;
+    private final int _nkeys;
+    private final AstGroup.AGG[] _aggs;
+    private final H2ONode _caller;
+
+    MergeGroups(String prefix, int nkeys, AstGroup.AGG[] aggs, H2ONode caller) {
+      _prefix = prefix;
+      _nkeys = nkeys;
+      _aggs = aggs;
+      _caller = caller;
+    }
+
+    @Override
+    protected void setupLocal() {
+      final int self = H2O.SELF.index();
+      Table merged = new Table(_nkeys, _aggs);
+      Futures fs = new Futures();
+      for (int from = 0; from < H2O.CLOUD.size(); from++) {
+        Key key = partKey(_prefix, from, self);
+        Table t = DKV.getGet(key);
+        if (t == null) continue;
+        if (t.size() > merged.size()) { t.merge(merged); merged = t; }
+        else merged.merge(t);
+        DKV.remove(key, fs);
+      }
+      merged.trim();
+      if (merged.size() > 0)
+        DKV.put(mergedKey(_prefix, self, _caller), merged, fs, true);
+      fs.blockForPending();
+    }
+  }
+}
@@ -1,16 +1,13 @@
 package water.rapids.ast.prims.timeseries;
 
-import water.MRTask;
 import water.fvec.Chunk;
 import water.fvec.Frame;
 import water.fvec.NewChunk;
-import water.fvec.Vec;
 import water.rapids.Env;
-import water.rapids.Val;
+import water.rapids.PrefixScan;
 import water.rapids.vals.ValFrame;
 import water.rapids.ast.AstPrimitive;
 import water.rapids.ast.AstRoot;
-import water.util.ArrayUtils;
 
 /**
  * Compute a difference of a time series where lag = 1
@@ -39,40 +36,35 @@ public class AstDiffLag1 extends AstPrimitive {
     if (!fr.anyVec().isNumeric())
       throw new IllegalArgumentException("Expected a numeric column for diff. Got: " + fr.anyVec().get_type_str());
 
-    final double[] lastElemPerChk = GetLastElemPerChunkTask.get(fr.anyVec());
-
-    return new ValFrame(new MRTask() {
-      @Override
-      public void map(Chunk c, NewChunk nc) {
-        if (c.cidx() == 0) nc.addNA();
-        else nc.addNum(c.atd(0) - lastElemPerChk[c.cidx() - 1]);
-        for (int row = 1; row < c._len; ++row)
-          nc.addNum(c.atd(row) - c.atd(row - 1));
-      }
-    }.doAll(fr.types(), fr).outputFrame(fr.names(), fr.domains()));
+    return new ValFrame(new DiffLag1().doAll(fr, fr.types(), fr.names()));
   }
 
-  private static class GetLastElemPerChunkTask extends MRTask<GetLastElemPerChunkTask> {
-    double[] _res;
-
-    GetLastElemPerChunkTask(Vec v) {
-      _res = new double[v.espc().length];
+  // The state of a prefix is its last value (empty for an empty prefix)
+  private static class DiffLag1 extends PrefixScan {
+    @Override
+    protected double[] identity() {
+      return new double[0];
     }
 
-    static double[] get(Vec v) {
-      GetLastElemPerChunkTask t = new GetLastElemPerChunkTask(v);
-      t.doAll(v);
-      return t._res;
+    @Override
+    protected double[] combine(double[] acc, double[] next) {
+      return next.length == 0 ? acc : next;
     }
 
     @Override
-    public void map(Chunk c) {
-      _res[c.cidx()] = c.atd(c._len - 1);
+    protected double[] summarize(Chunk cs[]) {
+      return new double[]{cs[0].atd(cs[0]._len - 1)};
     }
 
     @Override
-    public void reduce(GetLastElemPerChunkTask t) {
-      ArrayUtils.add(_res, t._res);
+    protected void apply(Chunk cs[], double[] carry, NewChunk ncs[]) {
+      Chunk c = cs[0];
+      NewChunk nc = ncs[0];
+      if (c._len == 0) return;
+      if (carry.length == 0) nc.addNA();
+      else nc.addNum(c.atd(0) - carry[0]);
+      for (int row = 1; row < c._len; ++row)
+        nc.addNum(c.atd(row) - c.atd(row - 1));
     }
   }
 }
@@ -0,0 +1,247 @@
+package water.rapids.ast.prims.timeseries;
+
+import water.fvec.Chunk;
+import water.fvec.Frame;
+import water.fvec.NewChunk;
+import water.fvec.Vec;
+import water.rapids.Env;
+import water.rapids.PrefixScan;
+import water.rapids.ast.AstPrimitive;
+import water.rapids.ast.AstRoot;
+import water.rapids.ast.prims.mungers.AstGroup;
+import water.rapids.vals.ValFrame;
+import water.util.ArrayUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Trailing rolling-window aggregates of the numeric columns of a frame.
+ * Sample AstRoot: (rolling frame window "mean" [time_col] [by_cols])
+ * <p/>
+ * Without a time column the window of a row is the row itself and the
+ * (window-1) rows before it; with a time column it is all rows whose time is
+ * in (t-window, t], the window being in the units of the time column (msec
+ * for time columns).  With group-by columns windows never cross a change of
+ * group.  Rows of a group must be contiguous (and sorted by time when a time
+ * column is given), e.g. as produced by sort on the group-by columns; this is
+ * not checked, a group split into several runs is windowed run by run.
+ * <p/>
+ * NAs are skipped.  The result has one column per aggregated column, named
+ * like the GB results (e.g. "mean_x").  Windows spanning chunk boundaries get
+ * their preceding rows through a {@link PrefixScan}: every chunk only ships
+ * the tail rows the next chunk's windows can reach.
+ */
+public class AstRolling extends AstPrimitive {
+  public enum Fun {nrow, sum, mean, sdev}
+
+  @Override
+  public String[] args() {
+    return new String[]{"ary", "window", "fun", "time", "by"};
+  }
+
+  @Override
+  public int nargs() {
+    return 1 + 5;
+  } // (rolling ary window fun time by)
+
+  @Override
+  public String str() {
+    return "rolling";
+  }
+
+  @Override
+  public ValFrame apply(Env env, Env.StackHelp stk, AstRoot asts[]) {
+    Frame fr = stk.track(asts[1].exec(env)).getFrame();
+    double window = asts[2].exec(env).getNum();
+    String fn = asts[3].exec(env).getStr();
+    Fun fun;
+    try {
+      fun = Fun.valueOf(fn);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown rolling function " + fn + ", expected one of " + Arrays.toString(Fun.values()));
+    }
+    int[] time = AstGroup.check(fr.numCols(), asts[4]).expand4();
+    int[] by = AstGroup.check(fr.numCols(), asts[5]).expand4();
+    if (time.length > 1)
+      throw new IllegalArgumentException("Expected at most one time column, but found " + time.length);
+    boolean byTime = time.length == 1;
+    if (!(window > 0) || (!byTime && window != Math.floor(window)))
+      throw new IllegalArgumentException("Window must be a positive " + (byTime ? "time span" : "number of rows") + ", but found " + window);
+    if (byTime) {
+      Vec tv = fr.vec(time[0]);
+      if (!tv.isNumeric() && !tv.isTime())
+        throw new IllegalArgumentException("Time column must be numeric or time, but found " + tv.get_type_str());
+      if (tv.naCnt() > 0)
+        throw new IllegalArgumentException("Time column must not have missing values");
+    }
+    for (int col : by)
+      if (fr.vec(col).isString() || fr.vec(col).isUUID())
+        throw new IllegalArgumentException("Cannot group by String or UUID columns");
+
+    // Scanned frame: group-by columns, the time column, then the aggregated columns
+    ArrayList<Vec> vecs = new ArrayList<>();
+    for (int col : by) vecs.add(fr.vec(col));
+    if (byTime) vecs.add(fr.vec(time[0]));
+    ArrayList<String> names = new ArrayList<>();
+    for (int col = 0; col < fr.numCols(); col++) {
+      if (!fr.vec(col).isNumeric() || (byTime && col == time[0]) || ArrayUtils.find(by, col) != -1) continue;
+      vecs.add(fr.vec(col));
+      names.add(fun + "_" + fr.name(col));
+    }
+    if (names.isEmpty()) throw new IllegalArgumentException("No numeric columns to aggregate");
+    byte[] types = new byte[names.size()];
+    Arrays.fill(types, Vec.T_NUM);
+    Frame scanned = new Frame(vecs.toArray(new Vec[vecs.size()]));
+    RollingScan scan = new RollingScan(fun, window, by.length, byTime, names.size());
+    return new ValFrame(scan.doAll(scanned, types, names.toArray(new String[names.size()])));
+  }
+
+  // The state of a prefix is its tail: the rows (all scanned columns, flattened) which can be in the window of a
+  // following row
+  private static class RollingScan extends PrefixScan {
+    final Fun _fun;
+    final double _window;
+    final int _ngb;      // Group-by columns come first
+    final int _tcol;     // Time column, or -1
+    final int _v0;       // First aggregated column
+    final int _width;    // Number of scanned columns
+
+    RollingScan(Fun fun, double window, int ngb, boolean byTime, int nvals) {
+      _fun = fun;
+      _window = window;
+      _ngb = ngb;
+      _tcol = byTime ? ngb : -1;
+      _v0 = ngb + (byTime ? 1 : 0);
+      _width = _v0 + nvals;
+    }
+
+    // Tail rows followed by the rows of a chunk
+    private final class Rows {
+      final double[] _tail;
+      final int _ntail;
+      final Chunk[] _cs;
+
+      Rows(double[] tail, Chunk[] cs) {
+        _tail = tail;
+        _ntail = tail.length / _width;
+        _cs = cs;
+      }
+
+      int size() {
+        return _ntail + (_cs == null ? 0 : _cs[0]._len);
+      }
+
+      double at(int row, int col) {
+        return row < _ntail ? _tail[row * _width + col] : _cs[col].atd(row - _ntail);
+      }
+    }
+
+    private boolean sameGroup(Rows rows, int r0, int r1) {
+      for (int col = 0; col < _ngb; col++)
+        if (Double.compare(rows.at(r0, col), rows.at(r1, col)) != 0) return false;
+      return true;
+    }
+
+    // Is row r in the window of row last?
+    private boolean inWindow(Rows rows, int r, int last) {
+      if (!sameGroup(rows, r, last)) return false;
+      return _tcol == -1 ? last - r < _window : rows.at(r, _tcol) > rows.at(last, _tcol) - _window;
+    }
+
+    // Can row r be in the window of a row following row last?  (times are non-decreasing)
+    private boolean inTail(Rows rows, int r, int last) {
+      if (!sameGroup(rows, r, last)) return false;
+      return _tcol == -1 ? last - r < _window - 1 : rows.at(r, _tcol) > rows.at(last, _tcol) - _window;
+    }
+
+    private double[] tail(Rows rows) {
+      int last = rows.size() - 1, start = last + 1;
+      while (start > 0 && inTail(rows, start - 1, last)) start--;
+      double[] tail = new double[(last + 1 - start) * _width];
+      for (int row = start; row <= last; row++)
+        for (int col = 0; col < _width; col++)
+          tail[(row - start) * _width + col] = rows.at(row, col);
+      return tail;
+    }
+
+    @Override
+    protected double[] identity() {
+      return new double[0];
+    }
+
+    @Override
+    protected double[] combine(double[] acc, double[] next) {
+      double[] rows = Arrays.copyOf(acc, acc.length + next.length);
+      System.arraycopy(next, 0, rows, acc.length, next.length);
+      return tail(new Rows(rows, null));
+    }
+
+    @Override
+    protected double[] summarize(Chunk cs[]) {
+      return tail(new Rows(new double[0], cs));
+    }
+
+    @Override
+    protected void apply(Chunk cs[], double[] carry, NewChunk ncs[]) {
+      Rows rows = new Rows(carry, cs);
+      final int nvals = ncs.length;
+      // Running count, sum, mean and sum of squared deviations of each column over the window [lo,row]
+      long[] ns = new long[nvals];
+      double[] sums = new double[nvals], means = new double[nvals], m2s = new double[nvals];
+      int lo = 0;
+      for (int row = 0; row < rows.size(); row++) {
+        if (row > 0 && sameGroup(rows, row - 1, row)) {
+          if (_tcol != -1 && rows.at(row, _tcol) < rows.at(row - 1, _tcol))
+            throw new IllegalArgumentException("Rows must be sorted by time" + (_ngb > 0 ? " within groups" : ""));
+        } else { // new group, empty window
+          Arrays.fill(ns, 0);
+          Arrays.fill(sums, 0);
+          Arrays.fill(means, 0);
+          Arrays.fill(m2s, 0);
+          lo = row;
+        }
+        for (int v = 0; v < nvals; v++)
+          add(rows.at(row, _v0 + v), v, ns, sums, means, m2s);
+        for (; !inWindow(rows, lo, row); lo++)
+          for (int v = 0; v < nvals; v++)
+            remove(rows.at(lo, _v0 + v), v, ns, sums, means, m2s);
+        if (row < rows._ntail) continue; // tail rows of preceding chunks only fill the window
+        for (int v = 0; v < nvals; v++)
+          ncs[v].addNum(result(ns[v], sums[v], means[v], m2s[v]));
+      }
+    }
+
+    // Welford's update, NAs are skipped
+    private static void add(double d, int v, long[] ns, double[] sums, double[] means, double[] m2s) {
+      if (Double.isNaN(d)) return;
+      double delta = d - means[v];
+      ns[v]++;
+      sums[v] += d;
+      means[v] += delta / ns[v];
+      m2s[v] += delta * (d - means[v]);
+    }
+
+    private static void remove(double d, int v, long[] ns, double[] sums, double[] means, double[] m2s) {
+      if (Double.isNaN(d)) return;
+      if (--ns[v] == 0) {
+        sums[v] = means[v] = m2s[v] = 0;
+        return;
+      }
+      double mean = means[v];
+      sums[v] -= d;
+      means[v] = (mean * (ns[v] + 1) - d) / ns[v];
+      m2s[v] -= (d - mean) * (d - means[v]);
+    }
+
+    private double result(long n, double sum, double mean, double m2) {
+      switch (_fun) {
+        case nrow: return n;
+        case sum: return sum;
+        case mean: return n == 0 ? Double.NaN : mean;
+        case sdev: return n < 2 ? Double.NaN : Math.sqrt(Math.max(0, m2 / (n - 1)));
+        default: throw new IllegalStateException("Unknown rolling function " + _fun);
+      }
+    }
+  }
+}
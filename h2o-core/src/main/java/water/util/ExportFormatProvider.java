@@ -0,0 +1,57 @@
+package water.util;
+
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ServiceLoader;
+
+/**
+ * Optional implementation of a binary export format for Frames (eg. Parquet).
+ *
+ * Implementations are discovered using the Java SPI (META-INF/services/water.util.ExportFormatProvider),
+ * the built-in CSV export doesn't need a provider.
+ */
+public abstract class ExportFormatProvider {
+
+  /** Name of the format as used in the export API, eg. "parquet" */
+  public abstract String name();
+
+  /**
+   * Creates a writer of a single output file.
+   *
+   * @param names column names
+   * @param vecs columns of the exported frame (used to determine the output schema)
+   * @param os target stream, the writer is responsible for closing it
+   * @return writer accepting chunks of the frame in row order
+   * @throws IOException
+   */
+  public abstract ChunkWriter createWriter(String[] names, Vec[] vecs, OutputStream os) throws IOException;
+
+  /** Writer of a single output file, receives one chunk of each column at a time */
+  public interface ChunkWriter extends Closeable {
+    void writeChunks(Chunk[] cs) throws IOException;
+  }
+
+  /** Service loader - not safe for use by multiple threads, all usages are synchronized */
+  private static final ServiceLoader<ExportFormatProvider> LOADER = ServiceLoader.load(ExportFormatProvider.class);
+
+  /**
+   * Finds a provider of a given export format.
+   * @param name name of the format (case insensitive)
+   * @return format provider or null if the format is not available
+   */
+  public static ExportFormatProvider getByName(String name) {
+    synchronized (LOADER) {
+      for (ExportFormatProvider efp : LOADER) {
+        if (efp.name().equalsIgnoreCase(name)) {
+          return efp;
+        }
+      }
+    }
+    return null;
+  }
+
+}
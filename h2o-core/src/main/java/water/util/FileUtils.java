@@ -21,14 +21,20 @@ public class FileUtils {
   }
 
   public static void copyStream(InputStream is, OutputStream os, final int buffer_size) {
+    copyStream(is, os, buffer_size, -1);
+  }
+
+  /** Copies at most limit bytes of the stream, or all of it when limit is negative */
+  public static void copyStream(InputStream is, OutputStream os, final int buffer_size, long limit) {
     try {
       byte[] bytes=new byte[buffer_size];
-      while( is.available() > 0 )
+      while( limit != 0 && is.available() > 0 )
       {
-        int count=is.read(bytes, 0, buffer_size);
+        int count=is.read(bytes, 0, limit < 0 ? buffer_size : (int)Math.min(buffer_size, limit));
         if(count<=0)
           break;
         os.write(bytes, 0, count);
+        if( limit > 0 ) limit -= count;
       }
     }
     catch(EofException eofe) {
@@ -285,15 +285,22 @@ public class FrameUtils {
     final String _frameName;
     final boolean _overwrite;
     final Job _j;
+    final String _format; // name of a binary export format, null for CSV
     int _nParts;
 
     public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts) {
+      this(frame, path, frameName, overwrite, j, nParts, null);
+    }
+
+    public ExportTaskDriver(Frame frame, String path, String frameName, boolean overwrite, Job j, int nParts,
+                            ExportFormatProvider format) {
       _frame = frame;
       _path = path;
       _frameName = frameName;
       _overwrite = overwrite;
       _j = j;
       _nParts = nParts;
+      _format = format != null ? format.name() : null;
     }
 
     @Override
@@ -302,8 +309,11 @@ public class FrameUtils {
       if (_nParts == 1) {
         // Single file export, the file should be created by the node that was asked to export the data
         // (this is for non-distributed filesystems, we want the file to go to the local filesystem of the node)
-        Frame.CSVStream is = new Frame.CSVStream(_frame, true, false);
-        exportCSVStream(is, _path, 0);
+        if (_format != null) {
+          exportChunks(_path, 0, _frame.anyVec().nChunks());
+        } else {
+          exportCSVOrdered(_path);
+        }
         tryComplete();
       } else {
         // Multi-part export
@@ -419,6 +429,98 @@ public class FrameUtils {
       }
     }
 
+    /**
+     * Single file CSV export. Chunks are formatted in parallel on their home nodes - at most a bounded
+     * window of chunks is in flight - and the formatted bytes are concatenated in chunk order by this node.
+     */
+    private void exportCSVOrdered(String path) {
+      Vec anyVec = _frame.anyVec();
+      int nChunks = (anyVec == null || anyVec.length() == 0) ? 0 : anyVec.nChunks();
+      int window = Math.max(4, 2 * H2O.CLOUD.size());
+      ArrayDeque<RPC<FormatCSVChunkTask>> pending = new ArrayDeque<>(window);
+      OutputStream os = null;
+      long written = 0;
+      boolean complete = false;
+      try {
+        os = H2O.getPM().create(path, _overwrite);
+        CSVFormatter header = new CSVFormatter(false).header(_frame._names);
+        header.writeTo(os);
+        written += header.length();
+        int next = 0;
+        for (int cidx = 0; cidx < nChunks; cidx++) {
+          while (next < nChunks && pending.size() < window) {
+            pending.add(new RPC<>(anyVec.chunkKey(next).home_node(), new FormatCSVChunkTask(_frame, next)).call());
+            next++;
+          }
+          byte[] bytes = pending.poll().get()._bytes;
+          os.write(bytes);
+          written += bytes.length;
+          if (_j.stop_requested()) throw new Job.JobCancelledException();
+          _j.update(1);
+        }
+        complete = true;
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        for (RPC<FormatCSVChunkTask> rpc : pending) rpc.cancel(true);
+        if (os != null) {
+          try {
+            os.flush(); // Seems redundant, but seeing a short-file-read on windows sometimes
+            os.close();
+            if (complete)
+              Log.info("Written " + written + " bytes of key '" + _frameName + "' to " + path + ".");
+            else
+              Log.warn("Export of key '" + _frameName + "' to " + path + " failed or was cancelled after " + written + " bytes; the file is incomplete.");
+          } catch (Exception e) {
+            Log.err(e);
+          }
+        }
+      }
+    }
+
+    /**
+     * Writes a range of chunks of the frame to a single file using a binary export format.
+     */
+    private void exportChunks(String path, int firstChkIdx, int nChunks) {
+      ExportFormatProvider efp = ExportFormatProvider.getByName(_format);
+      if (efp == null)
+        throw new IllegalStateException("Export format '" + _format + "' is not available on node " + H2O.SELF);
+      Vec[] vecs = _frame.vecs();
+      int lastChkIdx = Math.min(firstChkIdx + nChunks, _frame.anyVec().nChunks());
+      OutputStream os = null;
+      ExportFormatProvider.ChunkWriter writer = null;
+      try {
+        os = H2O.getPM().create(path, _overwrite);
+        writer = efp.createWriter(_frame._names, vecs, os);
+        for (int cidx = firstChkIdx; cidx < lastChkIdx; cidx++) {
+          if (_j.stop_requested()) throw new Job.JobCancelledException();
+          Chunk[] cs = new Chunk[vecs.length];
+          for (int i = 0; i < vecs.length; i++)
+            cs[i] = vecs[i].chunkForChunkIdx(cidx);
+          writer.writeChunks(cs);
+          // flush the remote chunks
+          for (Vec v : vecs) {
+            Key k = v.chunkKey(cidx);
+            if (! k.home()) H2O.raw_remove(k);
+          }
+          _j.update(1);
+        }
+        writer.close(); // closes the underlying stream
+        writer = null;
+        os = null;
+        Log.info("Written chunks " + firstChkIdx + "-" + (lastChkIdx - 1) + " of key '" + _frameName + "' to " + path + " as " + _format + ".");
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      } finally {
+        try {
+          if (writer != null) writer.close();
+          else if (os != null) os.close();
+        } catch (Exception e) {
+          Log.err(e);
+        }
+      }
+    }
+
     class PartExportTask extends MRTask<PartExportTask> {
       final String[] _colNames;
       final int _length;
@@ -437,8 +539,12 @@ public class FrameUtils {
         }
         int partIdx = anyChunk.cidx() / _length;
         String partPath = _path + "/part-m-" + String.valueOf(100000 + partIdx).substring(1);
-        Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, false);
-        exportCSVStream(is, partPath, anyChunk.cidx());
+        if (_format != null) {
+          exportChunks(partPath + "." + _format.toLowerCase(), anyChunk.cidx(), _length);
+        } else {
+          Frame.CSVStream is = new Frame.CSVStream(cs, _colNames, _length, false);
+          exportCSVStream(is, partPath, anyChunk.cidx());
+        }
       }
 
       @Override
@@ -449,6 +555,29 @@ public class FrameUtils {
     }
   }
 
+  /** Formats a single chunk of a frame as CSV lines on the chunk's home node */
+  private static class FormatCSVChunkTask extends DTask<FormatCSVChunkTask> {
+    private Frame _fr;
+    private final int _cidx;
+    byte[] _bytes;
+
+    FormatCSVChunkTask(Frame fr, int cidx) {
+      _fr = fr;
+      _cidx = cidx;
+    }
+
+    @Override public void compute2() {
+      Vec[] vecs = _fr.vecs();
+      Chunk[] cs = new Chunk[vecs.length];
+      for (int i = 0; i < vecs.length; i++)
+        cs[i] = vecs[i].chunkForChunkIdx(_cidx);
+      CSVFormatter formatter = new CSVFormatter(false).chunks(cs);
+      _bytes = Arrays.copyOf(formatter.buffer(), formatter.length());
+      _fr = null; // don't send the frame back
+      tryComplete();
+    }
+  }
+
   public static class CategoricalOneHotEncoder extends Iced {
     final Frame _frame;
     Job<Frame> _job;
@@ -0,0 +1,127 @@
+package water.util;
+
+import water.Iced;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** Frequent-items sketch (Misra-Gries) over long keys - Iced, and mergeable.
+ *
+ *  <p>At most {@code capacity} counters are kept.  A counted key's count is a
+ *  lower bound of its true count, and is off by at most {@link #error()}; every
+ *  key more frequent than {@code error()} is guaranteed to be counted.  Merging
+ *  adds the counters and then trims them back to capacity (Agarwal et al.), so
+ *  the same bounds hold for the merged sketch of all chunks of a column.
+ */
+public class HeavyHitters extends Iced<HeavyHitters> {
+  private final int _capacity;
+  private long[] _keys;     // Open-addressing table of the counted keys
+  private long[] _counts;   // Count per slot; 0 for empty slots
+  private int _size;        // Number of counted keys
+  private long _error;      // Total count subtracted from every key
+
+  public HeavyHitters() { this(64); }
+  public HeavyHitters(int capacity) {
+    _capacity = capacity;
+    _keys = new long[slots(capacity)];
+    _counts = new long[_keys.length];
+  }
+
+  /** Count a key */
+  public void add(long key) { add(key, 1); }
+
+  /** Count a key cnt times */
+  public void add(long key, long cnt) {
+    int slot = slot(key);
+    if( _counts[slot] != 0 ) { _counts[slot] += cnt; return; }
+    if( _size < _capacity ) { _keys[slot] = key; _counts[slot] = cnt; _size++; return; }
+    // Full: decrement every counter, the new key's included, by the smallest count and drop the zeros
+    long min = cnt;
+    for( long c : _counts ) if( c != 0 && c < min ) min = c;
+    _error += min;
+    rebuild(_keys.length, min);
+    if( cnt > min ) { slot = slot(key); _keys[slot] = key; _counts[slot] = cnt - min; _size++; }
+  }
+
+  /** Merge another sketch into this one; the other sketch is not modified */
+  public void merge(HeavyHitters hh) {
+    // Add all counters in a table large enough for both, then trim back to capacity
+    rebuild(Math.max(_keys.length, slots(_size + hh._size)), 0);
+    for( int i = 0; i < hh._keys.length; i++ ) {
+      if( hh._counts[i] == 0 ) continue;
+      int slot = slot(hh._keys[i]);
+      if( _counts[slot] == 0 ) { _keys[slot] = hh._keys[i]; _size++; }
+      _counts[slot] += hh._counts[i];
+    }
+    _error += hh._error;
+    long kth = 0;
+    if( _size > _capacity ) { // Subtract the (capacity+1)-th largest count from every counter
+      long[] sorted = new long[_size];
+      int n = 0;
+      for( long c : _counts ) if( c != 0 ) sorted[n++] = c;
+      Arrays.sort(sorted);
+      kth = sorted[_size - _capacity - 1];
+      _error += kth;
+    }
+    rebuild(slots(_capacity), kth);
+  }
+
+  /** Maximum undercount of any key; keys more frequent than this are all counted */
+  public long error() { return _error; }
+
+  /** @return up to k most frequent keys, most frequent first */
+  public long[] topKeys(int k) {
+    int[] idx = top(k);
+    long[] res = new long[idx.length];
+    for( int i = 0; i < idx.length; i++ ) res[i] = _keys[idx[i]];
+    return res;
+  }
+
+  /** @return the (lower bound) counts of {@link #topKeys(int)} */
+  public long[] topCounts(int k) {
+    int[] idx = top(k);
+    long[] res = new long[idx.length];
+    for( int i = 0; i < idx.length; i++ ) res[i] = _counts[idx[i]];
+    return res;
+  }
+
+  // Slots of the k largest counts, largest first; ties broken by key for a deterministic order
+  private int[] top(int k) {
+    Integer[] idx = new Integer[_size];
+    int n = 0;
+    for( int i = 0; i < _counts.length; i++ ) if( _counts[i] != 0 ) idx[n++] = i;
+    Arrays.sort(idx, new Comparator<Integer>() {
+      @Override public int compare(Integer a, Integer b) {
+        return _counts[a] != _counts[b] ? Long.compare(_counts[b], _counts[a]) : Long.compare(_keys[a], _keys[b]);
+      }
+    });
+    int[] res = new int[Math.min(k, n)];
+    for( int i = 0; i < res.length; i++ ) res[i] = idx[i];
+    return res;
+  }
+
+  private int slot(long key) {
+    int mask = _keys.length - 1;
+    int slot = (int)HyperLogLog.hash(key) & mask;
+    while( _counts[slot] != 0 && _keys[slot] != key ) slot = (slot + 1) & mask;
+    return slot;
+  }
+
+  // Subtract d from all counters, dropping the ones reaching zero, into a new table of the given size
+  private void rebuild(int slots, long d) {
+    long[] keys = _keys, counts = _counts;
+    _keys = new long[slots];
+    _counts = new long[slots];
+    _size = 0;
+    for( int i = 0; i < keys.length; i++ ) {
+      if( counts[i] <= d ) continue;
+      int slot = slot(keys[i]);
+      _keys[slot] = keys[i];
+      _counts[slot] = counts[i] - d;
+      _size++;
+    }
+  }
+
+  // Table size for a number of counters: load factor at most 1/2
+  private static int slots(int n) { return Integer.highestOneBit(Math.max(n, 1)) << 2; }
+}
@@ -0,0 +1,66 @@
+package water.util;
+
+import water.Iced;
+
+/** HyperLogLog distinct-count estimator (Flajolet et al.) - Iced, and
+ *  mergeable, so sketches of chunks merge into the sketch of a column.
+ *
+ *  <p>Values are added by their 64-bit hash; {@link #hash(long)} mixes the bits
+ *  of raw keys (e.g. double bits or categorical levels) well enough.  With the
+ *  default 2^12 one-byte registers the standard error is about 1.6%, and small
+ *  cardinalities are counted (nearly) exactly by linear counting.
+ */
+public class HyperLogLog extends Iced<HyperLogLog> {
+  public static final int DEFAULT_PRECISION = 12;
+
+  private final byte[] _regs;   // Max rank seen per register
+  private final int _p;         // log2 of the number of registers
+
+  public HyperLogLog() { this(DEFAULT_PRECISION); }
+  public HyperLogLog(int p) {
+    if( p < 4 || p > 18 ) throw new IllegalArgumentException("HyperLogLog precision must be in [4,18], but found " + p);
+    _p = p;
+    _regs = new byte[1 << p];
+  }
+
+  /** Add a value by its (well mixed) 64-bit hash */
+  public void add(long hash) {
+    int idx = (int)(hash >>> (64 - _p));
+    // Rank: position of the first 1-bit in the remaining bits, capped when they are all zero
+    byte rank = (byte)(Long.numberOfLeadingZeros((hash << _p) | (1L << (_p - 1))) + 1);
+    if( rank > _regs[idx] ) _regs[idx] = rank;
+  }
+
+  /** Merge another sketch of the same precision into this one */
+  public void merge(HyperLogLog hll) {
+    if( hll._p != _p ) throw new IllegalArgumentException("Cannot merge HyperLogLog sketches of precision " + _p + " and " + hll._p);
+    for( int i = 0; i < _regs.length; i++ )
+      if( hll._regs[i] > _regs[i] ) _regs[i] = hll._regs[i];
+  }
+
+  /** @return estimated number of distinct values added */
+  public long estimate() {
+    final int m = _regs.length;
+    double sum = 0;
+    int zeros = 0;
+    for( byte r : _regs ) {
+      sum += Math.scalb(1.0, -r);
+      if( r == 0 ) zeros++;
+    }
+    double alpha = 0.7213 / (1 + 1.079 / m);
+    double est = alpha * m * m / sum;
+    if( est <= 2.5 * m && zeros > 0 )  // Small range: linear counting is far more accurate
+      est = m * Math.log((double)m / zeros);
+    return Math.round(est);
+  }
+
+  /** 64-bit finalizer of MurmurHash3: spreads the bits of a raw key over all hash bits */
+  public static long hash(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
@@ -0,0 +1,36 @@
+package water.api;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import static org.junit.Assert.*;
+
+public class DatasetServletTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testParseRange() {
+    assertArrayEquals(new long[]{10, 19}, DatasetServlet.parseRange("bytes=10-19"));
+    assertArrayEquals(new long[]{10, -1}, DatasetServlet.parseRange("bytes=10-"));
+    assertArrayEquals(new long[]{-5, -1}, DatasetServlet.parseRange("bytes=-5"));
+    assertNull(DatasetServlet.parseRange("bytes=1-2,4-5"));
+    assertNull(DatasetServlet.parseRange("bytes=9-1"));
+  }
+
+  @Test public void testETagFollowsContent() {
+    Frame fr = null;
+    try {
+      fr = new Frame(Key.<Frame>make(), new String[]{"x", "y"}, new Vec[]{dvec(1, 2, 3), ivec(4, 5, 6)});
+      String etag = DatasetServlet.etag(fr, false, false);
+      assertEquals(etag, DatasetServlet.etag(fr, false, false));
+      assertNotEquals(etag, DatasetServlet.etag(fr, true, false)); // another format, other bytes
+      fr.vec(0).set(1, 7); // written in place
+      assertNotEquals(etag, DatasetServlet.etag(fr, false, false));
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+}
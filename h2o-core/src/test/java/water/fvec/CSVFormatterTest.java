@@ -0,0 +1,55 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.TestUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class CSVFormatterTest extends TestUtil {
+
+  @BeforeClass public static void setup() {
+    stall_till_cloudsize(1);
+  }
+
+  @Test public void testFormatChunks() {
+    Frame fr = null;
+    try {
+      fr = new Frame(new String[]{"i", "d", "c", "s"},
+              new Vec[]{ivec(-12, 0, 345), dvec(1.5, Double.NaN, -0.25), cvec("a", "b", "a"), svec("x", "yy", "z")});
+      Chunk[] cs = new Chunk[fr.numCols()];
+      for (int i = 0; i < cs.length; i++) cs[i] = fr.vec(i).chunkForChunkIdx(0);
+      CSVFormatter formatter = new CSVFormatter(false).header(fr.names()).chunks(cs);
+      String expected = "\"i\",\"d\",\"c\",\"s\"\n" +
+              "-12,1.5,\"a\",\"x\"\n" +
+              "0,,\"b\",\"yy\"\n" +
+              "345,-0.25,\"a\",\"z\"\n";
+      assertEquals(expected, new String(formatter.buffer(), 0, formatter.length()));
+      // buffer is reused
+      formatter.reset().row(cs, 2);
+      assertEquals("345,-0.25,\"a\",\"z\"\n", new String(formatter.buffer(), 0, formatter.length()));
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testCSVStreamMatchesFormatter() throws IOException {
+    Frame fr = null;
+    try {
+      fr = new Frame(new String[]{"l"}, new Vec[]{ivec(Integer.MIN_VALUE, -1, 7, Integer.MAX_VALUE)});
+      InputStream is = fr.toCSV(true, false);
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      byte[] buf = new byte[3]; // small buffer - rows are read in several steps
+      int n;
+      while ((n = is.read(buf, 0, buf.length)) > 0) baos.write(buf, 0, n);
+      assertEquals("\"l\"\n-2147483648\n-1\n7\n2147483647\n", baos.toString());
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.MRTask;
+import water.TestUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ColumnarStreamTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static byte[] readAll(InputStream is) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    byte[] buf = new byte[5]; // small buffer - batches are read in several steps
+    int n;
+    while ((n = is.read(buf, 0, buf.length)) > 0) baos.write(buf, 0, n);
+    is.close();
+    return baos.toByteArray();
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Test public void testRoundTrip() throws IOException {
+    Frame fr = null;
+    try {
+      fr = new Frame(new String[]{"i", "d", "c", "s"},
+              new Vec[]{ivec(-12, 0, 345), dvec(1.5, Double.NaN, -0.25), cvec("a", "b", "a"), svec("x", null, "zz")});
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(readAll(fr.toBinary())));
+      byte[] magic = new byte[4];
+      in.readFully(magic);
+      assertEquals("H2OB", new String(magic, StandardCharsets.US_ASCII));
+      assertEquals(ColumnarStream.VERSION, in.readInt());
+      assertEquals(4, in.readInt());
+      byte[] types = {ColumnarStream.T_LONG, ColumnarStream.T_DOUBLE, ColumnarStream.T_CAT, ColumnarStream.T_STR};
+      for (int i = 0; i < 4; i++) {
+        assertEquals(fr.name(i), readString(in));
+        assertEquals(types[i], in.readByte());
+        int nlevels = in.readInt();
+        assertEquals(i == 2 ? 2 : -1, nlevels);
+        for (int l = 0; l < nlevels; l++) assertEquals(fr.vec(i).domain()[l], readString(in));
+      }
+      assertEquals(3, in.readInt());
+      assertEquals(7, in.readByte());
+      assertEquals(-12, in.readLong()); assertEquals(0, in.readLong()); assertEquals(345, in.readLong());
+      assertEquals(5, in.readByte()); // row 1 is missing
+      assertEquals(1.5, in.readDouble(), 0); in.readDouble(); assertEquals(-0.25, in.readDouble(), 0);
+      assertEquals(7, in.readByte());
+      assertEquals(0, in.readInt()); assertEquals(1, in.readInt()); assertEquals(0, in.readInt());
+      assertEquals(5, in.readByte());
+      assertEquals(0, in.readInt()); assertEquals(1, in.readInt()); assertEquals(1, in.readInt()); assertEquals(3, in.readInt());
+      byte[] strs = new byte[3];
+      in.readFully(strs);
+      assertEquals("xzz", new String(strs, StandardCharsets.UTF_8));
+      assertEquals(0, in.readInt()); // end of the batches
+      assertEquals(-1, in.read());
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testChunkSizesAndResume() throws IOException {
+    Frame fr = null;
+    try {
+      Vec seq = Vec.makeSeq(100000, true);
+      Vec str = new MRTask() {
+        @Override public void map(Chunk c, NewChunk nc) {
+          for (int i = 0; i < c._len; i++) nc.addStr(c.at8(i) % 7 == 0 ? null : "r" + c.at8(i));
+        }
+      }.doAll(Vec.T_STR, seq).outputFrame().anyVec();
+      fr = new Frame(new String[]{"seq", "str"}, new Vec[]{seq, str});
+      int nchks = seq.nChunks();
+      assertTrue(nchks > 1);
+
+      for (boolean binary : new boolean[]{false, true}) {
+        byte[] all = readAll(binary ? fr.toBinary() : fr.toCSV(true, false));
+        long[] sizes = fr.streamedChunkSizes(binary, false);
+        assertEquals(nchks, sizes.length);
+        long header = binary ? ColumnarStream.header(fr).length : new CSVFormatter(false).header(fr.names()).length();
+        long total = header + (binary ? 4 : 0);
+        for (long size : sizes) total += size;
+        assertEquals(all.length, total);
+
+        // Streaming from the middle chunk gives the tail of the full stream
+        int cidx = nchks / 2;
+        long offset = header;
+        for (int i = 0; i < cidx; i++) offset += sizes[i];
+        InputStream is;
+        if (binary) is = new ColumnarStream(fr, cidx, false, Frame.STREAM_PREFETCH);
+        else is = new Frame.CSVStream(new Chunk[]{seq.chunkForChunkIdx(cidx), str.chunkForChunkIdx(cidx)}, null, nchks - cidx, false, Frame.STREAM_PREFETCH);
+        byte[] tail = readAll(is);
+        assertEquals(all.length - offset, tail.length);
+        for (int i = 0; i < tail.length; i++)
+          if (tail[i] != all[(int) offset + i]) fail("Resumed stream differs at byte " + (offset + i));
+      }
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+}
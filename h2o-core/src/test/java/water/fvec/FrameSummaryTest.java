@@ -0,0 +1,107 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Futures;
+import water.MRTask;
+import water.TestUtil;
+
+import static org.junit.Assert.*;
+
+public class FrameSummaryTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testSmallColumns() {
+    Frame fr = null;
+    try {
+      fr = new Frame(new String[]{"num", "str", "cat"}, new Vec[]{
+              dvec(1, 1, 1, 2, 2, 3, Double.NaN),
+              svec("a", "b", "a", "c", null, "a", "b"),
+              cvec("x", "y", "x", "x", "y", "x", "x")});
+      FrameSummary.Sketches[] sks = FrameSummary.get(fr.vecs());
+      for (Vec v : fr.vecs()) // Rollups were computed by the same pass
+        assertNotNull(RollupStats.getOrNull(v, v.rollupStatsKey()));
+      assertEquals(1, fr.vec(0).naCnt());
+      assertEquals(10.0 / 6, fr.vec(0).mean(), 1e-10);
+      assertEquals(1, fr.vec(1).naCnt());
+
+      assertEquals(3, sks[0].distinctCount());
+      assertArrayEquals(new double[]{1, 2, 3}, sks[0].topValues(), 0);
+      assertArrayEquals(new long[]{3, 2, 1}, sks[0].topCounts());
+      assertEquals(0, sks[0].topCountError());
+      assertEquals(3, sks[1].distinctCount());
+      assertNull(sks[1].topValues());
+      assertEquals(2, sks[2].distinctCount());
+      assertArrayEquals(new double[]{0, 1}, sks[2].topValues(), 0); // level indices
+      assertArrayEquals(new long[]{5, 2}, sks[2].topCounts());
+
+      // Cached until the Vec is written into
+      assertSame(sks[0], FrameSummary.getOrNull(fr.vec(0)));
+      Vec v = fr.vec(0);
+      v.set(0, 5);
+      assertNull(FrameSummary.getOrNull(v));
+      assertEquals(4, FrameSummary.get(new Vec[]{v})[0].distinctCount());
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testAcrossChunks() {
+    Vec seq = null, skewed = null;
+    try {
+      final long len = 100000;
+      seq = Vec.makeSeq(len, true);
+      assertTrue(seq.nChunks() > 1);
+      // Every third row is 7, the other rows are unique
+      skewed = new MRTask() {
+        @Override public void map(Chunk c, NewChunk nc) {
+          for (int i = 0; i < c._len; i++) {
+            long row = c.start() + i;
+            nc.addNum(row % 3 == 0 ? 7 : 10 + row);
+          }
+        }
+      }.doAll(Vec.T_NUM, seq).outputFrame().anyVec();
+
+      FrameSummary.Sketches[] sks = FrameSummary.get(new Vec[]{seq, skewed});
+      assertEquals(1, seq.min(), 0);
+      assertEquals(len, seq.max(), 0);
+      assertEquals((len + 1) / 2.0, seq.mean(), 1e-6);
+      assertEquals(len, sks[0].distinctCount(), len * 0.05);
+      long distinct = 1 + len - (len + 2) / 3;
+      assertEquals(distinct, sks[1].distinctCount(), distinct * 0.05);
+      assertEquals(7, sks[1].topValues()[0], 0);
+      long sevens = (len + 2) / 3;
+      long cnt = sks[1].topCounts()[0];
+      assertTrue(cnt <= sevens && cnt >= sevens - sks[1].topCountError());
+    } finally {
+      if (seq != null) seq.remove();
+      if (skewed != null) skewed.remove();
+    }
+  }
+
+  @Test public void testNotCachedWhileMutating() {
+    Vec v = null;
+    try {
+      v = dvec(1, 2, 2, 3);
+      // summarized while being written into: computed, but neither rollups nor sketches are kept
+      v.preWriting();
+      assertEquals(3, FrameSummary.get(new Vec[]{v})[0].distinctCount());
+      assertNull(FrameSummary.getOrNull(v));
+      // a sketch put while the Vec was mutating is dropped once the write ends
+      DKV.put(v.summarySketchKey(), new FrameSummary.Sketches());
+      v.postWrite(new Futures()).blockForPending();
+      assertNull(FrameSummary.getOrNull(v));
+
+      FrameSummary.get(new Vec[]{v});
+      assertNotNull(FrameSummary.getOrNull(v));
+      new MRTask() {
+        @Override public void map(Chunk c) { c.set(0, 2); }
+      }.doAll(v);
+      assertNull(FrameSummary.getOrNull(v));
+      assertEquals(2, FrameSummary.get(new Vec[]{v})[0].distinctCount());
+    } finally {
+      if (v != null) v.remove();
+    }
+  }
+}
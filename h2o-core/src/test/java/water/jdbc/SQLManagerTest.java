@@ -0,0 +1,59 @@
+package water.jdbc;
+
+import org.junit.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.Assert.*;
+
+public class SQLManagerTest {
+
+  @Test
+  public void testIntegerPartitionKey() {
+    SQLManager.PartitionKey key = SQLManager.PartitionKey.make("id", 1, 10L);
+    assertEquals(4, key.limitPartitions(4));
+    assertEquals(1, key.longBound(0));
+    assertEquals(10, key.longBound(4));
+    for (int i = 0; i < 4; i++)
+      assertTrue(key.longBound(i) <= key.longBound(i + 1));
+    assertEquals(" WHERE id >= ? AND id < ?", key.where(0));
+    assertEquals(" WHERE (id >= ? AND id <= ?) OR id IS NULL", key.where(3));
+    // cannot split 3 distinct values into more than 3 ranges
+    assertEquals(3, SQLManager.PartitionKey.make("id", 5, 7).limitPartitions(100));
+  }
+
+  @Test
+  public void testRealAndTimePartitionKey() {
+    SQLManager.PartitionKey real = SQLManager.PartitionKey.make("x", 0.0, 1.0);
+    assertEquals(100, real.limitPartitions(100));
+    assertEquals(0.5, real.bound(50), 1e-12);
+    SQLManager.PartitionKey time = SQLManager.PartitionKey.make("t", new Timestamp(1000), new Timestamp(5000));
+    assertEquals(4, time.limitPartitions(4));
+    assertEquals(2000, time.longBound(1));
+    assertNull(SQLManager.PartitionKey.make("empty", null, null));
+  }
+
+  @Test
+  public void testBigIntegerPartitionKey() {
+    // beyond 2^53 the bounds do not survive a round-trip through double
+    long min = (1L << 53) + 1, max = Long.MAX_VALUE;
+    SQLManager.PartitionKey key = SQLManager.PartitionKey.make("id", min, max);
+    assertEquals(8, key.limitPartitions(8));
+    assertEquals(min, key.longBound(0));
+    assertEquals(max, key.longBound(8));
+    for (int i = 0; i < 8; i++)
+      assertTrue(key.longBound(i) < key.longBound(i + 1));
+    // a few adjacent values are still split one per range
+    assertEquals(3, SQLManager.PartitionKey.make("id", max - 2, max).limitPartitions(100));
+    // the full long range does not overflow
+    SQLManager.PartitionKey full = SQLManager.PartitionKey.make("id", Long.MIN_VALUE, Long.MAX_VALUE);
+    assertEquals(4, full.limitPartitions(4));
+    assertEquals(0, full.longBound(2) + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStringPartitionKeyRejected() {
+    SQLManager.PartitionKey.make("name", "a", "z");
+  }
+
+}
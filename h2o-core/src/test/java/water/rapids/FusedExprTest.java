@@ -0,0 +1,64 @@
+package water.rapids;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+
+/**
+ * Fused evaluation of element-wise expressions has to give the same results as the regular evaluation.
+ */
+public class FusedExprTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testFusedMatchesRegular() {
+    Frame fr = null;
+    try {
+      fr = parse_test_file(Key.make("iris.hex"), "smalldata/iris/iris_wheader.csv");
+      String[] exprs = new String[]{
+          "(log (+ (* (cols_py iris.hex 0) 2) (cols_py iris.hex 1)))",
+          "(- (* (cols_py iris.hex [0 1 2 3]) 0.5) (cols_py iris.hex 0))",
+          "(/ (cols_py iris.hex 2) (sqrt (cols_py iris.hex [0 1 2 3])))",
+          "(abs (- 1 (cols_py iris.hex [0 1 2 3])))",
+          "(== (* (cols_py iris.hex 0) 10) (+ (cols_py iris.hex 1) 30))",
+          // frame == scalar and frame != scalar give default column names
+          "(== (cols_py iris.hex [0 1]) 5)",
+          "(!= (* (cols_py iris.hex 0) 2) 10)",
+          "(+ (== (cols_py iris.hex 0) 5) (cols_py iris.hex 1))",
+          "(== 5 (cols_py iris.hex 0))",
+          // categorical columns fall back to the regular evaluation
+          "(+ (cols_py iris.hex 4) (* (cols_py iris.hex 0) 2))",
+          "(* (- iris.hex 1) 2)",
+      };
+      for (String expr : exprs) {
+        Frame regular = exec(expr, false).getFrame();
+        Frame fused = exec(expr, true).getFrame();
+        try {
+          Assert.assertArrayEquals(expr, regular.names(), fused.names());
+          Assert.assertEquals(expr, regular.numRows(), fused.numRows());
+          Assert.assertTrue(expr, isBitIdentical(regular, fused));
+        } finally {
+          regular.delete();
+          fused.delete();
+        }
+      }
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testConstantFolding() {
+    Assert.assertEquals(exec("(log (+ (* 2 3) 1))", false).getNum(), exec("(log (+ (* 2 3) 1))", true).getNum(), 0);
+  }
+
+  private static Val exec(String rapids, boolean fused) {
+    Session ses = new Session().setFusedEvaluation(fused);
+    try {
+      return ses.end(ses.exec(Rapids.parse(rapids), null));
+    } catch (Throwable ex) {
+      throw ses.endQuietly(ex);
+    }
+  }
+}
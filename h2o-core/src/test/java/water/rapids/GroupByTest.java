@@ -8,7 +8,13 @@ import water.Key;
 import water.Keyed;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.rapids.ast.prims.mungers.AstGroup;
+import water.rapids.ast.prims.mungers.HashGroupBy;
 import water.rapids.vals.ValFrame;
+import water.util.IcedHashMap;
+
+import java.util.Arrays;
+import java.util.HashMap;
 
 public class GroupByTest extends TestUtil {
   @BeforeClass public static void setup() { stall_till_cloudsize(5); }
@@ -213,6 +219,38 @@ public class GroupByTest extends TestUtil {
     cov.delete();
   }
 
+  // The primitive hash aggregation must agree with the generic Group-based one
+  @Test public void testHashGroupBy() {
+    Frame fr = null;
+    try {
+      fr = parse_test_file(Key.make("hex"),"smalldata/iris/iris_wheader.csv");
+      int[] gbCols = new int[]{4,1};
+      AstGroup.FCN[] fcns = new AstGroup.FCN[]{AstGroup.FCN.nrow,AstGroup.FCN.mean,AstGroup.FCN.sdev,AstGroup.FCN.mode,AstGroup.FCN.max};
+      int[] cols = new int[]{0,0,2,4,3};
+      AstGroup.AGG[] aggs = new AstGroup.AGG[fcns.length];
+      for( int a=0; a<aggs.length; a++ )
+        aggs[a] = new AstGroup.AGG(fcns[a],cols[a],a==2 ? AstGroup.NAHandling.RM : AstGroup.NAHandling.ALL,(int)fr.vec(cols[a]).max()+1);
+      HashGroupBy.Table t = HashGroupBy.doGroups(fr,gbCols,aggs);
+      IcedHashMap<AstGroup.G,String> gss = AstGroup.doGroups(fr,gbCols,aggs);
+      Assert.assertEquals(gss.size(),t.size());
+      HashMap<String,AstGroup.G> groups = new HashMap<>();
+      for( AstGroup.G g : gss.keySet() ) groups.put(g.toString(),g);
+      for( int g=0; g<t.size(); g++ ) {
+        AstGroup.G exp = groups.get(Arrays.toString(new double[]{t.key(g,0),t.key(g,1)}));
+        Assert.assertNotNull(exp);
+        for( int a=0; a<aggs.length; a++ )
+          Assert.assertEquals(fcns[a].postPass(exp._dss[a],exp._ns[a]),t.result(g,a),1e-10);
+      }
+      int[] order = t.sortedOrder();
+      for( int i=1; i<order.length; i++ ) {
+        double k0 = t.key(order[i-1],0), k1 = t.key(order[i],0);
+        Assert.assertTrue(k0 < k1 || (k0 == k1 && t.key(order[i-1],1) < t.key(order[i],1)));
+      }
+    } finally {
+      if( fr != null ) fr.delete();
+    }
+  }
+
   @Test public void testGroupbyTableSpeed() {
     Frame ids = parse_test_file(Key.make("cov"),"smalldata/junit/id_cols.csv");
     ids.replace(0,ids.anyVec().toCategoricalVec()).remove();
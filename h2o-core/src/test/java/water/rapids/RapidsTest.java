@@ -348,6 +348,41 @@ public class RapidsTest extends TestUtil {
   }
 
 
+  @Test public void testBroadcastMerge() {
+    Frame l=null,r=null,f=null,g=null;
+    try {
+      int[] lid = new int[1000], lx = new int[1000];
+      for( int i=0; i<lid.length; i++ ) { lid[i] = i%50; lx[i] = i; }
+      l = new Frame(Key.<Frame>make("l"),new String[]{"id","x"},new Vec[]{ivec(lid),ivec(lx)});
+      DKV.put(l);
+      int[] rid = new int[80], ry = new int[80];
+      for( int i=0; i<rid.length; i++ ) { rid[i] = i%40; ry[i] = (i%40)*10+i/40; } // keys 0-39, twice each
+      r = new Frame(Key.<Frame>make("r"),new String[]{"id","y"},new Vec[]{ivec(rid),ivec(ry)});
+      DKV.put(r);
+
+      // all left: unmatched keys get NAs, only the first of the duplicated right rows is used
+      f = Rapids.exec("(merge l r 1 0 [] [] \"auto\")").getFrame();
+      Assert.assertEquals(1000,f.numRows());
+      Assert.assertArrayEquals(new String[]{"id","x","y"},f.names());
+      for( long i=0; i<f.numRows(); i++ ) {
+        Assert.assertEquals(f.vec(1).at8(i)%50,f.vec(0).at8(i));
+        if( f.vec(0).at8(i) < 40 ) Assert.assertEquals(f.vec(0).at8(i)*10,f.vec(2).at8(i));
+        else Assert.assertTrue(f.vec(2).isNA(i));
+      }
+
+      // inner: unmatched keys are dropped
+      g = Rapids.exec("(merge l r 0 0 [] [] \"hash\")").getFrame();
+      Assert.assertEquals(800,g.numRows());
+      for( long i=0; i<g.numRows(); i++ )
+        Assert.assertEquals(g.vec(0).at8(i)*10,g.vec(2).at8(i));
+    } finally {
+      if( g != null ) g.delete();
+      if( f != null ) f.delete();
+      if( r != null ) r.delete();
+      if( l != null ) l.delete();
+    }
+  }
+
   @Test public void testQuantile() {
     Frame f = null;
     try {
@@ -614,6 +649,63 @@ public class RapidsTest extends TestUtil {
   }
 
 
+  @Test public void testPrefixScanAcrossChunks() {
+    Frame fr = null, sum = null, max = null, diff = null;
+    try {
+      Vec seq = Vec.makeSeq(10000, true); // 1, 2, ... 10000
+      fr = new Frame(Key.<Frame>make("seq"), new String[]{"a","b"}, new Vec[]{seq, seq.makeCopy()});
+      DKV.put(fr);
+      Assert.assertTrue(seq.nChunks() > 1);
+      sum = Rapids.exec("(cumsum seq 0)").getFrame();
+      max = Rapids.exec("(cummax seq 0)").getFrame();
+      diff = Rapids.exec("(difflag1 (cols seq 0))").getFrame();
+      Assert.assertArrayEquals(new String[]{"a","b"}, sum.names());
+      Assert.assertTrue(diff.vec(0).isNA(0));
+      for (long i = 0; i < fr.numRows(); i++) {
+        for (int c = 0; c < 2; c++) {
+          Assert.assertEquals((i + 1) * (i + 2) / 2, sum.vec(c).at8(i));
+          Assert.assertEquals(i + 1, max.vec(c).at8(i));
+        }
+        if (i > 0) Assert.assertEquals(1, diff.vec(0).at8(i));
+      }
+    } finally {
+      if (diff != null) diff.delete();
+      if (max != null) max.delete();
+      if (sum != null) sum.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testRolling() {
+    Frame fr = null, rows = null, time = null, grouped = null, sdev = null;
+    try {
+      Vec seq = Vec.makeSeq(10000, true); // 1, 2, ... 10000
+      fr = new Frame(Key.<Frame>make("seq"), new String[]{"x"}, new Vec[]{seq});
+      DKV.put(fr);
+      // windows of 3 rows, 3 seconds, and 3 rows within groups of 1000 rows
+      rows = Rapids.exec("(rolling seq 3 \"sum\" [] [])").getFrame();
+      time = Rapids.exec("(rolling (cbind seq (* seq 1000)) 2500 \"mean\" [1] [])").getFrame();
+      grouped = Rapids.exec("(rolling (cbind (floor (/ (- seq 1) 1000)) seq) 3 \"sum\" [] [0])").getFrame();
+      sdev = Rapids.exec("(rolling seq 4 \"sdev\" [] [])").getFrame();
+      Assert.assertArrayEquals(new String[]{"sum_x"}, rows.names());
+      Assert.assertEquals(1, grouped.numCols());
+      for (long i = 0; i < fr.numRows(); i++) {
+        long n = Math.min(i + 1, 3), ng = Math.min(i % 1000 + 1, 3);
+        Assert.assertEquals(n * (2 * i + 3 - n) / 2, rows.vec(0).at8(i));
+        Assert.assertEquals((2 * i + 3 - n) / 2.0, time.vec(0).at(i), 1e-10);
+        Assert.assertEquals(ng * (2 * i + 3 - ng) / 2, grouped.vec(0).at8(i));
+        if (i == 0) Assert.assertTrue(sdev.vec(0).isNA(i));
+        else if (i >= 3) Assert.assertEquals(Math.sqrt(5.0 / 3), sdev.vec(0).at(i), 1e-8);
+      }
+    } finally {
+      if (sdev != null) sdev.delete();
+      if (grouped != null) grouped.delete();
+      if (time != null) time.delete();
+      if (rows != null) rows.delete();
+      if (fr != null) fr.delete();
+    }
+  }
+
   private static void astNumList_ok(String expr) {
     assertTrue(Rapids.parse(expr) instanceof AstNumList);
   }
@@ -0,0 +1,102 @@
+package water.rapids;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+public class ResultCacheTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  @Test public void testRepeatedSubexpression() {
+    Frame fr = null;
+    Session ses = new Session().setResultCaching(true);
+    try {
+      fr = parse_test_file(Key.make("iris.hex"), "smalldata/iris/iris_wheader.csv");
+      double mean = fr.vec(0).mean();
+      Rapids.exec("(tmp= py_1 (scale (cols_py iris.hex [0 1 2 3]) 1 1))", ses);
+      Assert.assertEquals(0, ses.resultCache().hits());
+      Rapids.exec("(tmp= py_2 (scale (cols_py iris.hex [0 1 2 3]) 1 1))", ses);
+      Assert.assertEquals(1, ses.resultCache().hits());
+
+      Frame py1 = DKV.getGet(Key.make("py_1"));
+      Frame py2 = DKV.getGet(Key.make("py_2"));
+      Assert.assertArrayEquals(py1.vecs(), py2.vecs()); // same result, not recomputed
+      Assert.assertEquals(0, py1.vec(0).mean(), 1e-10);
+      Assert.assertEquals(mean, fr.vec(0).mean(), 0); // the user frame is not scaled in place
+
+      // updates of a cached result work on a copy
+      Rapids.exec("(tmp= py_3 (:= (cols_py iris.hex [0 1 2 3]) 0 0 []))", ses);
+      Rapids.exec("(tmp= py_4 (cols_py iris.hex [0 1 2 3]))", ses);
+      Assert.assertEquals(3, ses.resultCache().hits());
+      Frame py3 = DKV.getGet(Key.make("py_3"));
+      Frame py4 = DKV.getGet(Key.make("py_4"));
+      Assert.assertEquals(0, py3.vec(0).max(), 0);
+      Assert.assertEquals(mean, py4.vec(0).mean(), 0);
+      ses.end(null);
+    } catch (Throwable ex) {
+      throw ses.endQuietly(ex);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testInPlaceUpdates() {
+    Frame fr = null;
+    Session ses = new Session().setResultCaching(true);
+    try {
+      fr = new Frame(Key.<Frame>make("na.hex"), new String[]{"x", "i"},
+          new Vec[]{dvec(1, Double.NaN, 3), ivec(1, 2, 1)});
+      DKV.put(fr);
+      Rapids.exec("(tmp= py_1 (* (cols_py na.hex 0) 2))", ses);
+      Frame py1 = DKV.getGet(Key.make("py_1"));
+      Assert.assertTrue(py1.vec(0).isNA(1));
+
+      // h2o.impute writes into the frame, without going through the session
+      Rapids.exec("(h2o.impute na.hex 0 \"mean\" \"low\" [] _ _)", ses);
+      Rapids.exec("(tmp= py_2 (* (cols_py na.hex 0) 2))", ses);
+      Assert.assertEquals(0, ses.resultCache().hits());
+      Frame py2 = DKV.getGet(Key.make("py_2"));
+      Assert.assertEquals(4, py2.vec(0).at(1), 0);
+
+      // setDomain on a cached result modifies the cached Vec
+      Rapids.exec("(tmp= py_3 (as.factor (cols_py na.hex 1)))", ses);
+      Rapids.exec("(setDomain py_3 [\"u\" \"v\"])", ses);
+      Rapids.exec("(tmp= py_4 (as.factor (cols_py na.hex 1)))", ses);
+      Assert.assertEquals(0, ses.resultCache().hits());
+      Frame py4 = DKV.getGet(Key.make("py_4"));
+      Assert.assertArrayEquals(new String[]{"1", "2"}, py4.vec(0).domain());
+      ses.end(null);
+    } catch (Throwable ex) {
+      throw ses.endQuietly(ex);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+
+  @Test public void testSliceReadsOnlySelectedColumns() {
+    Frame fr = null;
+    Session ses = new Session().setResultCaching(true);
+    try {
+      fr = new Frame(Key.<Frame>make("na.hex"), new String[]{"x", "i"},
+          new Vec[]{dvec(1, Double.NaN, 3), ivec(1, 2, 1)});
+      DKV.put(fr);
+      Rapids.exec("(tmp= py_1 (* (cols_py na.hex 1) 2))", ses);
+      // an in place update of an unselected column keeps the cached slice
+      Rapids.exec("(h2o.impute na.hex 0 \"mean\" \"low\" [] _ _)", ses);
+      Rapids.exec("(tmp= py_2 (* (cols_py na.hex 1) 2))", ses);
+      Assert.assertEquals(1, ses.resultCache().hits());
+      Frame py2 = DKV.getGet(Key.make("py_2"));
+      Assert.assertEquals(4, py2.vec(0).at(1), 0);
+      ses.end(null);
+    } catch (Throwable ex) {
+      throw ses.endQuietly(ex);
+    } finally {
+      if (fr != null) fr.delete();
+    }
+  }
+}
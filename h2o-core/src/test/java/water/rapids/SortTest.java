@@ -1,14 +1,17 @@
 package water.rapids;
 
 import org.junit.BeforeClass;
+import org.junit.Ignore;
 import org.junit.Test;
 import water.*;
 import water.fvec.*;
 import water.nbhm.NonBlockingHashMapLong;
+import water.parser.BufferedString;
 import water.rapids.vals.ValFrame;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SortTest extends TestUtil {
@@ -68,6 +71,133 @@ public class SortTest extends TestUtil {
   }
 
 
+  @Test public void testSampleSortSkewed() {
+    Frame fr = null, res = null;
+    try {
+      // 90% of the keys are the same double; sort descending on it, then ascending on a string
+      fr = skewedFrame(100000);
+      res = SampleSort.sort(fr, new int[]{0,1}, new boolean[]{false,true});
+      assertEquals(fr.numRows(), res.numRows());
+      checkSampleSort(res);
+      // Balanced output chunks, even though radix buckets would be dominated by the repeated key
+      long[] espc = res.anyVec().espc();
+      for( int i=0; i<res.anyVec().nChunks(); i++ )
+        assertTrue(espc[i+1]-espc[i] <= 3*res.numRows()/res.anyVec().nChunks());
+      // Bucket count follows the cores of the cloud, not the input chunks
+      assertTrue(res.anyVec().nChunks() <= Math.min(fr.anyVec().nChunks(), H2O.CLOUD.size()*H2O.ARGS.nthreads*SampleSort.BUCKETS_PER_CORE));
+    } finally {
+      if( fr  != null ) fr .delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  @Test public void testSampleSortRapids() {
+    Frame fr = null, res = null;
+    try {
+      fr = skewedFrame(10000);
+      Val val = Rapids.exec("(sort " + fr._key + " [0 1] [-1 1])");
+      assertTrue( val instanceof ValFrame);
+      res = val.getFrame();
+      checkSampleSort(res);
+    } finally {
+      if( fr  != null ) fr .delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  // A skewed integer key sorted ascending goes to the sample sort without passing directions
+  @Test public void testSortAutoPicksSampleSortOnSkew() {
+    Frame fr = null, res = null;
+    try {
+      fr = skewedFrame(100000);
+      Val val = Rapids.exec("(sort " + fr._key + " [3])");
+      res = val.getFrame();
+      assertEquals(fr.numRows(), res.numRows());
+      assertTrue(maxChunk(res) <= 3*res.numRows()/res.anyVec().nChunks());
+      for( long r=1; r<res.numRows(); r++ )
+        assertTrue(res.vec(3).at8(r-1) < res.vec(3).at8(r) || (res.vec(3).at8(r-1) == res.vec(3).at8(r) && res.vec(2).at8(r-1) < res.vec(2).at8(r)));
+    } finally {
+      if( fr  != null ) fr .delete();
+      if( res != null ) res.delete();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void testRadixSortRejectsDescending() {
+    Frame fr = null;
+    try {
+      fr = skewedFrame(1000);
+      Rapids.exec("(sort " + fr._key + " [3] [-1] \"radix\")");
+    } finally {
+      if( fr != null ) fr.delete();
+    }
+  }
+
+  // Compare the radix and sample sorts on increasingly skewed keys
+  @Ignore @Test public void benchSkewedSort() {
+    for( double skew : new double[]{0, 0.5, 0.9, 0.99} ) {
+      Frame fr = null, radix = null, sample = null;
+      try {
+        fr = skewedFrame(10000000, skew);
+        int[] cols = new int[]{3}; // integer key, for the radix sort
+        long t0 = System.nanoTime();
+        radix = Merge.sort(fr, cols);
+        long t1 = System.nanoTime();
+        sample = SampleSort.sort(fr, cols, null);
+        long t2 = System.nanoTime();
+        System.out.println("skew " + skew + ": radix " + (t1-t0)/1e9 + "s, sample " + (t2-t1)/1e9 + "s, largest chunk "
+                + maxChunk(radix) + " vs " + maxChunk(sample) + " rows");
+      } finally {
+        if( fr     != null ) fr    .delete();
+        if( radix  != null ) radix .delete();
+        if( sample != null ) sample.delete();
+      }
+    }
+  }
+
+  private static long maxChunk(Frame fr) {
+    long[] espc = fr.anyVec().espc();
+    long max = 0;
+    for( int i=0; i<espc.length-1; i++ ) max = Math.max(max, espc[i+1]-espc[i]);
+    return max;
+  }
+
+  // Assert descending order on col 0, then ascending order on col 1 and the row number in col 2
+  private static void checkSampleSort(Frame res) {
+    BufferedString tmp = new BufferedString();
+    Vec v0 = res.vec(0), v1 = res.vec(1), v2 = res.vec(2);
+    for( long r=1; r<res.numRows(); r++ ) {
+      double x0 = v0.at(r-1), y0 = v0.at(r);
+      assertTrue(x0 >= y0);
+      if( x0 > y0 ) continue;
+      String x1 = v1.atStr(tmp,r-1).toString(), y1 = v1.atStr(tmp,r).toString();
+      int c = x1.compareTo(y1);
+      assertTrue(c < 0 || (c == 0 && v2.at8(r-1) < v2.at8(r)));
+    }
+  }
+
+  private static Frame skewedFrame(long len) { return skewedFrame(len, 0.9); }
+
+  // A double key, the given fraction of which is one repeated value, a string, the row number, and the key as integer
+  private static Frame skewedFrame(long len, final double skew) {
+    Vec seq = Vec.makeSeq(len, true);
+    Frame fr = new MRTask() {
+      @Override public void map(Chunk cs[], NewChunk[] ncs) {
+        Chunk c = cs[0];
+        Random R = new Random(c.start());
+        for( int i=0; i<c._len; i++ ) {
+          long row = c.start()+i;
+          double key = R.nextDouble() < skew ? 42.5 : R.nextInt(1000)/10.0;
+          ncs[0].addNum(key);
+          ncs[1].addStr("s"+(row%13));
+          ncs[2].addNum(row);
+          ncs[3].addNum((long)(key*10));
+        }
+      }
+    }.doAll(new byte[]{Vec.T_NUM,Vec.T_STR,Vec.T_NUM,Vec.T_NUM}, seq).outputFrame(Key.<Frame>make(), new String[]{"key","str","row","ikey"}, null);
+    seq.remove();
+    return fr;
+  }
+
   // Assert that result is indeed sorted - on all 3 columns, as this is a
   // stable sort.
   private class CheckSort extends MRTask<CheckSort> {
@@ -1,10 +1,16 @@
 package water.parser.orc;
 
+import jsr166y.ForkJoinTask;
+import jsr166y.RecursiveAction;
 import org.apache.hadoop.hive.common.type.HiveDecimal;
 import org.apache.hadoop.hive.ql.exec.vector.*;
+import org.apache.hadoop.hive.ql.io.orc.ColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.DoubleColumnStatistics;
+import org.apache.hadoop.hive.ql.io.orc.IntegerColumnStatistics;
 import org.apache.hadoop.hive.ql.io.orc.Reader;
 import org.apache.hadoop.hive.ql.io.orc.RecordReader;
 import org.apache.hadoop.hive.ql.io.orc.StripeInformation;
+import org.apache.hadoop.hive.ql.io.orc.StripeStatistics;
 import org.apache.hadoop.hive.serde2.io.HiveDecimalWritable;
 import org.apache.hadoop.hive.serde2.objectinspector.*;
 import org.joda.time.DateTime;
@@ -15,12 +21,14 @@ import water.Key;
 import water.fvec.Vec;
 import water.parser.*;
 import water.util.ArrayUtils;
+import water.util.Log;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static water.parser.orc.OrcUtil.isSupportedSchema;
 import static water.parser.orc.OrcUtil.schemaToColumnType;
@@ -63,11 +71,12 @@ public class OrcParser extends Parser {
 
   private transient int _cidx;
 
-  private transient HashMap<Integer,HashMap<Number,byte[]>> _toStringMaps = new HashMap<>();
+  // column groups of a stripe can be written concurrently, each column is touched by a single thread only
+  private transient ConcurrentHashMap<Integer,HashMap<Number,byte[]>> _toStringMaps = new ConcurrentHashMap<>();
   /**
-   * This method calculates the number of stripes that will be read for each chunk.  Since
-   * only single threading is supported in reading each stripe, we will never split one stripe
-   * over different chunks.
+   * This method calculates the number of stripes that will be read for each chunk.  We never split
+   * one stripe over different chunks, however, if the file has fewer stripes than there are cores,
+   * the columns of a stripe are split into groups that are decoded in parallel.
    *
    * @param chunkId: chunk index, calculated as file size/chunk size.  The file size is calculated
    *            with data plus overhead in terms of headers and other info, number of chunks
@@ -90,14 +99,85 @@ public class OrcParser extends Parser {
     OrcParseSetup setup = (OrcParseSetup) this._setup;
     StripeInformation thisStripe = stripesInfo.get(chunkId);  // get one stripe
     // write one stripe of data to H2O frame
+    boolean[] toInclude = setup.getToInclude();
+    boolean[] keep = setup.projectionMask();
+    try {
+      if (!stripeMayMatch(chunkId, toInclude, setup.getPredicates())) {
+        Log.trace("Stripe #", chunkId, " was skipped based on column statistics.");
+        return dout;
+      }
+    } catch(IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    int ncols = setup.getColumnTypes().length;
+    boolean[] readCols = keep;
+    if (readCols == null) {
+      readCols = new boolean[ncols];
+      Arrays.fill(readCols, true);
+    }
+    boolean[] naCols = new boolean[ncols];
+    for (int i = 0; i < ncols; i++) naCols[i] = !readCols[i];
+    boolean[][] groups = columnGroups(readCols, stripesInfo.size());
+    if (groups.length == 1 || !(dout instanceof FVecParseWriter)) {
+      readStripe(thisStripe, readCols, naCols, dout);
+    } else {
+      // decode disjoint column groups of the stripe in parallel, each with its own record reader and writer;
+      // the first group also fills in the NAs of the skipped columns
+      FVecParseWriter writer = (FVecParseWriter) dout;
+      FVecParseWriter[] groupWriters = new FVecParseWriter[groups.length];
+      StripeColumnsTask[] tasks = new StripeColumnsTask[groups.length];
+      for (int i = 0; i < groups.length; i++) {
+        boolean[] owned = groups[i].clone();
+        if (i == 0) {
+          for (int c = 0; c < ncols; c++) owned[c] |= naCols[c];
+        }
+        groupWriters[i] = writer.columnGroup(owned);
+        tasks[i] = new StripeColumnsTask(thisStripe, groups[i], i == 0 ? naCols : null, groupWriters[i]);
+      }
+      ForkJoinTask.invokeAll(tasks);
+      for (FVecParseWriter groupWriter : groupWriters)
+        writer.mergeColumnGroup(groupWriter);
+    }
+    return dout;
+  }
+
+  private class StripeColumnsTask extends RecursiveAction {
+    private final StripeInformation _stripe;
+    private final boolean[] _readCols;
+    private final boolean[] _naCols;
+    private final ParseWriter _dout;
+
+    StripeColumnsTask(StripeInformation stripe, boolean[] readCols, boolean[] naCols, ParseWriter dout) {
+      _stripe = stripe;
+      _readCols = readCols;
+      _naCols = naCols;
+      _dout = dout;
+    }
+
+    @Override
+    protected void compute() {
+      readStripe(_stripe, _readCols, _naCols, _dout);
+    }
+  }
+
+  /**
+   * Reads (a subset of columns of) one stripe and writes it to the H2O frame.
+   *
+   * @param stripe stripe to read
+   * @param readCols mask of H2O columns to decode
+   * @param naCols mask of H2O columns (not decoded) to be filled with NAs, can be null
+   * @param dout ParseWriter, used to add data to H2O frame
+   */
+  private void readStripe(StripeInformation stripe, boolean[] readCols, boolean[] naCols, ParseWriter dout) {
+    OrcParseSetup setup = (OrcParseSetup) this._setup;
     String [] orcTypes = setup.getColumnTypesString();
     boolean[] toInclude = setup.getToInclude();
     try {
-      RecordReader perStripe = orcFileReader.rows(thisStripe.getOffset(), thisStripe.getDataLength(),
-          setup.getToInclude(), null, setup.getColumnNames());
+      RecordReader perStripe = orcFileReader.rows(stripe.getOffset(), stripe.getDataLength(),
+          projectInclude(toInclude, readCols), null, setup.getColumnNames());
       VectorizedRowBatch batch = null;
       long rows = 0;
-      long rowCount = thisStripe.getNumberOfRows();
+      long rowCount = stripe.getNumberOfRows();
       while (rows != rowCount) {
         batch = perStripe.nextBatch(batch);  // read orc file stripes in vectorizedRowBatch
         long currentBatchRow = batch.count();
@@ -108,7 +188,11 @@ public class OrcParser extends Parser {
         int colIndex = 0;
         for (int col = 0; col < batch.numCols; ++col) {  // read one column at a time;
           if (toInclude[col + 1]) { // only write a column if we actually want it
-            write1column(dataVectors[col], orcTypes[colIndex], colIndex, nrows, dout);
+            if (readCols[colIndex])
+              write1column(dataVectors[col], orcTypes[colIndex], colIndex, nrows, dout);
+            else if (naCols != null && naCols[colIndex]) // skipped column was not read at all, it will be dropped after parse
+              for (int i = 0; i < nrows; ++i)
+                dout.addInvalidCol(colIndex);
             colIndex++;
           }
         }
@@ -118,9 +202,66 @@ public class OrcParser extends Parser {
     } catch(IOException ioe) {
       throw new RuntimeException(ioe);
     }
-    return dout;
   }
 
+  /**
+   * Restricts the ORC include mask to the columns requested by the user.
+   *
+   * @param toInclude ORC include mask (indexed by ORC column id, 0 is the root struct)
+   * @param keep projection mask indexed by H2O column, null means all columns are kept
+   * @return include mask to be passed to the ORC record reader
+   */
+  static boolean[] projectInclude(boolean[] toInclude, boolean[] keep) {
+    if (keep == null) return toInclude;
+    boolean[] include = toInclude.clone();
+    int colIndex = 0;
+    for (int i = 1; i < include.length; ++i) {
+      if (toInclude[i]) {
+        include[i] = keep[colIndex];
+        colIndex++;
+      }
+    }
+    return include;
+  }
+
+  /**
+   * Uses ORC stripe statistics to decide whether a stripe can contain rows satisfying
+   * the given predicates.
+   *
+   * @param stripeIdx index of the stripe (= chunk index)
+   * @param toInclude ORC include mask used to map H2O columns to ORC column ids
+   * @param predicates pruning predicates, can be null
+   * @return false if the whole stripe can be skipped
+   */
+  private boolean stripeMayMatch(int stripeIdx, boolean[] toInclude, ColumnPredicate[] predicates) throws IOException {
+    if (predicates == null || predicates.length == 0) return true;
+    List<StripeStatistics> stripeStats = orcFileReader.getMetadata().getStripeStatistics();
+    if (stripeStats == null || stripeIdx >= stripeStats.size()) return true;
+    ColumnStatistics[] colStats = stripeStats.get(stripeIdx).getColumnStatistics();
+    for (ColumnPredicate p : predicates) {
+      int orcColId = -1;
+      for (int i = 1, colIndex = 0; i < toInclude.length; ++i) {
+        if (toInclude[i] && colIndex++ == p.getColumn()) {
+          orcColId = i;
+          break;
+        }
+      }
+      if (orcColId < 0 || orcColId >= colStats.length) continue;
+      ColumnStatistics cs = colStats[orcColId];
+      if (cs.getNumberOfValues() == 0) continue;
+      double min, max;
+      if (cs instanceof IntegerColumnStatistics) {
+        min = ((IntegerColumnStatistics) cs).getMinimum();
+        max = ((IntegerColumnStatistics) cs).getMaximum();
+      } else if (cs instanceof DoubleColumnStatistics) {
+        min = ((DoubleColumnStatistics) cs).getMinimum();
+        max = ((DoubleColumnStatistics) cs).getMaximum();
+      } else
+        continue; // only numeric statistics are used
+      if (!p.mayMatch(min, max)) return false;
+    }
+    return true;
+  }
 
   /**
    * This method writes one column of H2O data frame at a time.
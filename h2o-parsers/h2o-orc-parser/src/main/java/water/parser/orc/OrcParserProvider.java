@@ -64,7 +64,9 @@ public class OrcParserProvider extends ParserProvider {
       f = (FileVec) ((Frame) frameOrVec).vec(0);
     else
       f = (FileVec) frameOrVec;
-    return readSetup(f, requiredSetup.getColumnNames(), requiredSetup.getColumnTypes());
+    return readSetup(f, requiredSetup.getColumnNames(), requiredSetup.getColumnTypes())
+        .setSkippedColumns(requiredSetup.getSkippedColumns())
+        .setPredicates(requiredSetup.getPredicates());
   }
 
   private Reader getReader(FileVec f) throws IOException {
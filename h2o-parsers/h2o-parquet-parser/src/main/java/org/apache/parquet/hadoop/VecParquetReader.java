@@ -59,14 +59,20 @@ public class VecParquetReader implements Closeable {
   private final ParquetMetadata metadata;
   private final ParseWriter writer;
   private final byte[] chunkSchema;
+  private final boolean[] keepColumns;
 
   private InternalParquetRecordReader<Integer> reader;
 
   public VecParquetReader(Vec vec, ParquetMetadata metadata, ParseWriter writer, byte[] chunkSchema) {
+    this(vec, metadata, writer, chunkSchema, null);
+  }
+
+  public VecParquetReader(Vec vec, ParquetMetadata metadata, ParseWriter writer, byte[] chunkSchema, boolean[] keepColumns) {
     this.vec = vec;
     this.metadata = metadata;
     this.writer = writer;
     this.chunkSchema = chunkSchema;
+    this.keepColumns = keepColumns;
   }
 
   /**
@@ -93,7 +99,7 @@ public class VecParquetReader implements Closeable {
     assert reader == null;
     List<BlockMetaData> blocks = metadata.getBlocks();
     MessageType fileSchema = metadata.getFileMetaData().getSchema();
-    reader = new InternalParquetRecordReader<>(new ChunkReadSupport(writer, chunkSchema));
+    reader = new InternalParquetRecordReader<>(new ChunkReadSupport(writer, chunkSchema, keepColumns));
     Configuration conf = VecFileSystem.makeConfiguration(vec);
     reader.initialize(fileSchema, metadata.getFileMetaData().getKeyValueMetaData(), VecFileSystem.VEC_PATH, blocks, conf);
   }
@@ -30,14 +30,20 @@ class ChunkConverter extends GroupConverter {
 
   private int _currentRecordIdx = -1;
 
-  ChunkConverter(MessageType parquetSchema, byte[] chunkSchema, ParseWriter writer) {
+  /**
+   * @param fileSchema schema of the Parquet file, defines column indices of the output
+   * @param requestedSchema projection of the file schema - fields that are not requested are written as NAs
+   * @param chunkSchema H2O column types
+   * @param writer output writer
+   */
+  ChunkConverter(MessageType fileSchema, MessageType requestedSchema, byte[] chunkSchema, ParseWriter writer) {
     _writer = new WriterDelegate(writer, chunkSchema.length);
-    int colIdx = 0;
-    _converters = new Converter[chunkSchema.length];
-    for (Type parquetField : parquetSchema.getFields()) {
+    int fieldIdx = 0;
+    _converters = new Converter[requestedSchema.getFieldCount()];
+    for (Type parquetField : requestedSchema.getFields()) {
       assert parquetField.isPrimitive();
-      _converters[colIdx] = newConverter(colIdx, chunkSchema[colIdx], parquetField.asPrimitiveType());
-      colIdx++;
+      int colIdx = fileSchema.getFieldIndex(parquetField.getName());
+      _converters[fieldIdx++] = newConverter(colIdx, chunkSchema[colIdx], parquetField.asPrimitiveType());
     }
   }
 
@@ -5,29 +5,50 @@ import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 import water.parser.ParseWriter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class ChunkReadSupport extends ReadSupport<Integer> {
 
   private ParseWriter _writer;
   private byte[] _chunkSchema;
+  private boolean[] _keepColumns;
 
   public ChunkReadSupport(ParseWriter writer, byte[] chunkSchema) {
+    this(writer, chunkSchema, null);
+  }
+
+  /**
+   * @param keepColumns projection mask, only columns marked as true will be decoded (null means all columns)
+   */
+  public ChunkReadSupport(ParseWriter writer, byte[] chunkSchema, boolean[] keepColumns) {
     _writer = writer;
     _chunkSchema = chunkSchema;
+    _keepColumns = keepColumns;
   }
 
   @Override
   public ReadContext init(InitContext context) {
-    return new ReadContext(context.getFileSchema());
+    MessageType fileSchema = context.getFileSchema();
+    if (_keepColumns == null) {
+      return new ReadContext(fileSchema);
+    }
+    // project the schema - Parquet will then read only the column chunks of the requested columns
+    List<Type> fields = new ArrayList<>();
+    for (int i = 0; i < fileSchema.getFieldCount(); i++) {
+      if (_keepColumns[i]) fields.add(fileSchema.getType(i));
+    }
+    return new ReadContext(new MessageType(fileSchema.getName(), fields));
   }
 
   @Override
   public RecordMaterializer<Integer> prepareForRead(Configuration configuration, Map<String, String> keyValueMetaData,
                                                     MessageType fileSchema, ReadContext readContext) {
-    return new ChunkRecordMaterializer(fileSchema, _chunkSchema, _writer);
+    return new ChunkRecordMaterializer(fileSchema, readContext.getRequestedSchema(), _chunkSchema, _writer);
   }
 
 }
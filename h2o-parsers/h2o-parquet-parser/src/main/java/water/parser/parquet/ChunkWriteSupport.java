@@ -0,0 +1,134 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.parser.BufferedString;
+import water.util.PrettyPrint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Implementation of Parquet's WriteSupport for H2O's chunks.
+ *
+ * Counterpart of ChunkReadSupport: the "records" are indices of rows in the current set of chunks,
+ * values are read directly from the chunks and passed to the record consumer. All columns are optional,
+ * NAs are represented by missing values.
+ */
+class ChunkWriteSupport extends WriteSupport<Integer> {
+
+  private final MessageType _schema;
+  private final String[] _names;
+  private final Binary[][] _domains; // pre-encoded categorical levels
+  private final boolean[] _isInt;
+  private final BufferedString _tmpStr = new BufferedString();
+
+  private RecordConsumer _recordConsumer;
+  private Chunk[] _cs;
+
+  ChunkWriteSupport(String[] names, Vec[] vecs) {
+    _names = names;
+    _schema = makeSchema(names, vecs);
+    _domains = new Binary[vecs.length][];
+    _isInt = new boolean[vecs.length];
+    for (int i = 0; i < vecs.length; i++) {
+      _isInt[i] = vecs[i].isInt();
+      if (vecs[i].isCategorical()) {
+        String[] domain = vecs[i].domain();
+        _domains[i] = new Binary[domain.length];
+        for (int j = 0; j < domain.length; j++) {
+          _domains[i][j] = Binary.fromString(domain[j]);
+        }
+      }
+    }
+  }
+
+  static MessageType makeSchema(String[] names, Vec[] vecs) {
+    List<Type> fields = new ArrayList<>(vecs.length);
+    for (int i = 0; i < vecs.length; i++) {
+      fields.add(makeField(names[i], vecs[i]));
+    }
+    return new MessageType("h2o", fields);
+  }
+
+  private static Type makeField(String name, Vec v) {
+    switch (v.get_type()) {
+      case Vec.T_NUM:
+        return new PrimitiveType(Type.Repetition.OPTIONAL, v.isInt() ? PrimitiveTypeName.INT64 : PrimitiveTypeName.DOUBLE, name);
+      case Vec.T_TIME:
+        return new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveTypeName.INT64, name, OriginalType.TIMESTAMP_MILLIS);
+      case Vec.T_CAT:
+        return new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveTypeName.BINARY, name, OriginalType.ENUM);
+      case Vec.T_STR:
+      case Vec.T_UUID:
+        return new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveTypeName.BINARY, name, OriginalType.UTF8);
+      case Vec.T_BAD:
+        return new PrimitiveType(Type.Repetition.OPTIONAL, PrimitiveTypeName.DOUBLE, name);
+      default:
+        throw new UnsupportedOperationException("Unsupported type " + v.get_type() + " of column " + name);
+    }
+  }
+
+  void setChunks(Chunk[] cs) {
+    _cs = cs;
+  }
+
+  @Override
+  public WriteContext init(Configuration configuration) {
+    return new WriteContext(_schema, new HashMap<String, String>());
+  }
+
+  @Override
+  public void prepareForWrite(RecordConsumer recordConsumer) {
+    _recordConsumer = recordConsumer;
+  }
+
+  @Override
+  public void write(Integer record) {
+    final int row = record;
+    _recordConsumer.startMessage();
+    for (int i = 0; i < _cs.length; i++) {
+      Chunk c = _cs[i];
+      if (c.isNA(row)) continue;
+      Vec v = c.vec();
+      _recordConsumer.startField(_names[i], i);
+      switch (v.get_type()) {
+        case Vec.T_NUM:
+          if (_isInt[i]) _recordConsumer.addLong(c.at8(row));
+          else _recordConsumer.addDouble(c.atd(row));
+          break;
+        case Vec.T_TIME:
+          _recordConsumer.addLong(c.at8(row));
+          break;
+        case Vec.T_CAT:
+          _recordConsumer.addBinary(_domains[i][(int) c.at8(row)]);
+          break;
+        case Vec.T_STR:
+          BufferedString bs = c.atStr(_tmpStr, row);
+          // copy - the binary can be retained by a dictionary encoder
+          byte[] bytes = Arrays.copyOfRange(bs.getBuffer(), bs.getOffset(), bs.getOffset() + bs.length());
+          _recordConsumer.addBinary(Binary.fromByteArray(bytes));
+          break;
+        case Vec.T_UUID:
+          _recordConsumer.addBinary(Binary.fromString(PrettyPrint.UUID(c.at16l(row), c.at16h(row))));
+          break;
+        default:
+          throw new IllegalStateException("Unexpected value in column " + _names[i]);
+      }
+      _recordConsumer.endField(_names[i], i);
+    }
+    _recordConsumer.endMessage();
+  }
+
+}
@@ -0,0 +1,58 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import water.fvec.Chunk;
+import water.fvec.Vec;
+import water.util.ExportFormatProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exports Frames as Parquet files.
+ *
+ * Column types are preserved: integer columns are written as INT64, reals as DOUBLE, time columns as
+ * TIMESTAMP_MILLIS, categoricals as ENUM and strings/UUIDs as UTF8 strings. Files can be imported back
+ * to H2O using the Parquet parser.
+ */
+public class ParquetExportProvider extends ExportFormatProvider {
+
+  @Override
+  public String name() {
+    return "parquet";
+  }
+
+  @Override
+  public ChunkWriter createWriter(String[] names, Vec[] vecs, OutputStream os) throws IOException {
+    final ChunkWriteSupport writeSupport = new ChunkWriteSupport(names, vecs);
+    Configuration conf = StreamFileSystem.makeConfiguration();
+    Path path = StreamFileSystem.register(os);
+    final ParquetWriter<Integer> writer;
+    try {
+      writer = new ParquetWriter<>(path, writeSupport, CompressionCodecName.SNAPPY,
+              ParquetWriter.DEFAULT_BLOCK_SIZE, ParquetWriter.DEFAULT_PAGE_SIZE, ParquetWriter.DEFAULT_PAGE_SIZE,
+              true, false, ParquetProperties.WriterVersion.PARQUET_1_0, conf);
+    } finally {
+      StreamFileSystem.unregister(path); // no-op if the writer already opened the stream
+    }
+    return new ChunkWriter() {
+      @Override
+      public void writeChunks(Chunk[] cs) throws IOException {
+        writeSupport.setChunks(cs);
+        for (int row = 0; row < cs[0]._len; row++) {
+          writer.write(row);
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        writer.close();
+      }
+    };
+  }
+
+}
@@ -2,9 +2,17 @@ package water.parser.parquet;
 
 import static org.apache.parquet.hadoop.ParquetFileWriter.MAGIC;
 
+import jsr166y.ForkJoinTask;
+import jsr166y.RecursiveAction;
+import org.apache.parquet.column.statistics.DoubleStatistics;
+import org.apache.parquet.column.statistics.FloatStatistics;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.VecParquetReader;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.schema.MessageType;
 import org.apache.parquet.schema.OriginalType;
@@ -19,7 +27,10 @@ import water.parser.*;
 import water.util.Log;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Parquet parser for H2O distributed parsing subsystem.
@@ -29,10 +40,12 @@ public class ParquetParser extends Parser {
   private static final int MAX_PREVIEW_RECORDS = 1000;
 
   private final byte[] _metadata;
+  private final int _rowGroups; // number of row groups of the file, each is parsed into a single chunk
 
   ParquetParser(ParseSetup setup, Key<Job> jobKey) {
     super(setup, jobKey);
     _metadata = ((ParquetParseSetup) setup).parquetMetadata;
+    _rowGroups = VecParquetReader.readFooter(_metadata, ParquetMetadataConverter.NO_FILTER).getBlocks().size();
   }
 
   @Override
@@ -51,8 +64,43 @@ public class ParquetParser extends Parser {
       Log.trace("Chunk #", cidx, " doesn't contain any Parquet block center.");
       return dout;
     }
+    metadata = pruneBlocks(metadata, _setup.getPredicates());
+    if (metadata.getBlocks().isEmpty()) {
+      Log.trace("All Parquet blocks of chunk #", cidx, " were skipped based on column statistics.");
+      return dout;
+    }
     Log.info("Processing ", metadata.getBlocks().size(), " blocks of chunk #", cidx);
-    VecParquetReader reader = new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes());
+    int ncols = _setup.getColumnTypes().length;
+    boolean[] readCols = _setup.projectionMask();
+    if (readCols == null) {
+      readCols = new boolean[ncols];
+      Arrays.fill(readCols, true);
+    }
+    boolean[][] groups = columnGroups(readCols, _rowGroups);
+    if (groups.length == 1 || !(dout instanceof FVecParseWriter)) {
+      readRecords(new VecParquetReader(vec, metadata, dout, _setup.getColumnTypes(), readCols));
+    } else {
+      // decode disjoint column groups of the row groups in parallel, each group with its own projection
+      // and its own writer; the first group also fills in the NAs of the skipped columns
+      FVecParseWriter writer = (FVecParseWriter) dout;
+      FVecParseWriter[] groupWriters = new FVecParseWriter[groups.length];
+      RowGroupColumnsTask[] tasks = new RowGroupColumnsTask[groups.length];
+      for (int i = 0; i < groups.length; i++) {
+        boolean[] owned = groups[i].clone();
+        if (i == 0) {
+          for (int c = 0; c < ncols; c++) owned[c] |= !readCols[c];
+        }
+        groupWriters[i] = writer.columnGroup(owned);
+        tasks[i] = new RowGroupColumnsTask(new VecParquetReader(vec, metadata, groupWriters[i], _setup.getColumnTypes(), groups[i]));
+      }
+      ForkJoinTask.invokeAll(tasks);
+      for (FVecParseWriter groupWriter : groupWriters)
+        writer.mergeColumnGroup(groupWriter);
+    }
+    return dout;
+  }
+
+  private static void readRecords(VecParquetReader reader) {
     try {
       Integer recordNumber;
       do {
@@ -61,7 +109,65 @@ public class ParquetParser extends Parser {
     } catch (IOException e) {
       throw new RuntimeException("Failed to parse records", e);
     }
-    return dout;
+  }
+
+  private static class RowGroupColumnsTask extends RecursiveAction {
+    private final VecParquetReader _reader;
+
+    RowGroupColumnsTask(VecParquetReader reader) {
+      _reader = reader;
+    }
+
+    @Override
+    protected void compute() {
+      readRecords(_reader);
+    }
+  }
+
+  /**
+   * Removes the blocks (row groups) that cannot contain any row satisfying the given predicates.
+   * The decision is based on min/max statistics of numeric column chunks, blocks without usable
+   * statistics are always kept.
+   */
+  static ParquetMetadata pruneBlocks(ParquetMetadata metadata, ColumnPredicate[] predicates) {
+    if (predicates == null || predicates.length == 0) {
+      return metadata;
+    }
+    List<BlockMetaData> blocks = new ArrayList<>(metadata.getBlocks().size());
+    for (BlockMetaData block : metadata.getBlocks()) {
+      if (mayMatch(block, predicates)) {
+        blocks.add(block);
+      }
+    }
+    if (blocks.size() == metadata.getBlocks().size()) {
+      return metadata;
+    }
+    return new ParquetMetadata(metadata.getFileMetaData(), blocks);
+  }
+
+  private static boolean mayMatch(BlockMetaData block, ColumnPredicate[] predicates) {
+    List<ColumnChunkMetaData> columns = block.getColumns();
+    for (ColumnPredicate p : predicates) {
+      if (p.getColumn() >= columns.size()) continue;
+      Statistics stats = columns.get(p.getColumn()).getStatistics();
+      if (stats == null || stats.isEmpty()) continue;
+      double min, max;
+      if (stats instanceof IntStatistics) {
+        min = ((IntStatistics) stats).getMin(); max = ((IntStatistics) stats).getMax();
+      } else if (stats instanceof LongStatistics) {
+        min = ((LongStatistics) stats).getMin(); max = ((LongStatistics) stats).getMax();
+      } else if (stats instanceof FloatStatistics) {
+        min = ((FloatStatistics) stats).getMin(); max = ((FloatStatistics) stats).getMax();
+      } else if (stats instanceof DoubleStatistics) {
+        min = ((DoubleStatistics) stats).getMin(); max = ((DoubleStatistics) stats).getMax();
+      } else {
+        continue; // non-numeric column - cannot decide
+      }
+      if (!p.mayMatch(min, max)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public static ParseSetup guessSetup(ByteVec vec, byte[] bits) {
@@ -102,8 +208,8 @@ public class ParquetParser extends Parser {
     public byte[] guessTypes() {
       byte[] types = super.guessTypes();
       for (int i = 0; i < types.length; i++) {
-        if ((_roughTypes[i] == Vec.T_NUM) || (_roughTypes[i] == Vec.T_TIME)) {
-          // don't convert Parquet numeric/time type to non-numeric type in H2O
+        if ((_roughTypes[i] == Vec.T_NUM) || (_roughTypes[i] == Vec.T_TIME) || (_roughTypes[i] == Vec.T_CAT)) {
+          // don't convert Parquet numeric/time/enum type to a different type in H2O
           types[i] = _roughTypes[i];
         } else if ((_roughTypes[i] == Vec.T_BAD) && (types[i] == Vec.T_NUM)) {
           // don't convert Parquet non-numeric type to a numeric type in H2O
@@ -172,6 +278,9 @@ public class ParquetParser extends Parser {
         case INT64:
           types[i] = OriginalType.TIMESTAMP_MILLIS.equals(parquetType.getOriginalType()) ? Vec.T_TIME : Vec.T_NUM;
           break;
+        case BINARY:
+          types[i] = OriginalType.ENUM.equals(parquetType.getOriginalType()) ? Vec.T_CAT : Vec.T_BAD;
+          break;
         default:
           types[i] = Vec.T_BAD;
       }
@@ -0,0 +1,108 @@
+package water.parser.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.*;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.apache.hadoop.util.Progressable;
+import water.Key;
+import water.nbhm.NonBlockingHashMap;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Virtual implementation of a Hadoop FileSystem backed by already opened output streams.
+ *
+ * Parquet writer API (1.7) can only write to a Hadoop Path, this file system lets us write Parquet files
+ * to any output stream provided by H2O's persist layer. Each registered stream can be created exactly once.
+ */
+public class StreamFileSystem extends FileSystem {
+
+  private static final String SCHEME = "h2ostream";
+
+  private static final NonBlockingHashMap<String, OutputStream> STREAMS = new NonBlockingHashMap<>();
+
+  /**
+   * Registers an output stream and returns a virtual path that can be used to create it.
+   */
+  public static Path register(OutputStream os) {
+    String name = Key.rand();
+    STREAMS.put(name, os);
+    return new Path(SCHEME + ":/" + name);
+  }
+
+  /**
+   * Removes a stream that was not opened (eg. because the writer failed to initialize).
+   */
+  public static void unregister(Path path) {
+    STREAMS.remove(path.getName());
+  }
+
+  @Override
+  public URI getUri() {
+    return URI.create(SCHEME + ":/");
+  }
+
+  @Override
+  public FSDataInputStream open(Path f, int bufferSize) throws IOException {
+    throw new UnsupportedOperationException("This is a virtual write-only file system, 'open' not supported!");
+  }
+
+  @Override
+  public FSDataOutputStream create(Path f, FsPermission permission, boolean overwrite, int bufferSize, short replication, long blockSize, Progressable progress) throws IOException {
+    OutputStream os = STREAMS.remove(f.getName());
+    if (os == null) {
+      throw new IllegalArgumentException("No output stream registered for path " + f);
+    }
+    return new FSDataOutputStream(os, null);
+  }
+
+  @Override
+  public FSDataOutputStream append(Path f, int bufferSize, Progressable progress) throws IOException {
+    throw new UnsupportedOperationException("This is a virtual file system backed by output streams, 'append' not supported!");
+  }
+
+  @Override
+  public boolean rename(Path src, Path dst) throws IOException {
+    throw new UnsupportedOperationException("This is a virtual file system backed by output streams, 'rename' not supported!");
+  }
+
+  @Override
+  public boolean delete(Path f, boolean recursive) throws IOException {
+    throw new UnsupportedOperationException("This is a virtual file system backed by output streams, 'delete' not supported!");
+  }
+
+  @Override
+  public FileStatus[] listStatus(Path f) throws IOException {
+    return new FileStatus[0];
+  }
+
+  @Override
+  public boolean mkdirs(Path f, FsPermission permission) throws IOException {
+    throw new UnsupportedOperationException("This is a virtual file system backed by output streams, 'mkdirs' not supported!");
+  }
+
+  @Override
+  public void setWorkingDirectory(Path newDir) {
+
+  }
+
+  @Override
+  public Path getWorkingDirectory() {
+    return null;
+  }
+
+  @Override
+  public FileStatus getFileStatus(Path f) throws IOException {
+    return null;
+  }
+
+  public static Configuration makeConfiguration() {
+    Configuration conf = new Configuration(false);
+    conf.setBoolean("fs." + SCHEME + ".impl.disable.cache", true);
+    conf.setClass("fs." + SCHEME + ".impl", StreamFileSystem.class, FileSystem.class);
+    return conf;
+  }
+
+}
@@ -15,6 +15,7 @@ import org.apache.parquet.example.data.simple.SimpleGroupFactory;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
 import org.apache.parquet.schema.MessageType;
+import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -28,11 +29,18 @@ import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESS
 import static org.apache.parquet.schema.MessageTypeParser.parseMessageType;
 import static org.junit.Assert.*;
 
+import org.apache.commons.io.FileUtils;
+import water.H2O;
+import water.Key;
 import water.TestUtil;
 import water.fvec.Frame;
+import water.fvec.NFSFileVec;
 import water.fvec.RollupStatsHelpers;
 import water.fvec.Vec;
 import water.parser.BufferedString;
+import water.parser.ColumnPredicate;
+import water.parser.ParseDataset;
+import water.parser.ParseSetup;
 
 /**
  * Test suite for Parquet parser.
@@ -148,10 +156,117 @@ public class ParseTestParquet extends TestUtil {
     assertFrameAssertion(assertion);
   }
 
+  @Test
+  public void testExportRoundTrip() throws IOException {
+    Frame expected = null, actual = null;
+    File dir = Files.createTempDir();
+    try {
+      expected = parse_test_file("smalldata/airlines/AirlinesTrain.csv.zip");
+      String path = new File(dir, "airlines.parquet").getCanonicalPath();
+      Frame.export(expected, path, expected._key.toString(), false, 1, "parquet").get();
+      actual = parse_test_file(path);
+
+      assertEquals(Arrays.asList(expected._names), Arrays.asList(actual._names));
+      assertEquals(Arrays.asList(expected.typesStr()), Arrays.asList(actual.typesStr()));
+      assertTrue(isBitIdentical(expected, actual));
+    } finally {
+      if (expected != null) expected.delete();
+      if (actual != null) actual.delete();
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
+  @Test
+  public void testParseProjectionAndPredicates() throws IOException {
+    final int nrows = 10000;
+    final int threshold = 32 + nrows / 2;
+    File f = ParquetFileGenerator.generateParquetFile(Files.createTempDir(), "projection.parquet", nrows, new Date());
+    Frame fr = null;
+    try {
+      NFSFileVec nfs = NFSFileVec.make(f);
+      ParseSetup ps = ParseSetup.guessSetup(new Key[]{nfs._key}, false, ParseSetup.HAS_HEADER);
+      ps.setSkippedColumns(ari(1, 3))
+        .setPredicates(new ColumnPredicate[]{new ColumnPredicate(0, ColumnPredicate.Op.GE, threshold)});
+      fr = ParseDataset.parse(Key.make(), new Key[]{nfs._key}, true, ps);
+      assertArrayEquals("Column names need to match!", ar("int32_field", "float_field", "timestamp_field"), fr.names());
+      assertArrayEquals("Column types need to match!", ar(Vec.T_NUM, Vec.T_NUM, Vec.T_TIME), fr.types());
+      // row groups below the threshold were skipped, all matching rows are kept
+      assertTrue("Some row groups should be skipped", fr.numRows() < nrows);
+      assertTrue("All matching rows need to be parsed", fr.numRows() >= nrows - (threshold - 32));
+      assertEquals(32 + nrows - 1, fr.vec(0).max(), EPSILON);
+      for (long row = 0; row < fr.numRows(); row++) {
+        assertEquals("Value in column float_field", fr.vec(0).at8(row) - 31, fr.vec(1).at(row), EPSILON);
+      }
+    } finally {
+      if (fr != null) fr.delete();
+      FileUtils.deleteQuietly(f);
+    }
+  }
+
+  /**
+   * The columns of a file with a single row group are decoded by several threads, compare with the same data
+   * in many small row groups, decoded by a single thread each.
+   */
+  @Test
+  public void testParseColumnGroupsInParallel() throws IOException {
+    Assume.assumeTrue("Column groups need more than one F/J thread", H2O.ARGS.nthreads > 1);
+    final int nrows = 10000;
+    File dir = Files.createTempDir();
+    Frame serial = null, parallel = null;
+    try {
+      File single = ParquetFileGenerator.generateMixedParquetFile(dir, "single.parquet", nrows, 128 * 1024 * 1024);
+      File many = ParquetFileGenerator.generateMixedParquetFile(dir, "many.parquet", nrows, 1024);
+      parallel = parse_test_file(single.getCanonicalPath());
+      serial = parse_test_file(many.getCanonicalPath());
+      assertEquals(1, parallel.anyVec().nChunks());
+      assertTrue(serial.anyVec().nChunks() > 1);
+
+      assertEquals(nrows, parallel.numRows());
+      assertEquals(Arrays.asList(serial._names), Arrays.asList(parallel._names));
+      assertEquals(Arrays.asList(serial.typesStr()), Arrays.asList(parallel.typesStr()));
+      for (int i = 0; i < serial.numCols(); i++)
+        assertArrayEquals("Domains need to match!", serial.vec(i).domain(), parallel.vec(i).domain());
+      assertTrue(isBitIdentical(serial, parallel));
+      assertEquals(nrows / 7 + 1, parallel.vec("d").naCnt());
+    } finally {
+      if (serial != null) serial.delete();
+      if (parallel != null) parallel.delete();
+      FileUtils.deleteQuietly(dir);
+    }
+  }
+
 }
 
 class ParquetFileGenerator {
 
+  static File generateMixedParquetFile(File parentDir, String filename, int nrows, int blockSize) throws IOException {
+    File f = new File(parentDir, filename);
+
+    Configuration conf = new Configuration();
+    MessageType schema = parseMessageType(
+            "message test { required int32 row; optional double d; optional binary s (UTF8); optional binary c (UTF8); "
+                    + "optional int64 ts (TIMESTAMP_MILLIS); required int64 l; optional float fl; } ");
+    GroupWriteSupport.setSchema(schema, conf);
+    SimpleGroupFactory fact = new SimpleGroupFactory(schema);
+    ParquetWriter<Group> writer = new ParquetWriter<Group>(new Path(f.getPath()), new GroupWriteSupport(),
+            UNCOMPRESSED, blockSize, 1024, 512, true, false, ParquetProperties.WriterVersion.PARQUET_2_0, conf);
+    try {
+      for (int i = 0; i < nrows; i++) {
+        Group g = fact.newGroup().append("row", i);
+        if (i % 7 != 0) g = g.append("d", i / 3.0);
+        if (i % 5 != 0) g = g.append("s", "str_" + i);
+        if (i % 11 != 0) g = g.append("c", "CAT_" + (i % 13));
+        if (i % 3 != 0) g = g.append("ts", 1500000000000L + i * 1000L);
+        g = g.append("l", (long) i * i);
+        if (i % 2 != 0) g = g.append("fl", i + 0.5f);
+        writer.write(g);
+      }
+    } finally {
+      writer.close();
+    }
+    return f;
+  }
+
   static File generateAvroPrimitiveTypes(File parentDir, String filename, int nrows, Date date) throws IOException {
     File f = new File(parentDir, filename);
     Schema schema = new Schema.Parser().parse(Resources.getResource("PrimitiveAvro.avsc").openStream());
@@ -52,10 +52,11 @@ class H2ODeepLearningEstimator(H2OEstimator):
                       "stopping_rounds", "stopping_metric", "stopping_tolerance", "max_runtime_secs",
                       "score_validation_sampling", "diagnostics", "fast_mode", "force_load_balance",
                       "variable_importances", "replicate_training_data", "single_node_mode", "shuffle_training_data",
-                      "missing_values_handling", "quiet_mode", "autoencoder", "sparse", "col_major",
+                      "thread_local_weights", "missing_values_handling", "quiet_mode", "autoencoder", "sparse", "col_major",
                       "average_activation", "sparsity_beta", "max_categorical_features", "reproducible",
                       "export_weights_and_biases", "mini_batch_size", "categorical_encoding", "elastic_averaging",
-                      "elastic_averaging_moving_rate", "elastic_averaging_regularization"}
+                      "elastic_averaging_moving_rate", "elastic_averaging_regularization", "async_averaging",
+                      "async_averaging_delta_fraction"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -946,6 +947,20 @@ class H2ODeepLearningEstimator(H2OEstimator):
         self._parms["shuffle_training_data"] = shuffle_training_data
 
 
+    @property
+    def thread_local_weights(self):
+        """
+        bool: Train on thread-local copies of the weights (merged after each chunk) instead of updating shared weights
+        from all threads (Hogwild!), scales better on nodes with many cores. (Default: False)
+        """
+        return self._parms.get("thread_local_weights")
+
+    @thread_local_weights.setter
+    def thread_local_weights(self, thread_local_weights):
+        assert_is_type(thread_local_weights, None, bool)
+        self._parms["thread_local_weights"] = thread_local_weights
+
+
     @property
     def missing_values_handling(self):
         """
@@ -1127,6 +1142,34 @@ class H2ODeepLearningEstimator(H2OEstimator):
         self._parms["elastic_averaging_regularization"] = elastic_averaging_regularization
 
 
+    @property
+    def async_averaging(self):
+        """
+        bool: Asynchronous model averaging between compute nodes (requires replicate_training_data): nodes push
+        compressed weight updates and pull averaged weights while they train. #Experimental  (Default: False)
+        """
+        return self._parms.get("async_averaging")
+
+    @async_averaging.setter
+    def async_averaging(self, async_averaging):
+        assert_is_type(async_averaging, None, bool)
+        self._parms["async_averaging"] = async_averaging
+
+
+    @property
+    def async_averaging_delta_fraction(self):
+        """
+        float: Fraction of the largest weight updates pushed per synchronization (only if asynchronous averaging is
+        enabled).  (Default: 0.01)
+        """
+        return self._parms.get("async_averaging_delta_fraction")
+
+    @async_averaging_delta_fraction.setter
+    def async_averaging_delta_fraction(self, async_averaging_delta_fraction):
+        assert_is_type(async_averaging_delta_fraction, None, numeric)
+        self._parms["async_averaging_delta_fraction"] = async_averaging_delta_fraction
+
+
 
 class H2OAutoEncoderEstimator(H2ODeepLearningEstimator):
     """
@@ -43,7 +43,7 @@ class H2OGeneralizedLinearEstimator(H2OEstimator):
                       "missing_values_handling", "compute_p_values", "remove_collinear_columns", "intercept",
                       "non_negative", "max_iterations", "objective_epsilon", "beta_epsilon", "gradient_epsilon", "link",
                       "prior", "lambda_min_ratio", "beta_constraints", "max_active_predictors", "interactions",
-                      "balance_classes", "class_sampling_factors", "max_after_balance_size",
+                      "mini_batch_size", "learning_rate", "balance_classes", "class_sampling_factors", "max_after_balance_size",
                       "max_confusion_matrix_size", "max_hit_ratio_k", "max_runtime_secs"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
@@ -259,16 +259,17 @@ class H2OGeneralizedLinearEstimator(H2OEstimator):
     @property
     def solver(self):
         """
-        Enum["auto", "irlsm", "l_bfgs", "coordinate_descent_naive", "coordinate_descent"]: AUTO will set the solver
-        based on given data and the other parameters. IRLSM is fast on on problems with small number of predictors and
-        for lambda-search with L1 penalty, L_BFGS scales better for datasets with many columns. Coordinate descent is
-        experimental (beta). (Default: "auto")
+        Enum["auto", "irlsm", "l_bfgs", "coordinate_descent_naive", "coordinate_descent", "sgd"]: AUTO will set the
+        solver based on given data and the other parameters. IRLSM is fast on on problems with small number of
+        predictors and for lambda-search with L1 penalty, L_BFGS scales better for datasets with many columns.
+        Coordinate descent is experimental (beta). SGD (mini-batch stochastic gradient descent) needs only a few passes
+        over the data and is meant for datasets with very many rows. (Default: "auto")
         """
         return self._parms.get("solver")
 
     @solver.setter
     def solver(self, solver):
-        assert_is_type(solver, None, Enum("auto", "irlsm", "l_bfgs", "coordinate_descent_naive", "coordinate_descent"))
+        assert_is_type(solver, None, Enum("auto", "irlsm", "l_bfgs", "coordinate_descent_naive", "coordinate_descent", "sgd"))
         self._parms["solver"] = solver
 
 
@@ -545,6 +546,33 @@ class H2OGeneralizedLinearEstimator(H2OEstimator):
         self._parms["interactions"] = interactions
 
 
+    @property
+    def mini_batch_size(self):
+        """
+        int: Number of rows used to compute one gradient step, ONLY applies to SGD solver. (Default: 256)
+        """
+        return self._parms.get("mini_batch_size")
+
+    @mini_batch_size.setter
+    def mini_batch_size(self, mini_batch_size):
+        assert_is_type(mini_batch_size, None, int)
+        self._parms["mini_batch_size"] = mini_batch_size
+
+
+    @property
+    def learning_rate(self):
+        """
+        float: Learning rate (step size) of the SGD solver, steps are further adapted per coefficient (Adam). (Default:
+        0.01)
+        """
+        return self._parms.get("learning_rate")
+
+    @learning_rate.setter
+    def learning_rate(self, learning_rate):
+        assert_is_type(learning_rate, None, numeric)
+        self._parms["learning_rate"] = learning_rate
+
+
     @property
     def balance_classes(self):
         """
@@ -27,7 +27,8 @@ class H2OKMeansEstimator(H2OEstimator):
         names_list = {"model_id", "training_frame", "validation_frame", "nfolds", "keep_cross_validation_predictions",
                       "keep_cross_validation_fold_assignment", "fold_assignment", "fold_column", "ignored_columns",
                       "ignore_const_cols", "score_each_iteration", "k", "estimate_k", "user_points", "max_iterations",
-                      "standardize", "seed", "init", "max_runtime_secs", "categorical_encoding"}
+                      "standardize", "seed", "init", "max_runtime_secs", "categorical_encoding",
+                      "mini_batch_size"}
         if "Lambda" in kwargs: kwargs["lambda_"] = kwargs.pop("Lambda")
         for pname, pvalue in kwargs.items():
             if pname == 'model_id':
@@ -229,12 +230,12 @@ class H2OKMeansEstimator(H2OEstimator):
 
     @property
     def init(self):
-        """Enum["random", "plus_plus", "furthest", "user"]: Initialization mode (Default: "furthest")"""
+        """Enum["random", "plus_plus", "furthest", "user", "plus_plus_parallel"]: Initialization mode (Default: "furthest")"""
         return self._parms.get("init")
 
     @init.setter
     def init(self, init):
-        assert_is_type(init, None, Enum("random", "plus_plus", "furthest", "user"))
+        assert_is_type(init, None, Enum("random", "plus_plus", "furthest", "user", "plus_plus_parallel"))
         self._parms["init"] = init
 
 
@@ -263,3 +264,17 @@ class H2OKMeansEstimator(H2OEstimator):
         self._parms["categorical_encoding"] = categorical_encoding
 
 
+    @property
+    def mini_batch_size(self):
+        """
+        int: Number of rows sampled per mini-batch iteration, followed by a single full Lloyds pass (0 to run full
+        Lloyds iterations only). (Default: 0)
+        """
+        return self._parms.get("mini_batch_size")
+
+    @mini_batch_size.setter
+    def mini_batch_size(self, mini_batch_size):
+        assert_is_type(mini_batch_size, None, int)
+        self._parms["mini_batch_size"] = mini_batch_size
+
+
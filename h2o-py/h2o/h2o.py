@@ -376,7 +376,7 @@ def import_file(path=None, destination_frame="", parse=True, header=0, sep=None,
         return H2OFrame()._import_parse(path, destination_frame, header, sep, col_names, col_types, na_strings)
 
 
-def import_sql_table(connection_url, table, username, password, columns=None, optimize=True):
+def import_sql_table(connection_url, table, username, password, columns=None, optimize=True, partition_column=None):
     """
     Import SQL table to H2OFrame in memory.
 
@@ -397,6 +397,8 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     :param username: username for SQL server
     :param password: password for SQL server
     :param optimize: optimize import of SQL table for faster imports. Experimental.
+    :param partition_column: numeric or date/time column used to split the table into key ranges that are imported
+        by concurrent queries. Default is to page through the table with LIMIT/OFFSET queries.
 
     :returns: :class:`H2OFrame` containing data of specified SQL table
 
@@ -414,9 +416,12 @@ def import_sql_table(connection_url, table, username, password, columns=None, op
     assert_is_type(password, str)
     assert_is_type(columns, [str], None)
     assert_is_type(optimize, bool)
+    assert_is_type(partition_column, str, None)
     p = {"connection": connection, "table": table, "username": username, "password": password, "optimize": optimize}
     if columns:
         p["columns"] = ", ".join(columns)
+    if partition_column:
+        p["partition_column"] = partition_column
     j = H2OJob(api("POST /99/ImportSQLTable", data=p), "Import SQL Table").poll()
     return get_frame(j.dest_key)
 
@@ -904,7 +909,7 @@ def load_model(path):
     return get_model(res["models"][0]["model_id"]["name"])
 
 
-def export_file(frame, path, force=False, parts=1):
+def export_file(frame, path, force=False, parts=1, format="csv"):
     """
     Export a given H2OFrame to a path on the machine this python session is currently connected to.
 
@@ -917,12 +922,16 @@ def export_file(frame, path, force=False, parts=1):
         specify your desired maximum number of part files. Path needs to be a directory
         when exporting to multiple files.
         Default is to export to a single file (parts=1).
+    :param format: output format, "csv" (default) or "parquet" (requires the Parquet extension on the backend).
+        Parquet files keep column types and are much smaller than CSV.
     """
     assert_is_type(frame, H2OFrame)
     assert_is_type(path, str)
     assert_is_type(force, bool)
     assert_is_type(parts, int)
-    H2OJob(api("POST /3/Frames/%s/export" % (frame.frame_id), data={"path": path, "num_parts": parts, "force": force}),
+    assert_is_type(format, "csv", "parquet")
+    H2OJob(api("POST /3/Frames/%s/export" % (frame.frame_id),
+               data={"path": path, "num_parts": parts, "force": force, "format": format}),
            "Export File").poll()
 
 